@@ -3,7 +3,6 @@ package cn.i7mc.playerinfo;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.Server;
 import org.bukkit.configuration.file.FileConfiguration;
 
@@ -14,12 +13,19 @@ import java.io.InputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.UUID;
 import java.util.logging.Logger;
 
 import cn.i7mc.playerinfo.auth.AuthController;
+import cn.i7mc.playerinfo.command.PlayerInfoCommand;
 import cn.i7mc.playerinfo.controller.PlayerController;
 import cn.i7mc.playerinfo.messaging.MessageSender;
-import cn.i7mc.playerinfo.model.PlayerData;
+import cn.i7mc.playerinfo.model.FieldGroup;
+import cn.i7mc.playerinfo.scheduler.AdaptiveRefreshController;
+import cn.i7mc.playerinfo.scheduler.CollectionDemand;
+import cn.i7mc.playerinfo.scheduler.InterestStreamer;
+import cn.i7mc.playerinfo.scheduler.TimeSlicedRefreshScheduler;
 import cn.i7mc.playerinfo.web.WebServer;
 import cn.i7mc.playerinfo.util.PlaceholderManager;
 
@@ -45,8 +51,17 @@ public class PlayerInfo {
     private boolean debug;
     private boolean authEnabled;
     
-    // 定时任务
-    private BukkitTask dataRefreshTask;
+    // 分片刷新调度器
+    private TimeSlicedRefreshScheduler refreshScheduler;
+    
+    // 根据服务器负载调整刷新频率的控制器
+    private AdaptiveRefreshController adaptiveController;
+    
+    // 按需收集模式下的收集需求，持续收集时为null
+    private CollectionDemand collectionDemand;
+    
+    // BungeeCord网页正在查看的玩家的高频刷新，未启用BungeeCord模式时为null
+    private InterestStreamer interestStreamer;
     
     /**
      * 构造函数
@@ -145,6 +160,7 @@ public class PlayerInfo {
             
             // 初始化消息发送器
             messageSender = new MessageSender(this);
+            messageSender.register();
         } else {
             logger.info("运行在独立 Spigot 服务器模式");
         }
@@ -172,6 +188,11 @@ public class PlayerInfo {
             }
         }
         
+        // 注册命令
+        if (plugin.getCommand("playerinfo") != null) {
+            plugin.getCommand("playerinfo").setExecutor(new PlayerInfoCommand(this));
+        }
+        
         // 启动数据刷新任务
         startDataRefreshTask();
         
@@ -183,8 +204,11 @@ public class PlayerInfo {
      */
     public void onPluginDisable() {
         // 停止数据刷新任务
-        if (dataRefreshTask != null) {
-            dataRefreshTask.cancel();
+        stopDataRefreshTask();
+        
+        // 关闭序列化线程池
+        if (playerController != null) {
+            playerController.unregister();
         }
         
         // 停止Web服务器
@@ -198,6 +222,11 @@ public class PlayerInfo {
             messageSender.unregister();
         }
         
+        // 关闭占位符异步解析线程
+        if (placeholderManager != null) {
+            placeholderManager.shutdown();
+        }
+        
         logger.info("PlayerInfo 插件已成功卸载!");
     }
     
@@ -291,25 +320,134 @@ public class PlayerInfo {
     
     /**
      * 启动数据刷新任务
+     * 在线玩家按每tick的时间预算分摊到多个tick中刷新
      */
     private void startDataRefreshTask() {
         int refreshInterval = plugin.getConfig().getInt("refresh-interval", 5) * 20; // 转换为tick
-        
-        dataRefreshTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            playerController.refreshData();
-            
-            // 如果启用了BungeeCord模式，则发送数据到BungeeCord
-            if (bungeeCordMode && messageSender != null) {
-                // 遍历在线玩家，发送每个玩家的数据
-                for (Player player : Bukkit.getOnlinePlayers()) {
-                    messageSender.sendPlayerData(player, playerController.getPlayerData(player));
+        double tickBudget = plugin.getConfig().getDouble("collector.tick-budget-ms", 2.0);
+        
+        refreshScheduler = new TimeSlicedRefreshScheduler(plugin, refreshInterval, tickBudget,
+            this::refreshPlayer,
+            () -> playerController.beginRefreshCycle(),
+            () -> {
+                if (debug) {
+                    logger.info("已刷新玩家数据");
                 }
+            });
+        
+        // 按需收集：只在BungeeCord请求刷新或本地网页有人查看时收集
+        if ("pull".equalsIgnoreCase(plugin.getConfig().getString("collector.mode", "push"))) {
+            collectionDemand = new CollectionDemand(plugin.getConfig().getInt("collector.pull-window", 90) * 1000L);
+            refreshScheduler.setGate(collectionDemand::isActive);
+            logger.info("已启用按需收集模式，没有查看请求时不收集玩家数据");
+        }
+        refreshScheduler.start(20L);
+        
+        // BungeeCord网页正在查看的玩家按更短的间隔单独刷新
+        if (bungeeCordMode && plugin.getConfig().getBoolean("collector.interest.enabled", true)) {
+            interestStreamer = new InterestStreamer(plugin,
+                plugin.getConfig().getInt("collector.interest.interval", 20),
+                plugin.getConfig().getInt("collector.interest.max-players", 16),
+                player -> playerController.refreshWatchedPlayer(player, messageSender));
+            interestStreamer.start();
+        }
+        
+        // 启动自适应刷新控制器
+        if (plugin.getConfig().getBoolean("adaptive-refresh.enabled", true)) {
+            List<String> reducedGroups = plugin.getConfig().getStringList("adaptive-refresh.reduced-groups");
+            adaptiveController = new AdaptiveRefreshController(plugin, refreshScheduler,
+                mask -> playerController.setAllowedGroups(mask),
+                plugin.getConfig().getDouble("adaptive-refresh.mspt-threshold", 45.0),
+                plugin.getConfig().getDouble("adaptive-refresh.mspt-recover", 35.0),
+                plugin.getConfig().getInt("adaptive-refresh.max-interval-multiplier", 4),
+                FieldGroup.ALL_MASK,
+                FieldGroup.maskOf(reducedGroups),
+                plugin.getConfig().getInt("adaptive-refresh.adjust-cooldown", 10));
+            adaptiveController.start();
+        }
+    }
+    
+    /**
+     * 停止数据刷新任务
+     */
+    private void stopDataRefreshTask() {
+        if (adaptiveController != null) {
+            adaptiveController.stop();
+            adaptiveController = null;
+        }
+        if (refreshScheduler != null) {
+            refreshScheduler.stop();
+            refreshScheduler = null;
+        }
+        if (interestStreamer != null) {
+            interestStreamer.stop();
+            interestStreamer = null;
+        }
+        collectionDemand = null;
+    }
+    
+    /**
+     * 请求收集玩家数据
+     * 按需收集模式下开始或延长收集窗口，持续收集时没有作用
+     * 
+     * @param source 请求来源，用于调试日志
+     */
+    public void requestCollection(String source) {
+        CollectionDemand demand = collectionDemand;
+        if (demand == null) {
+            return;
+        }
+        if (demand.touch()) {
+            // 停止期间BungeeCord可能已经清除了数据，恢复后重新发送所有玩家
+            if (messageSender != null) {
+                messageSender.resendAll();
             }
-            
             if (debug) {
-                logger.info("已刷新玩家数据");
+                logger.info("收到来自 " + source + " 的查看请求，开始收集玩家数据");
+            }
+        }
+    }
+    
+    /**
+     * 订阅玩家的高频刷新，BungeeCord网页打开该玩家的详情时调用
+     * 
+     * @param uuid 玩家UUID
+     * @param leaseMillis 订阅期限（毫秒），期间没有续订时自动取消
+     */
+    public void subscribePlayer(UUID uuid, long leaseMillis) {
+        InterestStreamer streamer = interestStreamer;
+        if (streamer == null) {
+            return;
+        }
+        if (streamer.subscribe(uuid, leaseMillis)) {
+            if (debug) {
+                logger.info("BungeeCord订阅了玩家 " + uuid + " 的高频更新，期限 " + leaseMillis / 1000 + "秒");
             }
-        }, 20L, refreshInterval);
+        } else if (debug) {
+            logger.info("订阅的玩家数量已达上限，忽略玩家 " + uuid + " 的订阅");
+        }
+    }
+    
+    /**
+     * 取消订阅玩家的高频刷新
+     * 
+     * @param uuid 玩家UUID
+     */
+    public void unsubscribePlayer(UUID uuid) {
+        InterestStreamer streamer = interestStreamer;
+        if (streamer != null) {
+            streamer.unsubscribe(uuid);
+        }
+    }
+    
+    /**
+     * 刷新单个玩家的数据
+     * 
+     * @param player 玩家
+     */
+    private void refreshPlayer(Player player) {
+        // 如果启用了BungeeCord模式，则同时发送数据到BungeeCord
+        playerController.refreshPlayer(player, bungeeCordMode ? messageSender : null);
     }
     
     /**
@@ -357,6 +495,42 @@ public class PlayerInfo {
         return playerController;
     }
     
+    /**
+     * 获取分片刷新调度器
+     * 
+     * @return 刷新调度器，未启动时返回null
+     */
+    public TimeSlicedRefreshScheduler getRefreshScheduler() {
+        return refreshScheduler;
+    }
+    
+    /**
+     * 获取按需收集模式的收集需求
+     * 
+     * @return 收集需求，持续收集模式下返回null
+     */
+    public CollectionDemand getCollectionDemand() {
+        return collectionDemand;
+    }
+    
+    /**
+     * 获取被订阅玩家的高频刷新
+     * 
+     * @return 高频刷新，未启用时返回null
+     */
+    public InterestStreamer getInterestStreamer() {
+        return interestStreamer;
+    }
+    
+    /**
+     * 获取自适应刷新控制器
+     * 
+     * @return 自适应控制器，未启用时返回null
+     */
+    public AdaptiveRefreshController getAdaptiveController() {
+        return adaptiveController;
+    }
+    
     /**
      * 获取Web服务器
      * 
@@ -382,10 +556,7 @@ public class PlayerInfo {
         logger.info("正在重新加载 PlayerInfo 插件...");
         
         // 停止数据刷新任务
-        if (dataRefreshTask != null) {
-            dataRefreshTask.cancel();
-            dataRefreshTask = null;
-        }
+        stopDataRefreshTask();
         
         // 关闭Web服务器
         if (webServer != null) {
@@ -399,7 +570,10 @@ public class PlayerInfo {
         
         // 重新初始化各组件
         
-        // 重新初始化PlayerController
+        // 重新初始化PlayerController（先注销旧控制器的事件监听器）
+        if (playerController != null) {
+            playerController.unregister();
+        }
         playerController = new PlayerController(this);
         
         // 检查BungeeCord模式
@@ -410,7 +584,11 @@ public class PlayerInfo {
             plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, "BungeeCord");
             
             // 重新初始化消息发送器
+            if (messageSender != null) {
+                messageSender.unregister();
+            }
             messageSender = new MessageSender(this);
+            messageSender.register();
         } else {
             logger.info("运行在独立 Spigot 服务器模式");
         }
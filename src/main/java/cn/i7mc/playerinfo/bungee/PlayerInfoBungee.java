@@ -49,6 +49,7 @@ public class PlayerInfoBungee {
     // 清理任务ID
     private int cleanupTaskId = -1;
     private int refreshTaskId = -1;
+    private int interestTaskId = -1;
     
     /**
      * 构造函数
@@ -221,6 +222,9 @@ public class PlayerInfoBungee {
         if (refreshTaskId != -1) {
             plugin.getProxy().getScheduler().cancel(refreshTaskId);
         }
+        if (interestTaskId != -1) {
+            plugin.getProxy().getScheduler().cancel(interestTaskId);
+        }
         
         // 停止Web服务器
         if (webServer != null) {
@@ -574,12 +578,15 @@ public class PlayerInfoBungee {
         
         TaskScheduler scheduler = plugin.getProxy().getScheduler();
         refreshTaskId = scheduler.schedule(plugin, () -> {
-            messageListener.requestDataRefresh();
-            if (debug) {
+            if (messageListener.requestScheduledRefresh() && debug) {
                 logger.info(ChatColor.DARK_AQUA + "已请求所有服务器刷新数据");
             }
         }, refreshInterval, refreshInterval, TimeUnit.SECONDS).getId();
         
+        // 取消订阅网页中已经关闭的玩家详情
+        interestTaskId = scheduler.schedule(plugin, () -> messageListener.expireInterests(),
+            5, 5, TimeUnit.SECONDS).getId();
+        
         logger.info(ChatColor.DARK_AQUA + "数据刷新请求任务已启动，间隔: " + refreshInterval + "秒");
     }
     
@@ -659,6 +666,9 @@ public class PlayerInfoBungee {
         if (refreshTaskId != -1) {
             plugin.getProxy().getScheduler().cancel(refreshTaskId);
         }
+        if (interestTaskId != -1) {
+            plugin.getProxy().getScheduler().cancel(interestTaskId);
+        }
 
         // 重启Web服务器
         if (webServer != null) {
@@ -14,6 +14,10 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 
 import cn.i7mc.playerinfo.bungee.PlayerInfoBungee;
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+import cn.i7mc.playerinfo.protocol.SnapshotFrame;
+import cn.i7mc.playerinfo.util.NameIndex;
+import cn.i7mc.playerinfo.util.SnapshotSerializer;
 import net.md_5.bungee.api.plugin.Plugin;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.config.ServerInfo;
@@ -23,14 +27,68 @@ import net.md_5.bungee.api.config.ServerInfo;
  * 负责管理从各个Spigot服务器收集的玩家数据
  */
 public class BungeePlayerController {
+    
+    /**
+     * 单个玩家的数据
+     * 二进制协议的数据保存为快照和序号，增量帧直接应用到快照上，
+     * JSON只在Web接口第一次读取时生成；JSON协议的数据直接保存字符串
+     */
+    public static final class PlayerEntry {
+        private static final Gson gson = new Gson();
+        
+        private final PlayerSnapshot snapshot;
+        private final long sequence;
+        private volatile String json;
+        
+        private PlayerEntry(PlayerSnapshot snapshot, long sequence, String json) {
+            this.snapshot = snapshot;
+            this.sequence = sequence;
+            this.json = json;
+        }
+        
+        /**
+         * 获取快照
+         * 
+         * @return 快照，JSON协议的数据为null
+         */
+        public PlayerSnapshot getSnapshot() {
+            return snapshot;
+        }
+        
+        /**
+         * 获取快照对应的数据流序号
+         * 
+         * @return 序号，JSON协议的数据为-1
+         */
+        public long getSequence() {
+            return sequence;
+        }
+        
+        /**
+         * 获取玩家详情JSON
+         * 
+         * @return JSON字符串
+         */
+        public String getJson() {
+            String result = json;
+            if (result == null) {
+                result = gson.toJson(SnapshotSerializer.serialize(snapshot));
+                json = result;
+            }
+            return result;
+        }
+    }
+    
     private final PlayerInfoBungee plugin;
     private final Logger logger;
     private final Gson gson;
     
     // 按服务器存储的玩家数据Map
-    private final Map<String, Map<UUID, String>> playerDataMap;
+    private final Map<String, Map<UUID, PlayerEntry>> playerDataMap;
     // 数据最后更新时间Map
     private final Map<String, Map<UUID, Long>> lastUpdateTimeMap;
+    // 按服务器存储的玩家名称索引
+    private final Map<String, NameIndex> nameIndexMap;
     
     /**
      * 构造函数
@@ -42,6 +100,7 @@ public class BungeePlayerController {
         this.gson = new Gson();
         this.playerDataMap = new ConcurrentHashMap<>();
         this.lastUpdateTimeMap = new ConcurrentHashMap<>();
+        this.nameIndexMap = new ConcurrentHashMap<>();
     }
     
     /**
@@ -58,16 +117,77 @@ public class BungeePlayerController {
      * 
      * @param serverName 服务器名称
      * @param playerUUID 玩家UUID
+     * @param playerName 玩家名称
      * @param jsonData JSON格式的玩家数据
      */
-    public void updatePlayerData(String serverName, UUID playerUUID, String jsonData) {
+    public void updatePlayerData(String serverName, UUID playerUUID, String playerName, String jsonData) {
+        putEntry(serverName, playerUUID, playerName, new PlayerEntry(null, -1, jsonData));
+    }
+    
+    private void putEntry(String serverName, UUID playerUUID, String playerName, PlayerEntry entry) {
         // 确保服务器的数据映射存在
         playerDataMap.computeIfAbsent(serverName, k -> new ConcurrentHashMap<>());
         lastUpdateTimeMap.computeIfAbsent(serverName, k -> new ConcurrentHashMap<>());
         
         // 更新数据和时间戳
-        playerDataMap.get(serverName).put(playerUUID, jsonData);
+        playerDataMap.get(serverName).put(playerUUID, entry);
         lastUpdateTimeMap.get(serverName).put(playerUUID, System.currentTimeMillis());
+        
+        // 更新名称索引
+        if (playerName != null) {
+            nameIndexMap.computeIfAbsent(serverName, k -> new NameIndex()).put(playerUUID, playerName);
+        }
+    }
+    
+    /**
+     * 使用二进制协议的关键帧更新玩家数据
+     * Web接口读取时转换为与JSON协议相同的格式，无需区分数据来源
+     * 
+     * @param serverName 服务器名称
+     * @param snapshot 玩家数据快照
+     * @param sequence 关键帧序号
+     */
+    public void updatePlayerSnapshot(String serverName, PlayerSnapshot snapshot, long sequence) {
+        putEntry(serverName, snapshot.getUuid(), snapshot.getName(), new PlayerEntry(snapshot, sequence, null));
+    }
+    
+    /**
+     * 将增量帧应用到已有的快照上
+     * 
+     * @param serverName 服务器名称
+     * @param frame 增量帧
+     * @return 是否成功应用，缺少基准数据或序号不一致时返回false，需要请求重新同步
+     */
+    public boolean applyPlayerDelta(String serverName, SnapshotFrame frame) {
+        Map<UUID, PlayerEntry> serverPlayers = playerDataMap.get(serverName);
+        PlayerEntry entry = serverPlayers == null ? null : serverPlayers.get(frame.getUuid());
+        if (entry == null || entry.getSnapshot() == null || entry.getSequence() != frame.getBaseSequence()) {
+            return false;
+        }
+        
+        PlayerSnapshot snapshot = frame.getDelta().apply(entry.getSnapshot());
+        if (snapshot == null) {
+            return false;
+        }
+        updatePlayerSnapshot(serverName, snapshot, frame.getSequence());
+        return true;
+    }
+    
+    /**
+     * 刷新玩家数据的更新时间，子服的数据没有变化时通过心跳调用，避免被当作过期数据清除
+     * 
+     * @param serverName 服务器名称
+     * @param playerUUID 玩家UUID
+     * @return 是否存在该玩家的数据，不存在时需要请求子服重新发送
+     */
+    public boolean touchPlayerData(String serverName, UUID playerUUID) {
+        Map<UUID, PlayerEntry> serverPlayers = playerDataMap.get(serverName);
+        Map<UUID, Long> serverTimes = lastUpdateTimeMap.get(serverName);
+        if (serverPlayers == null || serverTimes == null || !serverPlayers.containsKey(playerUUID)) {
+            return false;
+        }
+        serverTimes.put(playerUUID, System.currentTimeMillis());
+        return true;
     }
     
     /**
@@ -80,8 +200,8 @@ public class BungeePlayerController {
         // 检查服务器映射是否存在
         if (playerDataMap.containsKey(serverName)) {
             // 获取要删除的玩家数据
-            Map<UUID, String> serverPlayers = playerDataMap.get(serverName);
-            String playerData = serverPlayers.get(playerUUID);
+            Map<UUID, PlayerEntry> serverPlayers = playerDataMap.get(serverName);
+            PlayerEntry playerData = serverPlayers.get(playerUUID);
             
             if (playerData != null) {
                 // 移除玩家数据
@@ -92,6 +212,11 @@ public class BungeePlayerController {
         if (lastUpdateTimeMap.containsKey(serverName)) {
             lastUpdateTimeMap.get(serverName).remove(playerUUID);
         }
+        
+        NameIndex nameIndex = nameIndexMap.get(serverName);
+        if (nameIndex != null) {
+            nameIndex.remove(playerUUID);
+        }
     }
     
     /**
@@ -182,25 +307,10 @@ public class BungeePlayerController {
     public String handlePlayerList(String serverName) {
         JsonObject response = new JsonObject();
         
-        if (playerDataMap.containsKey(serverName)) {
-            // 提取玩家名称列表
-            List<String> playerNames = new ArrayList<>();
-            Map<UUID, String> serverData = playerDataMap.get(serverName);
-            
-            for (String jsonData : serverData.values()) {
-                try {
-                    JsonObject playerObj = gson.fromJson(jsonData, JsonObject.class);
-                    if (playerObj.has("name")) {
-                        String playerName = playerObj.get("name").getAsString();
-                        playerNames.add(playerName);
-                    } else {
-                        logger.warning("玩家数据中缺少name字段: " + jsonData);
-                    }
-                } catch (Exception e) {
-                    logger.warning("解析玩家数据时出错: " + e.getMessage());
-                }
-            }
-            
+        NameIndex nameIndex = nameIndexMap.get(serverName);
+        if (nameIndex != null) {
+            // 直接从名称索引获取玩家名称列表
+            List<String> playerNames = new ArrayList<>(nameIndex.names());
             response.add("players", gson.toJsonTree(playerNames));
         } else {
             response.add("players", gson.toJsonTree(new ArrayList<String>()));
@@ -218,33 +328,42 @@ public class BungeePlayerController {
      * @return 包含玩家详情的JSON
      */
     public String handlePlayerDetails(String serverName, String playerName) {
-        if (!playerDataMap.containsKey(serverName)) {
+        Map<UUID, PlayerEntry> serverData = playerDataMap.get(serverName);
+        if (serverData == null) {
             return "{\"error\":\"Server not found\"}";
         }
         
-        // 在服务器中查找玩家
-        for (String jsonData : playerDataMap.get(serverName).values()) {
-            try {
-                JsonObject playerObj = gson.fromJson(jsonData, JsonObject.class);
-                if (playerObj.has("name") && 
-                    playerObj.get("name").getAsString().equalsIgnoreCase(playerName)) {
-                    return jsonData;
-                }
-            } catch (Exception e) {
-                logger.warning("解析玩家数据时出错: " + e.getMessage());
-            }
+        // 通过名称索引查找玩家
+        NameIndex nameIndex = nameIndexMap.get(serverName);
+        UUID playerUUID = nameIndex == null ? null : nameIndex.get(playerName);
+        PlayerEntry entry = playerUUID == null ? null : serverData.get(playerUUID);
+        if (entry != null) {
+            return entry.getJson();
         }
         
         return "{\"error\":\"Player not found\"}";
     }
     
+    /**
+     * 根据玩家名称查找服务器上的玩家
+     * 
+     * @param serverName 服务器名称
+     * @param playerName 玩家名称
+     * @return 玩家UUID，没有数据时返回null
+     */
+    public UUID findPlayer(String serverName, String playerName) {
+        NameIndex nameIndex = nameIndexMap.get(serverName);
+        return nameIndex == null ? null : nameIndex.get(playerName);
+    }
+    
     /**
      * 批量更新玩家数据
      * 
      * @param serverName 服务器名称
      * @param jsonData 包含多个玩家数据的JSON字符串
+     * @return 单个玩家格式时返回玩家UUID，否则返回null
      */
-    public void updatePlayersData(String serverName, String jsonData) {
+    public UUID updatePlayersData(String serverName, String jsonData) {
         try {
             // 检查是否是新格式的数据（从ItemStackSerializer序列化的Map）
             JsonObject dataObj = gson.fromJson(jsonData, JsonObject.class);
@@ -254,7 +373,9 @@ public class BungeePlayerController {
                 try {
                     String uuid = dataObj.get("uuid").getAsString();
                     UUID playerUUID = UUID.fromString(uuid);
-                    updatePlayerData(serverName, playerUUID, jsonData);
+                    String playerName = dataObj.has("name") ? dataObj.get("name").getAsString() : null;
+                    updatePlayerData(serverName, playerUUID, playerName, jsonData);
+                    return playerUUID;
                 } catch (IllegalArgumentException e) {
                     logger.warning("无效的UUID格式: " + dataObj.get("uuid").getAsString());
                 }
@@ -266,7 +387,7 @@ public class BungeePlayerController {
                         String uuid = playerObj.get("uuid").getAsString();
                         try {
                             UUID playerUUID = UUID.fromString(uuid);
-                            updatePlayerData(serverName, playerUUID, playerObj.toString());
+                            updatePlayerData(serverName, playerUUID, playerObj.get("name").getAsString(), playerObj.toString());
                         } catch (IllegalArgumentException e) {
                             logger.warning("无效的UUID格式: " + uuid);
                         }
@@ -282,6 +403,7 @@ public class BungeePlayerController {
                 e.printStackTrace();
             }
         }
+        return null;
     }
     
     /**
@@ -290,7 +412,7 @@ public class BungeePlayerController {
      * @param serverName 服务器名称
      * @return 该服务器的玩家数据映射 UUID -> 玩家数据，如果服务器不存在则返回null
      */
-    public Map<UUID, String> getServerPlayerData(String serverName) {
+    public Map<UUID, PlayerEntry> getServerPlayerData(String serverName) {
         return playerDataMap.get(serverName);
     }
     
@@ -305,13 +427,17 @@ public class BungeePlayerController {
         // 检查玩家是否在其他服务器的数据中存在
         for (String serverName : playerDataMap.keySet()) {
             if (!serverName.equals(currentServer)) {
-                Map<UUID, String> serverPlayers = playerDataMap.get(serverName);
+                Map<UUID, PlayerEntry> serverPlayers = playerDataMap.get(serverName);
                 if (serverPlayers != null && serverPlayers.containsKey(playerUUID)) {
                     // 从其他服务器移除此玩家
                     serverPlayers.remove(playerUUID);
                     if (lastUpdateTimeMap.containsKey(serverName)) {
                         lastUpdateTimeMap.get(serverName).remove(playerUUID);
                     }
+                    NameIndex nameIndex = nameIndexMap.get(serverName);
+                    if (nameIndex != null) {
+                        nameIndex.remove(playerUUID);
+                    }
                 }
             }
         }
@@ -0,0 +1,55 @@
+package cn.i7mc.playerinfo.bungee.messaging;
+
+import cn.i7mc.playerinfo.protocol.StringTable;
+
+/**
+ * 某个玩家到子服的连接上的协议状态
+ * 子服通过该玩家转发的二进制数据都使用这里的字符串表解码，
+ * 玩家切换服务器或子服重新握手时整个对象被替换
+ */
+public class BackendConnection {
+    private final String serverName;
+    private final int session;
+    private final int version;
+    private final StringTable strings = new StringTable(StringTable.MAX_CAPACITY);
+
+    /**
+     * 构造函数
+     *
+     * @param serverName 子服名称
+     * @param session 子服握手时生成的会话ID
+     * @param version 协商后的协议版本
+     */
+    public BackendConnection(String serverName, int session, int version) {
+        this.serverName = serverName;
+        this.session = session;
+        this.version = version;
+    }
+
+    /**
+     * 判断消息是否属于该连接的当前会话
+     *
+     * @param serverName 发送消息的子服
+     * @param session 消息中的会话ID
+     * @return 是否匹配
+     */
+    public boolean matches(String serverName, int session) {
+        return this.session == session && this.serverName.equals(serverName);
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+
+    public int getSession() {
+        return session;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public StringTable getStrings() {
+        return strings;
+    }
+}
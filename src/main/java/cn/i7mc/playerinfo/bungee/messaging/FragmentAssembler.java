@@ -0,0 +1,161 @@
+package cn.i7mc.playerinfo.bungee.messaging;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 分片消息的重组缓冲区
+ * 子服经由同一个玩家按顺序连续发送一条消息的所有分片，因此每个转发玩家同时最多只有一条未完成的消息；
+ * 超时未收齐或超过内存上限的消息会被丢弃
+ */
+public class FragmentAssembler {
+
+    /**
+     * 一条正在重组的消息
+     */
+    private static final class Transfer {
+        private final int transferId;
+        private final int count;
+        private final byte[] data;
+        private int received = 0;
+        private int offset = 0;
+        private long lastUpdate;
+
+        private Transfer(int transferId, int count, int totalLength, long now) {
+            this.transferId = transferId;
+            this.count = count;
+            this.data = new byte[totalLength];
+            this.lastUpdate = now;
+        }
+    }
+
+    private final long timeoutMillis;
+    private final int maxTransferSize;
+    private final long maxBufferedBytes;
+    private final Map<UUID, Transfer> transfers = new HashMap<>();
+    private long bufferedBytes = 0;
+
+    /**
+     * 构造函数
+     *
+     * @param timeoutMillis 两个分片之间的最长间隔（毫秒）
+     * @param maxTransferSize 单条消息的最大大小（字节）
+     * @param maxBufferedBytes 所有未完成消息占用的最大内存（字节）
+     */
+    public FragmentAssembler(long timeoutMillis, int maxTransferSize, long maxBufferedBytes) {
+        this.timeoutMillis = timeoutMillis;
+        this.maxTransferSize = maxTransferSize;
+        this.maxBufferedBytes = maxBufferedBytes;
+    }
+
+    /**
+     * 接收一个分片
+     *
+     * @param carrier 转发分片的玩家
+     * @param transferId 传输ID
+     * @param index 分片序号，从0开始
+     * @param count 分片总数
+     * @param totalLength 原消息的大小
+     * @param chunk 分片数据
+     * @return 收齐后的原消息，尚未收齐时返回null
+     * @throws IOException 分片无效、乱序或超过限制时抛出，该消息已被丢弃
+     */
+    public synchronized byte[] accept(UUID carrier, int transferId, int index, int count, int totalLength,
+                                      byte[] chunk) throws IOException {
+        long now = System.currentTimeMillis();
+        Transfer transfer = transfers.get(carrier);
+        if (index == 0) {
+            if (transfer != null) {
+                // 上一条消息没有收齐，不会再有后续分片
+                discard(carrier);
+            }
+            if (count <= 0 || totalLength <= 0 || totalLength > maxTransferSize) {
+                throw new IOException("分片消息大小无效: " + totalLength + " 字节");
+            }
+            if (bufferedBytes + totalLength > maxBufferedBytes) {
+                throw new IOException("分片重组缓冲区已满 (" + bufferedBytes + " 字节)");
+            }
+            transfer = new Transfer(transferId, count, totalLength, now);
+            transfers.put(carrier, transfer);
+            bufferedBytes += totalLength;
+        } else if (transfer == null || transfer.transferId != transferId || transfer.received != index
+                || transfer.count != count || transfer.data.length != totalLength) {
+            discard(carrier);
+            throw new IOException("收到无法对应的分片 #" + index + " (传输ID " + transferId + ")");
+        }
+
+        if (chunk.length > transfer.data.length - transfer.offset) {
+            discard(carrier);
+            throw new IOException("分片数据超过消息大小");
+        }
+        System.arraycopy(chunk, 0, transfer.data, transfer.offset, chunk.length);
+        transfer.offset += chunk.length;
+        transfer.received++;
+        transfer.lastUpdate = now;
+
+        if (transfer.received < transfer.count) {
+            return null;
+        }
+        discard(carrier);
+        if (transfer.offset != transfer.data.length) {
+            throw new IOException("分片消息不完整: " + transfer.offset + "/" + transfer.data.length + " 字节");
+        }
+        return transfer.data;
+    }
+
+    /**
+     * 丢弃某个玩家未完成的消息，玩家断开时调用
+     *
+     * @param carrier 转发分片的玩家
+     * @return 是否有未完成的消息
+     */
+    public synchronized boolean remove(UUID carrier) {
+        return discard(carrier);
+    }
+
+    /**
+     * 清空所有未完成的消息
+     */
+    public synchronized void clear() {
+        transfers.clear();
+        bufferedBytes = 0;
+    }
+
+    /**
+     * 丢弃超时未收齐的消息
+     *
+     * @return 被丢弃消息的转发玩家，没有时为空列表
+     */
+    public synchronized List<UUID> expire() {
+        if (transfers.isEmpty()) {
+            return Collections.emptyList();
+        }
+        long now = System.currentTimeMillis();
+        List<UUID> expired = new ArrayList<>();
+        Iterator<Map.Entry<UUID, Transfer>> iterator = transfers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Transfer> entry = iterator.next();
+            if (now - entry.getValue().lastUpdate > timeoutMillis) {
+                iterator.remove();
+                bufferedBytes -= entry.getValue().data.length;
+                expired.add(entry.getKey());
+            }
+        }
+        return expired;
+    }
+
+    private boolean discard(UUID carrier) {
+        Transfer transfer = transfers.remove(carrier);
+        if (transfer == null) {
+            return false;
+        }
+        bufferedBytes -= transfer.data.length;
+        return true;
+    }
+}
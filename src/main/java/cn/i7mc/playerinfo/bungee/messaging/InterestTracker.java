@@ -0,0 +1,129 @@
+package cn.i7mc.playerinfo.bungee.messaging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 网页中正在查看详情的玩家
+ * 每次打开或保持玩家详情时记录一次查看，超过查看超时没有再记录的玩家视为已关闭；
+ * 子服的订阅有期限，查看期间每隔半个超时时间续订一次
+ */
+public class InterestTracker {
+
+    /**
+     * 一个正在查看的玩家
+     */
+    private static final class View {
+        private long lastSeen;
+        private long lastSubscribed;
+
+        private View(long now) {
+            this.lastSeen = now;
+            this.lastSubscribed = 0;
+        }
+    }
+
+    private final long viewTimeoutMillis;
+    private final int maxViews;
+    // 服务器名称 -> 玩家UUID -> 查看状态
+    private final Map<String, Map<UUID, View>> views = new HashMap<>();
+    private int count = 0;
+
+    /**
+     * 构造函数
+     *
+     * @param viewTimeoutMillis 查看超时（毫秒），同时也是发给子服的订阅期限
+     * @param maxViews 同时查看的玩家数量上限
+     */
+    public InterestTracker(long viewTimeoutMillis, int maxViews) {
+        this.viewTimeoutMillis = Math.max(1000L, viewTimeoutMillis);
+        this.maxViews = Math.max(1, maxViews);
+    }
+
+    /**
+     * 记录一次查看
+     *
+     * @param serverName 玩家所在的服务器
+     * @param playerUUID 玩家UUID
+     * @return 需要向子服发送订阅（新的查看或需要续订）时返回true
+     */
+    public synchronized boolean touch(String serverName, UUID playerUUID) {
+        long now = System.currentTimeMillis();
+        Map<UUID, View> serverViews = views.get(serverName);
+        View view = serverViews == null ? null : serverViews.get(playerUUID);
+        if (view == null) {
+            if (count >= maxViews) {
+                return false;
+            }
+            if (serverViews == null) {
+                serverViews = new HashMap<>();
+                views.put(serverName, serverViews);
+            }
+            view = new View(now);
+            serverViews.put(playerUUID, view);
+            count++;
+        }
+        view.lastSeen = now;
+        if (now - view.lastSubscribed < viewTimeoutMillis / 2) {
+            return false;
+        }
+        view.lastSubscribed = now;
+        return true;
+    }
+
+    /**
+     * 移除超时没有再查看的玩家
+     *
+     * @return 按服务器分组的已关闭查看，没有时为空Map
+     */
+    public synchronized Map<String, List<UUID>> expire() {
+        if (count == 0) {
+            return Collections.emptyMap();
+        }
+        long now = System.currentTimeMillis();
+        Map<String, List<UUID>> expired = new HashMap<>();
+        Iterator<Map.Entry<String, Map<UUID, View>>> servers = views.entrySet().iterator();
+        while (servers.hasNext()) {
+            Map.Entry<String, Map<UUID, View>> server = servers.next();
+            Iterator<Map.Entry<UUID, View>> iterator = server.getValue().entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<UUID, View> entry = iterator.next();
+                if (now - entry.getValue().lastSeen > viewTimeoutMillis) {
+                    iterator.remove();
+                    count--;
+                    expired.computeIfAbsent(server.getKey(), k -> new ArrayList<>()).add(entry.getKey());
+                }
+            }
+            if (server.getValue().isEmpty()) {
+                servers.remove();
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 清空所有查看状态
+     */
+    public synchronized void clear() {
+        views.clear();
+        count = 0;
+    }
+
+    /**
+     * 获取正在查看的玩家数量
+     *
+     * @return 玩家数量
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    public long getViewTimeoutMillis() {
+        return viewTimeoutMillis;
+    }
+}
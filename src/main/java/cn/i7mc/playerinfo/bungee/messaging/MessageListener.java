@@ -2,11 +2,16 @@ package cn.i7mc.playerinfo.bungee.messaging;
 
 import cn.i7mc.playerinfo.bungee.PlayerInfoBungee;
 import cn.i7mc.playerinfo.bungee.controller.BungeePlayerController;
-import cn.i7mc.playerinfo.util.CompressionUtil;
+import cn.i7mc.playerinfo.protocol.SnapshotCodec;
+import cn.i7mc.playerinfo.protocol.SnapshotFrame;
+import cn.i7mc.playerinfo.protocol.WireProtocol;
+import cn.i7mc.playerinfo.protocol.WireReader;
+import cn.i7mc.playerinfo.util.CompressionCodec;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.config.ServerInfo;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.api.connection.Server;
+import net.md_5.bungee.api.event.PlayerDisconnectEvent;
 import net.md_5.bungee.api.event.PluginMessageEvent;
 import net.md_5.bungee.api.plugin.Listener;
 import net.md_5.bungee.api.plugin.Plugin;
@@ -18,8 +23,11 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -37,6 +45,27 @@ public class MessageListener implements Listener {
     private final PlayerInfoBungee playerInfoBungee;
     private final BungeePlayerController playerController;
     private final Gson gson = new Gson();
+    // 是否接受子服的二进制协议握手
+    private final boolean binaryProtocol;
+    // 按转发玩家区分的连接状态
+    private final Map<UUID, BackendConnection> connections = new ConcurrentHashMap<>();
+    // 同一玩家两次重新同步请求之间的最短间隔
+    private static final long RESYNC_INTERVAL_MILLIS = 2000;
+    private final Map<UUID, Long> lastResync = new ConcurrentHashMap<>();
+    // 超过插件消息大小限制、被子服拆分发送的消息
+    private final FragmentAssembler fragments;
+    // 复用解压缓冲区，自动识别GZIP和带字典的Deflate数据
+    private final CompressionCodec codec;
+    // 网页最后一次请求数据的时间，定时刷新请求只在有人查看时发送
+    private final long viewerTimeoutMillis;
+    private volatile long lastViewerRequest = 0;
+    // 最后一次向子服发送刷新请求的时间，以及从什么时间起一直在定时请求刷新
+    // 两次请求的间隔超过定时刷新间隔的两倍时，按需收集的子服可能已经停止收集，重新计算
+    private final long refreshGapMillis;
+    private volatile long lastRefreshSent = 0;
+    private volatile long refreshingSince = 0;
+    // 网页中正在查看详情的玩家，子服以更高的频率发送这些玩家的数据；为null时不订阅
+    private final InterestTracker interests;
     
     /**
      * 构造一个新的消息监听器
@@ -52,6 +81,19 @@ public class MessageListener implements Listener {
         this.logger = plugin.getLogger();
         this.playerInfoBungee = playerInfoBungee;
         this.playerController = playerController;
+        this.binaryProtocol = !"json".equalsIgnoreCase(
+            playerInfoBungee.getConfig().getString("messaging.protocol", "binary"));
+        this.fragments = new FragmentAssembler(
+            Math.max(1, playerInfoBungee.getConfig().getInt("messaging.fragment.timeout", 30)) * 1000L,
+            playerInfoBungee.getConfig().getInt("messaging.fragment.max-size", 1048576),
+            playerInfoBungee.getConfig().getLong("messaging.fragment.max-buffer", 8388608L));
+        this.codec = CompressionCodec.create(6, false, logger);
+        this.viewerTimeoutMillis = playerInfoBungee.getConfig().getLong("messaging.viewer-timeout", 120) * 1000L;
+        this.refreshGapMillis = Math.max(1, playerInfoBungee.getConfig().getLong("messaging.refresh-interval", 30)) * 2000L;
+        this.interests = playerInfoBungee.getConfig().getBoolean("messaging.interest.enabled", true)
+            ? new InterestTracker(playerInfoBungee.getConfig().getLong("messaging.interest.view-timeout", 30) * 1000L,
+                playerInfoBungee.getConfig().getInt("messaging.interest.max-players", 16))
+            : null;
         
         // 注册消息通道
         ProxyServer.getInstance().registerChannel(channel);
@@ -71,18 +113,31 @@ public class MessageListener implements Listener {
             return;
         }
         
+        // 只处理子服发来的消息，不转发给客户端
+        event.setCancelled(true);
+        
         // 获取发送服务器的名称
         String serverName = "unknown";
+        Server server = null;
         if (event.getSender() instanceof Server) {
-            Server server = (Server) event.getSender();
+            server = (Server) event.getSender();
             serverName = server.getInfo().getName();
         }
+        // 转发消息的玩家，二进制协议按玩家的连接维护状态
+        ProxiedPlayer carrier = event.getReceiver() instanceof ProxiedPlayer ? (ProxiedPlayer) event.getReceiver() : null;
         
+        handleMessage(server, carrier, serverName, event.getData());
+    }
+    
+    /**
+     * 处理一条完整的插件消息，分片收齐后同样经过这里
+     */
+    private void handleMessage(Server server, ProxiedPlayer carrier, String serverName, byte[] data) {
         // 读取消息
-        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(event.getData()))) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
             String messageType = in.readUTF();
             
-            if (messageType.equals("PlayerData")) {
+            if (messageType.equals(WireProtocol.PLAYER_DATA)) {
                 // 读取玩家UUID
                 String playerUUIDStr = in.readUTF();
                 
@@ -98,11 +153,7 @@ public class MessageListener implements Listener {
                     in.readFully(compressedData);
                     
                     // 解压数据
-                    byte[] decompressedData = CompressionUtil.decompress(
-                        compressedData, 
-                        logger, 
-                        playerInfoBungee.isDebug()
-                    );
+                    byte[] decompressedData = codec.decompress(compressedData, WireProtocol.MAX_DECOMPRESSED_SIZE);
                     
                     // 转换为字符串
                     playerData = new String(decompressedData, StandardCharsets.UTF_8);
@@ -112,22 +163,59 @@ public class MessageListener implements Listener {
                 }
                 
                 // 处理收到的数据
-                processPlayerData(serverName, playerData);
+                UUID playerUUID = processPlayerData(serverName, playerData);
                 
-                // 尝试从JSON中提取玩家UUID
-                try {
-                    JsonObject dataObj = gson.fromJson(playerData, JsonObject.class);
-                    if (dataObj.has("uuid")) {
-                        String uuid = dataObj.get("uuid").getAsString();
-                        UUID playerUUID = UUID.fromString(uuid);
-                        
-                        // 执行玩家服务器数据修正 - 确保玩家只存在于当前服务器中
-                        playerController.correctPlayerServerData(playerUUID, serverName);
+                // 执行玩家服务器数据修正 - 确保玩家只存在于当前服务器中
+                if (playerUUID != null) {
+                    playerController.correctPlayerServerData(playerUUID, serverName);
+                }
+            } else if (messageType.equals(WireProtocol.PLAYER_DATA_V2)
+                    || messageType.equals(WireProtocol.PLAYER_BATCH)) {
+                int session = in.readInt();
+                boolean isCompressed = in.readBoolean();
+                int length = in.readInt();
+                if (length < 0 || length > in.available()) {
+                    throw new IOException("二进制玩家数据长度无效: " + length);
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                if (isCompressed) {
+                    payload = codec.decompress(payload, WireProtocol.MAX_DECOMPRESSED_SIZE);
+                }
+                processPlayerDataV2(server, carrier, serverName, session, payload,
+                    messageType.equals(WireProtocol.PLAYER_BATCH));
+            } else if (messageType.equals(WireProtocol.FRAGMENT)) {
+                int transferId = in.readInt();
+                int index = in.readUnsignedShort();
+                int count = in.readUnsignedShort();
+                int totalLength = in.readInt();
+                int length = in.readInt();
+                if (length < 0 || length > in.available()) {
+                    throw new IOException("分片长度无效: " + length);
+                }
+                byte[] chunk = new byte[length];
+                in.readFully(chunk);
+                byte[] message = acceptFragment(carrier, serverName, transferId, index, count, totalLength, chunk);
+                if (message != null) {
+                    handleMessage(server, carrier, serverName, message);
+                }
+            } else if (messageType.equals(WireProtocol.HEARTBEAT)) {
+                int count = in.readInt();
+                if (count < 0 || count > in.available() / 16) {
+                    throw new IOException("心跳玩家数量无效: " + count);
+                }
+                for (int i = 0; i < count; i++) {
+                    UUID playerUUID = new UUID(in.readLong(), in.readLong());
+                    // 没有该玩家的数据（例如BungeeCord重启过），请求子服重新发送
+                    if (!playerController.touchPlayerData(serverName, playerUUID)) {
+                        requestResync(server, serverName, playerUUID);
                     }
-                } catch (Exception e) {
-                    // 静默处理异常
                 }
-            } else if (messageType.equals("PlayerRemove")) {
+            } else if (messageType.equals(WireProtocol.HELLO)) {
+                int version = in.readInt();
+                int session = in.readInt();
+                handleHello(server, carrier, serverName, version, session);
+            } else if (messageType.equals(WireProtocol.PLAYER_REMOVE)) {
                 // 读取玩家UUID
                 String playerUUIDStr = in.readUTF();
                 
@@ -136,7 +224,7 @@ public class MessageListener implements Listener {
                     if (!otherServer.equals(serverName)) {
                         try {
                             UUID playerUUID = UUID.fromString(playerUUIDStr);
-                            Map<UUID, String> serverData = playerController.getServerPlayerData(otherServer);
+                            Map<UUID, BungeePlayerController.PlayerEntry> serverData = playerController.getServerPlayerData(otherServer);
                             if (serverData != null && serverData.containsKey(playerUUID)) {
                                 // 静默处理冲突
                             }
@@ -153,7 +241,7 @@ public class MessageListener implements Listener {
                 } catch (IllegalArgumentException e) {
                     // 静默处理异常
                 }
-            } else if (messageType.equals("ServerInfo")) {
+            } else if (messageType.equals(WireProtocol.SERVER_INFO)) {
                 // 处理服务器信息...
                 String serverVersion = in.readUTF();
                 int onlinePlayers = in.readInt();
@@ -163,10 +251,193 @@ public class MessageListener implements Listener {
         }
     }
     
+    /**
+     * 接收一个分片，收齐后返回原消息
+     * 未完成的消息被丢弃时，该连接上之后的二进制数据已经无法解码，同时丢弃连接状态，
+     * 子服的下一条二进制数据会收到重置请求并重新协商
+     * 
+     * @return 原消息，尚未收齐或已丢弃时返回null
+     */
+    private byte[] acceptFragment(ProxiedPlayer carrier, String serverName, int transferId, int index, int count,
+                                  int totalLength, byte[] chunk) {
+        if (carrier == null) {
+            return null;
+        }
+        for (UUID expired : fragments.expire()) {
+            connections.remove(expired);
+            logger.warning("来自玩家 " + expired + " 连接的分片消息超时未收齐，已丢弃");
+        }
+        try {
+            byte[] message = fragments.accept(carrier.getUniqueId(), transferId, index, count, totalLength, chunk);
+            if (message != null && playerInfoBungee.isDebug()) {
+                logger.info("已重组来自 " + serverName + " 的分片消息: " + count + " 个分片, " + message.length + " 字节");
+            }
+            return message;
+        } catch (IOException e) {
+            connections.remove(carrier.getUniqueId());
+            logger.warning("丢弃来自 " + serverName + " 的分片消息: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 处理子服的协议握手
+     * 记录连接的会话并回复双方都支持的版本；关闭二进制协议时不回复，子服会继续使用JSON
+     */
+    private void handleHello(Server server, ProxiedPlayer carrier, String serverName, int version, int session) {
+        if (!binaryProtocol || server == null || carrier == null || version < WireProtocol.VERSION_BINARY) {
+            return;
+        }
+        int agreed = Math.min(version, WireProtocol.LATEST);
+        
+        // 子服未收到确认时会重发同一会话的握手，此时保留已有的字符串表
+        connections.compute(carrier.getUniqueId(), (uuid, existing) ->
+            existing != null && existing.matches(serverName, session)
+                ? existing
+                : new BackendConnection(serverName, session, agreed));
+        
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(baos);
+            out.writeUTF(WireProtocol.HELLO_ACK);
+            out.writeInt(session);
+            out.writeInt(agreed);
+            server.sendData(channel, baos.toByteArray());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "回复协议握手时出错: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 处理二进制协议的玩家数据
+     * 解码后直接得到UUID和名称，不再解析JSON；合并消息中的所有帧在一次遍历中依次解码。
+     * 会话不匹配或解码失败时通知子服重置连接
+     */
+    private void processPlayerDataV2(Server server, ProxiedPlayer carrier, String serverName, int session,
+                                     byte[] payload, boolean batch) {
+        BackendConnection connection = carrier == null ? null : connections.get(carrier.getUniqueId());
+        if (connection == null || !connection.matches(serverName, session)) {
+            sendReset(server, session);
+            return;
+        }
+        
+        // 帧必须按发送顺序解码，字符串表随解码更新
+        List<SnapshotFrame> frames;
+        synchronized (connection) {
+            try {
+                WireReader reader = new WireReader(payload);
+                int count = batch ? reader.readVarInt() : 1;
+                if (count < 0 || count > reader.remaining()) {
+                    throw new IOException("帧数量无效: " + count);
+                }
+                frames = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    frames.add(SnapshotCodec.decodeFrame(reader, connection.getStrings()));
+                }
+            } catch (IOException e) {
+                connections.remove(carrier.getUniqueId(), connection);
+                logger.warning("解码来自 " + serverName + " 的二进制玩家数据失败，已请求重新协商: " + e.getMessage());
+                sendReset(server, session);
+                return;
+            }
+        }
+        
+        for (SnapshotFrame frame : frames) {
+            applyFrame(server, serverName, frame);
+        }
+    }
+    
+    /**
+     * 应用一帧玩家数据
+     * 关键帧替换已有数据并回复确认，增量帧应用到已有快照上，缺少基准数据时请求子服重新发送关键帧
+     */
+    private void applyFrame(Server server, String serverName, SnapshotFrame frame) {
+        UUID playerUUID = frame.getUuid();
+        if (frame.isKeyframe()) {
+            playerController.updatePlayerSnapshot(serverName, frame.getSnapshot(), frame.getSequence());
+            sendFrameReply(server, WireProtocol.ACK, playerUUID, frame.getSequence());
+        } else if (!playerController.applyPlayerDelta(serverName, frame)) {
+            requestResync(server, serverName, playerUUID);
+            return;
+        }
+        playerController.correctPlayerServerData(playerUUID, serverName);
+    }
+    
+    /**
+     * 请求子服重新发送玩家的关键帧
+     * 关键帧到达前后续的增量帧都无法应用，同一玩家在短时间内只请求一次
+     */
+    private void requestResync(Server server, String serverName, UUID playerUUID) {
+        long now = System.currentTimeMillis();
+        Long last = lastResync.get(playerUUID);
+        if (last != null && now - last < RESYNC_INTERVAL_MILLIS) {
+            return;
+        }
+        lastResync.put(playerUUID, now);
+        if (playerInfoBungee.isDebug()) {
+            logger.info("玩家 " + playerUUID + " 在 " + serverName + " 的增量数据缺少基准，已请求重新同步");
+        }
+        sendFrameReply(server, WireProtocol.RESYNC, playerUUID, -1);
+    }
+    
+    /**
+     * 向子服发送关于某个玩家数据流的回复
+     * 
+     * @param sequence 帧序号，小于0时不写入
+     */
+    private void sendFrameReply(Server server, String messageType, UUID playerUUID, long sequence) {
+        if (server == null) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(baos);
+            out.writeUTF(messageType);
+            out.writeLong(playerUUID.getMostSignificantBits());
+            out.writeLong(playerUUID.getLeastSignificantBits());
+            if (sequence >= 0) {
+                out.writeLong(sequence);
+            }
+            server.sendData(channel, baos.toByteArray());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "发送 " + messageType + " 消息时出错: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 通知子服丢弃连接状态并重新握手
+     */
+    private void sendReset(Server server, int session) {
+        if (server == null) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(baos);
+            out.writeUTF(WireProtocol.RESET);
+            out.writeInt(session);
+            server.sendData(channel, baos.toByteArray());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "发送连接重置请求时出错: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 玩家断开时清除其连接状态
+     */
+    @EventHandler
+    public void onPlayerDisconnect(PlayerDisconnectEvent event) {
+        connections.remove(event.getPlayer().getUniqueId());
+        lastResync.remove(event.getPlayer().getUniqueId());
+        fragments.remove(event.getPlayer().getUniqueId());
+    }
+    
     /**
      * 处理接收到的玩家数据
+     * 
+     * @return 玩家UUID，数据格式无法识别时返回null
      */
-    private void processPlayerData(String serverName, String playerData) {
+    private UUID processPlayerData(String serverName, String playerData) {
         // 调试：检查占位符数据是否存在
         if (playerInfoBungee.isDebug()) {
             try {
@@ -188,13 +459,113 @@ public class MessageListener implements Listener {
         }
         
         // 更新数据到玩家控制器
-        playerController.updatePlayersData(serverName, playerData);
+        return playerController.updatePlayersData(serverName, playerData);
+    }
+    
+    /**
+     * 网页请求数据时调用，请求所有Spigot服务器刷新玩家数据
+     * 按需收集的子服收到后开始收集，之后的定时刷新请求也会继续发送
+     * 
+     * @return 从什么时间起一直在请求子服刷新（毫秒时间戳），刚开始请求时子服的数据还没有到达，
+     *         持续请求的时间超过数据的最大年龄后才能按年龄清理数据
+     */
+    public long requestDataRefresh() {
+        lastViewerRequest = System.currentTimeMillis();
+        sendRefresh();
+        return refreshingSince;
+    }
+    
+    /**
+     * 定时任务调用，最近有人查看网页时请求所有Spigot服务器刷新玩家数据
+     * 没有人查看时不发送，按需收集的子服会在收集窗口结束后停止收集
+     * 
+     * @return 是否发送了请求
+     */
+    public boolean requestScheduledRefresh() {
+        if (viewerTimeoutMillis > 0 && System.currentTimeMillis() - lastViewerRequest > viewerTimeoutMillis) {
+            return false;
+        }
+        sendRefresh();
+        return true;
+    }
+    
+    /**
+     * 网页打开或保持玩家详情时调用，订阅该玩家的高频更新
+     * 
+     * @param serverName 玩家所在的服务器
+     * @param playerUUID 玩家UUID
+     */
+    public void watchPlayer(String serverName, UUID playerUUID) {
+        lastViewerRequest = System.currentTimeMillis();
+        if (interests != null && interests.touch(serverName, playerUUID)) {
+            int leaseSeconds = (int) (interests.getViewTimeoutMillis() / 1000L);
+            if (sendInterest(serverName, WireProtocol.SUBSCRIBE, playerUUID, leaseSeconds)
+                    && playerInfoBungee.getConfig().getBoolean("debug", false)) {
+                logger.info("已向服务器 " + serverName + " 订阅玩家 " + playerUUID + " 的高频更新");
+            }
+        }
+    }
+    
+    /**
+     * 取消订阅超时没有再查看的玩家，由定时任务调用
+     */
+    public void expireInterests() {
+        if (interests == null) {
+            return;
+        }
+        for (Map.Entry<String, List<UUID>> entry : interests.expire().entrySet()) {
+            for (UUID playerUUID : entry.getValue()) {
+                sendInterest(entry.getKey(), WireProtocol.UNSUBSCRIBE, playerUUID, 0);
+            }
+        }
+    }
+    
+    /**
+     * 获取正在查看详情的玩家数量
+     * 
+     * @return 玩家数量，未启用订阅时为0
+     */
+    public int getWatchedPlayers() {
+        return interests == null ? 0 : interests.size();
+    }
+    
+    /**
+     * 向玩家所在的服务器发送订阅或取消订阅消息
+     * 服务器上没有玩家时无法发送，此时子服上的订阅会在期限结束后自动取消
+     * 
+     * @param serverName 服务器名称
+     * @param messageType 消息类型
+     * @param playerUUID 玩家UUID
+     * @param leaseSeconds 订阅期限（秒），取消订阅时不写入
+     * @return 是否已发送
+     */
+    private boolean sendInterest(String serverName, String messageType, UUID playerUUID, int leaseSeconds) {
+        ServerInfo server = ProxyServer.getInstance().getServerInfo(serverName);
+        if (server == null || server.getPlayers().isEmpty()) {
+            return false;
+        }
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(baos);
+            out.writeUTF(messageType);
+            out.writeLong(playerUUID.getMostSignificantBits());
+            out.writeLong(playerUUID.getLeastSignificantBits());
+            if (WireProtocol.SUBSCRIBE.equals(messageType)) {
+                out.writeInt(leaseSeconds);
+            }
+            // 不排队等待，没有玩家时的订阅没有意义
+            server.sendData(channel, baos.toByteArray(), false);
+            return true;
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "向服务器 " + serverName + " 发送" + messageType + "消息失败", e);
+            return false;
+        }
     }
     
     /**
-     * 请求所有Spigot服务器刷新玩家数据
+     * 向所有有玩家的Spigot服务器发送刷新请求
      */
-    public void requestDataRefresh() {
+    private void sendRefresh() {
         Map<String, ServerInfo> servers = ProxyServer.getInstance().getServers();
         
         for (Map.Entry<String, ServerInfo> entry : servers.entrySet()) {
@@ -206,7 +577,7 @@ public class MessageListener implements Listener {
                     DataOutputStream out = new DataOutputStream(baos);
                     
                     // 写入消息类型
-                    out.writeUTF("Refresh");
+                    out.writeUTF(WireProtocol.REFRESH);
                     
                     // 发送格式化后的数据
                     byte[] data = baos.toByteArray();
@@ -216,12 +587,23 @@ public class MessageListener implements Listener {
                 }
             }
         }
+        long now = System.currentTimeMillis();
+        if (now - lastRefreshSent > refreshGapMillis) {
+            refreshingSince = now;
+        }
+        lastRefreshSent = now;
     }
     
     /**
      * 取消注册消息通道
      */
     public void unregister() {
+        connections.clear();
+        lastResync.clear();
+        fragments.clear();
+        if (interests != null) {
+            interests.clear();
+        }
         ProxyServer.getInstance().unregisterChannel(channel);
         ProxyServer.getInstance().getPluginManager().unregisterListener(this);
         logger.info("已取消注册消息通道: " + channel);
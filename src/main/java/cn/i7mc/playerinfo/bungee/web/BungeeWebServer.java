@@ -14,11 +14,13 @@ import java.net.InetSocketAddress;
 import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import cn.i7mc.playerinfo.bungee.controller.BungeePlayerController;
+import cn.i7mc.playerinfo.bungee.messaging.MessageListener;
 import cn.i7mc.playerinfo.auth.AuthController;
 import cn.i7mc.playerinfo.web.WebAuthFilter;
 
@@ -116,6 +118,7 @@ public class BungeeWebServer {
             server.createContext("/api/players", new ApiHandler());
             server.createContext("/api/servers", new ApiHandler());
             server.createContext("/api/player/", new ApiHandler());
+            server.createContext("/api/watch", new ApiHandler());
             
             server.setExecutor(Executors.newCachedThreadPool());
             server.start();
@@ -329,11 +332,16 @@ public class BungeeWebServer {
                             
                             if (messageListener != null) {
                                 java.lang.reflect.Method requestDataRefreshMethod = messageListener.getClass().getMethod("requestDataRefresh");
-                                requestDataRefreshMethod.invoke(messageListener);
+                                Object refreshingSince = requestDataRefreshMethod.invoke(messageListener);
                                 
                                 // 执行数据清理，移除过期数据
+                                // 按需收集的子服在没有人查看时停止发送，刚开始请求刷新时所有数据都超过了最大年龄，
+                                // 持续请求刷新超过最大年龄后仍未更新的数据才是真正过期的
                                 long maxAge = 60 * 1000; // 60秒
-                                playerController.cleanupStaleData(maxAge);
+                                if (refreshingSince instanceof Long
+                                        && System.currentTimeMillis() - (Long) refreshingSince >= maxAge) {
+                                    playerController.cleanupStaleData(maxAge);
+                                }
                             }
                         }
                     } catch (Exception e) {
@@ -363,11 +371,21 @@ public class BungeeWebServer {
                     String serverName = getQueryParameter(query, "server");
                     
                     if (serverName != null && !playerName.isEmpty()) {
-                        // 返回玩家详情
+                        // 返回玩家详情，并订阅该玩家的高频更新
                         response = playerController.handlePlayerDetails(serverName, playerName);
+                        watchPlayer(serverName, playerName);
                     } else {
                         response = "{\"error\":\"Missing server or player parameter\"}";
                     }
+                } else if (path.equals("/api/watch")) {
+                    // 网页保持玩家详情打开时定期调用，续订该玩家的高频更新
+                    String serverName = getQueryParameter(query, "server");
+                    String playerName = getQueryParameter(query, "player");
+                    if (serverName != null && playerName != null && watchPlayer(serverName, playerName)) {
+                        response = "{\"status\": \"ok\"}";
+                    } else {
+                        response = "{\"error\":\"Player not found\"}";
+                    }
                 } else {
                     // 默认返回简单响应
                     response = "{\"status\": \"ok\"}";
@@ -385,6 +403,22 @@ public class BungeeWebServer {
             }
         }
         
+        /**
+         * 订阅正在查看详情的玩家
+         * 
+         * @return 是否找到该玩家
+         */
+        private boolean watchPlayer(String serverName, String playerName) {
+            UUID playerUUID = playerController.findPlayer(serverName, playerName);
+            MessageListener messageListener = playerController.getPlugin() != null
+                ? playerController.getPlugin().getMessageListener() : null;
+            if (playerUUID == null || messageListener == null) {
+                return false;
+            }
+            messageListener.watchPlayer(serverName, playerUUID);
+            return true;
+        }
+        
         /**
          * 从查询字符串中获取参数值
          */
@@ -6,6 +6,16 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
 import cn.i7mc.playerinfo.PlayerInfo;
+import cn.i7mc.playerinfo.messaging.MessageSender;
+import cn.i7mc.playerinfo.model.PlaceholderPlan;
+import cn.i7mc.playerinfo.scheduler.AdaptiveRefreshController;
+import cn.i7mc.playerinfo.scheduler.CollectionDemand;
+import cn.i7mc.playerinfo.scheduler.InterestStreamer;
+import cn.i7mc.playerinfo.scheduler.SerializationExecutor;
+import cn.i7mc.playerinfo.scheduler.TimeSlicedRefreshScheduler;
+import cn.i7mc.playerinfo.util.LatencyHistogram;
+import cn.i7mc.playerinfo.util.PlaceholderManager;
+import cn.i7mc.playerinfo.util.PlaceholderProfiler;
 
 /**
  * PlayerInfo命令处理类
@@ -45,6 +55,10 @@ public class PlayerInfoCommand implements CommandExecutor {
                 handleStatus(sender);
                 break;
                 
+            case "profile":
+                handleProfile(sender);
+                break;
+                
             case "version":
                 handleVersion(sender);
                 break;
@@ -103,7 +117,7 @@ public class PlayerInfoCommand implements CommandExecutor {
             return;
         }
         
-        int playerCount = plugin.getPlayerController().getPlayersData().size();
+        int playerCount = plugin.getPlayerController().getSnapshotStore().size();
         boolean webServerRunning = plugin.getWebServer() != null;
         boolean placeholderAPIEnabled = plugin.getPlaceholderManager() != null && 
                                         plugin.getPlaceholderManager().isPlaceholderAPIAvailable();
@@ -122,6 +136,114 @@ public class PlayerInfoCommand implements CommandExecutor {
         
         // 显示PlaceholderAPI状态
         sender.sendMessage("§ePlaceholderAPI支持: §f" + (placeholderAPIEnabled ? "§a已启用" : "§c未启用"));
+        if (placeholderAPIEnabled) {
+            // 显示配置了缓存时间的占位符的命中情况
+            for (PlaceholderPlan.Entry entry : plugin.getPlaceholderManager().getPlan().getEntries()) {
+                if (entry.getCacheTtlMillis() > 0) {
+                    sender.sendMessage(String.format("§e  %s 缓存: §f%.1f秒, 命中 %d, 未命中 %d",
+                        entry.getId(), entry.getCacheTtlMillis() / 1000.0, entry.getCacheHits(), entry.getCacheMisses()));
+                }
+            }
+        }
+        
+        // 显示刷新调度器状态
+        TimeSlicedRefreshScheduler scheduler = plugin.getRefreshScheduler();
+        if (scheduler != null) {
+            sender.sendMessage(String.format("§e刷新调度: §f每 %d tick 一轮, 每tick预算 %.2fms",
+                scheduler.getIntervalTicks(), scheduler.getBudgetMillis()));
+            sender.sendMessage(String.format("§e上一轮: §f%d 名玩家, 用时 %d tick",
+                scheduler.getLastRotationSize(), scheduler.getLastRotationTicks()));
+            sender.sendMessage(String.format("§e积压: §f%d 名玩家 (预计落后 %d tick, 超时轮次 %d)",
+                scheduler.getBacklog(), scheduler.getEstimatedLagTicks(), scheduler.getOverrunRotations()));
+            sender.sendMessage(String.format("§e单tick耗时: §f%.2fms (最高 %.2fms), 平均每玩家 %.3fms",
+                scheduler.getLastTickMillis(), scheduler.getMaxTickMillis(), scheduler.getAveragePlayerMillis()));
+        }
+        
+        // 显示按需收集状态
+        CollectionDemand demand = plugin.getCollectionDemand();
+        if (demand != null) {
+            sender.sendMessage(String.format("§e按需收集: §f%s, 窗口 %d秒, 累计请求 %d",
+                demand.isActive() ? "§a收集中 (剩余 " + demand.getRemainingMillis() / 1000 + "秒)§f" : "§7已停止§f",
+                demand.getWindowMillis() / 1000, demand.getRequests()));
+        }
+        
+        // 显示高频刷新状态
+        InterestStreamer streamer = plugin.getInterestStreamer();
+        if (streamer != null) {
+            sender.sendMessage(String.format("§e高频刷新: §f订阅玩家 %d, 间隔 %d tick, 累计刷新 %d",
+                streamer.getSubscriptions(), streamer.getIntervalTicks(), streamer.getStreamedUpdates()));
+        }
+        
+        // 显示自适应刷新状态
+        AdaptiveRefreshController adaptive = plugin.getAdaptiveController();
+        if (adaptive != null) {
+            sender.sendMessage(String.format("§e自适应刷新: §f%s, 间隔 x%d, 平均 %.1fms/tick (来源: %s, 阈值 %.1f/%.1fms)",
+                adaptive.getState().getDisplayName(), adaptive.getMultiplier(), adaptive.getMspt(),
+                adaptive.getTickSource(), adaptive.getMsptThreshold(), adaptive.getMsptRecover()));
+        } else {
+            sender.sendMessage("§e自适应刷新: §c未启用");
+        }
+        
+        // 显示序列化线程池状态
+        SerializationExecutor serializer = plugin.getPlayerController().getSerializationExecutor();
+        sender.sendMessage(String.format("§e序列化线程: §f%d 个, 排队任务 %d, 已拒绝 %d",
+            serializer.getThreads(), serializer.getQueuedTasks(), serializer.getRejectedTasks()));
+        
+        // 显示编码线程状态
+        MessageSender messageSender = plugin.getMessageSender();
+        SerializationExecutor encoder = messageSender != null ? messageSender.getEncoder() : null;
+        if (encoder != null) {
+            sender.sendMessage(String.format("§e编码线程: §f%d 个, 排队任务 %d, 已合并 %d, 已拒绝 %d, 等待合并 %d",
+                encoder.getThreads(), encoder.getQueuedTasks(), encoder.getCoalescedTasks(), encoder.getRejectedTasks(),
+                messageSender.getPendingUpdates()));
+        }
+        
+        // 显示占位符异步解析线程状态
+        SerializationExecutor placeholderExecutor = plugin.getPlaceholderManager() != null
+            ? plugin.getPlaceholderManager().getAsyncExecutor() : null;
+        if (placeholderExecutor != null) {
+            sender.sendMessage(String.format("§e占位符异步线程: §f%d 个, 排队任务 %d, 已拒绝 %d",
+                placeholderExecutor.getThreads(), placeholderExecutor.getQueuedTasks(), placeholderExecutor.getRejectedTasks()));
+        }
+    }
+    
+    /**
+     * 处理profile子命令，显示每个占位符的解析耗时
+     */
+    private void handleProfile(CommandSender sender) {
+        if (!sender.hasPermission("playerinfo.admin")) {
+            sender.sendMessage("§c你没有权限执行此命令");
+            return;
+        }
+        
+        PlaceholderManager placeholderManager = plugin.getPlaceholderManager();
+        if (placeholderManager == null || !placeholderManager.isPlaceholderAPIAvailable()) {
+            sender.sendMessage("§cPlaceholderAPI未启用");
+            return;
+        }
+        
+        PlaceholderProfiler profiler = placeholderManager.getProfiler();
+        sender.sendMessage("§6===== 占位符解析耗时 =====");
+        if (profiler.isQuarantineEnabled()) {
+            sender.sendMessage(String.format("§e自动隔离: §fp99超过 %.2fms 时%s",
+                profiler.getThresholdMillis(), profiler.getAction() == PlaceholderProfiler.Action.DISABLE ? "停用" : "降频"));
+        } else {
+            sender.sendMessage("§e自动隔离: §c未启用");
+        }
+        
+        sender.sendMessage("§e批量解析: §f" + (placeholderManager.isBatchActive() ? "§a启用" : "§c未启用"));
+        
+        for (PlaceholderPlan.Entry entry : placeholderManager.getPlan().getEntries()) {
+            LatencyHistogram.Summary summary = profiler.getSummary(entry.getId());
+            PlaceholderProfiler.State state = profiler.getState(entry.getId());
+            String stateText = state == PlaceholderProfiler.State.NORMAL ? "" : " §c[" + state.getDisplayName() + "]";
+            if (summary == null) {
+                sender.sendMessage("§e" + entry.getId() + stateText + ": §7暂无数据");
+                continue;
+            }
+            sender.sendMessage(String.format("§e%s%s: §fp50 %.3fms, p99 %.3fms, 最高 %.3fms (%d 次)",
+                entry.getId(), stateText, summary.getP50(), summary.getP99(), summary.getMax(), summary.getCount()));
+        }
     }
     
     /**
@@ -141,6 +263,7 @@ public class PlayerInfoCommand implements CommandExecutor {
         sender.sendMessage("§e/playerinfo reload §f- 重新加载所有配置");
         sender.sendMessage("§e/playerinfo reload placeholders §f- 重新加载占位符配置");
         sender.sendMessage("§e/playerinfo status §f- 查看插件状态");
+        sender.sendMessage("§e/playerinfo profile §f- 查看占位符解析耗时");
         sender.sendMessage("§e/playerinfo version §f- 显示插件版本");
         sender.sendMessage("§e/playerinfo help §f- 显示此帮助信息");
     }
@@ -150,7 +273,7 @@ public class PlayerInfoCommand implements CommandExecutor {
      */
     private void showInfo(CommandSender sender) {
         String version = plugin.getPlugin().getDescription().getVersion();
-        int playerCount = plugin.getPlayerController().getPlayersData().size();
+        int playerCount = plugin.getPlayerController().getSnapshotStore().size();
         
         sender.sendMessage("§6===== PlayerInfo 插件 =====");
         sender.sendMessage("§e版本: §f" + version);
@@ -14,16 +14,22 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.event.Listener;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.plugin.Plugin;
 import cn.i7mc.playerinfo.PlayerInfo;
-import cn.i7mc.playerinfo.model.PlayerData;
+import cn.i7mc.playerinfo.model.FieldGroup;
+import cn.i7mc.playerinfo.model.ItemArray;
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+import cn.i7mc.playerinfo.scheduler.SerializationExecutor;
 import cn.i7mc.playerinfo.util.ItemStackSerializer;
 import cn.i7mc.playerinfo.messaging.MessageSender;
+import cn.i7mc.playerinfo.util.DragonCoreBridge;
 import cn.i7mc.playerinfo.util.PlaceholderManager;
+import cn.i7mc.playerinfo.util.SnapshotSerializer;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -36,7 +42,11 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Logger;
 import java.io.File;
 
@@ -47,8 +57,38 @@ public class PlayerController implements HttpHandler, Listener {
     private final JavaPlugin plugin;
     private PlaceholderManager placeholderManager;
 
-    // 玩家数据缓存
-    private Map<UUID, Map<String, Object>> playerDataMap;
+    // 玩家数据缓存，Web接口和BungeeCord消息共用
+    private final PlayerSnapshotStore store = new PlayerSnapshotStore();
+    
+    // 脏标记跟踪器，用于增量刷新
+    private final PlayerDirtyTracker dirtyTracker;
+    
+    // 刷新次数计数，用于错开全量重新同步
+    private long refreshCycle = 0;
+    
+    // 各字段分组的刷新周期（以刷新轮数计），按FieldGroup顺序存放
+    private final int[] cadences = new int[FieldGroup.values().length];
+    
+    // 当前允许收集的字段分组，服务器过载时由自适应控制器缩减
+    private volatile int allowedGroups = FieldGroup.ALL_MASK;
+    
+    // 每个在线玩家最近一次捕获的快照（只在主线程写入）
+    private final Map<UUID, PlayerSnapshot> snapshots = new ConcurrentHashMap<>();
+    
+    // 快照序列化线程池
+    private final SerializationExecutor serializer;
+    
+    // DragonCore槽位接口
+    private final DragonCoreBridge dragonCoreBridge;
+    
+    // 详情请求可接受的最大快照年龄（毫秒），0表示总是使用快照
+    private final long maxSnapshotAgeMillis;
+    
+    // 等待主线程读取最新数据的超时时间（毫秒）
+    private final long freshReadTimeoutMillis;
+    
+    // 正在进行的主线程读取，同一玩家的并发请求共享同一个结果
+    private final Map<UUID, CompletableFuture<PlayerSnapshotStore.Entry>> pendingReads = new ConcurrentHashMap<>();
 
     public PlayerController(PlayerInfo playerInfo) {
         this.playerInfo = playerInfo;
@@ -58,20 +98,50 @@ public class PlayerController implements HttpHandler, Listener {
             .serializeNulls()
             .setLenient()
             .create();
-        this.playerDataMap = new ConcurrentHashMap<>();
         this.plugin = playerInfo.getPlugin();
         
         this.placeholderManager = playerInfo.getPlaceholderManager();
+        this.dirtyTracker = new PlayerDirtyTracker(
+            playerInfo.getConfig().getInt("collector.full-resync-cycles", 12));
+        this.serializer = new SerializationExecutor("PlayerInfo-Serializer",
+            playerInfo.getConfig().getInt("collector.serializer-threads", 2),
+            playerInfo.getConfig().getInt("collector.serializer-queue-size", 256),
+            logger);
+        this.dragonCoreBridge = new DragonCoreBridge(logger, playerInfo.isDebug());
+        for (FieldGroup group : FieldGroup.values()) {
+            cadences[group.ordinal()] = Math.max(1,
+                playerInfo.getConfig().getInt("collector.cadence." + group.getKey(), group.getDefaultCadence()));
+        }
+        this.maxSnapshotAgeMillis = playerInfo.getConfig().getLong("web-server.max-snapshot-age", 10) * 1000L;
+        this.freshReadTimeoutMillis = playerInfo.getConfig().getLong("web-server.fresh-read-timeout-ms", 500);
         
         // 初始化时刷新数据
         refreshData();
 
         // 注册事件监听器
         playerInfo.getServer().getPluginManager().registerEvents(this, playerInfo.getPlugin());
+        playerInfo.getServer().getPluginManager().registerEvents(dirtyTracker, playerInfo.getPlugin());
+        playerInfo.getServer().getPluginManager().registerEvents(dragonCoreBridge, playerInfo.getPlugin());
+    }
+    
+    /**
+     * 注销事件监听器并关闭序列化线程池
+     * 重新加载时会创建新的控制器，需要先注销旧控制器的监听器
+     */
+    public void unregister() {
+        HandlerList.unregisterAll(this);
+        HandlerList.unregisterAll(dirtyTracker);
+        HandlerList.unregisterAll(dragonCoreBridge);
+        serializer.shutdown();
     }
 
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
+        MessageSender messageSender = playerInfo.getMessageSender();
+        if (messageSender != null) {
+            // 玩家在退出后不久重新加入时，恢复发送他的数据
+            messageSender.addPlayer(event.getPlayer().getUniqueId());
+        }
     }
 
     @EventHandler
@@ -87,6 +157,7 @@ public class PlayerController implements HttpHandler, Listener {
             if (messageSender != null) {
                 // 发送移除消息到BungeeCord
                 messageSender.sendPlayerRemove(player);
+                messageSender.removePlayer(player.getUniqueId());
                 
                 if (playerInfo.isDebug()) {
                     logger.info("已发送玩家离开消息: " + player.getName());
@@ -95,7 +166,12 @@ public class PlayerController implements HttpHandler, Listener {
         }
         
         // 从本地数据缓存中清除玩家数据
-        playerDataMap.remove(player.getUniqueId());
+        snapshots.remove(player.getUniqueId());
+        store.remove(player.getUniqueId());
+        dirtyTracker.remove(player.getUniqueId());
+        if (placeholderManager != null) {
+            placeholderManager.removePlayer(player.getUniqueId());
+        }
     }
 
     @Override
@@ -107,6 +183,9 @@ public class PlayerController implements HttpHandler, Listener {
 
         String path = exchange.getRequestURI().getPath();
         String response;
+        
+        // 按需收集模式下，有人查看时开始收集
+        playerInfo.requestCollection("Web");
 
         if ("/api/players".equals(path)) {
             response = handlePlayerList();
@@ -126,10 +205,7 @@ public class PlayerController implements HttpHandler, Listener {
     }
 
     private String handlePlayerList() {
-        List<String> playerNames = new ArrayList<>();
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            playerNames.add(player.getName());
-        }
+        List<String> playerNames = new ArrayList<>(store.names());
         
         // 构建与BungeeCord格式一致的响应
         JsonObject response = new JsonObject();
@@ -164,238 +240,81 @@ public class PlayerController implements HttpHandler, Listener {
         }
         
         serverData.addProperty("name", serverName);
-        serverData.addProperty("playerCount", playerInfo.getServer().getOnlinePlayers().size());
+        serverData.addProperty("playerCount", store.size());
         serversArray.add(serverData);
         
         response.add("servers", serversArray);
         return gson.toJson(response);
     }
 
+    /**
+     * 处理玩家详情请求
+     * 返回快照存储中已序列化的JSON，快照超过最大年龄时才请求主线程重新读取
+     * 
+     * @param playerName 玩家名称
+     * @return 玩家详情JSON
+     */
     private String handlePlayerDetails(String playerName) {
-        Player player = Bukkit.getPlayer(playerName);
-        if (player == null || !player.isOnline()) {
+        PlayerSnapshotStore.Entry entry = store.find(playerName);
+        if (entry == null) {
             return "{}";
         }
-
-        // Get main hand and off hand items
-        ItemStack mainHand = player.getInventory().getItemInHand(); // Use getItemInHand() for main hand in 1.12.2
-        
-        ItemStack[] contents = player.getInventory().getContents();
-        ItemStack offHand = contents.length > 40 ? contents[40] : null; // Safely get off hand item
-        
-        if (mainHand != null && !mainHand.getType().name().equals("AIR")) {
-            mainHand = mainHand.clone();
-        } else {
-            mainHand = null;
-        }
-        
-        if (offHand != null && !offHand.getType().name().equals("AIR")) {
-            offHand = offHand.clone();
-        } else {
-            offHand = null;
-        }
-
-        // 获取玩家UUID
-        UUID playerUUID = player.getUniqueId();
-        
-        // 获取玩家等级
-        int level = player.getLevel();
         
-        // 获取玩家生命值和最大生命值
-        double health = player.getHealth();
-        double maxHealth = player.getMaxHealth();
-        
-        // 获取玩家位置信息
-        Location location = player.getLocation();
-        
-        // 移除经济余额相关变量
-        
-        // 构建Mojang API的皮肤URL
-        String skinURL = "https://sessionserver.mojang.com/session/minecraft/profile/" + 
-                        playerUUID.toString().replace("-", "") + "?unsigned=false";
-
-        // 获取物品栏内容（只获取0-35号槽位）
-        ItemStack[] inventoryContents = new ItemStack[36];
-        ItemStack[] fullContents = player.getInventory().getContents();
-        
-        // 只复制前36个槽位的物品（0-35），跳过装备栏（36-39）和副手（40）
-        for (int i = 0; i < 36 && i < fullContents.length; i++) {
-            if (fullContents[i] != null && !fullContents[i].getType().name().equals("AIR")) {
-                inventoryContents[i] = fullContents[i].clone();
+        if (maxSnapshotAgeMillis > 0 && System.currentTimeMillis() - entry.getPublishedAt() > maxSnapshotAgeMillis) {
+            PlayerSnapshotStore.Entry fresh = readFresh(entry.getSnapshot().getUuid());
+            if (fresh != null) {
+                entry = fresh;
             }
         }
-
-        // 创建Map格式的物品栏数据
-        Map<Integer, Map<String, Object>> inventoryMap = new HashMap<>();
-        for (int i = 0; i < 36 && i < fullContents.length; i++) {
-            if (fullContents[i] != null && !fullContents[i].getType().name().equals("AIR")) {
-                inventoryMap.put(i, ItemStackSerializer.serializeItemStack(fullContents[i]));
-            }
-        }
-
-        // 创建Map格式的装备数据
-        Map<String, Map<String, Object>> equipmentMap = new HashMap<>();
-        ItemStack helmet = player.getInventory().getHelmet();
-        ItemStack chestplate = player.getInventory().getChestplate();
-        ItemStack leggings = player.getInventory().getLeggings();
-        ItemStack boots = player.getInventory().getBoots();
-        
-        if (helmet != null && !helmet.getType().name().equals("AIR")) {
-            equipmentMap.put("helmet", ItemStackSerializer.serializeItemStack(helmet));
-        }
-        if (chestplate != null && !chestplate.getType().name().equals("AIR")) {
-            equipmentMap.put("chestplate", ItemStackSerializer.serializeItemStack(chestplate));
-        }
-        if (leggings != null && !leggings.getType().name().equals("AIR")) {
-            equipmentMap.put("leggings", ItemStackSerializer.serializeItemStack(leggings));
-        }
-        if (boots != null && !boots.getType().name().equals("AIR")) {
-            equipmentMap.put("boots", ItemStackSerializer.serializeItemStack(boots));
-        }
-        if (mainHand != null && !mainHand.getType().name().equals("AIR")) {
-            equipmentMap.put("mainHand", ItemStackSerializer.serializeItemStack(mainHand));
-        }
-        if (offHand != null && !offHand.getType().name().equals("AIR")) {
-            equipmentMap.put("offHand", ItemStackSerializer.serializeItemStack(offHand));
-        }
-
-        // 使用无参构造函数创建PlayerData对象
-        PlayerData playerData = new PlayerData();
-        playerData.setName(player.getName());
-        playerData.setUuid(playerUUID.toString());
-        playerData.setSkinURL(skinURL);
-        playerData.setArmor(player.getInventory().getArmorContents().clone());
-        playerData.setInventory(inventoryContents);
-        playerData.setMainHand(mainHand);
-        playerData.setOffHand(offHand);
-        playerData.setLevel(level);
-        playerData.setHealth(health);
-        playerData.setMaxHealth(maxHealth);
-        playerData.setLocation(location);
+        return entry.getJson();
+    }
+    
+    /**
+     * 在主线程重新读取玩家数据并等待结果
+     * 同一玩家的并发请求合并为一次主线程读取，超时后返回null，由调用方继续使用旧快照
+     * 
+     * @param playerUUID 玩家UUID
+     * @return 最新的条目，失败或超时返回null
+     */
+    private PlayerSnapshotStore.Entry readFresh(UUID playerUUID) {
+        CompletableFuture<PlayerSnapshotStore.Entry> future = pendingReads.computeIfAbsent(playerUUID, this::scheduleFreshRead);
+        future.whenComplete((result, error) -> pendingReads.remove(playerUUID, future));
         
-        // 设置Map格式的物品栏和装备数据
-        playerData.setInventory(inventoryMap);
-        playerData.setEquipment(equipmentMap);
-
-        // 添加占位符数据
-        if (placeholderManager != null) {
-            try {
-                
-                // 使用新方法获取占位符数据，包含名称映射
-                JsonObject placeholders = placeholderManager.getPlaceholdersJson(player);
-                if (placeholders != null) {
-                    
-                    // 检查占位符数据是否有内容
-                    if (placeholders.has("placeholders")) {
-                        JsonArray placeholdersArray = placeholders.getAsJsonArray("placeholders");
-                        
-                        // 打印每个占位符详情
-                        for (int i = 0; i < placeholdersArray.size(); i++) {
-                            try {
-                                JsonObject placeholder = placeholdersArray.get(i).getAsJsonObject();
-                            } catch (Exception e) {
-                            }
-                        }
-                    } else {
-                    }
-                    
-                    // 检查名称映射
-                    if (placeholders.has("nameMapping")) {
-                    } else {
-                    }
-                    
-                    // 直接使用JsonObject，不需要转换为Map
-                    playerData.setPlaceholders(placeholders);
-                } else {
-                }
-            } catch (Exception e) {
-                e.printStackTrace(); // 添加堆栈跟踪以便更好地诊断问题
-            }
-        } else {
-        }
-
-        // 添加DragonCore容器数据
         try {
-            // 检查DragonCore插件是否可用
-            Plugin dragonCore = Bukkit.getPluginManager().getPlugin("DragonCore");
-            if (dragonCore != null && dragonCore.isEnabled()) {
-                try {
-                    // 直接使用DragonCore的API获取物品
-                    Map<String, Map<String, Object>> dragonCoreItems = new LinkedHashMap<>();
-                    
-                    // 安全地获取玩家的DragonCore容器物品，使用反射防止类加载错误
-                    Map<String, ItemStack> playerItems = null;
-                    try {
-                        // 尝试获取DragonCore API类
-                        Class<?> slotAPIClass = Class.forName("eos.moe.dragoncore.api.SlotAPI");
-                        
-                        // 获取getCacheAllSlotItem方法
-                        java.lang.reflect.Method getCacheAllSlotItem = slotAPIClass.getMethod("getCacheAllSlotItem", Player.class);
-                        
-                        // 调用静态方法
-                        @SuppressWarnings("unchecked")
-                        Map<String, ItemStack> result = (Map<String, ItemStack>) getCacheAllSlotItem.invoke(null, player);
-                        playerItems = result;
-                        
-                        // 打印获取到的物品数据
-                        if (result != null) {
-                            for (Map.Entry<String, ItemStack> entry : result.entrySet()) {
-                                if (entry.getValue() != null) {
-                                } else {
-                                }
-                            }
-                        } else {
-                        }
-                    } catch (ClassNotFoundException e) {
-                    } catch (NoSuchMethodException e) {
-                    } catch (Exception e) {
-                        if (playerInfo.isDebug()) {
-                            e.printStackTrace();
-                        }
-                    }
-                    
-                    if (playerItems != null && !playerItems.isEmpty()) {
-                        // 序列化物品
-                        for (Map.Entry<String, ItemStack> entry : playerItems.entrySet()) {
-                            if (entry.getValue() != null && !entry.getValue().getType().name().equals("AIR")) {
-                                dragonCoreItems.put(entry.getKey(), ItemStackSerializer.serializeItemStack(entry.getValue()));
-                            } else if (entry.getValue() != null) {
-                            }
-                        }
-                        
-                        // 添加到玩家数据
-                        if (!dragonCoreItems.isEmpty()) {
-                            playerData.setDragonCore(dragonCoreItems);
-                        } else {
-                        }
-                    } else {
-                    }
-                } catch (Exception e) {
-                    if (playerInfo.isDebug()) {
-                        e.printStackTrace();
-                    }
-                }
-            } else {
-            }
-        } catch (Exception e) {
-            if (playerInfo.isDebug()) {
-                e.printStackTrace();
-            }
+            return future.get(freshReadTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
         }
-
-        String response = gson.toJson(ItemStackSerializer.serialize(playerData));
-        
-        // 在返回前添加最终的JSON数据调试日志
+    }
+    
+    /**
+     * 安排一次主线程读取
+     * 快照在主线程捕获后交给序列化线程池，完成任务提交到同一通道，排在序列化之后执行
+     */
+    private CompletableFuture<PlayerSnapshotStore.Entry> scheduleFreshRead(UUID playerUUID) {
+        CompletableFuture<PlayerSnapshotStore.Entry> future = new CompletableFuture<>();
         try {
-            // 解析回JSON对象以检查占位符是否存在
-            JsonObject jsonObj = gson.fromJson(response, JsonObject.class);
-            if (jsonObj.has("placeholders")) {
-            } else {
-            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                Player player = Bukkit.getPlayer(playerUUID);
+                if (player == null || !player.isOnline()) {
+                    future.complete(null);
+                    return;
+                }
+                
+                dirtyTracker.markAllDirty(playerUUID);
+                refreshPlayer(player, null, true);
+                if (!serializer.submit(playerUUID, () -> future.complete(store.get(playerUUID)))) {
+                    future.complete(null);
+                }
+            });
         } catch (Exception e) {
+            // 插件正在禁用时无法安排任务
+            future.complete(null);
         }
-        
-        return response;
+        return future;
     }
 
     private void sendResponse(HttpExchange exchange, int statusCode, String response) throws IOException {
@@ -411,198 +330,397 @@ public class PlayerController implements HttpHandler, Listener {
 
     /**
      * 刷新玩家数据
-     * 收集所有在线玩家的信息
+     * 只重建自上次刷新以来被标记为脏的字段分组，未变化的玩家直接复用已有数据
      */
     public void refreshData() {
-        Collection<? extends Player> onlinePlayers = Bukkit.getOnlinePlayers();
+        beginRefreshCycle();
         
-        // 清除旧数据
-        playerDataMap.clear();
-        
-        // 收集每个玩家的数据
-        for (Player player : onlinePlayers) {
-            collectPlayerData(player);
+        // 增量收集每个玩家的数据
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            refreshPlayer(player);
         }
+    }
+    
+    /**
+     * 开始新一轮刷新
+     * 由分片调度器在每轮开始时调用，之后逐个调用 {@link #refreshPlayer(Player, MessageSender)}
+     */
+    public void beginRefreshCycle() {
+        refreshCycle++;
+        Collection<? extends Player> onlinePlayers = Bukkit.getOnlinePlayers();
         
-        if (playerInfo.isDebug()) {
+        // 清理已经不在线的玩家数据（正常情况下由退出事件处理）
+        if (snapshots.size() > onlinePlayers.size() || store.size() > onlinePlayers.size()) {
+            snapshots.keySet().removeIf(uuid -> !isOnline(uuid));
+            store.removeIf(uuid -> !isOnline(uuid));
         }
     }
     
+    private boolean isOnline(UUID uuid) {
+        Player online = Bukkit.getPlayer(uuid);
+        return online != null && online.isOnline();
+    }
+    
+    /**
+     * 按脏标记增量刷新单个玩家的数据
+     * 
+     * @param player Bukkit玩家对象
+     */
+    public void refreshPlayer(Player player) {
+        refreshPlayer(player, null);
+    }
+    
+    /**
+     * 按脏标记增量刷新单个玩家的数据
+     * 主线程只捕获发生变化的字段分组的快照，转换为Map和编码消息都交给序列化线程池
+     * 
+     * @param player Bukkit玩家对象
+     * @param forwardTo 需要转发到BungeeCord时传入消息发送器，否则为null
+     */
+    public void refreshPlayer(Player player, MessageSender forwardTo) {
+        refreshPlayer(player, forwardTo, false);
+    }
+    
+    /**
+     * 刷新被BungeeCord网页订阅的玩家
+     * 不受各分组刷新周期的限制，立即收集所有脏分组并转发
+     * 
+     * @param player Bukkit玩家对象
+     * @param forwardTo 消息发送器
+     */
+    public void refreshWatchedPlayer(Player player, MessageSender forwardTo) {
+        refreshPlayer(player, forwardTo, true);
+    }
+    
     /**
-     * 收集单个玩家的数据
+     * 按脏标记增量刷新单个玩家的数据
      * 
      * @param player Bukkit玩家对象
+     * @param forwardTo 需要转发到BungeeCord时传入消息发送器，否则为null
+     * @param ignoreCadence 是否忽略各分组的刷新周期，立即收集所有脏分组
      */
-    private void collectPlayerData(Player player) {
+    private void refreshPlayer(Player player, MessageSender forwardTo, boolean ignoreCadence) {
         if (player == null || !player.isOnline()) {
             return;
         }
         
-        try {
-            UUID playerUUID = player.getUniqueId();
-            Map<String, Object> playerData = new LinkedHashMap<>();
-            
-            // 收集基本玩家信息
-            playerData.put("uuid", playerUUID.toString());
-            playerData.put("username", player.getName());
-            playerData.put("displayName", ChatColor.stripColor(player.getDisplayName()));
-            playerData.put("isOp", player.isOp());
-            
-            // 收集玩家状态信息
-            playerData.put("health", player.getHealth());
-            playerData.put("maxHealth", player.getMaxHealth());
-            playerData.put("foodLevel", player.getFoodLevel());
-            playerData.put("exhaustion", player.getExhaustion());
-            playerData.put("saturation", player.getSaturation());
-            playerData.put("gameMode", player.getGameMode().toString());
-            playerData.put("level", player.getLevel());
-            playerData.put("exp", player.getExp());
-            
-            // 收集位置信息
-            Location loc = player.getLocation();
-            playerData.put("world", loc.getWorld().getName());
-            playerData.put("x", loc.getX());
-            playerData.put("y", loc.getY());
-            playerData.put("z", loc.getZ());
-            playerData.put("yaw", loc.getYaw());
-            playerData.put("pitch", loc.getPitch());
-            
-            // 收集物品信息 - 使用Map格式
-            Map<Integer, Map<String, Object>> items = new LinkedHashMap<>();
-            ItemStack[] contents = player.getInventory().getContents();
-            for (int i = 0; i < contents.length; i++) {
-                if (contents[i] != null && !contents[i].getType().name().equals("AIR")) {
-                    items.put(i, ItemStackSerializer.serializeItemStack(contents[i]));
-                }
-            }
-            playerData.put("inventory", items);
-            
-            // 收集装备信息 - 使用Map格式
-            Map<String, Map<String, Object>> equipment = new LinkedHashMap<>();
-            PlayerInventory inventory = player.getInventory();
-            ItemStack helmet = inventory.getHelmet();
-            ItemStack chestplate = inventory.getChestplate();
-            ItemStack leggings = inventory.getLeggings();
-            ItemStack boots = inventory.getBoots();
-            ItemStack mainHand = inventory.getItemInMainHand();
-            ItemStack offHand = inventory.getItemInOffHand();
-            
-            if (helmet != null && !helmet.getType().name().equals("AIR")) {
-                equipment.put("helmet", ItemStackSerializer.serializeItemStack(helmet));
-            }
-            if (chestplate != null && !chestplate.getType().name().equals("AIR")) {
-                equipment.put("chestplate", ItemStackSerializer.serializeItemStack(chestplate));
-            }
-            if (leggings != null && !leggings.getType().name().equals("AIR")) {
-                equipment.put("leggings", ItemStackSerializer.serializeItemStack(leggings));
+        UUID playerUUID = player.getUniqueId();
+        PlayerSnapshot previous = snapshots.get(playerUUID);
+        
+        int dirty = dirtyTracker.drain(playerUUID);
+        if (previous == null || dirtyTracker.isResyncDue(playerUUID, refreshCycle)) {
+            dirty = FieldGroup.ALL_MASK;
+        }
+        
+        // 占位符的值没有对应的事件可以监听，按占位符分组的刷新周期重新解析
+        int due = ignoreCadence ? FieldGroup.ALL_MASK : dueGroups(playerUUID);
+        if (placeholderManager != null && placeholderManager.isPlaceholderAPIAvailable()
+                && FieldGroup.PLACEHOLDERS.in(due)) {
+            dirty |= FieldGroup.PLACEHOLDERS.bit();
+        }
+        
+        // 暂不收集的分组保留脏标记，到期或恢复后再处理；首次收集不受限制
+        int collectable = allowedGroups & due;
+        if (previous != null && (dirty & ~collectable) != 0) {
+            dirtyTracker.markDirty(playerUUID, dirty & ~collectable);
+            dirty &= collectable;
+        }
+        
+        // 占位符先单独解析，值与上一个快照相同时沿用上一次的结果，不算作变化
+        JsonObject placeholders = null;
+        if (FieldGroup.PLACEHOLDERS.in(dirty) || previous == null) {
+            placeholders = capturePlaceholders(player);
+            if (previous != null && placeholders != null && placeholders.equals(previous.getPlaceholders())) {
+                dirty &= ~FieldGroup.PLACEHOLDERS.bit();
             }
-            if (boots != null && !boots.getType().name().equals("AIR")) {
-                equipment.put("boots", ItemStackSerializer.serializeItemStack(boots));
+        }
+        
+        PlayerSnapshot snapshot = previous;
+        if (dirty != 0) {
+            snapshot = captureSnapshot(player, dirty, previous, placeholders);
+            snapshots.put(playerUUID, snapshot);
+        }
+        
+        // 数据没有变化且不需要转发时无需提交任务
+        if (dirty == 0 && forwardTo == null) {
+            return;
+        }
+        
+        final PlayerSnapshot captured = snapshot;
+        final boolean changed = dirty != 0;
+        if (!serializer.submit(playerUUID, () -> serializeSnapshot(captured, changed, forwardTo)) && changed) {
+            // 队列已满，本次变化留到下一轮重新捕获
+            dirtyTracker.markDirty(playerUUID, dirty);
+        }
+    }
+    
+    /**
+     * 计算玩家在本轮刷新中到期的字段分组
+     * 各玩家按UUID错开，同一周期的分组不会集中在同一轮收集
+     * 
+     * @param playerUUID 玩家UUID
+     * @return 到期分组的掩码
+     */
+    private int dueGroups(UUID playerUUID) {
+        long offset = playerUUID.getLeastSignificantBits() & Integer.MAX_VALUE;
+        int mask = 0;
+        for (FieldGroup group : FieldGroup.values()) {
+            int cadence = cadences[group.ordinal()];
+            if (cadence <= 1 || (refreshCycle + offset) % cadence == 0) {
+                mask |= group.bit();
             }
-            if (mainHand != null && !mainHand.getType().name().equals("AIR")) {
-                equipment.put("mainHand", ItemStackSerializer.serializeItemStack(mainHand));
+        }
+        return mask;
+    }
+    
+    /**
+     * 设置允许收集的字段分组
+     * 
+     * @param mask 分组掩码
+     */
+    public void setAllowedGroups(int mask) {
+        this.allowedGroups = mask;
+    }
+    
+    /**
+     * 在主线程捕获玩家被标记为脏的字段分组，未变化的分组沿用上一个快照
+     * 
+     * @param player Bukkit玩家对象
+     * @param dirty 需要重新捕获的字段分组掩码
+     * @param previous 上一个快照，可以为null
+     * @param resolvedPlaceholders 已经解析的占位符数据，占位符分组为脏时使用
+     * @return 新的快照
+     */
+    private PlayerSnapshot captureSnapshot(Player player, int dirty, PlayerSnapshot previous,
+                                           JsonObject resolvedPlaceholders) {
+        if (previous == null) {
+            dirty = FieldGroup.ALL_MASK;
+        }
+        
+        PlayerSnapshot.Vitals vitals = previous == null ? null : previous.getVitals();
+        PlayerSnapshot.Position position = previous == null ? null : previous.getPosition();
+        ItemArray inventory = previous == null ? null : previous.getInventory();
+        ItemArray armor = previous == null ? null : previous.getArmor();
+        ItemArray hands = previous == null ? null : previous.getHands();
+        JsonObject placeholders = previous == null ? null : previous.getPlaceholders();
+        ItemArray dragonCore = previous == null ? null : previous.getDragonCore();
+        
+        try {
+            if (FieldGroup.VITALS.in(dirty)) {
+                vitals = new PlayerSnapshot.Vitals(
+                    ChatColor.stripColor(player.getDisplayName()),
+                    player.isOp(),
+                    player.getHealth(),
+                    player.getMaxHealth(),
+                    player.getFoodLevel(),
+                    player.getExhaustion(),
+                    player.getSaturation(),
+                    player.getGameMode().toString(),
+                    player.getLevel(),
+                    player.getExp());
+            }
+            if (FieldGroup.LOCATION.in(dirty)) {
+                Location loc = player.getLocation();
+                position = new PlayerSnapshot.Position(loc.getWorld().getName(),
+                    loc.getX(), loc.getY(), loc.getZ(), loc.getYaw(), loc.getPitch());
+            }
+            PlayerInventory playerInventory = player.getInventory();
+            if (FieldGroup.INVENTORY.in(dirty)) {
+                // 只保留0-35号槽位，装备栏和副手由装备分组负责
+                inventory = ItemStackSerializer.capture(playerInventory.getContents(), 36);
+            }
+            if (FieldGroup.EQUIPMENT.in(dirty)) {
+                ItemStack[] armorContents = playerInventory.getArmorContents();
+                armor = ItemStackSerializer.capture(armorContents, armorContents.length);
+                hands = new ItemArray(2, false);
+                ItemStackSerializer.capture(playerInventory.getItemInMainHand(), hands, PlayerSnapshot.MAIN_HAND);
+                ItemStackSerializer.capture(playerInventory.getItemInOffHand(), hands, PlayerSnapshot.OFF_HAND);
+            }
+            if (FieldGroup.PLACEHOLDERS.in(dirty)) {
+                placeholders = resolvedPlaceholders;
+            }
+            if (FieldGroup.DRAGONCORE.in(dirty)) {
+                dragonCore = captureDragonCore(player);
             }
-            if (offHand != null && !offHand.getType().name().equals("AIR")) {
-                equipment.put("offHand", ItemStackSerializer.serializeItemStack(offHand));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        
+        long version = previous == null ? 1 : previous.getVersion() + 1;
+        return new PlayerSnapshot(player.getUniqueId(), player.getName(), version, dirty,
+            vitals, position, inventory, armor, hands, placeholders, dragonCore);
+    }
+    
+    /**
+     * 捕获占位符数据
+     */
+    private JsonObject capturePlaceholders(Player player) {
+        if (placeholderManager == null) {
+            return null;
+        }
+        try {
+            // 使用新方法获取占位符数据，包含名称映射
+            JsonObject placeholders = placeholderManager.getPlaceholdersJson(player);
+            if (placeholders != null && playerInfo.isDebug()) {
+                logger.info("已为玩家 " + player.getName() + " 添加占位符数据");
             }
+            return placeholders;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+    
+    /**
+     * 捕获DragonCore容器物品
+     * 
+     * @return 按槽位名称区分的物品列表，DragonCore不可用时返回null
+     */
+    private ItemArray captureDragonCore(Player player) {
+        return ItemStackSerializer.capture(dragonCoreBridge.getSlotItems(player));
+    }
+    
+    /**
+     * 在序列化线程中处理快照
+     * 每个快照只序列化一次JSON并发布到快照存储，需要转发时直接复用存储中的JSON；
+     * 玩家数据缓存格式的Map只在读取时根据快照生成，不常驻内存
+     * 
+     * @param snapshot 玩家数据快照
+     * @param changed 快照是否包含新捕获的数据
+     * @param forwardTo 消息发送器，可以为null
+     */
+    private void serializeSnapshot(PlayerSnapshot snapshot, boolean changed, MessageSender forwardTo) {
+        UUID playerUUID = snapshot.getUuid();
+        PlayerSnapshotStore.Entry entry = store.get(playerUUID);
+        
+        if (changed || entry == null || entry.getSnapshot() != snapshot) {
+            String json = gson.toJson(SnapshotSerializer.serialize(snapshot));
             
-            playerData.put("equipment", equipment);
-            
-
-            
-            // 添加占位符数据
-            if (placeholderManager != null) {
-                try {
-                    // 使用新方法获取占位符数据，包含名称映射
-                    JsonObject placeholders = placeholderManager.getPlaceholdersJson(player);
-                    if (placeholders != null) {
-                        // 直接使用JsonObject，不需要转换为Map
-                        playerData.put("placeholders", placeholders);
-                        
-                        if (playerInfo.isDebug()) {
-                            logger.info("已为玩家 " + player.getName() + " 添加占位符数据");
-                        }
-                    }
-                } catch (Exception e) {
-                }
+            // 玩家已经退出时不再发布
+            if (!snapshots.containsKey(playerUUID)) {
+                return;
             }
-            
-            // 添加DragonCore容器数据
-            try {
-                // 检查DragonCore插件是否可用
-                Plugin dragonCore = Bukkit.getPluginManager().getPlugin("DragonCore");
-                if (dragonCore != null && dragonCore.isEnabled()) {
-                    try {
-                        // 直接使用DragonCore的API获取物品
-                        Map<String, Map<String, Object>> dragonCoreItems = new LinkedHashMap<>();
-                        
-                        // 安全地获取玩家的DragonCore容器物品，使用反射防止类加载错误
-                        Map<String, ItemStack> playerItems = null;
-                        try {
-                            // 尝试获取DragonCore API类
-                            Class<?> slotAPIClass = Class.forName("eos.moe.dragoncore.api.SlotAPI");
-                            
-                            // 获取getCacheAllSlotItem方法
-                            java.lang.reflect.Method getCacheAllSlotItem = slotAPIClass.getMethod("getCacheAllSlotItem", Player.class);
-                            
-                            // 调用静态方法
-                            @SuppressWarnings("unchecked")
-                            Map<String, ItemStack> result = (Map<String, ItemStack>) getCacheAllSlotItem.invoke(null, player);
-                            playerItems = result;
-                            
-                            // 打印获取到的物品数据
-                            if (result != null) {
-                                for (Map.Entry<String, ItemStack> entry : result.entrySet()) {
-                                    if (entry.getValue() != null) {
-                                    } else {
-                                    }
-                                }
-                            } else {
-                            }
-                        } catch (ClassNotFoundException e) {
-                        } catch (NoSuchMethodException e) {
-                        } catch (Exception e) {
-                            if (playerInfo.isDebug()) {
-                                e.printStackTrace();
-                            }
-                        }
-                        
-                        if (playerItems != null && !playerItems.isEmpty()) {
-                            // 序列化物品
-                            for (Map.Entry<String, ItemStack> entry : playerItems.entrySet()) {
-                                if (entry.getValue() != null && !entry.getValue().getType().name().equals("AIR")) {
-                                    dragonCoreItems.put(entry.getKey(), ItemStackSerializer.serializeItemStack(entry.getValue()));
-                                } else if (entry.getValue() != null) {
-                                }
-                            }
-                            
-                            // 添加到玩家数据
-                            if (!dragonCoreItems.isEmpty()) {
-                                playerData.put("dragonCore", dragonCoreItems);
-                            } else {
-                            }
-                        } else {
-                        }
-                    } catch (Exception e) {
-                        if (playerInfo.isDebug()) {
-                            e.printStackTrace();
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                if (playerInfo.isDebug()) {
-                    e.printStackTrace();
+            entry = store.publish(snapshot, json);
+        }
+        
+        // 玩家已经退出时也不再转发，否则BungeeCord会在收到移除消息之后重新加入该玩家
+        if (forwardTo != null && snapshots.containsKey(playerUUID)) {
+            forwardTo.sendPlayerDataAsync(entry.getSnapshot(), entry.getJson());
+        }
+    }
+    
+    /**
+     * 根据快照生成玩家数据缓存格式的Map
+     * 
+     * @param snapshot 玩家数据快照
+     * @return 玩家数据
+     */
+    private Map<String, Object> buildPlayerData(PlayerSnapshot snapshot) {
+        Map<String, Object> playerData = new LinkedHashMap<>();
+        buildVitals(snapshot, playerData);
+        buildLocation(snapshot, playerData);
+        playerData.put("inventory", buildInventory(snapshot));
+        playerData.put("equipment", buildEquipment(snapshot));
+        if (snapshot.getPlaceholders() != null) {
+            // 直接使用JsonObject，不需要转换为Map
+            playerData.put("placeholders", snapshot.getPlaceholders());
+        }
+        Map<String, Map<String, Object>> dragonCoreItems = SnapshotSerializer.serializeItemMap(snapshot.getDragonCore());
+        if (dragonCoreItems != null && !dragonCoreItems.isEmpty()) {
+            playerData.put("dragonCore", dragonCoreItems);
+        }
+        return playerData;
+    }
+    
+    /**
+     * 写入玩家基本信息和状态信息
+     */
+    private void buildVitals(PlayerSnapshot snapshot, Map<String, Object> playerData) {
+        // 基本玩家信息
+        playerData.put("uuid", snapshot.getUuid().toString());
+        playerData.put("username", snapshot.getName());
+        
+        PlayerSnapshot.Vitals vitals = snapshot.getVitals();
+        if (vitals == null) {
+            return;
+        }
+        playerData.put("displayName", vitals.displayName);
+        playerData.put("isOp", vitals.op);
+        
+        // 玩家状态信息
+        playerData.put("health", vitals.health);
+        playerData.put("maxHealth", vitals.maxHealth);
+        playerData.put("foodLevel", vitals.foodLevel);
+        playerData.put("exhaustion", vitals.exhaustion);
+        playerData.put("saturation", vitals.saturation);
+        playerData.put("gameMode", vitals.gameMode);
+        playerData.put("level", vitals.level);
+        playerData.put("exp", vitals.exp);
+    }
+    
+    /**
+     * 写入玩家位置信息
+     */
+    private void buildLocation(PlayerSnapshot snapshot, Map<String, Object> playerData) {
+        PlayerSnapshot.Position position = snapshot.getPosition();
+        if (position == null) {
+            return;
+        }
+        playerData.put("world", position.world);
+        playerData.put("x", position.x);
+        playerData.put("y", position.y);
+        playerData.put("z", position.z);
+        playerData.put("yaw", position.yaw);
+        playerData.put("pitch", position.pitch);
+    }
+    
+    /**
+     * 物品信息 - 使用Map格式
+     */
+    private Map<Integer, Map<String, Object>> buildInventory(PlayerSnapshot snapshot) {
+        Map<Integer, Map<String, Object>> items = new LinkedHashMap<>();
+        ItemArray contents = snapshot.getInventory();
+        if (contents != null) {
+            for (int i = 0; i < contents.size(); i++) {
+                if (!contents.isEmpty(i)) {
+                    items.put(i, SnapshotSerializer.serializeItem(contents, i));
                 }
             }
-            
-            // 更新玩家数据缓存
-            playerDataMap.put(playerUUID, playerData);
-            
-            if (playerInfo.isDebug()) {
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
+        return items;
+    }
+    
+    /**
+     * 装备信息 - 使用Map格式
+     */
+    private Map<String, Map<String, Object>> buildEquipment(PlayerSnapshot snapshot) {
+        Map<String, Map<String, Object>> slots = new LinkedHashMap<>();
+        ItemArray armor = snapshot.getArmor();
+        if (armor != null && armor.size() >= 4) {
+            // getArmorContents 的顺序为靴子、护腿、胸甲、头盔
+            putItem(slots, "helmet", armor, 3);
+            putItem(slots, "chestplate", armor, 2);
+            putItem(slots, "leggings", armor, 1);
+            putItem(slots, "boots", armor, 0);
+        }
+        putItem(slots, "mainHand", snapshot.getHands(), PlayerSnapshot.MAIN_HAND);
+        putItem(slots, "offHand", snapshot.getHands(), PlayerSnapshot.OFF_HAND);
+        return slots;
+    }
+    
+    private void putItem(Map<String, Map<String, Object>> slots, String slot, ItemArray items, int index) {
+        Map<String, Object> item = SnapshotSerializer.serializeItem(items, index);
+        if (item != null) {
+            slots.put(slot, item);
+        }
+    }
+    
+    /**
+     * 获取序列化线程池
+     * 
+     * @return 序列化线程池
+     */
+    public SerializationExecutor getSerializationExecutor() {
+        return serializer;
     }
     
     /**
@@ -615,8 +733,8 @@ public class PlayerController implements HttpHandler, Listener {
         JsonArray playersArray = new JsonArray();
         
         // 添加每个玩家的数据
-        for (Map<String, Object> playerData : playerDataMap.values()) {
-            playersArray.add(gson.toJsonTree(playerData));
+        for (PlayerSnapshotStore.Entry entry : store.entries()) {
+            playersArray.add(gson.toJsonTree(buildPlayerData(entry.getSnapshot())));
         }
         
         // 添加玩家数组到根对象
@@ -652,7 +770,20 @@ public class PlayerController implements HttpHandler, Listener {
      * @return 玩家数据映射 UUID -> 数据
      */
     public Map<UUID, Map<String, Object>> getPlayersData() {
-        return playerDataMap;
+        Map<UUID, Map<String, Object>> players = new LinkedHashMap<>();
+        for (PlayerSnapshotStore.Entry entry : store.entries()) {
+            players.put(entry.getSnapshot().getUuid(), buildPlayerData(entry.getSnapshot()));
+        }
+        return players;
+    }
+    
+    /**
+     * 获取玩家快照存储
+     * 
+     * @return 快照存储
+     */
+    public PlayerSnapshotStore getSnapshotStore() {
+        return store;
     }
     
     /**
@@ -662,7 +793,8 @@ public class PlayerController implements HttpHandler, Listener {
      * @return 玩家数据，如果玩家不存在则返回null
      */
     public Map<String, Object> getPlayerData(UUID uuid) {
-        return playerDataMap.get(uuid);
+        PlayerSnapshotStore.Entry entry = store.get(uuid);
+        return entry == null ? null : buildPlayerData(entry.getSnapshot());
     }
     
     /**
@@ -672,201 +804,10 @@ public class PlayerController implements HttpHandler, Listener {
      * @return 玩家数据，如果玩家不存在则返回null
      */
     public Map<String, Object> getPlayerData(String playerName) {
-        for (Map.Entry<UUID, Map<String, Object>> entry : playerDataMap.entrySet()) {
-            if (entry.getValue().get("name").equals(playerName)) {
-                return entry.getValue();
-            }
-        }
-        return null;
+        PlayerSnapshotStore.Entry entry = store.find(playerName);
+        return entry == null ? null : buildPlayerData(entry.getSnapshot());
     }
     
-    /**
-     * 获取单个玩家的数据，并转换为PlayerData对象
-     * 
-     * @param player 玩家对象
-     * @return PlayerData对象
-     */
-    public PlayerData getPlayerData(Player player) {
-        if (player == null) {
-            return null;
-        }
-        
-        try {
-            // 获取玩家基本信息
-            String playerName = player.getName();
-            UUID uuid = player.getUniqueId();
-            
-            // 获取玩家皮肤URL
-            String skinURL = getSkinURL(playerName);
-            
-            // 获取玩家装备和物品栏
-            ItemStack[] armor = player.getInventory().getArmorContents();
-            ItemStack[] inventory = player.getInventory().getContents();
-            
-            // 获取玩家主副手物品
-            ItemStack mainHand = player.getInventory().getItemInMainHand();
-            ItemStack offHand = player.getInventory().getItemInOffHand();
-            
-            // 获取玩家等级和生命值
-            int level = player.getLevel();
-            double health = player.getHealth();
-            double maxHealth = player.getMaxHealth();
-            
-            // 获取玩家位置
-            Location location = player.getLocation();
-            
-
-            // 创建玩家数据对象
-            PlayerData playerData = new PlayerData();
-            playerData.setName(playerName);
-            playerData.setUuid(uuid.toString());
-            playerData.setSkinURL(skinURL);
-            playerData.setArmor(armor);
-            playerData.setInventory(inventory);
-            playerData.setMainHand(mainHand);
-            playerData.setOffHand(offHand);
-            playerData.setLevel(level);
-            playerData.setHealth(health);
-            playerData.setMaxHealth(maxHealth);
-            playerData.setLocation(location);
-            
-
-
-            // 添加占位符数据
-            if (placeholderManager != null) {
-                try {
-                    
-                    // 使用新方法获取占位符数据，包含名称映射
-                    JsonObject placeholders = placeholderManager.getPlaceholdersJson(player);
-                    if (placeholders != null) {
-                        
-                        // 检查占位符数据是否有内容
-                        if (placeholders.has("placeholders")) {
-                            JsonArray placeholdersArray = placeholders.getAsJsonArray("placeholders");
-                            
-                            // 打印每个占位符详情
-                            for (int i = 0; i < placeholdersArray.size(); i++) {
-                                try {
-                                    JsonObject placeholder = placeholdersArray.get(i).getAsJsonObject();
-                                } catch (Exception e) {
-                                }
-                            }
-                        } else {
-                        }
-                        
-                        // 检查名称映射
-                        if (placeholders.has("nameMapping")) {
-                        } else {
-                        }
-                        
-                        // 直接使用JsonObject，不需要转换为Map
-                        playerData.setPlaceholders(placeholders);
-                        
-                    } else {
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace(); // 添加堆栈跟踪以便更好地诊断问题
-                }
-            } else {
-            }
-            
-            // 添加DragonCore容器数据
-            try {
-                // 检查DragonCore插件是否可用
-                Plugin dragonCore = Bukkit.getPluginManager().getPlugin("DragonCore");
-                if (dragonCore != null && dragonCore.isEnabled()) {
-                    try {
-                        // 直接使用DragonCore的API获取物品
-                        Map<String, Map<String, Object>> dragonCoreItems = new LinkedHashMap<>();
-                        
-                        // 安全地获取玩家的DragonCore容器物品，使用反射防止类加载错误
-                        Map<String, ItemStack> playerItems = null;
-                        try {
-                            // 尝试获取DragonCore API类
-                            Class<?> slotAPIClass = Class.forName("eos.moe.dragoncore.api.SlotAPI");
-                            
-                            // 获取getCacheAllSlotItem方法
-                            java.lang.reflect.Method getCacheAllSlotItem = slotAPIClass.getMethod("getCacheAllSlotItem", Player.class);
-                            
-                            // 调用静态方法
-                            @SuppressWarnings("unchecked")
-                            Map<String, ItemStack> result = (Map<String, ItemStack>) getCacheAllSlotItem.invoke(null, player);
-                            playerItems = result;
-                            
-                            // 打印获取到的物品数据
-                            if (result != null) {
-                                for (Map.Entry<String, ItemStack> entry : result.entrySet()) {
-                                    if (entry.getValue() != null) {
-                                    } else {
-                                    }
-                                }
-                            } else {
-                            }
-                        } catch (ClassNotFoundException e) {
-                        } catch (NoSuchMethodException e) {
-                        } catch (Exception e) {
-                            if (playerInfo.isDebug()) {
-                                e.printStackTrace();
-                            }
-                        }
-                        
-                        if (playerItems != null && !playerItems.isEmpty()) {
-                            // 序列化物品
-                            for (Map.Entry<String, ItemStack> entry : playerItems.entrySet()) {
-                                if (entry.getValue() != null && !entry.getValue().getType().name().equals("AIR")) {
-                                    dragonCoreItems.put(entry.getKey(), ItemStackSerializer.serializeItemStack(entry.getValue()));
-                                    } else if (entry.getValue() != null) {
-                                }
-                            }
-                            
-                            // 添加到玩家数据
-                            if (!dragonCoreItems.isEmpty()) {
-                                playerData.setDragonCore(dragonCoreItems);
-                            } else {
-                            }
-                        } else {
-                        }
-                    } catch (Exception e) {
-                        if (playerInfo.isDebug()) {
-                            e.printStackTrace();
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                if (playerInfo.isDebug()) {
-                    e.printStackTrace();
-                }
-            }
-            
-            return playerData;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
-        }
-    }
-
-    /**
-     * 获取玩家皮肤URL
-     * @param playerName 玩家名称
-     * @return 皮肤URL
-     */
-    private String getSkinURL(String playerName) {
-        try {
-            // 尝试获取玩家UUID
-            Player player = Bukkit.getPlayer(playerName);
-            if (player != null) {
-                UUID uuid = player.getUniqueId();
-                // 构建Mojang API的皮肤URL
-                return "https://sessionserver.mojang.com/session/minecraft/profile/" + 
-                       uuid.toString().replace("-", "") + "?unsigned=false";
-            }
-        } catch (Exception e) {
-        }
-        
-        // 返回默认皮肤URL
-        return "https://textures.minecraft.net/texture/1a4ab6b2d9a0b4e2bb9d8fc70b49e84c6e388a8999d6f3d6958c1f92d8b8e765";
-    }
-
     /**
      * 收集玩家数据
      */
@@ -875,332 +816,6 @@ public class PlayerController implements HttpHandler, Listener {
             logger.info("正在收集玩家数据...");
         }
         
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            UUID uuid = player.getUniqueId();
-            String name = player.getName();
-            
-            PlayerData playerData = new PlayerData();
-            playerData.setUuid(uuid.toString());
-            playerData.setName(name);
-            playerData.setHealth(player.getHealth());
-            playerData.setMaxHealth(player.getMaxHealth());
-            playerData.setFoodLevel(player.getFoodLevel());
-            playerData.setLevel(player.getLevel());
-            playerData.setExp((float) (Math.round(player.getExp() * 100.0) / 100.0));
-            playerData.setGamemode(player.getGameMode().name());
-            
-            // 位置信息
-            playerData.setWorld(player.getWorld().getName());
-            Location loc = player.getLocation();
-            playerData.setX(loc.getX());
-            playerData.setY(loc.getY());
-            playerData.setZ(loc.getZ());
-            playerData.setYaw(loc.getYaw());
-            playerData.setPitch(loc.getPitch());
-            
-            // 收集库存信息
-            org.bukkit.inventory.PlayerInventory inventory = player.getInventory();
-            Map<Integer, Map<String, Object>> items = new HashMap<>();
-            
-            for (int i = 0; i < 36; i++) {
-                ItemStack item = inventory.getItem(i);
-                if (item != null && !item.getType().name().equals("AIR")) {
-                    Map<String, Object> itemData = ItemStackSerializer.serializeItemStack(item);
-                    items.put(i, itemData);
-                }
-            }
-            
-            // 收集装备信息
-            Map<String, Map<String, Object>> equipment = new HashMap<>();
-            ItemStack helmet = inventory.getHelmet();
-            ItemStack chestplate = inventory.getChestplate();
-            ItemStack leggings = inventory.getLeggings();
-            ItemStack boots = inventory.getBoots();
-            ItemStack offhand = inventory.getItemInOffHand();
-            
-            if (helmet != null && !helmet.getType().name().equals("AIR")) {
-                equipment.put("helmet", ItemStackSerializer.serializeItemStack(helmet));
-            }
-            if (chestplate != null && !chestplate.getType().name().equals("AIR")) {
-                equipment.put("chestplate", ItemStackSerializer.serializeItemStack(chestplate));
-            }
-            if (leggings != null && !leggings.getType().name().equals("AIR")) {
-                equipment.put("leggings", ItemStackSerializer.serializeItemStack(leggings));
-            }
-            if (boots != null && !boots.getType().name().equals("AIR")) {
-                equipment.put("boots", ItemStackSerializer.serializeItemStack(boots));
-            }
-            if (offhand != null && !offhand.getType().name().equals("AIR")) {
-                equipment.put("offhand", ItemStackSerializer.serializeItemStack(offhand));
-            }
-            
-            playerData.setInventory(items);
-            playerData.setEquipment(equipment);
-            
-            // 添加占位符数据
-            if (placeholderManager != null) {
-                try {
-                    // 使用新方法获取占位符数据，包含名称映射
-                    JsonObject placeholders = placeholderManager.getPlaceholdersJson(player);
-                    if (placeholders != null) {
-                        // 直接使用JsonObject，不需要转换为Map
-                        playerData.setPlaceholders(placeholders);
-                        
-                        if (playerInfo.isDebug()) {
-                        }
-                    }
-                } catch (Exception e) {
-                }
-            }
-            
-            // 添加DragonCore容器数据
-            try {
-                // 检查DragonCore插件是否可用
-                Plugin dragonCore = Bukkit.getPluginManager().getPlugin("DragonCore");
-                if (dragonCore != null && dragonCore.isEnabled()) {
-                    try {
-                        // 直接使用DragonCore的API获取物品
-                        Map<String, Map<String, Object>> dragonCoreItems = new LinkedHashMap<>();
-                        
-                        // 安全地获取玩家的DragonCore容器物品，使用反射防止类加载错误
-                        Map<String, ItemStack> playerItems = null;
-                        try {
-                            // 尝试获取DragonCore API类
-                            Class<?> slotAPIClass = Class.forName("eos.moe.dragoncore.api.SlotAPI");
-                            
-                            // 获取getCacheAllSlotItem方法
-                            java.lang.reflect.Method getCacheAllSlotItem = slotAPIClass.getMethod("getCacheAllSlotItem", Player.class);
-                            
-                            // 调用静态方法
-                            @SuppressWarnings("unchecked")
-                            Map<String, ItemStack> result = (Map<String, ItemStack>) getCacheAllSlotItem.invoke(null, player);
-                            playerItems = result;
-                            
-                            // 打印获取到的物品数据
-                            if (result != null) {
-                                for (Map.Entry<String, ItemStack> entry : result.entrySet()) {
-                                    if (entry.getValue() != null) {
-                                    } else {
-                                    }
-                                }
-                            } else {
-                            }
-                        } catch (ClassNotFoundException e) {
-                        } catch (NoSuchMethodException e) {
-                        } catch (Exception e) {
-                            if (playerInfo.isDebug()) {
-                                e.printStackTrace();
-                            }
-                        }
-                        
-                        if (playerItems != null && !playerItems.isEmpty()) {
-                            // 序列化物品
-                            for (Map.Entry<String, ItemStack> entry : playerItems.entrySet()) {
-                                if (entry.getValue() != null && !entry.getValue().getType().name().equals("AIR")) {
-                                    dragonCoreItems.put(entry.getKey(), ItemStackSerializer.serializeItemStack(entry.getValue()));
-                                } else if (entry.getValue() != null) {
-                                }
-                            }
-                            
-                            // 添加到玩家数据
-                            if (!dragonCoreItems.isEmpty()) {
-                                playerData.setDragonCore(dragonCoreItems);
-                            } else {
-                            }
-                        } else {
-                        }
-                    } catch (Exception e) {
-                        if (playerInfo.isDebug()) {
-                            e.printStackTrace();
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                if (playerInfo.isDebug()) {
-                    e.printStackTrace();
-                }
-            }
-            
-            // 将PlayerData对象序列化为Map后再存入playerDataMap
-            Map<String, Object> serializedData = ItemStackSerializer.serialize(playerData);
-            playerDataMap.put(player.getUniqueId(), serializedData);
-            
-            if (playerInfo.isDebug()) {
-            }
-        }
-    }
-
-    /**
-     * 获取玩家数据 - JSON格式输出
-     */
-    private String getPlayerDataJson(Player player) {
-        JsonObject playerJson = new JsonObject();
-        
-        // 基本信息
-        playerJson.addProperty("name", player.getName());
-        playerJson.addProperty("displayName", ChatColor.stripColor(player.getDisplayName()));
-        playerJson.addProperty("uuid", player.getUniqueId().toString());
-        
-        // 在线状态
-        playerJson.addProperty("online", player.isOnline());
-        
-        // 位置信息
-        Location loc = player.getLocation();
-        JsonObject locationJson = new JsonObject();
-        locationJson.addProperty("world", loc.getWorld().getName());
-        locationJson.addProperty("x", Math.round(loc.getX() * 100.0) / 100.0);
-        locationJson.addProperty("y", Math.round(loc.getY() * 100.0) / 100.0);
-        locationJson.addProperty("z", Math.round(loc.getZ() * 100.0) / 100.0);
-        locationJson.addProperty("yaw", Math.round(loc.getYaw() * 100.0) / 100.0);
-        locationJson.addProperty("pitch", Math.round(loc.getPitch() * 100.0) / 100.0);
-        playerJson.add("location", locationJson);
-        
-        // 游戏模式
-        playerJson.addProperty("gameMode", player.getGameMode().toString());
-        
-        // 健康状态
-        playerJson.addProperty("health", player.getHealth());
-        playerJson.addProperty("maxHealth", player.getMaxHealth());
-        playerJson.addProperty("foodLevel", player.getFoodLevel());
-        playerJson.addProperty("exhaustion", player.getExhaustion());
-        playerJson.addProperty("saturation", player.getSaturation());
-        
-        // 经验值
-        playerJson.addProperty("exp", player.getExp());
-        playerJson.addProperty("level", player.getLevel());
-        playerJson.addProperty("totalExperience", player.getTotalExperience());
-
-        
-        // 自定义占位符信息
-        if (placeholderManager != null) {
-            JsonArray placeholdersArray = new JsonArray();
-            JsonObject placeholdersJson = placeholderManager.updatePlayerPlaceholders(player);
-            if (placeholdersJson.has("placeholders")) {
-                placeholdersArray = placeholdersJson.getAsJsonArray("placeholders");
-            }
-            playerJson.add("placeholders", placeholdersArray);
-        }
-        
-        // 物品栏信息
-        PlayerInventory inventory = player.getInventory();
-        ItemStackSerializer serializer = new ItemStackSerializer();
-        
-        // 主手物品
-        ItemStack mainHandItem = inventory.getItemInMainHand();
-        if (mainHandItem != null && mainHandItem.getType().name() != "AIR") {
-            JsonObject mainHandJson = convertMapToJsonObject(serializer.serializeItemStack(mainHandItem));
-            playerJson.add("mainHandItem", mainHandJson);
-        }
-        
-        // 副手物品
-        ItemStack offHandItem = inventory.getItemInOffHand();
-        if (offHandItem != null && offHandItem.getType().name() != "AIR") {
-            JsonObject offHandJson = convertMapToJsonObject(serializer.serializeItemStack(offHandItem));
-            playerJson.add("offHandItem", offHandJson);
-        }
-        
-        // 装备信息
-        JsonArray armorArray = new JsonArray();
-        ItemStack[] armorContents = inventory.getArmorContents();
-        
-        for (int i = 0; i < armorContents.length; i++) {
-            ItemStack armor = armorContents[i];
-            if (armor != null && armor.getType().name() != "AIR") {
-                JsonObject armorJson = convertMapToJsonObject(serializer.serializeItemStack(armor));
-                armorArray.add(armorJson);
-            } else {
-                armorArray.add(new JsonObject()); // 占位
-            }
-        }
-        
-        playerJson.add("armor", armorArray);
-        
-        // 背包物品
-        JsonArray inventoryArray = new JsonArray();
-        
-        for (int i = 0; i < 36; i++) {
-            ItemStack item = inventory.getItem(i);
-            if (item != null) {
-                JsonObject itemJson = convertMapToJsonObject(serializer.serializeItemStack(item));
-                inventoryArray.add(itemJson);
-            } else {
-                inventoryArray.add(new JsonObject()); // 空物品占位符
-            }
-        }
-        
-        playerJson.add("inventory", inventoryArray);
-        
-        return gson.toJson(playerJson);
-    }
-
-    /**
-     * 创建并返回包含玩家数据的PlayerData对象
-     */
-    private PlayerData createPlayerData(Player player) {
-        if (player == null || !player.isOnline()) {
-            return null;
-        }
-        
-        PlayerData playerData = new PlayerData();
-        
-        // 基本信息
-        playerData.setName(player.getName());
-        playerData.setUuid(player.getUniqueId().toString());
-        
-        // 位置信息
-        Location loc = player.getLocation();
-        playerData.setLocation(loc);
-        playerData.setX(loc.getX());
-        playerData.setY(loc.getY());
-        playerData.setZ(loc.getZ());
-        playerData.setYaw(loc.getYaw());
-        playerData.setPitch(loc.getPitch());
-        
-        // 健康状态
-        playerData.setHealth(player.getHealth());
-        playerData.setMaxHealth(player.getMaxHealth());
-        playerData.setFoodLevel(player.getFoodLevel());
-        
-        // 游戏模式
-        playerData.setGamemode(player.getGameMode().name());
-        
-        // 经验相关
-        playerData.setLevel(player.getLevel());
-        playerData.setExp(player.getExp());
-        
-
-        // 添加自定义占位符信息
-        if (placeholderManager != null) {
-            JsonObject placeholders = placeholderManager.updatePlayerPlaceholders(player);
-            playerData.setPlaceholders(placeholders);
-        }
-        
-        return playerData;
-    }
-
-    // 添加辅助方法用于将Map转换为JsonObject
-    private JsonObject convertMapToJsonObject(Map<String, Object> map) {
-        JsonObject jsonObject = new JsonObject();
-        for (Map.Entry<String, Object> entry : map.entrySet()) {
-            String key = entry.getKey();
-            Object value = entry.getValue();
-            
-            if (value instanceof String) {
-                jsonObject.addProperty(key, (String) value);
-            } else if (value instanceof Number) {
-                jsonObject.addProperty(key, (Number) value);
-            } else if (value instanceof Boolean) {
-                jsonObject.addProperty(key, (Boolean) value);
-            } else if (value instanceof Map) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> nestedMap = (Map<String, Object>) value;
-                jsonObject.add(key, convertMapToJsonObject(nestedMap));
-            } else if (value == null) {
-                jsonObject.add(key, null);
-            } else {
-                jsonObject.addProperty(key, value.toString());
-            }
-        }
-        return jsonObject;
+        refreshData();
     }
-} 
\ No newline at end of file
+}
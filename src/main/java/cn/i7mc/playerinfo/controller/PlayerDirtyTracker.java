@@ -0,0 +1,245 @@
+package cn.i7mc.playerinfo.controller;
+
+import cn.i7mc.playerinfo.model.FieldGroup;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.entity.EntityRegainHealthEvent;
+import org.bukkit.event.entity.FoodLevelChangeEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerExpChangeEvent;
+import org.bukkit.event.player.PlayerGameModeChangeEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemConsumeEvent;
+import org.bukkit.event.player.PlayerItemDamageEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLevelChangeEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 玩家数据脏标记跟踪器
+ * 监听背包、装备、生命值、经验、位置等变化事件，按字段分组记录需要重建的数据
+ */
+public class PlayerDirtyTracker implements Listener {
+
+    // 玩家UUID -> 脏分组掩码
+    private final Map<UUID, AtomicInteger> dirtyMasks = new ConcurrentHashMap<>();
+
+    // 全量重新同步周期（刷新次数），0表示禁用
+    private final int fullResyncCycles;
+
+    /**
+     * 构造函数
+     *
+     * @param fullResyncCycles 全量重新同步周期，用于兜底没有事件通知的数据变更
+     */
+    public PlayerDirtyTracker(int fullResyncCycles) {
+        this.fullResyncCycles = Math.max(0, fullResyncCycles);
+    }
+
+    /**
+     * 标记玩家的若干分组为脏
+     *
+     * @param uuid 玩家UUID
+     * @param mask 分组掩码
+     */
+    public void markDirty(UUID uuid, int mask) {
+        AtomicInteger flags = dirtyMasks.get(uuid);
+        if (flags == null) {
+            flags = dirtyMasks.computeIfAbsent(uuid, k -> new AtomicInteger());
+        }
+        flags.accumulateAndGet(mask, (a, b) -> a | b);
+    }
+
+    /**
+     * 标记玩家的所有分组为脏
+     *
+     * @param uuid 玩家UUID
+     */
+    public void markAllDirty(UUID uuid) {
+        markDirty(uuid, FieldGroup.ALL_MASK);
+    }
+
+    /**
+     * 取出并清空玩家的脏分组掩码
+     *
+     * @param uuid 玩家UUID
+     * @return 取出的掩码
+     */
+    public int drain(UUID uuid) {
+        AtomicInteger flags = dirtyMasks.get(uuid);
+        return flags == null ? 0 : flags.getAndSet(0);
+    }
+
+    /**
+     * 检查玩家在当前刷新周期是否需要全量重新同步
+     * 按UUID错开各玩家的同步周期，避免所有玩家在同一次刷新中全量重建
+     *
+     * @param uuid 玩家UUID
+     * @param cycle 当前刷新次数
+     * @return 是否需要全量同步
+     */
+    public boolean isResyncDue(UUID uuid, long cycle) {
+        if (fullResyncCycles <= 0) {
+            return false;
+        }
+        long offset = uuid.getLeastSignificantBits() & Integer.MAX_VALUE;
+        return (cycle + offset) % fullResyncCycles == 0;
+    }
+
+    /**
+     * 移除玩家的跟踪数据
+     *
+     * @param uuid 玩家UUID
+     */
+    public void remove(UUID uuid) {
+        dirtyMasks.remove(uuid);
+    }
+
+    private void mark(Entity entity, int mask) {
+        if (entity instanceof Player) {
+            markDirty(entity.getUniqueId(), mask);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        markAllDirty(event.getPlayer().getUniqueId());
+    }
+
+    // ---- 状态 ----
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDamage(EntityDamageEvent event) {
+        mark(event.getEntity(), FieldGroup.VITALS.bit());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onRegainHealth(EntityRegainHealthEvent event) {
+        mark(event.getEntity(), FieldGroup.VITALS.bit());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onFoodLevelChange(FoodLevelChangeEvent event) {
+        mark(event.getEntity(), FieldGroup.VITALS.bit());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onExpChange(PlayerExpChangeEvent event) {
+        markDirty(event.getPlayer().getUniqueId(), FieldGroup.VITALS.bit());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLevelChange(PlayerLevelChangeEvent event) {
+        markDirty(event.getPlayer().getUniqueId(), FieldGroup.VITALS.bit());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onGameModeChange(PlayerGameModeChangeEvent event) {
+        markDirty(event.getPlayer().getUniqueId(), FieldGroup.VITALS.bit());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent event) {
+        mark(event.getEntity(), FieldGroup.ALL_MASK);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        markAllDirty(event.getPlayer().getUniqueId());
+    }
+
+    // ---- 位置 ----
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent event) {
+        markDirty(event.getPlayer().getUniqueId(), FieldGroup.LOCATION.bit());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeleport(PlayerTeleportEvent event) {
+        markDirty(event.getPlayer().getUniqueId(), FieldGroup.LOCATION.bit());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChangedWorld(PlayerChangedWorldEvent event) {
+        markDirty(event.getPlayer().getUniqueId(), FieldGroup.LOCATION.bit() | FieldGroup.VITALS.bit());
+    }
+
+    // ---- 物品 ----
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        mark(event.getWhoClicked(), FieldGroup.ITEMS_MASK);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        mark(event.getWhoClicked(), FieldGroup.ITEMS_MASK);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent event) {
+        // DragonCore的槽位界面关闭时同样会触发，此时一并刷新DragonCore容器
+        mark(event.getPlayer(), FieldGroup.ITEMS_MASK | FieldGroup.DRAGONCORE.bit());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDropItem(PlayerDropItemEvent event) {
+        markDirty(event.getPlayer().getUniqueId(), FieldGroup.ITEMS_MASK);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickupItem(EntityPickupItemEvent event) {
+        mark(event.getEntity(), FieldGroup.ITEMS_MASK);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemConsume(PlayerItemConsumeEvent event) {
+        markDirty(event.getPlayer().getUniqueId(), FieldGroup.ITEMS_MASK | FieldGroup.VITALS.bit());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(PlayerItemBreakEvent event) {
+        markDirty(event.getPlayer().getUniqueId(), FieldGroup.ITEMS_MASK);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemDamage(PlayerItemDamageEvent event) {
+        markDirty(event.getPlayer().getUniqueId(), FieldGroup.ITEMS_MASK);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemHeld(PlayerItemHeldEvent event) {
+        markDirty(event.getPlayer().getUniqueId(), FieldGroup.EQUIPMENT.bit());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHandItems(PlayerSwapHandItemsEvent event) {
+        markDirty(event.getPlayer().getUniqueId(), FieldGroup.ITEMS_MASK);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        markDirty(event.getPlayer().getUniqueId(), FieldGroup.ITEMS_MASK);
+    }
+}
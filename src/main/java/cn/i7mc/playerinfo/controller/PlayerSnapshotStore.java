@@ -0,0 +1,138 @@
+package cn.i7mc.playerinfo.controller;
+
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+import cn.i7mc.playerinfo.util.NameIndex;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 玩家快照存储
+ * 每个玩家的快照在每轮刷新中只序列化一次，Web接口和BungeeCord消息都读取这里的结果
+ */
+public class PlayerSnapshotStore {
+
+    /**
+     * 已发布的玩家数据，创建后不再修改
+     */
+    public static final class Entry {
+        private final PlayerSnapshot snapshot;
+        private final String json;
+        private final long version;
+        private final long publishedAt;
+
+        private Entry(PlayerSnapshot snapshot, String json, long version) {
+            this.snapshot = snapshot;
+            this.json = json;
+            this.version = version;
+            this.publishedAt = System.currentTimeMillis();
+        }
+
+        public PlayerSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        /**
+         * 获取玩家详情JSON，与发送到BungeeCord的数据格式相同
+         *
+         * @return JSON字符串
+         */
+        public String getJson() {
+            return json;
+        }
+
+        /**
+         * 获取发布时的存储版本号
+         *
+         * @return 版本号
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        public long getPublishedAt() {
+            return publishedAt;
+        }
+    }
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final NameIndex names = new NameIndex();
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 发布玩家的新数据
+     *
+     * @param snapshot 对应的快照
+     * @param json 玩家详情JSON
+     * @return 新发布的条目
+     */
+    public Entry publish(PlayerSnapshot snapshot, String json) {
+        Entry entry = new Entry(snapshot, json, version.incrementAndGet());
+        entries.put(snapshot.getUuid(), entry);
+        names.put(snapshot.getUuid(), snapshot.getName());
+        return entry;
+    }
+
+    public Entry get(UUID uuid) {
+        return entries.get(uuid);
+    }
+
+    /**
+     * 按玩家名称查找条目（不区分大小写）
+     *
+     * @param playerName 玩家名称
+     * @return 条目，不存在时返回null
+     */
+    public Entry find(String playerName) {
+        UUID uuid = names.get(playerName);
+        return uuid == null ? null : entries.get(uuid);
+    }
+
+    public void remove(UUID uuid) {
+        entries.remove(uuid);
+        names.remove(uuid);
+    }
+
+    /**
+     * 移除满足条件的玩家
+     *
+     * @param filter 判断条件
+     */
+    public void removeIf(Predicate<UUID> filter) {
+        for (UUID uuid : entries.keySet()) {
+            if (filter.test(uuid)) {
+                remove(uuid);
+            }
+        }
+    }
+
+    /**
+     * 获取所有玩家名称
+     *
+     * @return 只读的名称集合
+     */
+    public Collection<String> names() {
+        return names.names();
+    }
+
+    public Collection<Entry> entries() {
+        return entries.values();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 获取存储的当前版本号，每发布一次递增
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return version.get();
+    }
+}
@@ -0,0 +1,147 @@
+package cn.i7mc.playerinfo.messaging;
+
+import cn.i7mc.playerinfo.protocol.WireProtocol;
+import cn.i7mc.playerinfo.protocol.WireWriter;
+import cn.i7mc.playerinfo.util.CompressionCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * 同一连接上待发送的一批二进制帧
+ * 帧按编码顺序依次写入同一个缓冲区，字符串表的更新依赖这个顺序；
+ * 打包时整批只压缩一次，压缩后仍超过插件消息限制时按帧边界拆成多条消息，顺序保持不变
+ */
+public class FrameBatch {
+
+    private final WireWriter frames;
+    // 单个帧压缩后允许的最大大小，超过插件消息限制的部分由分片发送
+    private final int maxTransferSize;
+    private final CompressionCodec codec;
+    // 每一帧在缓冲区中的结束位置
+    private int[] ends = new int[64];
+    private int count = 0;
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 缓冲区初始大小
+     * @param maxTransferSize 单个帧压缩后允许的最大大小
+     * @param codec 压缩编解码器
+     */
+    public FrameBatch(int capacity, int maxTransferSize, CompressionCodec codec) {
+        this.frames = new WireWriter(capacity);
+        this.maxTransferSize = maxTransferSize;
+        this.codec = codec;
+    }
+
+    /**
+     * 获取写入帧数据的缓冲区，写完一帧后调用 {@link #endFrame()}
+     *
+     * @return 缓冲区
+     */
+    public WireWriter getWriter() {
+        return frames;
+    }
+
+    /**
+     * 标记当前帧写入完成
+     */
+    public void endFrame() {
+        if (count == ends.length) {
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        ends[count++] = frames.size();
+    }
+
+    /**
+     * 获取已写入的帧数量
+     *
+     * @return 帧数量
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * 获取已写入帧的总大小（未压缩）
+     *
+     * @return 字节数
+     */
+    public int size() {
+        return frames.size();
+    }
+
+    /**
+     * 将已写入的帧打包为插件消息并清空缓冲区
+     *
+     * @param session 连接的会话ID
+     * @param messages 打包结果追加到这里，按帧的顺序排列
+     * @param logger 日志记录器
+     * @param debug 是否输出调试日志
+     * @return 单个帧压缩后仍超过允许的最大大小时返回false，此时缓冲区同样被清空
+     * @throws IOException 写入数据出错时抛出
+     */
+    public boolean drainTo(int session, List<byte[]> messages, Logger logger, boolean debug) throws IOException {
+        try {
+            return count == 0 || pack(session, 0, count, messages, logger, debug);
+        } finally {
+            frames.reset();
+            count = 0;
+        }
+    }
+
+    private boolean pack(int session, int from, int to, List<byte[]> messages, Logger logger, boolean debug)
+            throws IOException {
+        int start = from == 0 ? 0 : ends[from - 1];
+        int length = ends[to - 1] - start;
+
+        WireWriter payload = new WireWriter(length + 5);
+        payload.writeVarInt(to - from);
+        payload.writeBytes(frames.getBuffer(), start, length);
+
+        if (payload.size() <= WireProtocol.COMPRESS_THRESHOLD) {
+            messages.add(encodeMessage(session, false, payload.getBuffer(), payload.size()));
+            return true;
+        }
+
+        byte[] compressed = codec.compress(payload.getBuffer(), 0, payload.size());
+        if (debug) {
+            logger.info(String.format("数据压缩: %d -> %d 字节 (%d 帧)", payload.size(), compressed.length, to - from));
+        }
+        if (compressed.length <= WireProtocol.MAX_PAYLOAD_SIZE) {
+            messages.add(encodeMessage(session, true, compressed, compressed.length));
+            return true;
+        }
+        if (to - from == 1) {
+            // 无法再拆分的单个帧，由发送方拆分为分片
+            if (compressed.length <= maxTransferSize) {
+                messages.add(encodeMessage(session, true, compressed, compressed.length));
+                return true;
+            }
+            logger.severe(String.format("压缩后的玩家数据仍然超过限制 (%d > %d 字节)，无法发送!",
+                compressed.length, maxTransferSize));
+            return false;
+        }
+
+        // 按帧数对半拆分，前一半先发送
+        int middle = (from + to) >>> 1;
+        return pack(session, from, middle, messages, logger, debug)
+            && pack(session, middle, to, messages, logger, debug);
+    }
+
+    private static byte[] encodeMessage(int session, boolean compressed, byte[] data, int length) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(length + 32);
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeUTF(WireProtocol.PLAYER_BATCH);
+        out.writeInt(session);
+        out.writeBoolean(compressed);
+        out.writeInt(length);
+        out.write(data, 0, length);
+        return stream.toByteArray();
+    }
+}
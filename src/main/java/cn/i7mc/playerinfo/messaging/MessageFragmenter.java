@@ -0,0 +1,56 @@
+package cn.i7mc.playerinfo.messaging;
+
+import cn.i7mc.playerinfo.protocol.WireProtocol;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 将超过插件消息大小限制的消息拆分为带编号的分片
+ * 分片必须经由同一个玩家按顺序连续发送，BungeeCord收齐后按原消息处理，
+ * 因此原消息在连接上的顺序不会改变
+ */
+public class MessageFragmenter {
+
+    // 传输ID，BungeeCord用它区分属于同一条消息的分片
+    private final AtomicInteger nextTransferId = new AtomicInteger(ThreadLocalRandom.current().nextInt());
+
+    /**
+     * 按需拆分消息
+     *
+     * @param message 完整的插件消息
+     * @return 需要依次发送的消息，未超过限制时只包含原消息
+     * @throws IOException 写入数据出错时抛出
+     */
+    public List<byte[]> split(byte[] message) throws IOException {
+        if (message.length <= WireProtocol.MAX_MESSAGE_SIZE) {
+            return Collections.singletonList(message);
+        }
+
+        int transferId = nextTransferId.incrementAndGet();
+        int count = (message.length + WireProtocol.FRAGMENT_SIZE - 1) / WireProtocol.FRAGMENT_SIZE;
+        List<byte[]> fragments = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            int offset = index * WireProtocol.FRAGMENT_SIZE;
+            int length = Math.min(WireProtocol.FRAGMENT_SIZE, message.length - offset);
+
+            ByteArrayOutputStream stream = new ByteArrayOutputStream(length + 32);
+            DataOutputStream out = new DataOutputStream(stream);
+            out.writeUTF(WireProtocol.FRAGMENT);
+            out.writeInt(transferId);
+            out.writeShort(index);
+            out.writeShort(count);
+            out.writeInt(message.length);
+            out.writeInt(length);
+            out.write(message, offset, length);
+            fragments.add(stream.toByteArray());
+        }
+        return fragments;
+    }
+}
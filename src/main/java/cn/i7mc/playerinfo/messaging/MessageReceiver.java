@@ -0,0 +1,63 @@
+package cn.i7mc.playerinfo.messaging;
+
+import cn.i7mc.playerinfo.PlayerInfo;
+import cn.i7mc.playerinfo.protocol.WireProtocol;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * 处理来自BungeeCord的消息
+ */
+public class MessageReceiver implements PluginMessageListener {
+    private final PlayerInfo playerInfo;
+    private final MessageSender messageSender;
+
+    /**
+     * 构造函数
+     *
+     * @param playerInfo PlayerInfo插件实例
+     * @param messageSender 消息发送器
+     */
+    public MessageReceiver(PlayerInfo playerInfo, MessageSender messageSender) {
+        this.playerInfo = playerInfo;
+        this.messageSender = messageSender;
+    }
+
+    @Override
+    public void onPluginMessageReceived(String channel, Player player, byte[] message) {
+        if (!channel.equals(messageSender.getChannelName())) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            String messageType = in.readUTF();
+
+            if (messageType.equals(WireProtocol.HELLO_ACK)) {
+                int session = in.readInt();
+                int version = in.readInt();
+                messageSender.handleHelloAck(player, session, version);
+            } else if (messageType.equals(WireProtocol.RESET)) {
+                messageSender.handleReset(player, in.readInt());
+            } else if (messageType.equals(WireProtocol.ACK)) {
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                messageSender.handleAck(uuid, in.readLong());
+            } else if (messageType.equals(WireProtocol.RESYNC)) {
+                messageSender.handleResync(new UUID(in.readLong(), in.readLong()));
+            } else if (messageType.equals(WireProtocol.REFRESH)) {
+                playerInfo.requestCollection("BungeeCord");
+            } else if (messageType.equals(WireProtocol.SUBSCRIBE)) {
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                playerInfo.subscribePlayer(uuid, in.readInt() * 1000L);
+            } else if (messageType.equals(WireProtocol.UNSUBSCRIBE)) {
+                playerInfo.unsubscribePlayer(new UUID(in.readLong(), in.readLong()));
+            }
+        } catch (IOException e) {
+            playerInfo.getLogger().warning("处理BungeeCord消息时出错: " + e.getMessage());
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package cn.i7mc.playerinfo.messaging;
 
 import cn.i7mc.playerinfo.PlayerInfo;
-import cn.i7mc.playerinfo.model.PlayerData;
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+import cn.i7mc.playerinfo.protocol.SnapshotCodec;
+import cn.i7mc.playerinfo.protocol.WireProtocol;
+import cn.i7mc.playerinfo.protocol.WireWriter;
+import cn.i7mc.playerinfo.scheduler.SerializationExecutor;
+import cn.i7mc.playerinfo.util.CompressionCodec;
 import cn.i7mc.playerinfo.util.CompressionUtil;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
@@ -12,7 +16,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 消息发送器，用于向BungeeCord发送玩家数据
@@ -21,7 +33,42 @@ public class MessageSender {
     private final PlayerInfo playerInfo;
     private final Plugin plugin; // 实际的Plugin实例
     private final String channelName;
-    private final Gson gson;
+    private final MessageReceiver receiver;
+    // 是否尝试与BungeeCord协商二进制协议
+    private final boolean binaryProtocol;
+    private final int stringTableSize;
+    // 按转发玩家区分的连接状态
+    private final Map<UUID, ProxyConnection> connections = new ConcurrentHashMap<>();
+    // 是否在关键帧之间只发送变化的部分
+    private final boolean deltaEnabled;
+    private final int keyframeInterval;
+    // 每个玩家的数据流，二进制协议使用
+    private final Map<UUID, PlayerStream> streams = new ConcurrentHashMap<>();
+    // 是否将多个玩家的帧合并为一条消息发送（仅二进制协议）
+    private final boolean batchEnabled;
+    private final long batchFlushInterval;
+    private final int batchMaxSize;
+    // 等待合并发送的玩家数据，同一玩家只保留最新的快照
+    private final Map<UUID, PendingUpdate> pending = new ConcurrentHashMap<>();
+    // 最近退出的玩家及退出时间，序列化线程中尚未完成的任务不能在玩家退出后再发送他的数据
+    private final Map<UUID, Long> departed = new ConcurrentHashMap<>();
+    private static final long DEPARTED_RETENTION_MILLIS = 60_000L;
+    // 合并发送使用的转发玩家，离线后重新选择
+    private volatile UUID carrier;
+    private ScheduledExecutorService batchExecutor;
+    // 逐个玩家发送时编码和压缩所在的线程池，同一玩家总在同一线程编码；编码跟不上时同一玩家只编码最新的快照
+    private final int encoderThreads;
+    private final int encoderQueueSize;
+    private SerializationExecutor encoder;
+    // 超过插件消息限制的数据拆分为分片发送，这里是单条数据压缩后允许的最大大小
+    private final int maxTransferSize;
+    private final MessageFragmenter fragmenter = new MessageFragmenter();
+    // 二进制协议使用的压缩编解码器，JSON数据仍使用GZIP以兼容旧版BungeeCord
+    private final CompressionCodec codec;
+    // 跳过内容没有变化的玩家，为null时每次都发送
+    private final SendSuppressor suppressor;
+    // 编码完成的消息按编码顺序回到主线程发送
+    private final Outbox outbox;
     private boolean registered = false;
     
     /**
@@ -34,13 +81,28 @@ public class MessageSender {
         this.plugin = playerInfo.getPlugin(); // 获取JavaPlugin实例
         this.channelName = playerInfo.getConfig().getString("messaging.channel", "playerinfo:channel");
         
-        // 使用更安全的GSON配置，防止循环引用
-        this.gson = new GsonBuilder()
-            .disableHtmlEscaping()
-            .serializeNulls()
-            .setLenient()
-            .enableComplexMapKeySerialization()   // 启用复杂Map键序列化
-            .create();
+        this.receiver = new MessageReceiver(playerInfo, this);
+        this.binaryProtocol = !"json".equalsIgnoreCase(playerInfo.getConfig().getString("messaging.protocol", "binary"));
+        this.stringTableSize = playerInfo.getConfig().getInt("messaging.string-table-size", 2048);
+        this.deltaEnabled = playerInfo.getConfig().getBoolean("messaging.delta.enabled", true);
+        this.keyframeInterval = playerInfo.getConfig().getInt("messaging.delta.keyframe-interval", 50);
+        this.batchEnabled = binaryProtocol && playerInfo.getConfig().getBoolean("messaging.batch.enabled", true);
+        this.batchFlushInterval = Math.max(10, playerInfo.getConfig().getLong("messaging.batch.flush-interval", 50));
+        this.batchMaxSize = Math.max(WireProtocol.COMPRESS_THRESHOLD,
+            playerInfo.getConfig().getInt("messaging.batch.max-size", 65536));
+        this.maxTransferSize = playerInfo.getConfig().getBoolean("messaging.fragment.enabled", true)
+            ? Math.max(WireProtocol.MAX_PAYLOAD_SIZE, playerInfo.getConfig().getInt("messaging.fragment.max-size", 1048576))
+            : WireProtocol.MAX_PAYLOAD_SIZE;
+        this.codec = CompressionCodec.create(
+            playerInfo.getConfig().getInt("messaging.compression.level", 6),
+            playerInfo.getConfig().getBoolean("messaging.compression.dictionary", true),
+            playerInfo.getLogger());
+        this.encoderThreads = playerInfo.getConfig().getInt("messaging.encoder.threads", 1);
+        this.encoderQueueSize = playerInfo.getConfig().getInt("messaging.encoder.queue-size", 512);
+        this.suppressor = binaryProtocol && playerInfo.getConfig().getBoolean("messaging.suppression.enabled", true)
+            ? new SendSuppressor(Math.max(1, playerInfo.getConfig().getInt("messaging.suppression.heartbeat-interval", 30)) * 1000L)
+            : null;
+        this.outbox = new Outbox(task -> Bukkit.getScheduler().runTask(plugin, task), playerInfo.getLogger());
     }
     
     /**
@@ -49,9 +111,23 @@ public class MessageSender {
     public void register() {
         if (!registered) {
             playerInfo.getServer().getMessenger().registerOutgoingPluginChannel(plugin, channelName);
+            playerInfo.getServer().getMessenger().registerIncomingPluginChannel(plugin, channelName, receiver);
             registered = true;
             playerInfo.getLogger().info("§3已注册BungeeCord消息通道: " + channelName);
         }
+        if (encoder == null) {
+            encoder = new SerializationExecutor("PlayerInfo-Encoder", encoderThreads, encoderQueueSize,
+                playerInfo.getLogger());
+        }
+        if (batchEnabled && batchExecutor == null) {
+            batchExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "PlayerInfo-Batch");
+                thread.setDaemon(true);
+                return thread;
+            });
+            batchExecutor.scheduleWithFixedDelay(this::flushBatch, batchFlushInterval, batchFlushInterval,
+                TimeUnit.MILLISECONDS);
+        }
     }
     
     /**
@@ -60,114 +136,705 @@ public class MessageSender {
     public void unregister() {
         if (registered) {
             playerInfo.getServer().getMessenger().unregisterOutgoingPluginChannel(plugin, channelName);
+            playerInfo.getServer().getMessenger().unregisterIncomingPluginChannel(plugin, channelName, receiver);
             registered = false;
         }
+        if (batchExecutor != null) {
+            batchExecutor.shutdownNow();
+            batchExecutor = null;
+        }
+        if (encoder != null) {
+            encoder.shutdown();
+            encoder = null;
+        }
+        pending.clear();
+        departed.clear();
+        outbox.clear();
+        carrier = null;
+        connections.clear();
+        streams.clear();
+        if (suppressor != null) {
+            suppressor.clear();
+        }
     }
     
     /**
-     * 发送玩家数据到BungeeCord
+     * 编码玩家数据，然后回到主线程发送到BungeeCord
+     * 供序列化线程池调用，编码和压缩交给编码线程，主线程只负责最后的发送；
+     * 启用合并发送时只放入队列，由合并线程定期编码
      * 
-     * @param player 玩家
-     * @param playerData 玩家数据
+     * @param snapshot 玩家数据快照
+     * @param jsonData 玩家数据JSON
      */
-    public void sendPlayerData(Player player, PlayerData playerData) {
+    public void sendPlayerDataAsync(PlayerSnapshot snapshot, String jsonData) {
         if (!playerInfo.getConfig().getBoolean("bungeecord.enabled", true)) {
             return;
         }
         
-        if (!registered) {
-            register();
+        UUID uuid = snapshot.getUuid();
+        if (departed.containsKey(uuid)) {
+            return;
+        }
+        if (batchEnabled) {
+            PendingUpdate update = new PendingUpdate(snapshot, jsonData);
+            pending.put(uuid, update);
+            // 放入队列的同时玩家退出时，由这里或 removePlayer 之一移除
+            if (departed.containsKey(uuid)) {
+                pending.remove(uuid, update);
+            }
+            return;
         }
         
+        SerializationExecutor executor = encoder;
+        if (executor == null) {
+            encodeAndSend(snapshot, jsonData);
+            return;
+        }
+        // 同一玩家尚未编码的快照被新快照替换，数据流和内容摘要只在编码时更新，跳过旧快照不影响增量帧
+        executor.submitLatest(uuid, () -> encodeAndSend(snapshot, jsonData));
+    }
+    
+    /**
+     * 在当前线程编码玩家数据，然后回到主线程发送
+     * 连接已协商二进制协议时直接编码快照，否则发送JSON并附带握手
+     * 
+     * @param snapshot 玩家数据快照
+     * @param jsonData 玩家数据JSON
+     */
+    private void encodeAndSend(PlayerSnapshot snapshot, String jsonData) {
+        UUID uuid = snapshot.getUuid();
+        if (departed.containsKey(uuid)) {
+            return;
+        }
+        byte[] hello = null;
+        byte[] message;
+        List<byte[]> parts;
         try {
-            // 使用ItemStackSerializer先转换为Map，再序列化
-            Map<String, Object> serializedData = cn.i7mc.playerinfo.util.ItemStackSerializer.serialize(playerData);
-            String jsonData = gson.toJson(serializedData);
+            ProxyConnection connection = binaryProtocol
+                ? connections.computeIfAbsent(uuid, k -> new ProxyConnection(stringTableSize))
+                : null;
+            if (connection == null) {
+                message = encodePlayerData(uuid, jsonData);
+            } else {
+                long hash = suppressor != null ? SendSuppressor.hash(jsonData) : 0;
+                synchronized (connection) {
+                    boolean binary = connection.getVersion() >= WireProtocol.VERSION_BINARY;
+                    SendSuppressor.Decision decision = binary
+                        ? checkUnchanged(uuid, hash)
+                        : SendSuppressor.Decision.SEND;
+                    if (decision != SendSuppressor.Decision.SEND) {
+                        message = decision == SendSuppressor.Decision.HEARTBEAT
+                            ? encodeHeartbeat(Collections.singletonList(uuid))
+                            : null;
+                    } else {
+                        message = binary ? encodePlayerDataV2(connection, snapshot) : null;
+                        if (message != null) {
+                            markSent(uuid, hash);
+                        } else {
+                            if (binary) {
+                                // 编码结果没有发出，字符串表已经与BungeeCord不一致，重新协商
+                                connections.remove(uuid, connection);
+                            } else if (connection.shouldSendHello()) {
+                                hello = encodeHello(connection);
+                            }
+                            // JSON数据会替换BungeeCord中的快照，之后的二进制数据需要从关键帧开始
+                            streams.remove(uuid);
+                            if (suppressor != null) {
+                                suppressor.invalidate(uuid);
+                            }
+                            message = encodePlayerData(uuid, jsonData);
+                        }
+                    }
+                }
+            }
+            parts = message == null ? Collections.<byte[]>emptyList() : fragmenter.split(message);
+        } catch (Exception e) {
+            playerInfo.getLogger().severe("序列化玩家数据时出错: " + e.getMessage());
+            if (playerInfo.getConfig().getBoolean("debug", false)) {
+                e.printStackTrace();
+            }
+            return;
+        }
+        dispatch(uuid, hello, parts);
+    }
+    
+    /**
+     * 回到主线程通过玩家发送已编码的消息
+     * 放入发送队列，与其他已编码的消息按编码顺序发送
+     * 
+     * @param uuid 发送消息的玩家UUID
+     * @param helloMessage 先于数据发送的握手消息，可以为null
+     * @param parts 数据消息
+     */
+    private void dispatch(UUID uuid, byte[] helloMessage, List<byte[]> parts) {
+        if ((parts.isEmpty() && helloMessage == null) || !plugin.isEnabled()) {
+            return;
+        }
+        
+        outbox.post(() -> {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null || !player.isOnline()) {
+                return;
+            }
+            if (!registered) {
+                register();
+            }
+            if (helloMessage != null) {
+                player.sendPluginMessage(plugin, channelName, helloMessage);
+            }
+            for (byte[] part : parts) {
+                player.sendPluginMessage(plugin, channelName, part);
+            }
+        });
+    }
+    
+    /**
+     * 编码握手消息，告知BungeeCord本端支持的最高协议版本
+     * 
+     * @param connection 连接状态
+     * @return 插件消息字节
+     * @throws IOException 写入数据出错时抛出
+     */
+    private byte[] encodeHello(ProxyConnection connection) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeUTF(WireProtocol.HELLO);
+        out.writeInt(WireProtocol.LATEST);
+        out.writeInt(connection.getSession());
+        return stream.toByteArray();
+    }
+    
+    /**
+     * 将快照编码为二进制协议的插件消息
+     * 需要持有连接的锁，字符串表会随编码更新
+     * 
+     * @param connection 连接状态
+     * @param snapshot 玩家数据快照
+     * @return 插件消息字节，压缩后仍超过限制时返回null
+     * @throws IOException 写入数据出错时抛出
+     */
+    private byte[] encodePlayerDataV2(ProxyConnection connection, PlayerSnapshot snapshot) throws IOException {
+        WireWriter body = new WireWriter(256);
+        encodeFrame(connection, snapshot, body);
+        return encodeBinaryMessage(connection, body);
+    }
+    
+    /**
+     * 将快照编码为一帧并记录到玩家的数据流
+     * 新加入、BungeeCord请求或达到间隔时编码关键帧，其余时间只编码相对于上一帧的变化；
+     * 需要持有连接的锁。帧最终没有发出时调用方需要重置连接，BungeeCord会在重新协商后收到关键帧
+     * 
+     * @param connection 连接状态
+     * @param snapshot 玩家数据快照
+     * @param out 帧数据写入的位置
+     */
+    private void encodeFrame(ProxyConnection connection, PlayerSnapshot snapshot, WireWriter out) {
+        PlayerStream stream = streams.computeIfAbsent(snapshot.getUuid(), k -> new PlayerStream());
+        synchronized (stream) {
+            boolean keyframe = !deltaEnabled || stream.needsKeyframe(keyframeInterval);
+            long sequence = stream.nextSequence();
+            int start = out.size();
             
-            // 将JSON字符串转换为字节数组
-            byte[] rawData = jsonData.getBytes(StandardCharsets.UTF_8);
+            if (keyframe) {
+                SnapshotCodec.encodeKeyframe(snapshot, sequence, connection.getStrings(), out);
+            } else {
+                SnapshotCodec.encodeDelta(stream.getLastSent(), stream.getLastSequence(), snapshot, sequence,
+                    connection.getStrings(), out);
+            }
+            stream.sent(snapshot, sequence, keyframe);
             
-            // 检查原始数据大小，记录日志
-            boolean debug = playerInfo.getConfig().getBoolean("debug", false);
-            if (debug) {
-                playerInfo.getLogger().info("玩家数据原始大小: " + rawData.length + " 字节");
-            }
-            
-            // 如果原始数据接近或超过限制，进行压缩
-            if (rawData.length > 30000) { // 预留一些空间给头信息
-                // 压缩数据
-                byte[] compressedData = CompressionUtil.compress(
-                    rawData, 
-                    playerInfo.getLogger(), 
-                    debug
-                );
-                
-                // 检查压缩后的大小是否仍然超过限制
-                if (compressedData.length > 32000) { // 预留头信息空间
-                    playerInfo.getLogger().severe(String.format(
-                        "压缩后的玩家数据仍然超过限制 (%d > 32000 字节)，无法发送!",
-                        compressedData.length
-                    ));
-                    return;
-                }
-                
-                // 发送压缩数据
-                ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                DataOutputStream out = new DataOutputStream(stream);
-                
-                // 写入子通道名称
-                out.writeUTF("PlayerData");
-                
-                // 写入玩家UUID
-                out.writeUTF(player.getUniqueId().toString());
-                
-                // 标记这是压缩数据
-                out.writeBoolean(true); // 压缩标志
-                
-                // 写入压缩数据
-                out.writeInt(compressedData.length);
-                out.write(compressedData);
-                
-                // 发送数据
-                player.sendPluginMessage(plugin, channelName, stream.toByteArray());
-                
-                if (debug) {
-                    playerInfo.getLogger().info("已发送压缩的玩家数据: " + player.getName());
+            if (playerInfo.getConfig().getBoolean("debug", false)) {
+                playerInfo.getLogger().info("已编码玩家 " + snapshot.getName() + " 的" + (keyframe ? "关键帧" : "增量帧")
+                    + " #" + sequence + " (" + (out.size() - start) + " 字节)");
+            }
+        }
+    }
+    
+    /**
+     * 将队列中的玩家数据合并发送，在合并线程中定期执行
+     * 所有帧都经由同一个转发玩家的连接编码，按字符串表的更新顺序打包，每批只压缩一次；
+     * 连接尚未协商二进制协议时，每个玩家的数据仍以JSON单独发送，同时经由转发玩家发送握手
+     */
+    private void flushBatch() {
+        if (pending.isEmpty() || !plugin.isEnabled()) {
+            return;
+        }
+        
+        List<PendingUpdate> updates = new ArrayList<>(pending.size());
+        for (UUID uuid : pending.keySet()) {
+            PendingUpdate update = pending.remove(uuid);
+            // 已经退出的玩家不再编码，否则会经由转发玩家在移除消息之后重新加入BungeeCord
+            if (update != null && !departed.containsKey(uuid)) {
+                updates.add(update);
+            }
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        
+        boolean debug = playerInfo.getConfig().getBoolean("debug", false);
+        UUID carrierId = selectCarrier(updates);
+        ProxyConnection connection = connections.computeIfAbsent(carrierId, k -> new ProxyConnection(stringTableSize));
+        byte[] hello = null;
+        List<byte[]> messages = null;
+        List<UUID> jsonTargets = null;
+        try {
+            synchronized (connection) {
+                if (connection.getVersion() >= WireProtocol.VERSION_BINARY) {
+                    List<UUID> unchanged = new ArrayList<>();
+                    List<PendingUpdate> changed = filterUnchanged(updates, unchanged);
+                    messages = split(encodeBatch(connection, changed, debug));
+                    if (messages == null) {
+                        // 已编码的帧没有发出，字符串表和各玩家的数据流都需要重新开始
+                        connections.remove(carrierId, connection);
+                        streams.clear();
+                        if (suppressor != null) {
+                            suppressor.clear();
+                        }
+                    } else {
+                        for (PendingUpdate update : changed) {
+                            markSent(update.snapshot.getUuid(), update.hash);
+                        }
+                        if (!unchanged.isEmpty()) {
+                            messages.addAll(fragmenter.split(encodeHeartbeat(unchanged)));
+                        }
+                    }
+                } else if (connection.shouldSendHello()) {
+                    hello = encodeHello(connection);
                 }
-            } else {
-                // 原始数据不大，直接发送未压缩数据（保持向后兼容）
-                ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                DataOutputStream out = new DataOutputStream(stream);
-                
-                // 写入子通道名称
-                out.writeUTF("PlayerData");
-                
-                // 写入玩家UUID
-                out.writeUTF(player.getUniqueId().toString());
-                
-                // 标记这是未压缩数据
-                out.writeBoolean(false); // 压缩标志
-                
-                // 写入JSON数据
-                out.writeUTF(jsonData);
-                
-                // 发送数据
-                player.sendPluginMessage(plugin, channelName, stream.toByteArray());
-                
-                if (debug) {
-                    playerInfo.getLogger().info("已发送未压缩的玩家数据: " + player.getName());
+            }
+            if (messages == null) {
+                messages = new ArrayList<>(updates.size());
+                jsonTargets = new ArrayList<>(updates.size());
+                for (PendingUpdate update : updates) {
+                    UUID uuid = update.snapshot.getUuid();
+                    byte[] message = encodePlayerData(uuid, update.json);
+                    streams.remove(uuid);
+                    if (suppressor != null) {
+                        suppressor.invalidate(uuid);
+                    }
+                    if (message != null) {
+                        for (byte[] part : fragmenter.split(message)) {
+                            messages.add(part);
+                            jsonTargets.add(uuid);
+                        }
+                    }
                 }
             }
-        } catch (IOException e) {
-            playerInfo.getLogger().warning("发送玩家数据时出错: " + e.getMessage());
-            e.printStackTrace();
         } catch (Exception e) {
-            // 捕获任何序列化相关的错误
             playerInfo.getLogger().severe("序列化玩家数据时出错: " + e.getMessage());
-            if (playerInfo.getConfig().getBoolean("debug", false)) {
+            if (debug) {
                 e.printStackTrace();
             }
+            return;
+        }
+        
+        if (debug && jsonTargets == null) {
+            playerInfo.getLogger().info("已合并 " + updates.size() + " 名玩家的数据为 " + messages.size() + " 条消息");
+        }
+        
+        byte[] helloMessage = hello;
+        List<byte[]> dataMessages = messages;
+        List<UUID> targets = jsonTargets;
+        List<PendingUpdate> batched = updates;
+        outbox.post(() -> {
+            if (!registered) {
+                register();
+            }
+            Player carrierPlayer = Bukkit.getPlayer(carrierId);
+            if (carrierPlayer == null || !carrierPlayer.isOnline()) {
+                // 转发玩家已经离开，丢弃这条连接，下一批重新选择并协商
+                connections.remove(carrierId, connection);
+                if (carrier != null && carrier.equals(carrierId)) {
+                    carrier = null;
+                }
+                carrierPlayer = null;
+            } else if (helloMessage != null) {
+                carrierPlayer.sendPluginMessage(plugin, channelName, helloMessage);
+            }
+            
+            for (int i = 0; i < dataMessages.size(); i++) {
+                Player target = targets == null ? carrierPlayer : Bukkit.getPlayer(targets.get(i));
+                if (target != null && target.isOnline()) {
+                    target.sendPluginMessage(plugin, channelName, dataMessages.get(i));
+                }
+            }
+            
+            // 编码之后才退出的玩家，移除消息已经先于这批数据发出，经由转发玩家再发送一次，
+            // 并清除编码时留下的数据流
+            for (PendingUpdate update : batched) {
+                UUID uuid = update.snapshot.getUuid();
+                if (departed.containsKey(uuid)) {
+                    if (targets == null && carrierPlayer != null) {
+                        sendRemove(carrierPlayer, uuid);
+                    }
+                    streams.remove(uuid);
+                    if (suppressor != null) {
+                        suppressor.invalidate(uuid);
+                    }
+                }
+            }
+        });
+    }
+    
+    /**
+     * 将一批玩家的快照编码为合并消息
+     * 需要持有连接的锁
+     * 
+     * @param connection 转发玩家的连接
+     * @param updates 待发送的玩家数据
+     * @param debug 是否输出调试日志
+     * @return 插件消息列表，某一帧压缩后仍超过限制时返回null
+     * @throws IOException 写入数据出错时抛出
+     */
+    private List<byte[]> encodeBatch(ProxyConnection connection, List<PendingUpdate> updates, boolean debug)
+            throws IOException {
+        List<byte[]> messages = new ArrayList<>();
+        FrameBatch batch = new FrameBatch(Math.min(batchMaxSize, updates.size() * 256) + 1024, maxTransferSize,
+            codec);
+        for (PendingUpdate update : updates) {
+            encodeFrame(connection, update.snapshot, batch.getWriter());
+            batch.endFrame();
+            if (batch.size() >= batchMaxSize
+                    && !batch.drainTo(connection.getSession(), messages, playerInfo.getLogger(), debug)) {
+                return null;
+            }
+        }
+        return batch.drainTo(connection.getSession(), messages, playerInfo.getLogger(), debug) ? messages : null;
+    }
+    
+    /**
+     * 从一批玩家数据中去掉内容没有变化的玩家
+     * 
+     * @param updates 待发送的玩家数据
+     * @param heartbeats 需要发送心跳的玩家追加到这里
+     * @return 需要发送的玩家数据
+     */
+    private List<PendingUpdate> filterUnchanged(List<PendingUpdate> updates, List<UUID> heartbeats) {
+        if (suppressor == null) {
+            return updates;
+        }
+        List<PendingUpdate> changed = new ArrayList<>(updates.size());
+        for (PendingUpdate update : updates) {
+            UUID uuid = update.snapshot.getUuid();
+            update.hash = SendSuppressor.hash(update.json);
+            SendSuppressor.Decision decision = checkUnchanged(uuid, update.hash);
+            if (decision == SendSuppressor.Decision.SEND) {
+                changed.add(update);
+            } else if (decision == SendSuppressor.Decision.HEARTBEAT) {
+                heartbeats.add(uuid);
+            }
+        }
+        return changed;
+    }
+    
+    /**
+     * 判断玩家的数据是否可以跳过
+     * 只在连接已经协商二进制协议时调用，此时BungeeCord一定能处理心跳；
+     * 关键帧尚未确认或BungeeCord请求重新同步时总是发送
+     * 
+     * @param uuid 玩家UUID
+     * @param hash 本次数据的内容哈希
+     * @return 判断结果
+     */
+    private SendSuppressor.Decision checkUnchanged(UUID uuid, long hash) {
+        if (suppressor == null) {
+            return SendSuppressor.Decision.SEND;
+        }
+        PlayerStream stream = streams.get(uuid);
+        if (stream == null || !stream.isSettled()) {
+            return SendSuppressor.Decision.SEND;
+        }
+        return suppressor.check(uuid, hash);
+    }
+    
+    private void markSent(UUID uuid, long hash) {
+        if (suppressor != null) {
+            suppressor.sent(uuid, hash);
+        }
+    }
+    
+    /**
+     * 编码心跳消息，BungeeCord收到后刷新这些玩家的更新时间
+     * 
+     * @param players 数据没有变化的玩家
+     * @return 插件消息字节
+     * @throws IOException 写入数据出错时抛出
+     */
+    private byte[] encodeHeartbeat(List<UUID> players) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(8 + players.size() * 16);
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeUTF(WireProtocol.HEARTBEAT);
+        out.writeInt(players.size());
+        for (UUID uuid : players) {
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        }
+        return stream.toByteArray();
+    }
+    
+    /**
+     * 将超过插件消息限制的消息拆分为分片
+     * 
+     * @param messages 插件消息列表，可以为null
+     * @return 拆分后按顺序排列的消息，参数为null时返回null
+     * @throws IOException 写入数据出错时抛出
+     */
+    private List<byte[]> split(List<byte[]> messages) throws IOException {
+        if (messages == null) {
+            return null;
+        }
+        List<byte[]> parts = new ArrayList<>(messages.size());
+        for (byte[] message : messages) {
+            parts.addAll(fragmenter.split(message));
+        }
+        return parts;
+    }
+    
+    /**
+     * 选择合并发送使用的转发玩家
+     * 尽量沿用当前的转发玩家，避免重新协商；需要更换时优先选择已经协商好的连接
+     * 
+     * @param updates 本批的玩家数据，其中的玩家刚刚完成刷新，可以作为备选
+     * @return 转发玩家的UUID
+     */
+    private UUID selectCarrier(List<PendingUpdate> updates) {
+        UUID current = carrier;
+        if (current != null && connections.containsKey(current)) {
+            return current;
+        }
+        for (Map.Entry<UUID, ProxyConnection> entry : connections.entrySet()) {
+            if (entry.getValue().getVersion() >= WireProtocol.VERSION_BINARY) {
+                carrier = entry.getKey();
+                return carrier;
+            }
+        }
+        carrier = current != null ? current : updates.get(0).snapshot.getUuid();
+        return carrier;
+    }
+    
+    /**
+     * 将二进制帧包装为插件消息，较大时压缩
+     * 
+     * @param connection 连接状态
+     * @param body 帧数据
+     * @return 插件消息字节，压缩后仍超过限制时返回null
+     * @throws IOException 写入数据出错时抛出
+     */
+    private byte[] encodeBinaryMessage(ProxyConnection connection, WireWriter body) throws IOException {
+        boolean debug = playerInfo.getConfig().getBoolean("debug", false);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(body.size() + 32);
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeUTF(WireProtocol.PLAYER_DATA_V2);
+        out.writeInt(connection.getSession());
+        
+        if (body.size() > WireProtocol.COMPRESS_THRESHOLD) {
+            byte[] compressedData = codec.compress(body.getBuffer(), 0, body.size());
+            if (debug) {
+                playerInfo.getLogger().info(String.format("数据压缩: %d -> %d 字节", body.size(), compressedData.length));
+            }
+            if (compressedData.length > maxTransferSize) {
+                playerInfo.getLogger().severe(String.format(
+                    "压缩后的玩家数据仍然超过限制 (%d > %d 字节)，无法发送!",
+                    compressedData.length, maxTransferSize
+                ));
+                return null;
+            }
+            out.writeBoolean(true);
+            out.writeInt(compressedData.length);
+            out.write(compressedData);
+        } else {
+            out.writeBoolean(false);
+            out.writeInt(body.size());
+            out.write(body.getBuffer(), 0, body.size());
+        }
+        
+        return stream.toByteArray();
+    }
+    
+    /**
+     * 处理BungeeCord的握手确认
+     * 
+     * @param player 转发确认的玩家
+     * @param session 会话ID
+     * @param version 协商后的协议版本
+     */
+    public void handleHelloAck(Player player, int session, int version) {
+        ProxyConnection connection = connections.get(player.getUniqueId());
+        if (connection == null) {
+            return;
+        }
+        boolean switched;
+        synchronized (connection) {
+            switched = connection.acknowledge(session, version);
+        }
+        if (switched && playerInfo.getConfig().getBoolean("debug", false)) {
+            playerInfo.getLogger().info("玩家 " + player.getName() + " 的连接已切换到协议版本 " + connection.getVersion());
+        }
+    }
+    
+    /**
+     * 处理BungeeCord的重置请求
+     * BungeeCord无法解码某条连接上的数据时发送，丢弃连接状态后重新协商
+     * 
+     * @param player 转发请求的玩家
+     * @param session 需要重置的会话ID
+     */
+    public void handleReset(Player player, int session) {
+        ProxyConnection connection = connections.get(player.getUniqueId());
+        if (connection != null && connection.getSession() == session) {
+            connections.remove(player.getUniqueId(), connection);
+            // 出错的消息可能包含其他玩家的变化，重新协商后发送所有玩家的数据
+            if (suppressor != null) {
+                suppressor.clear();
+            }
+            if (playerInfo.getConfig().getBoolean("debug", false)) {
+                playerInfo.getLogger().info("BungeeCord请求重置玩家 " + player.getName() + " 的连接，将重新协商协议");
+            }
+        }
+    }
+    
+    /**
+     * 处理BungeeCord对关键帧的确认
+     * 
+     * @param uuid 玩家UUID
+     * @param sequence 已确认的帧序号
+     */
+    public void handleAck(UUID uuid, long sequence) {
+        PlayerStream stream = streams.get(uuid);
+        if (stream != null) {
+            stream.acknowledge(sequence);
+        }
+    }
+    
+    /**
+     * 处理BungeeCord的重新同步请求，下一次发送该玩家的完整数据
+     * 
+     * @param uuid 玩家UUID
+     */
+    public void handleResync(UUID uuid) {
+        if (suppressor != null) {
+            suppressor.invalidate(uuid);
+        }
+        PlayerStream stream = streams.get(uuid);
+        if (stream != null) {
+            stream.requestKeyframe();
+            if (playerInfo.getConfig().getBoolean("debug", false)) {
+                playerInfo.getLogger().info("BungeeCord请求重新同步玩家 " + uuid + " 的数据");
+            }
+        }
+    }
+    
+    /**
+     * 下一次发送所有玩家的数据，不论内容是否变化
+     * 按需收集模式停止一段时间后恢复时调用，BungeeCord可能已经清除了过期的数据，
+     * 增量帧依赖的上一帧也随之不存在，所有玩家都重新发送关键帧
+     */
+    public void resendAll() {
+        streams.clear();
+        if (suppressor != null) {
+            suppressor.clear();
+        }
+    }
+    
+    /**
+     * 玩家重新加入时调用，之后的数据照常发送
+     * 
+     * @param uuid 玩家UUID
+     */
+    public void addPlayer(UUID uuid) {
+        departed.remove(uuid);
+    }
+    
+    /**
+     * 移除玩家的连接状态和数据流，玩家退出时调用
+     * 之后一段时间内不再编码和发送该玩家的数据，序列化线程中尚未完成的任务随之作废
+     * 
+     * @param uuid 玩家UUID
+     */
+    public void removePlayer(UUID uuid) {
+        long now = System.currentTimeMillis();
+        departed.values().removeIf(time -> now - time > DEPARTED_RETENTION_MILLIS);
+        departed.put(uuid, now);
+        connections.remove(uuid);
+        streams.remove(uuid);
+        pending.remove(uuid);
+        if (suppressor != null) {
+            suppressor.invalidate(uuid);
+        }
+        if (uuid.equals(carrier)) {
+            carrier = null;
+        }
+    }
+    
+    /**
+     * 将玩家数据编码为插件消息
+     * 数据较大时进行压缩，压缩后仍超过限制则返回null
+     * 
+     * @param uuid 玩家UUID
+     * @param jsonData 玩家数据JSON
+     * @return 插件消息字节，无法发送时返回null
+     * @throws IOException 写入数据出错时抛出
+     */
+    private byte[] encodePlayerData(UUID uuid, String jsonData) throws IOException {
+        // 将JSON字符串转换为字节数组
+        byte[] rawData = jsonData.getBytes(StandardCharsets.UTF_8);
+        
+        // 检查原始数据大小，记录日志
+        boolean debug = playerInfo.getConfig().getBoolean("debug", false);
+        if (debug) {
+            playerInfo.getLogger().info("玩家数据原始大小: " + rawData.length + " 字节");
+        }
+        
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(stream);
+        
+        // 写入子通道名称
+        out.writeUTF(WireProtocol.PLAYER_DATA);
+        
+        // 写入玩家UUID
+        out.writeUTF(uuid.toString());
+        
+        // 如果原始数据接近或超过限制，进行压缩
+        if (rawData.length > 30000) { // 预留一些空间给头信息
+            // 压缩数据
+            byte[] compressedData = CompressionUtil.compress(
+                rawData, 
+                playerInfo.getLogger(), 
+                debug
+            );
+            
+            // 检查压缩后的大小是否仍然超过限制，超过插件消息限制但未超过分片上限时拆分发送
+            if (compressedData.length > maxTransferSize) {
+                playerInfo.getLogger().severe(String.format(
+                    "压缩后的玩家数据仍然超过限制 (%d > %d 字节)，无法发送!",
+                    compressedData.length, maxTransferSize
+                ));
+                return null;
+            }
+            
+            // 标记这是压缩数据
+            out.writeBoolean(true); // 压缩标志
+            
+            // 写入压缩数据
+            out.writeInt(compressedData.length);
+            out.write(compressedData);
+            
+            if (debug) {
+                playerInfo.getLogger().info("已编码压缩的玩家数据: " + uuid);
+            }
+        } else {
+            // 原始数据不大，直接发送未压缩数据（保持向后兼容）
+            out.writeBoolean(false); // 压缩标志
+            
+            // 写入JSON数据
+            out.writeUTF(jsonData);
+            
+            if (debug) {
+                playerInfo.getLogger().info("已编码未压缩的玩家数据: " + uuid);
+            }
         }
+        return stream.toByteArray();
     }
     
     /**
@@ -184,24 +851,35 @@ public class MessageSender {
             register();
         }
         
+        if (sendRemove(player, player.getUniqueId()) && playerInfo.getConfig().getBoolean("debug", false)) {
+            playerInfo.getLogger().info("已发送玩家 " + player.getName() + " 的移除消息到BungeeCord");
+        }
+    }
+    
+    /**
+     * 通过指定玩家的连接发送某名玩家的移除消息
+     * 
+     * @param via 发送消息的玩家
+     * @param uuid 被移除的玩家UUID
+     * @return 是否发送成功
+     */
+    private boolean sendRemove(Player via, UUID uuid) {
         try {
             ByteArrayOutputStream stream = new ByteArrayOutputStream();
             DataOutputStream out = new DataOutputStream(stream);
             
             // 写入子通道名称
-            out.writeUTF("PlayerRemove");
+            out.writeUTF(WireProtocol.PLAYER_REMOVE);
             
             // 写入玩家UUID
-            out.writeUTF(player.getUniqueId().toString());
+            out.writeUTF(uuid.toString());
             
             // 发送数据
-            player.sendPluginMessage(plugin, channelName, stream.toByteArray());
-            
-            if (playerInfo.getConfig().getBoolean("debug", false)) {
-                playerInfo.getLogger().info("已发送玩家 " + player.getName() + " 的移除消息到BungeeCord");
-            }
+            via.sendPluginMessage(plugin, channelName, stream.toByteArray());
+            return true;
         } catch (IOException e) {
             playerInfo.getLogger().warning("发送玩家移除消息时出错: " + e.getMessage());
+            return false;
         }
     }
     
@@ -252,4 +930,37 @@ public class MessageSender {
     public String getChannelName() {
         return channelName;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 获取编码线程池，未注册时为null
+     * 
+     * @return 编码线程池
+     */
+    public SerializationExecutor getEncoder() {
+        return encoder;
+    }
+    
+    /**
+     * 获取等待合并发送的玩家数量
+     * 
+     * @return 玩家数量，未启用合并发送时为0
+     */
+    public int getPendingUpdates() {
+        return pending.size();
+    }
+    
+    /**
+     * 等待合并发送的玩家数据
+     */
+    private static final class PendingUpdate {
+        private final PlayerSnapshot snapshot;
+        private final String json;
+        // 内容哈希，在合并线程中计算
+        private long hash;
+        
+        private PendingUpdate(PlayerSnapshot snapshot, String json) {
+            this.snapshot = snapshot;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package cn.i7mc.playerinfo.messaging;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 主线程发送队列
+ * 编码线程按编码顺序放入发送任务，主线程上由一个排空任务按先进先出的顺序执行；
+ * 1.12.2 的调度器只按执行时间排序，同一tick提交的多个任务不保证按提交顺序执行，
+ * 每条消息单独提交任务时，增量帧可能先于它依赖的关键帧或字符串表更新发出
+ */
+final class Outbox {
+    private final Executor mainThread;
+    private final Logger logger;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    // 是否已经提交了排空任务，队列从空变为非空时才提交
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * 构造函数
+     *
+     * @param mainThread 在主线程执行任务的方式
+     * @param logger 日志记录器
+     */
+    Outbox(Executor mainThread, Logger logger) {
+        this.mainThread = mainThread;
+        this.logger = logger;
+    }
+
+    /**
+     * 放入发送任务，排在之前放入的任务之后执行
+     *
+     * @param delivery 在主线程执行的发送任务
+     */
+    void post(Runnable delivery) {
+        queue.add(delivery);
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                mainThread.execute(this::drain);
+            } catch (RuntimeException e) {
+                // 插件正在关闭，无法再提交任务
+                scheduled.set(false);
+                queue.clear();
+            }
+        }
+    }
+
+    /**
+     * 在主线程按顺序执行队列中的所有任务
+     */
+    private void drain() {
+        // 先清除标记再取任务，排空期间放入的任务要么在本次取到，要么会提交新的排空任务
+        scheduled.set(false);
+        Runnable delivery;
+        while ((delivery = queue.poll()) != null) {
+            try {
+                delivery.run();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "发送插件消息时出错: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 丢弃尚未发送的任务
+     */
+    void clear() {
+        queue.clear();
+    }
+
+    /**
+     * 获取等待发送的任务数量
+     *
+     * @return 任务数量
+     */
+    int size() {
+        return queue.size();
+    }
+}
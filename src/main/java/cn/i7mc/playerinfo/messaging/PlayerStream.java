@@ -0,0 +1,99 @@
+package cn.i7mc.playerinfo.messaging;
+
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+
+/**
+ * 发送给BungeeCord的单个玩家数据流
+ * 记录上一次发送的快照和序号，用于生成增量帧；
+ * BungeeCord确认关键帧或请求重新同步时更新状态
+ */
+public class PlayerStream {
+
+    // 关键帧未被确认时，最多再发送多少个增量帧后重发关键帧
+    private static final int UNACKED_KEYFRAME_LIMIT = 5;
+
+    private long sequence = 0;
+    private PlayerSnapshot lastSent;
+    private long lastSequence = -1;
+    private boolean keyframeRequested = true;
+    // 等待确认的关键帧序号，-1表示已确认
+    private long pendingKeyframe = -1;
+    private int sinceKeyframe = 0;
+
+    /**
+     * 判断下一帧是否需要发送完整快照
+     *
+     * @param keyframeInterval 每隔多少帧强制发送一次关键帧，0表示不强制
+     * @return 是否发送关键帧
+     */
+    public synchronized boolean needsKeyframe(int keyframeInterval) {
+        return keyframeRequested
+            || lastSent == null
+            || (keyframeInterval > 0 && sinceKeyframe >= keyframeInterval)
+            || (pendingKeyframe >= 0 && sinceKeyframe >= UNACKED_KEYFRAME_LIMIT);
+    }
+
+    /**
+     * 分配下一帧的序号
+     *
+     * @return 序号
+     */
+    public synchronized long nextSequence() {
+        return ++sequence;
+    }
+
+    /**
+     * 记录已编码并交给发送队列的帧
+     *
+     * @param snapshot 帧对应的快照
+     * @param frameSequence 帧序号
+     * @param keyframe 是否为关键帧
+     */
+    public synchronized void sent(PlayerSnapshot snapshot, long frameSequence, boolean keyframe) {
+        lastSent = snapshot;
+        lastSequence = frameSequence;
+        if (keyframe) {
+            keyframeRequested = false;
+            pendingKeyframe = frameSequence;
+            sinceKeyframe = 0;
+        } else {
+            sinceKeyframe++;
+        }
+    }
+
+    /**
+     * 处理BungeeCord对关键帧的确认
+     *
+     * @param frameSequence 已确认的帧序号
+     */
+    public synchronized void acknowledge(long frameSequence) {
+        if (frameSequence == pendingKeyframe) {
+            pendingKeyframe = -1;
+        }
+    }
+
+    /**
+     * 下一帧发送完整快照，BungeeCord缺少增量帧的基准数据时调用
+     */
+    public synchronized void requestKeyframe() {
+        keyframeRequested = true;
+    }
+
+    /**
+     * 是否处于稳定状态：BungeeCord已经确认了关键帧，也没有请求重新同步，
+     * 此时内容没有变化的数据可以不再发送
+     *
+     * @return 是否稳定
+     */
+    public synchronized boolean isSettled() {
+        return lastSent != null && !keyframeRequested && pendingKeyframe < 0;
+    }
+
+    public synchronized PlayerSnapshot getLastSent() {
+        return lastSent;
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+}
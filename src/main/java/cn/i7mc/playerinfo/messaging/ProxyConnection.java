@@ -0,0 +1,78 @@
+package cn.i7mc.playerinfo.messaging;
+
+import cn.i7mc.playerinfo.protocol.StringTable;
+import cn.i7mc.playerinfo.protocol.WireProtocol;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 经由某个玩家转发到BungeeCord的一条连接
+ * BungeeCord为每个玩家单独建立到子服的连接，不同连接上的插件消息之间没有顺序保证，
+ * 因此协议版本和字符串表都按连接分别维护。
+ * 编码和协商都需要在持有该对象的锁时进行
+ */
+public class ProxyConnection {
+
+    // 未收到确认时，每隔多少条数据消息重新发送一次握手
+    private static final int HELLO_RETRY_INTERVAL = 10;
+
+    private final int session;
+    private final StringTable strings;
+    private int version = WireProtocol.VERSION_JSON;
+    private int sendsSinceHello = -1;
+
+    /**
+     * 构造函数
+     *
+     * @param stringTableSize 字符串表大小
+     */
+    public ProxyConnection(int stringTableSize) {
+        this.session = ThreadLocalRandom.current().nextInt();
+        this.strings = new StringTable(stringTableSize);
+    }
+
+    /**
+     * 判断本次发送前是否需要附带握手消息
+     * 旧版BungeeCord不会回复握手，此时按固定间隔重试，期间一直使用JSON格式
+     *
+     * @return 是否需要发送握手
+     */
+    public boolean shouldSendHello() {
+        if (version != WireProtocol.VERSION_JSON) {
+            return false;
+        }
+        if (sendsSinceHello < 0 || ++sendsSinceHello >= HELLO_RETRY_INTERVAL) {
+            sendsSinceHello = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 处理BungeeCord的握手确认
+     *
+     * @param ackSession 确认中的会话ID
+     * @param ackVersion 双方都支持的协议版本
+     * @return 是否切换了协议版本
+     */
+    public boolean acknowledge(int ackSession, int ackVersion) {
+        if (ackSession != session || version != WireProtocol.VERSION_JSON) {
+            return false;
+        }
+        version = Math.min(ackVersion, WireProtocol.LATEST);
+        strings.clear();
+        return version != WireProtocol.VERSION_JSON;
+    }
+
+    public int getSession() {
+        return session;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public StringTable getStrings() {
+        return strings;
+    }
+}
@@ -0,0 +1,114 @@
+package cn.i7mc.playerinfo.messaging;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 跳过内容没有变化的玩家数据
+ * 记录每个玩家上一次发出的数据的内容哈希，内容相同时不再编码和发送，只按间隔发送心跳，
+ * 让BungeeCord刷新该玩家的更新时间而不会当作过期数据清除
+ */
+public class SendSuppressor {
+
+    /**
+     * 对一次发送的判断结果
+     */
+    public enum Decision {
+        // 内容有变化，正常发送
+        SEND,
+        // 内容没有变化，但需要发送心跳
+        HEARTBEAT,
+        // 内容没有变化，不需要发送任何消息
+        SKIP
+    }
+
+    /**
+     * 上一次发出的内容和联系时间，创建后不再修改
+     */
+    private static final class State {
+        private final long hash;
+        private final long lastContact;
+
+        private State(long hash, long lastContact) {
+            this.hash = hash;
+            this.lastContact = lastContact;
+        }
+    }
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long heartbeatIntervalMillis;
+    private final Map<UUID, State> states = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param heartbeatIntervalMillis 内容没有变化时发送心跳的间隔（毫秒）
+     */
+    public SendSuppressor(long heartbeatIntervalMillis) {
+        this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+    }
+
+    /**
+     * 计算数据的64位内容哈希（按字符计算的FNV-1a），直接遍历字符，不需要先转换为字节数组
+     *
+     * @param payload 玩家数据JSON
+     * @return 哈希值
+     */
+    public static long hash(String payload) {
+        long hash = FNV_OFFSET;
+        for (int i = 0, length = payload.length(); i < length; i++) {
+            hash = (hash ^ payload.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * 判断玩家的数据是否需要发送
+     * 同一玩家的数据需要在同一个线程中依次判断
+     *
+     * @param uuid 玩家UUID
+     * @param hash 本次数据的内容哈希
+     * @return 判断结果
+     */
+    public Decision check(UUID uuid, long hash) {
+        State state = states.get(uuid);
+        if (state == null || state.hash != hash) {
+            return Decision.SEND;
+        }
+        long now = System.currentTimeMillis();
+        if (now - state.lastContact >= heartbeatIntervalMillis) {
+            states.put(uuid, new State(hash, now));
+            return Decision.HEARTBEAT;
+        }
+        return Decision.SKIP;
+    }
+
+    /**
+     * 记录已经发出的数据
+     *
+     * @param uuid 玩家UUID
+     * @param hash 数据的内容哈希
+     */
+    public void sent(UUID uuid, long hash) {
+        states.put(uuid, new State(hash, System.currentTimeMillis()));
+    }
+
+    /**
+     * 下一次无论内容是否变化都发送该玩家的数据
+     *
+     * @param uuid 玩家UUID
+     */
+    public void invalidate(UUID uuid) {
+        states.remove(uuid);
+    }
+
+    /**
+     * 下一次发送所有玩家的数据
+     */
+    public void clear() {
+        states.clear();
+    }
+}
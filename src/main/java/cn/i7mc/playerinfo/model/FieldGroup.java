@@ -0,0 +1,101 @@
+package cn.i7mc.playerinfo.model;
+
+/**
+ * 玩家数据字段分组
+ * 每个分组对应快照中可以独立重建的一部分数据，使用位掩码表示脏标记
+ */
+public enum FieldGroup {
+    VITALS("vitals", 1),             // 生命值、饥饿度、经验、游戏模式等状态
+    LOCATION("location", 1),         // 世界和坐标
+    INVENTORY("inventory", 1),       // 背包物品
+    EQUIPMENT("equipment", 1),       // 装备栏和主副手
+    PLACEHOLDERS("placeholders", 2), // 自定义占位符
+    DRAGONCORE("dragoncore", 3);     // DragonCore容器物品
+
+    /**
+     * 所有分组的掩码
+     */
+    public static final int ALL_MASK = (1 << values().length) - 1;
+
+    /**
+     * 物品相关分组的掩码（背包 + 装备）
+     */
+    public static final int ITEMS_MASK = INVENTORY.bit() | EQUIPMENT.bit();
+
+    private final String key;
+    private final int defaultCadence;
+
+    /**
+     * 根据配置键名列表计算分组掩码，忽略无法识别的名称
+     *
+     * @param keys 配置键名列表
+     * @return 分组掩码
+     */
+    public static int maskOf(Iterable<String> keys) {
+        int mask = 0;
+        for (String key : keys) {
+            FieldGroup group = fromKey(key);
+            if (group != null) {
+                mask |= group.bit();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 根据配置键名查找分组
+     *
+     * @param key 配置键名（不区分大小写）
+     * @return 分组，找不到时返回null
+     */
+    public static FieldGroup fromKey(String key) {
+        for (FieldGroup group : values()) {
+            if (group.key.equalsIgnoreCase(key)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    FieldGroup(String key, int defaultCadence) {
+        this.key = key;
+        this.defaultCadence = defaultCadence;
+    }
+
+    /**
+     * 获取分组对应的位
+     *
+     * @return 位掩码
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * 检查掩码中是否包含此分组
+     *
+     * @param mask 位掩码
+     * @return 是否包含
+     */
+    public boolean in(int mask) {
+        return (mask & bit()) != 0;
+    }
+
+    /**
+     * 获取分组在配置文件中使用的名称
+     *
+     * @return 配置键名
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * 获取分组默认的刷新周期
+     *
+     * @return 刷新轮数
+     */
+    public int getDefaultCadence() {
+        return defaultCadence;
+    }
+}
@@ -0,0 +1,148 @@
+package cn.i7mc.playerinfo.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 紧凑的物品列表
+ * 每个槽位的类型ID、数量、耐久度和显示信息分别保存在平铺的数组中，
+ * 不持有 ItemStack 对象，可以在任意线程读取
+ */
+public final class ItemArray {
+
+    /**
+     * 没有任何槽位的空列表
+     */
+    public static final ItemArray EMPTY = new ItemArray(0, false);
+
+    // 槽位名称（DragonCore等按名称区分的容器），按索引区分时为null
+    private final String[] keys;
+    // 物品类型ID，空槽位为-1
+    private final int[] types;
+    private final int[] amounts;
+    private final short[] durabilities;
+    private final ItemMetaInfo[] metas;
+
+    /**
+     * 创建指定大小的列表，所有槽位初始为空
+     * 只应在捕获数据时填充，填充完成后不再修改
+     *
+     * @param size 槽位数量
+     * @param keyed 是否按名称区分槽位
+     */
+    public ItemArray(int size, boolean keyed) {
+        this.keys = keyed ? new String[size] : null;
+        this.types = new int[size];
+        this.amounts = new int[size];
+        this.durabilities = new short[size];
+        this.metas = new ItemMetaInfo[size];
+        Arrays.fill(types, -1);
+    }
+
+    /**
+     * 设置槽位内容
+     *
+     * @param index 槽位索引
+     * @param typeName 物品类型名称
+     * @param amount 数量
+     * @param durability 耐久度（数据值）
+     * @param meta 显示信息，可以为null
+     */
+    public void set(int index, String typeName, int amount, short durability, ItemMetaInfo meta) {
+        types[index] = ItemTypes.id(typeName);
+        amounts[index] = amount;
+        durabilities[index] = durability;
+        metas[index] = meta;
+    }
+
+    /**
+     * 清空槽位
+     *
+     * @param index 槽位索引
+     */
+    public void clear(int index) {
+        types[index] = -1;
+        amounts[index] = 0;
+        durabilities[index] = 0;
+        metas[index] = null;
+    }
+
+    /**
+     * 复制列表，用于在已有数据的基础上应用部分槽位的变化
+     *
+     * @return 内容相同的新列表
+     */
+    public ItemArray copy() {
+        ItemArray copy = new ItemArray(size(), isKeyed());
+        if (keys != null) {
+            System.arraycopy(keys, 0, copy.keys, 0, keys.length);
+        }
+        System.arraycopy(types, 0, copy.types, 0, types.length);
+        System.arraycopy(amounts, 0, copy.amounts, 0, amounts.length);
+        System.arraycopy(durabilities, 0, copy.durabilities, 0, durabilities.length);
+        System.arraycopy(metas, 0, copy.metas, 0, metas.length);
+        return copy;
+    }
+
+    /**
+     * 判断两个槽位的内容是否相同
+     *
+     * @param index 本列表的槽位索引
+     * @param other 另一个列表
+     * @param otherIndex 另一个列表的槽位索引
+     * @return 类型、数量、耐久度和显示信息是否都相同
+     */
+    public boolean sameSlot(int index, ItemArray other, int otherIndex) {
+        return types[index] == other.types[otherIndex]
+            && (types[index] < 0
+                || (amounts[index] == other.amounts[otherIndex]
+                    && durabilities[index] == other.durabilities[otherIndex]
+                    && Objects.equals(metas[index], other.metas[otherIndex])));
+    }
+
+    /**
+     * 设置槽位名称
+     *
+     * @param index 槽位索引
+     * @param key 槽位名称
+     */
+    public void setKey(int index, String key) {
+        keys[index] = key;
+    }
+
+    public int size() {
+        return types.length;
+    }
+
+    public boolean isKeyed() {
+        return keys != null;
+    }
+
+    public String getKey(int index) {
+        return keys == null ? null : keys[index];
+    }
+
+    public boolean isEmpty(int index) {
+        return types[index] < 0;
+    }
+
+    public int getTypeId(int index) {
+        return types[index];
+    }
+
+    public String getType(int index) {
+        return ItemTypes.name(types[index]);
+    }
+
+    public int getAmount(int index) {
+        return amounts[index];
+    }
+
+    public short getDurability(int index) {
+        return durabilities[index];
+    }
+
+    public ItemMetaInfo getMeta(int index) {
+        return metas[index];
+    }
+}
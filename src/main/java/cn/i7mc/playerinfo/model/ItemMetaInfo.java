@@ -0,0 +1,78 @@
+package cn.i7mc.playerinfo.model;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * 物品的显示名称和描述
+ * 通过 {@link #of(String, List)} 驻留，内容相同的物品共享同一个实例
+ */
+public final class ItemMetaInfo {
+    private static final Map<ItemMetaInfo, WeakReference<ItemMetaInfo>> pool =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final String displayName;
+    private final List<String> lore;
+    private final int hash;
+
+    private ItemMetaInfo(String displayName, List<String> lore) {
+        this.displayName = displayName;
+        this.lore = lore;
+        this.hash = Objects.hash(displayName, lore);
+    }
+
+    /**
+     * 获取驻留的实例
+     *
+     * @param displayName 显示名称，可以为null
+     * @param lore 描述，可以为null
+     * @return 共享的实例，两者都为null时返回null
+     */
+    public static ItemMetaInfo of(String displayName, List<String> lore) {
+        if (displayName == null && (lore == null || lore.isEmpty())) {
+            return null;
+        }
+        ItemMetaInfo probe = new ItemMetaInfo(displayName,
+            lore == null || lore.isEmpty() ? null : Collections.unmodifiableList(lore));
+        synchronized (pool) {
+            WeakReference<ItemMetaInfo> ref = pool.get(probe);
+            ItemMetaInfo shared = ref == null ? null : ref.get();
+            if (shared != null) {
+                return shared;
+            }
+            pool.put(probe, new WeakReference<>(probe));
+            return probe;
+        }
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public List<String> getLore() {
+        return lore;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ItemMetaInfo)) {
+            return false;
+        }
+        ItemMetaInfo other = (ItemMetaInfo) o;
+        return hash == other.hash
+            && Objects.equals(displayName, other.displayName)
+            && Objects.equals(lore, other.lore);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
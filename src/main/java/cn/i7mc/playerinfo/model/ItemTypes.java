@@ -0,0 +1,63 @@
+package cn.i7mc.playerinfo.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 物品类型名称的驻留表
+ * 快照中的物品只保存整数ID，同一类型名称在内存中只保存一份
+ */
+public final class ItemTypes {
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private static final List<String> names = new ArrayList<>();
+
+    private ItemTypes() {
+    }
+
+    /**
+     * 获取类型名称对应的ID，首次出现时分配新ID
+     *
+     * @param name 物品类型名称
+     * @return 类型ID
+     */
+    public static int id(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (names) {
+            id = ids.get(name);
+            if (id == null) {
+                id = names.size();
+                names.add(name);
+                ids.put(name, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * 获取ID对应的类型名称
+     *
+     * @param id 类型ID
+     * @return 物品类型名称，ID无效时返回null
+     */
+    public static String name(int id) {
+        synchronized (names) {
+            return id >= 0 && id < names.size() ? names.get(id) : null;
+        }
+    }
+
+    /**
+     * 获取已登记的类型数量
+     *
+     * @return 类型数量
+     */
+    public static int size() {
+        synchronized (names) {
+            return names.size();
+        }
+    }
+}
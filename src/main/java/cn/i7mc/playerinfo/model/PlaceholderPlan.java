@@ -0,0 +1,246 @@
+package cn.i7mc.playerinfo.model;
+
+import com.google.gson.JsonPrimitive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 编译后的占位符配置
+ * 在加载 Placeholder.yml 时生成一次，已按优先级排序，创建后不再修改；
+ * 每个玩家解析占位符时只需要按顺序填入解析后的值
+ */
+public final class PlaceholderPlan {
+
+    /**
+     * 没有任何占位符且未启用的配置
+     */
+    public static final PlaceholderPlan EMPTY = new PlaceholderPlan(false, Collections.<Entry>emptyList());
+
+    /**
+     * 单个占位符的编译结果
+     * 不随玩家变化的JSON字段预先创建，所有玩家共享
+     */
+    public static final class Entry {
+        private final int index;
+        private final String id;
+        private final String icon;
+        private final String placeholder;
+        private final int priority;
+        private final boolean dynamic;
+        private final long cacheTtlMillis;
+        private final boolean async;
+        private final boolean batch;
+
+        // 值缓存统计，重新加载配置后从0开始
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder cacheMisses = new LongAdder();
+
+        private final JsonPrimitive idJson;
+        private final JsonPrimitive iconJson;
+        private final JsonPrimitive placeholderJson;
+        private final JsonPrimitive priorityJson;
+
+        private Entry(int index, Definition definition) {
+            this.index = index;
+            this.id = definition.id;
+            this.icon = definition.icon;
+            this.placeholder = definition.placeholder;
+            this.priority = definition.priority;
+            this.dynamic = definition.dynamic;
+            this.cacheTtlMillis = definition.cacheTtlMillis;
+            this.async = definition.async;
+            this.batch = definition.batch;
+            this.idJson = new JsonPrimitive(id);
+            this.iconJson = new JsonPrimitive(icon);
+            this.placeholderJson = new JsonPrimitive(placeholder);
+            this.priorityJson = new JsonPrimitive(priority);
+        }
+
+        /**
+         * 获取在配置中的顺序（按优先级排序后）
+         *
+         * @return 索引
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getIcon() {
+            return icon;
+        }
+
+        public String getPlaceholder() {
+            return placeholder;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        /**
+         * 是否包含需要PlaceholderAPI解析的占位符，不包含时值就是配置的文本
+         *
+         * @return 是否需要解析
+         */
+        public boolean isDynamic() {
+            return dynamic;
+        }
+
+        /**
+         * 获取解析结果的缓存时间，0表示每次都重新解析
+         *
+         * @return 缓存时间（毫秒）
+         */
+        public long getCacheTtlMillis() {
+            return cacheTtlMillis;
+        }
+
+        /**
+         * 是否在工作线程中解析，解析结果在下一次捕获快照时使用
+         *
+         * @return 是否异步解析
+         */
+        public boolean isAsync() {
+            return async;
+        }
+
+        /**
+         * 是否可以与其他占位符合并为一次PlaceholderAPI调用
+         *
+         * @return 是否允许批量解析
+         */
+        public boolean isBatch() {
+            return batch;
+        }
+
+        /**
+         * 记录一次缓存命中
+         */
+        public void recordHit() {
+            cacheHits.increment();
+        }
+
+        /**
+         * 记录一次缓存未命中（调用了PlaceholderAPI）
+         */
+        public void recordMiss() {
+            cacheMisses.increment();
+        }
+
+        public long getCacheHits() {
+            return cacheHits.sum();
+        }
+
+        public long getCacheMisses() {
+            return cacheMisses.sum();
+        }
+
+        public JsonPrimitive getIdJson() {
+            return idJson;
+        }
+
+        public JsonPrimitive getIconJson() {
+            return iconJson;
+        }
+
+        public JsonPrimitive getPlaceholderJson() {
+            return placeholderJson;
+        }
+
+        public JsonPrimitive getPriorityJson() {
+            return priorityJson;
+        }
+    }
+
+    /**
+     * 编译前的占位符定义
+     */
+    public static final class Definition {
+        private final String id;
+        private final String icon;
+        private final String placeholder;
+        private final int priority;
+        private final boolean dynamic;
+        private final long cacheTtlMillis;
+        private final boolean async;
+        private final boolean batch;
+
+        public Definition(String id, String icon, String placeholder, int priority, boolean dynamic,
+                          long cacheTtlMillis, boolean async, boolean batch) {
+            this.id = id;
+            this.icon = icon;
+            this.placeholder = placeholder;
+            this.priority = priority;
+            this.dynamic = dynamic;
+            this.cacheTtlMillis = Math.max(0, cacheTtlMillis);
+            this.async = async;
+            this.batch = batch;
+        }
+    }
+
+    private final boolean enabled;
+    private final List<Entry> entries;
+    private final boolean hasAsync;
+
+    private PlaceholderPlan(boolean enabled, List<Entry> entries) {
+        this.enabled = enabled;
+        this.entries = entries;
+        boolean async = false;
+        for (Entry entry : entries) {
+            async |= entry.isAsync();
+        }
+        this.hasAsync = async;
+    }
+
+    /**
+     * 编译占位符定义
+     * 按优先级稳定排序，优先级相同时保持配置文件中的顺序
+     *
+     * @param enabled 是否启用占位符
+     * @param definitions 已启用的占位符定义，按配置文件顺序
+     * @return 编译后的配置
+     */
+    public static PlaceholderPlan compile(boolean enabled, List<Definition> definitions) {
+        List<Definition> sorted = new ArrayList<>(definitions);
+        sorted.sort((a, b) -> Integer.compare(a.priority, b.priority));
+
+        List<Entry> entries = new ArrayList<>(sorted.size());
+        for (Definition definition : sorted) {
+            entries.add(new Entry(entries.size(), definition));
+        }
+        return new PlaceholderPlan(enabled, Collections.unmodifiableList(entries));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取按优先级排序的占位符
+     *
+     * @return 只读列表
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * 是否有需要在工作线程中解析的占位符
+     *
+     * @return 是否有异步占位符
+     */
+    public boolean hasAsync() {
+        return hasAsync;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
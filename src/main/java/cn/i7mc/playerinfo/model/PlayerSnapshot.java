@@ -0,0 +1,162 @@
+package cn.i7mc.playerinfo.model;
+
+import com.google.gson.JsonObject;
+
+import java.util.UUID;
+
+/**
+ * 玩家数据快照
+ * 在主线程中从Bukkit读取的原始数据，状态和坐标保存为基本类型，物品保存为紧凑的 {@link ItemArray}，
+ * 创建后不再修改，可以安全地交给工作线程转换为Map/JSON/消息字节
+ */
+public final class PlayerSnapshot {
+
+    /**
+     * 生命值、饥饿度、经验、游戏模式等状态
+     */
+    public static final class Vitals {
+        public final String displayName;
+        public final boolean op;
+        public final double health;
+        public final double maxHealth;
+        public final int foodLevel;
+        public final float exhaustion;
+        public final float saturation;
+        public final String gameMode;
+        public final int level;
+        public final float exp;
+
+        public Vitals(String displayName, boolean op, double health, double maxHealth, int foodLevel,
+                      float exhaustion, float saturation, String gameMode, int level, float exp) {
+            this.displayName = displayName;
+            this.op = op;
+            this.health = health;
+            this.maxHealth = maxHealth;
+            this.foodLevel = foodLevel;
+            this.exhaustion = exhaustion;
+            this.saturation = saturation;
+            this.gameMode = gameMode;
+            this.level = level;
+            this.exp = exp;
+        }
+    }
+
+    /**
+     * 世界和坐标
+     */
+    public static final class Position {
+        public final String world;
+        public final double x;
+        public final double y;
+        public final double z;
+        public final float yaw;
+        public final float pitch;
+
+        public Position(String world, double x, double y, double z, float yaw, float pitch) {
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.yaw = yaw;
+            this.pitch = pitch;
+        }
+    }
+
+    private final UUID uuid;
+    private final String name;
+    private final long version;
+    private final int changedGroups;
+
+    /**
+     * 主手在 {@link #getHands()} 中的索引
+     */
+    public static final int MAIN_HAND = 0;
+
+    /**
+     * 副手在 {@link #getHands()} 中的索引
+     */
+    public static final int OFF_HAND = 1;
+
+    private final Vitals vitals;
+    private final Position position;
+    // 背包内容（0-35号槽位）
+    private final ItemArray inventory;
+    // 装备栏，顺序与 getArmorContents 一致（靴子、护腿、胸甲、头盔）
+    private final ItemArray armor;
+    // 主手和副手
+    private final ItemArray hands;
+    private final JsonObject placeholders;
+    // DragonCore容器，按槽位名称区分，DragonCore不可用时为null
+    private final ItemArray dragonCore;
+
+    public PlayerSnapshot(UUID uuid, String name, long version, int changedGroups,
+                          Vitals vitals, Position position,
+                          ItemArray inventory, ItemArray armor, ItemArray hands,
+                          JsonObject placeholders, ItemArray dragonCore) {
+        this.uuid = uuid;
+        this.name = name;
+        this.version = version;
+        this.changedGroups = changedGroups;
+        this.vitals = vitals;
+        this.position = position;
+        this.inventory = inventory;
+        this.armor = armor;
+        this.hands = hands;
+        this.placeholders = placeholders;
+        this.dragonCore = dragonCore;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取快照版本，同一玩家每次捕获递增
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取与上一版本相比重新捕获的字段分组
+     *
+     * @return 分组掩码
+     */
+    public int getChangedGroups() {
+        return changedGroups;
+    }
+
+    public Vitals getVitals() {
+        return vitals;
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+
+    public ItemArray getInventory() {
+        return inventory;
+    }
+
+    public ItemArray getArmor() {
+        return armor;
+    }
+
+    public ItemArray getHands() {
+        return hands;
+    }
+
+    public JsonObject getPlaceholders() {
+        return placeholders;
+    }
+
+    public ItemArray getDragonCore() {
+        return dragonCore;
+    }
+}
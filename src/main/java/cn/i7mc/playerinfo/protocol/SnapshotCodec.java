@@ -0,0 +1,640 @@
+package cn.i7mc.playerinfo.protocol;
+
+import cn.i7mc.playerinfo.model.ItemArray;
+import cn.i7mc.playerinfo.model.ItemMetaInfo;
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 玩家数据快照的二进制编码（协议第2版）
+ * 每个玩家的数据流由关键帧和增量帧组成，增量帧只包含相对于上一帧变化的部分；
+ * 状态和坐标使用固定宽度字段，数量、槽位等整数使用变长编码，
+ * 物品类型、描述、世界名称和占位符配置通过连接的 {@link StringTable} 复用
+ */
+public final class SnapshotCodec {
+
+    // 帧类型
+    private static final int FRAME_KEYFRAME = 0;
+    private static final int FRAME_DELTA = 1;
+
+    // 物品列表变化的编码方式
+    private static final int ITEMS_FULL = 0;
+    private static final int ITEMS_SLOTS = 1;
+
+    // 快照中存在的字段
+    private static final int HAS_VITALS = 1;
+    private static final int HAS_POSITION = 1 << 1;
+    private static final int HAS_PLACEHOLDERS = 1 << 2;
+    private static final int HAS_DRAGON_CORE = 1 << 3;
+    private static final int OP = 1 << 4;
+
+    // 占位符编码方式
+    private static final int PLACEHOLDERS_STRUCTURED = 1;
+    private static final int PLACEHOLDERS_JSON = 2;
+
+    // 结构化占位符中存在的字段
+    private static final int HAS_AVAILABLE = 1;
+    private static final int AVAILABLE = 1 << 1;
+    private static final int HAS_NAME_MAPPING = 1 << 2;
+
+    private static final JsonPrimitive ENABLED_JSON = new JsonPrimitive(true);
+
+    private SnapshotCodec() {
+    }
+
+    /**
+     * 编码完整的快照（关键帧），接收端收到后直接替换已有数据
+     *
+     * @param snapshot 玩家数据快照
+     * @param sequence 该玩家数据流的序号
+     * @param strings 连接的字符串表
+     * @param out 输出缓冲区
+     */
+    public static void encodeKeyframe(PlayerSnapshot snapshot, long sequence, StringTable strings, WireWriter out) {
+        out.writeByte(FRAME_KEYFRAME);
+        writeHeader(snapshot, sequence, strings, out);
+        out.writeByte(presenceFlags(snapshot));
+
+        if (snapshot.getVitals() != null) {
+            writeVitals(snapshot.getVitals(), strings, out);
+        }
+        if (snapshot.getPosition() != null) {
+            writePosition(snapshot.getPosition(), strings, out);
+        }
+        encodeItems(snapshot.getInventory(), strings, out);
+        encodeItems(snapshot.getArmor(), strings, out);
+        encodeItems(snapshot.getHands(), strings, out);
+        if (snapshot.getPlaceholders() != null) {
+            encodePlaceholders(snapshot.getPlaceholders(), strings, out);
+        }
+        if (snapshot.getDragonCore() != null) {
+            encodeItems(snapshot.getDragonCore(), strings, out);
+        }
+    }
+
+    /**
+     * 编码相对于上一次发送的快照的增量帧
+     * 只写入发生变化的部分，背包、装备和手持物品只写入变化的槽位
+     *
+     * @param base 接收端已有的快照
+     * @param baseSequence base 对应的序号
+     * @param snapshot 新的快照
+     * @param sequence 新快照的序号
+     * @param strings 连接的字符串表
+     * @param out 输出缓冲区
+     */
+    public static void encodeDelta(PlayerSnapshot base, long baseSequence, PlayerSnapshot snapshot, long sequence,
+                                   StringTable strings, WireWriter out) {
+        out.writeByte(FRAME_DELTA);
+        writeHeader(snapshot, sequence, strings, out);
+        out.writeVarLong(sequence - baseSequence);
+
+        int changed = 0;
+        if (!sameVitals(base.getVitals(), snapshot.getVitals())) {
+            changed |= SnapshotDelta.VITALS;
+        }
+        if (!samePosition(base.getPosition(), snapshot.getPosition())) {
+            changed |= SnapshotDelta.POSITION;
+        }
+        if (!sameItems(base.getInventory(), snapshot.getInventory())) {
+            changed |= SnapshotDelta.INVENTORY;
+        }
+        if (!sameItems(base.getArmor(), snapshot.getArmor())) {
+            changed |= SnapshotDelta.ARMOR;
+        }
+        if (!sameItems(base.getHands(), snapshot.getHands())) {
+            changed |= SnapshotDelta.HANDS;
+        }
+        if (!Objects.equals(base.getPlaceholders(), snapshot.getPlaceholders())) {
+            changed |= SnapshotDelta.PLACEHOLDERS;
+        }
+        if (!sameItems(base.getDragonCore(), snapshot.getDragonCore())) {
+            changed |= SnapshotDelta.DRAGON_CORE;
+        }
+        out.writeVarInt(changed);
+        out.writeByte(presenceFlags(snapshot));
+
+        if ((changed & SnapshotDelta.VITALS) != 0 && snapshot.getVitals() != null) {
+            writeVitals(snapshot.getVitals(), strings, out);
+        }
+        if ((changed & SnapshotDelta.POSITION) != 0 && snapshot.getPosition() != null) {
+            writePosition(snapshot.getPosition(), strings, out);
+        }
+        if ((changed & SnapshotDelta.INVENTORY) != 0) {
+            encodeItemChanges(base.getInventory(), snapshot.getInventory(), strings, out);
+        }
+        if ((changed & SnapshotDelta.ARMOR) != 0) {
+            encodeItemChanges(base.getArmor(), snapshot.getArmor(), strings, out);
+        }
+        if ((changed & SnapshotDelta.HANDS) != 0) {
+            encodeItemChanges(base.getHands(), snapshot.getHands(), strings, out);
+        }
+        if ((changed & SnapshotDelta.PLACEHOLDERS) != 0 && snapshot.getPlaceholders() != null) {
+            encodePlaceholders(snapshot.getPlaceholders(), strings, out);
+        }
+        if ((changed & SnapshotDelta.DRAGON_CORE) != 0 && snapshot.getDragonCore() != null) {
+            encodeItems(snapshot.getDragonCore(), strings, out);
+        }
+    }
+
+    /**
+     * 解码由 {@link #encodeKeyframe} 或 {@link #encodeDelta} 写入的帧
+     * 增量帧不依赖已有数据即可完整读取，保证字符串表与发送端一致
+     *
+     * @param in 输入
+     * @param strings 连接的字符串表
+     * @return 解码后的帧
+     * @throws IOException 数据格式错误时抛出
+     */
+    public static SnapshotFrame decodeFrame(WireReader in, StringTable strings) throws IOException {
+        int type = in.readByte();
+        if (type != FRAME_KEYFRAME && type != FRAME_DELTA) {
+            throw new IOException("未知的帧类型: " + type);
+        }
+        UUID uuid = new UUID(in.readLong(), in.readLong());
+        long sequence = in.readVarLong();
+        String name = strings.read(in);
+        long version = in.readVarLong();
+        int changedGroups = in.readVarInt();
+
+        if (type == FRAME_KEYFRAME) {
+            int flags = in.readByte();
+            PlayerSnapshot.Vitals vitals = (flags & HAS_VITALS) != 0 ? readVitals(flags, in, strings) : null;
+            PlayerSnapshot.Position position = (flags & HAS_POSITION) != 0 ? readPosition(in, strings) : null;
+            ItemArray inventory = decodeItems(in, strings);
+            ItemArray armor = decodeItems(in, strings);
+            ItemArray hands = decodeItems(in, strings);
+            JsonObject placeholders = (flags & HAS_PLACEHOLDERS) != 0 ? decodePlaceholders(in, strings) : null;
+            ItemArray dragonCore = (flags & HAS_DRAGON_CORE) != 0 ? decodeItems(in, strings) : null;
+            return SnapshotFrame.keyframe(sequence, new PlayerSnapshot(uuid, name, version, changedGroups,
+                vitals, position, inventory, armor, hands, placeholders, dragonCore));
+        }
+
+        long baseSequence = sequence - in.readVarLong();
+        int changed = in.readVarInt();
+        int flags = in.readByte();
+        PlayerSnapshot.Vitals vitals = (changed & SnapshotDelta.VITALS) != 0 && (flags & HAS_VITALS) != 0
+            ? readVitals(flags, in, strings) : null;
+        PlayerSnapshot.Position position = (changed & SnapshotDelta.POSITION) != 0 && (flags & HAS_POSITION) != 0
+            ? readPosition(in, strings) : null;
+        SnapshotDelta.ItemChanges inventory = (changed & SnapshotDelta.INVENTORY) != 0
+            ? decodeItemChanges(in, strings) : null;
+        SnapshotDelta.ItemChanges armor = (changed & SnapshotDelta.ARMOR) != 0
+            ? decodeItemChanges(in, strings) : null;
+        SnapshotDelta.ItemChanges hands = (changed & SnapshotDelta.HANDS) != 0
+            ? decodeItemChanges(in, strings) : null;
+        JsonObject placeholders = (changed & SnapshotDelta.PLACEHOLDERS) != 0 && (flags & HAS_PLACEHOLDERS) != 0
+            ? decodePlaceholders(in, strings) : null;
+        ItemArray dragonCore = (changed & SnapshotDelta.DRAGON_CORE) != 0 && (flags & HAS_DRAGON_CORE) != 0
+            ? decodeItems(in, strings) : null;
+        return SnapshotFrame.delta(sequence, baseSequence, new SnapshotDelta(uuid, name, version, changedGroups,
+            changed, vitals, position, inventory, armor, hands, placeholders, dragonCore));
+    }
+
+    private static void writeHeader(PlayerSnapshot snapshot, long sequence, StringTable strings, WireWriter out) {
+        out.writeLong(snapshot.getUuid().getMostSignificantBits());
+        out.writeLong(snapshot.getUuid().getLeastSignificantBits());
+        out.writeVarLong(sequence);
+        strings.write(out, snapshot.getName());
+        out.writeVarLong(snapshot.getVersion());
+        out.writeVarInt(snapshot.getChangedGroups());
+    }
+
+    private static int presenceFlags(PlayerSnapshot snapshot) {
+        int flags = 0;
+        if (snapshot.getVitals() != null) {
+            flags |= HAS_VITALS;
+            if (snapshot.getVitals().op) {
+                flags |= OP;
+            }
+        }
+        if (snapshot.getPosition() != null) {
+            flags |= HAS_POSITION;
+        }
+        if (snapshot.getPlaceholders() != null) {
+            flags |= HAS_PLACEHOLDERS;
+        }
+        if (snapshot.getDragonCore() != null) {
+            flags |= HAS_DRAGON_CORE;
+        }
+        return flags;
+    }
+
+    private static void writeVitals(PlayerSnapshot.Vitals vitals, StringTable strings, WireWriter out) {
+        strings.write(out, vitals.displayName);
+        out.writeDouble(vitals.health);
+        out.writeDouble(vitals.maxHealth);
+        out.writeSignedVarInt(vitals.foodLevel);
+        out.writeFloat(vitals.exhaustion);
+        out.writeFloat(vitals.saturation);
+        strings.write(out, vitals.gameMode);
+        out.writeSignedVarInt(vitals.level);
+        out.writeFloat(vitals.exp);
+    }
+
+    private static PlayerSnapshot.Vitals readVitals(int flags, WireReader in, StringTable strings) throws IOException {
+        String displayName = strings.read(in);
+        double health = in.readDouble();
+        double maxHealth = in.readDouble();
+        int foodLevel = in.readSignedVarInt();
+        float exhaustion = in.readFloat();
+        float saturation = in.readFloat();
+        String gameMode = strings.read(in);
+        int level = in.readSignedVarInt();
+        float exp = in.readFloat();
+        return new PlayerSnapshot.Vitals(displayName, (flags & OP) != 0, health, maxHealth, foodLevel,
+            exhaustion, saturation, gameMode, level, exp);
+    }
+
+    private static void writePosition(PlayerSnapshot.Position position, StringTable strings, WireWriter out) {
+        strings.write(out, position.world);
+        out.writeDouble(position.x);
+        out.writeDouble(position.y);
+        out.writeDouble(position.z);
+        out.writeFloat(position.yaw);
+        out.writeFloat(position.pitch);
+    }
+
+    private static PlayerSnapshot.Position readPosition(WireReader in, StringTable strings) throws IOException {
+        return new PlayerSnapshot.Position(strings.read(in),
+            in.readDouble(), in.readDouble(), in.readDouble(), in.readFloat(), in.readFloat());
+    }
+
+    private static boolean sameVitals(PlayerSnapshot.Vitals a, PlayerSnapshot.Vitals b) {
+        if (a == b) {
+            return true;
+        }
+        return a != null && b != null
+            && a.op == b.op
+            && Double.compare(a.health, b.health) == 0
+            && Double.compare(a.maxHealth, b.maxHealth) == 0
+            && a.foodLevel == b.foodLevel
+            && Float.compare(a.exhaustion, b.exhaustion) == 0
+            && Float.compare(a.saturation, b.saturation) == 0
+            && a.level == b.level
+            && Float.compare(a.exp, b.exp) == 0
+            && Objects.equals(a.displayName, b.displayName)
+            && Objects.equals(a.gameMode, b.gameMode);
+    }
+
+    private static boolean samePosition(PlayerSnapshot.Position a, PlayerSnapshot.Position b) {
+        if (a == b) {
+            return true;
+        }
+        return a != null && b != null
+            && Double.compare(a.x, b.x) == 0
+            && Double.compare(a.y, b.y) == 0
+            && Double.compare(a.z, b.z) == 0
+            && Float.compare(a.yaw, b.yaw) == 0
+            && Float.compare(a.pitch, b.pitch) == 0
+            && Objects.equals(a.world, b.world);
+    }
+
+    private static boolean sameItems(ItemArray a, ItemArray b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null || a.size() != b.size() || a.isKeyed() != b.isKeyed()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!Objects.equals(a.getKey(i), b.getKey(i)) || !a.sameSlot(i, b, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 编码物品列表的变化
+     * 大小相同的按索引区分的列表只写入变化的槽位，否则写入完整列表
+     */
+    private static void encodeItemChanges(ItemArray base, ItemArray items, StringTable strings, WireWriter out) {
+        if (items == null) {
+            items = ItemArray.EMPTY;
+        }
+        if (base == null || base.size() != items.size() || base.isKeyed() || items.isKeyed()) {
+            out.writeByte(ITEMS_FULL);
+            encodeItems(items, strings, out);
+            return;
+        }
+
+        int count = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if (!base.sameSlot(i, items, i)) {
+                count++;
+            }
+        }
+        out.writeByte(ITEMS_SLOTS);
+        out.writeVarInt(count);
+        int previous = -1;
+        for (int i = 0; i < items.size(); i++) {
+            if (base.sameSlot(i, items, i)) {
+                continue;
+            }
+            out.writeVarInt(i - previous - 1);
+            previous = i;
+            if (items.isEmpty(i)) {
+                // 类型为null表示槽位被清空
+                strings.write(out, null);
+            } else {
+                encodeItem(items, i, strings, out);
+            }
+        }
+    }
+
+    private static SnapshotDelta.ItemChanges decodeItemChanges(WireReader in, StringTable strings) throws IOException {
+        int mode = in.readByte();
+        if (mode == ITEMS_FULL) {
+            return SnapshotDelta.ItemChanges.full(decodeItems(in, strings));
+        }
+        if (mode != ITEMS_SLOTS) {
+            throw new IOException("未知的物品变化编码: " + mode);
+        }
+
+        int count = in.readVarInt();
+        if (count < 0 || count > in.remaining()) {
+            throw new IOException("变化的槽位数量无效: " + count);
+        }
+        int[] slots = new int[count];
+        ItemArray values = new ItemArray(count, false);
+        int index = -1;
+        for (int n = 0; n < count; n++) {
+            index += in.readVarInt() + 1;
+            if (index < 0) {
+                throw new IOException("物品槽位无效: " + index);
+            }
+            slots[n] = index;
+            String type = strings.read(in);
+            if (type != null) {
+                decodeItemBody(in, strings, values, n, type);
+            }
+        }
+        return SnapshotDelta.ItemChanges.slots(slots, values);
+    }
+
+    /**
+     * 编码物品列表，只写入非空槽位
+     */
+    private static void encodeItems(ItemArray items, StringTable strings, WireWriter out) {
+        if (items == null) {
+            items = ItemArray.EMPTY;
+        }
+        int count = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if (!items.isEmpty(i)) {
+                count++;
+            }
+        }
+        out.writeVarInt(items.size());
+        out.writeBoolean(items.isKeyed());
+        out.writeVarInt(count);
+
+        int previous = -1;
+        for (int i = 0; i < items.size(); i++) {
+            if (items.isEmpty(i)) {
+                continue;
+            }
+            // 槽位写入与上一个非空槽位的间隔，连续的槽位只占1字节
+            out.writeVarInt(i - previous - 1);
+            previous = i;
+            if (items.isKeyed()) {
+                strings.write(out, items.getKey(i));
+            }
+            encodeItem(items, i, strings, out);
+        }
+    }
+
+    private static void encodeItem(ItemArray items, int index, StringTable strings, WireWriter out) {
+        strings.write(out, items.getType(index));
+        out.writeVarInt(items.getAmount(index));
+        out.writeSignedVarInt(items.getDurability(index));
+
+        ItemMetaInfo meta = items.getMeta(index);
+        if (meta == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        List<String> lore = meta.getLore();
+        // 0表示没有显示信息，否则为描述行数 + 1
+        out.writeVarInt((lore == null ? 0 : lore.size()) + 1);
+        strings.write(out, meta.getDisplayName());
+        if (lore != null) {
+            for (String line : lore) {
+                strings.write(out, line);
+            }
+        }
+    }
+
+    private static ItemArray decodeItems(WireReader in, StringTable strings) throws IOException {
+        int size = in.readVarInt();
+        boolean keyed = in.readBoolean();
+        int count = in.readVarInt();
+        if (size < 0 || count < 0 || count > size || size > in.remaining() + 64) {
+            throw new IOException("物品列表大小无效: " + size);
+        }
+
+        ItemArray items = new ItemArray(size, keyed);
+        int index = -1;
+        for (int n = 0; n < count; n++) {
+            index += in.readVarInt() + 1;
+            if (index < 0 || index >= size) {
+                throw new IOException("物品槽位无效: " + index);
+            }
+            if (keyed) {
+                items.setKey(index, strings.read(in));
+            }
+            String type = strings.read(in);
+            if (type == null) {
+                throw new IOException("物品类型为空: " + index);
+            }
+            decodeItemBody(in, strings, items, index, type);
+        }
+        return items;
+    }
+
+    private static void decodeItemBody(WireReader in, StringTable strings, ItemArray items, int index, String type)
+        throws IOException {
+        int amount = in.readVarInt();
+        short durability = (short) in.readSignedVarInt();
+
+        ItemMetaInfo meta = null;
+        int metaHeader = in.readVarInt();
+        if (metaHeader > 0) {
+            String displayName = strings.read(in);
+            int loreSize = metaHeader - 1;
+            if (loreSize > in.remaining()) {
+                throw new IOException("物品描述行数无效: " + loreSize);
+            }
+            List<String> lore = null;
+            if (loreSize > 0) {
+                lore = new ArrayList<>(loreSize);
+                for (int i = 0; i < loreSize; i++) {
+                    lore.add(strings.read(in));
+                }
+            }
+            meta = ItemMetaInfo.of(displayName, lore);
+        }
+        items.set(index, type, amount, durability, meta);
+    }
+
+    /**
+     * 编码占位符数据
+     * PlaceholderManager 生成的标准结构只发送变化的值，其余字段通过字符串表复用；
+     * 无法识别的结构按JSON原文发送
+     */
+    private static void encodePlaceholders(JsonObject placeholders, StringTable strings, WireWriter out) {
+        if (!isStructured(placeholders)) {
+            out.writeByte(PLACEHOLDERS_JSON);
+            out.writeString(placeholders.toString());
+            return;
+        }
+        out.writeByte(PLACEHOLDERS_STRUCTURED);
+
+        int flags = 0;
+        if (placeholders.has("placeholdersAvailable")) {
+            flags |= HAS_AVAILABLE;
+            if (placeholders.get("placeholdersAvailable").getAsBoolean()) {
+                flags |= AVAILABLE;
+            }
+        }
+        if (placeholders.has("nameMapping")) {
+            flags |= HAS_NAME_MAPPING;
+        }
+        out.writeByte(flags);
+
+        JsonArray array = placeholders.getAsJsonArray("placeholders");
+        out.writeVarInt(array.size());
+        for (JsonElement element : array) {
+            JsonObject placeholder = element.getAsJsonObject();
+            strings.write(out, placeholder.get("id").getAsString());
+            strings.write(out, placeholder.get("icon").getAsString());
+            strings.write(out, placeholder.get("placeholder").getAsString());
+            out.writeSignedVarInt(placeholder.get("priority").getAsInt());
+            // 值经常变化，不登记到字符串表
+            out.writeString(placeholder.get("value").getAsString());
+        }
+    }
+
+    private static JsonObject decodePlaceholders(WireReader in, StringTable strings) throws IOException {
+        int mode = in.readByte();
+        if (mode == PLACEHOLDERS_JSON) {
+            try {
+                return new JsonParser().parse(in.readString()).getAsJsonObject();
+            } catch (RuntimeException e) {
+                throw new IOException("占位符数据格式错误: " + e.getMessage());
+            }
+        }
+        if (mode != PLACEHOLDERS_STRUCTURED) {
+            throw new IOException("未知的占位符编码: " + mode);
+        }
+
+        int flags = in.readByte();
+        int count = in.readVarInt();
+        if (count < 0 || count > in.remaining()) {
+            throw new IOException("占位符数量无效: " + count);
+        }
+        JsonArray array = new JsonArray();
+        for (int i = 0; i < count; i++) {
+            JsonObject placeholder = new JsonObject();
+            placeholder.addProperty("id", strings.read(in));
+            placeholder.add("enabled", ENABLED_JSON);
+            placeholder.addProperty("icon", strings.read(in));
+            placeholder.addProperty("placeholder", strings.read(in));
+            placeholder.addProperty("priority", in.readSignedVarInt());
+            placeholder.addProperty("value", in.readString());
+            array.add(placeholder);
+        }
+
+        // 字段顺序与 PlaceholderManager 生成的一致
+        JsonObject placeholders = new JsonObject();
+        if ((flags & HAS_AVAILABLE) != 0) {
+            placeholders.addProperty("placeholdersAvailable", (flags & AVAILABLE) != 0);
+        }
+        placeholders.add("placeholders", array);
+        if ((flags & HAS_NAME_MAPPING) != 0) {
+            placeholders.add("nameMapping", new JsonObject());
+        }
+        return placeholders;
+    }
+
+    /**
+     * 判断占位符数据是否为 PlaceholderManager 生成的标准结构，
+     * 只有标准结构才能无损地按字段编码
+     */
+    private static boolean isStructured(JsonObject placeholders) {
+        int expected = 1;
+        if (placeholders.has("placeholdersAvailable")) {
+            if (!isBoolean(placeholders.get("placeholdersAvailable"))) {
+                return false;
+            }
+            expected++;
+        }
+        if (placeholders.has("nameMapping")) {
+            JsonElement mapping = placeholders.get("nameMapping");
+            if (!mapping.isJsonObject() || !mapping.getAsJsonObject().entrySet().isEmpty()) {
+                return false;
+            }
+            expected++;
+        }
+        if (placeholders.entrySet().size() != expected || !placeholders.has("placeholders")
+            || !placeholders.get("placeholders").isJsonArray()) {
+            return false;
+        }
+        // 字段顺序会影响序列化结果，必须与解码时重建的顺序一致
+        String[] order = {"placeholdersAvailable", "placeholders", "nameMapping"};
+        int position = 0;
+        for (Map.Entry<String, JsonElement> entry : placeholders.entrySet()) {
+            while (position < order.length && !order[position].equals(entry.getKey())) {
+                position++;
+            }
+            if (position == order.length) {
+                return false;
+            }
+        }
+
+        for (JsonElement element : placeholders.getAsJsonArray("placeholders")) {
+            if (!element.isJsonObject()) {
+                return false;
+            }
+            JsonObject placeholder = element.getAsJsonObject();
+            if (placeholder.entrySet().size() != 6
+                || !isString(placeholder.get("id"))
+                || !ENABLED_JSON.equals(placeholder.get("enabled"))
+                || !isString(placeholder.get("icon"))
+                || !isString(placeholder.get("placeholder"))
+                || !isInt(placeholder.get("priority"))
+                || !isString(placeholder.get("value"))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isString(JsonElement element) {
+        return element != null && element.isJsonPrimitive() && element.getAsJsonPrimitive().isString();
+    }
+
+    private static boolean isBoolean(JsonElement element) {
+        return element != null && element.isJsonPrimitive() && element.getAsJsonPrimitive().isBoolean();
+    }
+
+    private static boolean isInt(JsonElement element) {
+        if (element == null || !element.isJsonPrimitive() || !element.getAsJsonPrimitive().isNumber()) {
+            return false;
+        }
+        double value = element.getAsDouble();
+        return value == (int) value;
+    }
+}
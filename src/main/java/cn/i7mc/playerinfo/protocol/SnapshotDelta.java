@@ -0,0 +1,129 @@
+package cn.i7mc.playerinfo.protocol;
+
+import cn.i7mc.playerinfo.model.ItemArray;
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+import com.google.gson.JsonObject;
+
+import java.util.UUID;
+
+/**
+ * 增量帧中的变化
+ * 未变化的部分直接复用已有快照中的对象，物品列表只替换变化的槽位
+ */
+public final class SnapshotDelta {
+
+    // 发生变化的部分
+    static final int VITALS = 1;
+    static final int POSITION = 1 << 1;
+    static final int INVENTORY = 1 << 2;
+    static final int ARMOR = 1 << 3;
+    static final int HANDS = 1 << 4;
+    static final int PLACEHOLDERS = 1 << 5;
+    static final int DRAGON_CORE = 1 << 6;
+
+    /**
+     * 物品列表的变化，可以是完整列表或部分槽位
+     */
+    static final class ItemChanges {
+        private final ItemArray full;
+        private final int[] slots;
+        private final ItemArray values;
+
+        private ItemChanges(ItemArray full, int[] slots, ItemArray values) {
+            this.full = full;
+            this.slots = slots;
+            this.values = values;
+        }
+
+        static ItemChanges full(ItemArray items) {
+            return new ItemChanges(items, null, null);
+        }
+
+        static ItemChanges slots(int[] slots, ItemArray values) {
+            return new ItemChanges(null, slots, values);
+        }
+
+        /**
+         * 在已有列表上应用变化
+         *
+         * @return 新列表，槽位超出已有列表时返回null
+         */
+        ItemArray apply(ItemArray base) {
+            if (full != null) {
+                return full;
+            }
+            if (base == null) {
+                return null;
+            }
+            ItemArray items = base.copy();
+            for (int i = 0; i < slots.length; i++) {
+                int slot = slots[i];
+                if (slot >= items.size()) {
+                    return null;
+                }
+                if (values.isEmpty(i)) {
+                    items.clear(slot);
+                } else {
+                    items.set(slot, values.getType(i), values.getAmount(i), values.getDurability(i), values.getMeta(i));
+                }
+            }
+            return items;
+        }
+    }
+
+    private final UUID uuid;
+    private final String name;
+    private final long version;
+    private final int changedGroups;
+    private final int changed;
+    private final PlayerSnapshot.Vitals vitals;
+    private final PlayerSnapshot.Position position;
+    private final ItemChanges inventory;
+    private final ItemChanges armor;
+    private final ItemChanges hands;
+    private final JsonObject placeholders;
+    private final ItemArray dragonCore;
+
+    SnapshotDelta(UUID uuid, String name, long version, int changedGroups, int changed,
+                  PlayerSnapshot.Vitals vitals, PlayerSnapshot.Position position,
+                  ItemChanges inventory, ItemChanges armor, ItemChanges hands,
+                  JsonObject placeholders, ItemArray dragonCore) {
+        this.uuid = uuid;
+        this.name = name;
+        this.version = version;
+        this.changedGroups = changedGroups;
+        this.changed = changed;
+        this.vitals = vitals;
+        this.position = position;
+        this.inventory = inventory;
+        this.armor = armor;
+        this.hands = hands;
+        this.placeholders = placeholders;
+        this.dragonCore = dragonCore;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    /**
+     * 在已有快照上应用变化
+     *
+     * @param base 接收端已有的快照
+     * @return 新快照，变化与已有快照不一致时返回null
+     */
+    public PlayerSnapshot apply(PlayerSnapshot base) {
+        ItemArray newInventory = (changed & INVENTORY) != 0 ? inventory.apply(base.getInventory()) : base.getInventory();
+        ItemArray newArmor = (changed & ARMOR) != 0 ? armor.apply(base.getArmor()) : base.getArmor();
+        ItemArray newHands = (changed & HANDS) != 0 ? hands.apply(base.getHands()) : base.getHands();
+        if (newInventory == null || newArmor == null || newHands == null) {
+            return null;
+        }
+        return new PlayerSnapshot(uuid, name, version, changedGroups,
+            (changed & VITALS) != 0 ? vitals : base.getVitals(),
+            (changed & POSITION) != 0 ? position : base.getPosition(),
+            newInventory, newArmor, newHands,
+            (changed & PLACEHOLDERS) != 0 ? placeholders : base.getPlaceholders(),
+            (changed & DRAGON_CORE) != 0 ? dragonCore : base.getDragonCore());
+    }
+}
@@ -0,0 +1,69 @@
+package cn.i7mc.playerinfo.protocol;
+
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+
+import java.util.UUID;
+
+/**
+ * 解码后的玩家数据帧，关键帧包含完整快照，增量帧包含相对于 baseSequence 的变化
+ */
+public final class SnapshotFrame {
+    private final long sequence;
+    private final long baseSequence;
+    private final PlayerSnapshot snapshot;
+    private final SnapshotDelta delta;
+
+    private SnapshotFrame(long sequence, long baseSequence, PlayerSnapshot snapshot, SnapshotDelta delta) {
+        this.sequence = sequence;
+        this.baseSequence = baseSequence;
+        this.snapshot = snapshot;
+        this.delta = delta;
+    }
+
+    static SnapshotFrame keyframe(long sequence, PlayerSnapshot snapshot) {
+        return new SnapshotFrame(sequence, -1, snapshot, null);
+    }
+
+    static SnapshotFrame delta(long sequence, long baseSequence, SnapshotDelta delta) {
+        return new SnapshotFrame(sequence, baseSequence, null, delta);
+    }
+
+    public boolean isKeyframe() {
+        return snapshot != null;
+    }
+
+    public UUID getUuid() {
+        return snapshot != null ? snapshot.getUuid() : delta.getUuid();
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * 获取增量帧依赖的序号
+     *
+     * @return 序号，关键帧为-1
+     */
+    public long getBaseSequence() {
+        return baseSequence;
+    }
+
+    /**
+     * 获取关键帧的完整快照
+     *
+     * @return 快照，增量帧为null
+     */
+    public PlayerSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 获取增量帧的变化
+     *
+     * @return 变化，关键帧为null
+     */
+    public SnapshotDelta getDelta() {
+        return delta;
+    }
+}
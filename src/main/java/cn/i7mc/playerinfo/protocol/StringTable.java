@@ -0,0 +1,108 @@
+package cn.i7mc.playerinfo.protocol;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 连接级字符串表
+ * 物品类型、描述、世界名称等字符串第一次出现时按原文发送并分配编号，之后只发送编号；
+ * 发送端和接收端按相同顺序登记，因此同一条连接上的消息必须按发送顺序处理。
+ * 表满后新字符串只按原文发送，不再登记。非线程安全，由调用方保证同一时间只有一个线程使用
+ */
+public final class StringTable {
+
+    // 编码：0 = null，1 = 原文并登记，2 = 原文不登记，>=3 为编号 + 3
+    private static final int NULL = 0;
+    private static final int LITERAL_ADD = 1;
+    private static final int LITERAL = 2;
+    private static final int ID_OFFSET = 3;
+
+    /**
+     * 接收端允许登记的最大数量，防止异常数据占用过多内存
+     */
+    public static final int MAX_CAPACITY = 65536;
+
+    private final int capacity;
+    // 只有发送端使用，接收端按编号查找
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 最多登记的字符串数量
+     */
+    public StringTable(int capacity) {
+        this.capacity = Math.max(0, Math.min(capacity, MAX_CAPACITY));
+    }
+
+    /**
+     * 写入字符串，已登记的字符串只写入编号
+     *
+     * @param out 输出缓冲区
+     * @param value 字符串，可以为null
+     */
+    public void write(WireWriter out, String value) {
+        if (value == null) {
+            out.writeVarInt(NULL);
+            return;
+        }
+        Integer id = ids.get(value);
+        if (id != null) {
+            out.writeVarInt(id + ID_OFFSET);
+        } else if (strings.size() < capacity) {
+            out.writeVarInt(LITERAL_ADD);
+            out.writeString(value);
+            ids.put(value, strings.size());
+            strings.add(value);
+        } else {
+            out.writeVarInt(LITERAL);
+            out.writeString(value);
+        }
+    }
+
+    /**
+     * 读取由 {@link #write(WireWriter, String)} 写入的字符串
+     *
+     * @param in 输入
+     * @return 字符串，可能为null
+     * @throws IOException 编号未登记或数据不完整时抛出
+     */
+    public String read(WireReader in) throws IOException {
+        int code = in.readVarInt();
+        switch (code) {
+            case NULL:
+                return null;
+            case LITERAL_ADD:
+                String value = in.readString();
+                if (strings.size() >= MAX_CAPACITY) {
+                    throw new IOException("字符串表超过最大容量");
+                }
+                strings.add(value);
+                return value;
+            case LITERAL:
+                return in.readString();
+            default:
+                int id = code - ID_OFFSET;
+                if (id < 0 || id >= strings.size()) {
+                    throw new IOException("未登记的字符串编号: " + id);
+                }
+                return strings.get(id);
+        }
+    }
+
+    public int size() {
+        return strings.size();
+    }
+
+    /**
+     * 清空字符串表，重新协商连接时调用
+     */
+    public void clear() {
+        ids.clear();
+        strings.clear();
+    }
+}
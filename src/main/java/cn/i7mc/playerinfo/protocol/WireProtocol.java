@@ -0,0 +1,74 @@
+package cn.i7mc.playerinfo.protocol;
+
+/**
+ * Spigot与BungeeCord之间的插件消息协议常量
+ * 每条消息都以 writeUTF 写入的子通道名称开头，旧版本不认识的子通道会被直接忽略
+ */
+public final class WireProtocol {
+
+    /**
+     * 第1版：玩家数据以JSON字符串发送
+     */
+    public static final int VERSION_JSON = 1;
+
+    /**
+     * 第2版：玩家数据以二进制格式发送，字符串通过每条连接的字符串表复用
+     */
+    public static final int VERSION_BINARY = 2;
+
+    /**
+     * 当前支持的最高版本
+     */
+    public static final int LATEST = VERSION_BINARY;
+
+    // Spigot -> BungeeCord
+    public static final String HELLO = "Hello";
+    public static final String PLAYER_DATA = "PlayerData";
+    public static final String PLAYER_DATA_V2 = "PlayerDataV2";
+    // 同一连接上多个玩家的帧打包为一条消息，格式与 PlayerDataV2 相同，数据部分以帧数量开头
+    public static final String PLAYER_BATCH = "PlayerBatch";
+    public static final String PLAYER_REMOVE = "PlayerRemove";
+    // 超过插件消息大小限制的消息拆分后的一个分片，收齐后按原消息处理
+    public static final String FRAGMENT = "Fragment";
+    // 数据没有变化的玩家列表，只刷新BungeeCord中的更新时间
+    public static final String HEARTBEAT = "Heartbeat";
+    public static final String SERVER_INFO = "ServerInfo";
+
+    // BungeeCord -> Spigot
+    public static final String HELLO_ACK = "HelloAck";
+    public static final String RESET = "Reset";
+    public static final String ACK = "Ack";
+    public static final String RESYNC = "Resync";
+    public static final String REFRESH = "Refresh";
+    // 网页正在查看某个玩家的详情，子服在订阅期限内以更高的频率发送该玩家的数据
+    public static final String SUBSCRIBE = "Subscribe";
+    public static final String UNSUBSCRIBE = "Unsubscribe";
+
+    /**
+     * 超过该大小（字节）的数据在发送前压缩
+     */
+    public static final int COMPRESS_THRESHOLD = 30000;
+
+    /**
+     * 单条插件消息中数据部分的最大大小（字节），预留头信息空间
+     */
+    public static final int MAX_PAYLOAD_SIZE = 32000;
+
+    /**
+     * 单条插件消息的最大大小（字节），与Bukkit的 Messenger.MAX_MESSAGE_SIZE 相同，超过时拆分为分片
+     */
+    public static final int MAX_MESSAGE_SIZE = 32766;
+
+    /**
+     * 每个分片携带的原消息字节数
+     */
+    public static final int FRAGMENT_SIZE = MAX_PAYLOAD_SIZE;
+
+    /**
+     * 解压后的数据允许的最大大小（字节）
+     */
+    public static final int MAX_DECOMPRESSED_SIZE = 16 * 1024 * 1024;
+
+    private WireProtocol() {
+    }
+}
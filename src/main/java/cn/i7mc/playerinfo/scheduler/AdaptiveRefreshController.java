@@ -0,0 +1,257 @@
+package cn.i7mc.playerinfo.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.IntConsumer;
+
+/**
+ * 根据服务器tick耗时自适应调整刷新频率
+ * 服务器负载超过阈值时逐步延长刷新间隔，延长到上限后仍然过载则只收集精简的字段分组；
+ * 负载回落到恢复阈值以下时按相反顺序逐步恢复
+ */
+public class AdaptiveRefreshController implements Runnable {
+
+    /**
+     * 控制器状态
+     */
+    public enum State {
+        NORMAL("正常"),
+        SLOWED("降频"),
+        REDUCED("精简收集");
+
+        private final String displayName;
+
+        State(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    // 评估间隔（tick）
+    private static final int EVALUATE_PERIOD = 20;
+
+    private final Plugin plugin;
+    private final TimeSlicedRefreshScheduler scheduler;
+    private final IntConsumer groupMaskUpdater;
+
+    private final int baseIntervalTicks;
+    private final double msptThreshold;
+    private final double msptRecover;
+    private final int maxMultiplier;
+    private final int reducedGroupMask;
+    private final int fullGroupMask;
+    private final long cooldownMillis;
+
+    // tick耗时来源
+    private Method averageTickTimeMethod;
+    private Object minecraftServer;
+    private long[] recentTickTimes;
+    private boolean preciseTiming = false;
+    private String tickSource = "tick间隔";
+
+    private BukkitTask task;
+    private long lastEvaluateNanos = 0;
+    private long lastChangeMillis = 0;
+
+    private volatile State state = State.NORMAL;
+    private volatile int multiplier = 1;
+    private volatile double mspt = 0;
+
+    /**
+     * 构造函数
+     *
+     * @param plugin 插件实例
+     * @param scheduler 需要调整的刷新调度器
+     * @param groupMaskUpdater 允许收集的字段分组掩码变化时的回调
+     * @param msptThreshold 超过该值时降频（毫秒）
+     * @param msptRecover 低于该值时恢复（毫秒）
+     * @param maxMultiplier 刷新间隔最多延长的倍数
+     * @param fullGroupMask 正常情况下收集的字段分组
+     * @param reducedGroupMask 精简收集时的字段分组，0表示不使用精简收集
+     * @param cooldownSeconds 两次调整之间的最短时间（秒）
+     */
+    public AdaptiveRefreshController(Plugin plugin, TimeSlicedRefreshScheduler scheduler, IntConsumer groupMaskUpdater,
+                                     double msptThreshold, double msptRecover, int maxMultiplier,
+                                     int fullGroupMask, int reducedGroupMask, int cooldownSeconds) {
+        this.plugin = plugin;
+        this.scheduler = scheduler;
+        this.groupMaskUpdater = groupMaskUpdater;
+        this.baseIntervalTicks = scheduler.getIntervalTicks();
+        this.msptThreshold = msptThreshold;
+        this.msptRecover = Math.min(msptRecover, msptThreshold);
+        this.maxMultiplier = Math.max(1, maxMultiplier);
+        this.fullGroupMask = fullGroupMask;
+        this.reducedGroupMask = reducedGroupMask;
+        this.cooldownMillis = Math.max(0, cooldownSeconds) * 1000L;
+        resolveTickSource();
+    }
+
+    /**
+     * 查找可以读取tick耗时的接口
+     * 优先使用Paper的 getAverageTickTime，其次读取服务端记录的最近100个tick耗时，
+     * 都不可用时使用两次评估之间的平均tick间隔估算（只能发现超过50ms的过载）
+     */
+    private void resolveTickSource() {
+        Server server = Bukkit.getServer();
+        try {
+            averageTickTimeMethod = server.getClass().getMethod("getAverageTickTime");
+            tickSource = "Paper";
+            preciseTiming = true;
+            return;
+        } catch (NoSuchMethodException ignored) {
+        }
+
+        try {
+            Object nms = server.getClass().getMethod("getServer").invoke(server);
+            for (Class<?> type = nms.getClass(); type != null && recentTickTimes == null; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (field.getType() == long[].class && !Modifier.isStatic(field.getModifiers())) {
+                        field.setAccessible(true);
+                        long[] times = (long[]) field.get(nms);
+                        if (times != null && times.length == 100) {
+                            minecraftServer = nms;
+                            recentTickTimes = times;
+                            tickSource = "服务端记录";
+                            preciseTiming = true;
+                            break;
+                        }
+                    }
+                }
+            }
+        } catch (Exception ignored) {
+        }
+    }
+
+    /**
+     * 启动控制器
+     */
+    public void start() {
+        if (task == null) {
+            lastEvaluateNanos = System.nanoTime();
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this, EVALUATE_PERIOD, EVALUATE_PERIOD);
+        }
+    }
+
+    /**
+     * 停止控制器
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        mspt = measure();
+
+        long now = System.currentTimeMillis();
+        if (now - lastChangeMillis < cooldownMillis) {
+            return;
+        }
+
+        // 没有精确tick耗时时，间隔本身就包含50ms的等待，只能发现明显的过载
+        double threshold = preciseTiming ? msptThreshold : Math.max(msptThreshold, 55.0);
+        double recover = preciseTiming ? msptRecover : Math.max(msptRecover, 52.0);
+
+        if (mspt > threshold) {
+            slowDown();
+        } else if (mspt < recover) {
+            speedUp();
+        } else {
+            return;
+        }
+        lastChangeMillis = now;
+    }
+
+    private void slowDown() {
+        if (multiplier < maxMultiplier) {
+            setMultiplier(Math.min(maxMultiplier, multiplier * 2));
+            state = State.SLOWED;
+        } else if (reducedGroupMask != 0 && state != State.REDUCED) {
+            groupMaskUpdater.accept(reducedGroupMask);
+            state = State.REDUCED;
+            plugin.getLogger().warning(String.format("服务器负载过高 (%.1fms/tick)，玩家数据只收集精简字段", mspt));
+        }
+    }
+
+    private void speedUp() {
+        if (state == State.REDUCED) {
+            groupMaskUpdater.accept(fullGroupMask);
+            state = multiplier > 1 ? State.SLOWED : State.NORMAL;
+            plugin.getLogger().info("服务器负载已回落，恢复收集全部字段");
+        } else if (multiplier > 1) {
+            setMultiplier(Math.max(1, multiplier / 2));
+            state = multiplier > 1 ? State.SLOWED : State.NORMAL;
+        }
+    }
+
+    private void setMultiplier(int value) {
+        multiplier = value;
+        scheduler.setIntervalTicks(baseIntervalTicks * value);
+    }
+
+    /**
+     * 测量最近的平均tick耗时
+     *
+     * @return 平均每tick耗时（毫秒）
+     */
+    private double measure() {
+        if (averageTickTimeMethod != null) {
+            try {
+                return ((Number) averageTickTimeMethod.invoke(Bukkit.getServer())).doubleValue();
+            } catch (Exception e) {
+                averageTickTimeMethod = null;
+                preciseTiming = recentTickTimes != null;
+                tickSource = "tick间隔";
+            }
+        }
+
+        if (recentTickTimes != null && minecraftServer != null) {
+            long total = 0;
+            for (long time : recentTickTimes) {
+                total += time;
+            }
+            return total / (double) recentTickTimes.length / 1_000_000.0;
+        }
+
+        long now = System.nanoTime();
+        double interval = (now - lastEvaluateNanos) / (double) EVALUATE_PERIOD / 1_000_000.0;
+        lastEvaluateNanos = now;
+        return interval;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getMultiplier() {
+        return multiplier;
+    }
+
+    public double getMspt() {
+        return mspt;
+    }
+
+    public double getMsptThreshold() {
+        return msptThreshold;
+    }
+
+    public double getMsptRecover() {
+        return msptRecover;
+    }
+
+    public String getTickSource() {
+        return tickSource;
+    }
+}
@@ -0,0 +1,69 @@
+package cn.i7mc.playerinfo.scheduler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按需收集模式下的收集需求
+ * BungeeCord请求刷新或本地网页有人查看时延长收集窗口，窗口结束后不再开始新一轮刷新，
+ * 没有人查看时完全停止收集玩家数据
+ */
+public class CollectionDemand {
+
+    private final long windowMillis;
+    private volatile long activeUntil = 0;
+    private final AtomicLong requests = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param windowMillis 每次请求后继续收集的时间（毫秒）
+     */
+    public CollectionDemand(long windowMillis) {
+        this.windowMillis = Math.max(1000L, windowMillis);
+    }
+
+    /**
+     * 记录一次收集请求
+     * 可以在任意线程中调用
+     *
+     * @return 请求前是否处于停止状态，此时BungeeCord中的数据可能已经过期
+     */
+    public boolean touch() {
+        long now = System.currentTimeMillis();
+        boolean resumed = now >= activeUntil;
+        activeUntil = now + windowMillis;
+        requests.incrementAndGet();
+        return resumed;
+    }
+
+    /**
+     * 当前是否需要收集
+     *
+     * @return 是否在收集窗口内
+     */
+    public boolean isActive() {
+        return System.currentTimeMillis() < activeUntil;
+    }
+
+    /**
+     * 获取收集窗口的剩余时间
+     *
+     * @return 剩余时间（毫秒），已停止时为0
+     */
+    public long getRemainingMillis() {
+        return Math.max(0, activeUntil - System.currentTimeMillis());
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * 获取累计收到的请求次数
+     *
+     * @return 请求次数
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+}
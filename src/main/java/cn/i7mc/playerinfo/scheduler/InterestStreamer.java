@@ -0,0 +1,132 @@
+package cn.i7mc.playerinfo.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 被订阅玩家的高频刷新
+ * BungeeCord网页打开玩家详情时订阅该玩家，订阅期间按较短的间隔单独刷新，
+ * 其余玩家仍按常规间隔轮转；订阅有期限，BungeeCord没有续订时自动取消
+ */
+public class InterestStreamer implements Runnable {
+    private final Plugin plugin;
+    private final int intervalTicks;
+    private final int maxSubscriptions;
+    private final Consumer<Player> work;
+
+    // 玩家UUID -> 订阅到期时间
+    private final Map<UUID, Long> subscriptions = new ConcurrentHashMap<>();
+    private BukkitTask task;
+    private volatile long streamedUpdates = 0;
+
+    /**
+     * 构造函数
+     *
+     * @param plugin 插件实例
+     * @param intervalTicks 被订阅玩家的刷新间隔（tick）
+     * @param maxSubscriptions 同时订阅的玩家数量上限
+     * @param work 刷新单个玩家的任务
+     */
+    public InterestStreamer(Plugin plugin, int intervalTicks, int maxSubscriptions, Consumer<Player> work) {
+        this.plugin = plugin;
+        this.intervalTicks = Math.max(1, intervalTicks);
+        this.maxSubscriptions = Math.max(1, maxSubscriptions);
+        this.work = work;
+    }
+
+    /**
+     * 启动刷新任务
+     */
+    public void start() {
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this, intervalTicks, intervalTicks);
+        }
+    }
+
+    /**
+     * 停止刷新任务并取消所有订阅
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        subscriptions.clear();
+    }
+
+    /**
+     * 订阅或续订玩家
+     *
+     * @param uuid 玩家UUID
+     * @param leaseMillis 订阅期限（毫秒）
+     * @return 是否订阅成功，超过数量上限时返回false
+     */
+    public boolean subscribe(UUID uuid, long leaseMillis) {
+        if (!subscriptions.containsKey(uuid) && subscriptions.size() >= maxSubscriptions) {
+            return false;
+        }
+        subscriptions.put(uuid, System.currentTimeMillis() + Math.max(1000L, leaseMillis));
+        return true;
+    }
+
+    /**
+     * 取消订阅玩家
+     *
+     * @param uuid 玩家UUID
+     */
+    public void unsubscribe(UUID uuid) {
+        subscriptions.remove(uuid);
+    }
+
+    @Override
+    public void run() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<UUID, Long>> iterator = subscriptions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Long> entry = iterator.next();
+            if (now >= entry.getValue()) {
+                iterator.remove();
+                continue;
+            }
+            // 玩家可能正在切换服务器，订阅保留到期限结束
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player == null || !player.isOnline()) {
+                continue;
+            }
+            try {
+                work.accept(player);
+                streamedUpdates++;
+            } catch (Exception e) {
+                plugin.getLogger().warning("刷新被订阅玩家 " + player.getName() + " 的数据时出错: " + e.getMessage());
+            }
+        }
+    }
+
+    public int getSubscriptions() {
+        return subscriptions.size();
+    }
+
+    public int getIntervalTicks() {
+        return intervalTicks;
+    }
+
+    /**
+     * 获取累计的高频刷新次数
+     *
+     * @return 刷新次数
+     */
+    public long getStreamedUpdates() {
+        return streamedUpdates;
+    }
+}
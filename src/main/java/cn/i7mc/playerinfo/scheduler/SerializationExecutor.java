@@ -0,0 +1,159 @@
+package cn.i7mc.playerinfo.scheduler;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * 玩家数据序列化线程池
+ * 由若干条单线程通道组成，同一玩家的任务总是进入同一通道，保证按提交顺序执行；
+ * 每条通道的队列有上限，队列满时拒绝任务而不是阻塞主线程；
+ * 新任务总是覆盖旧任务结果时可以按玩家合并，同一玩家尚未执行的任务被新任务替换，不影响其他玩家的任务
+ */
+public class SerializationExecutor {
+    private final ThreadPoolExecutor[] lanes;
+    private final Logger logger;
+    private final AtomicLong rejectedTasks = new AtomicLong();
+    private final AtomicLong coalescedTasks = new AtomicLong();
+    // 按玩家合并的任务中，每名玩家尚未执行的最新任务；通道中对每名玩家最多只排一个取出任务
+    private final Map<UUID, Runnable> latest = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param name 线程名称前缀
+     * @param threads 通道（线程）数量
+     * @param queueCapacity 每条通道的队列容量
+     * @param logger 日志记录器
+     */
+    public SerializationExecutor(String name, int threads, int queueCapacity, Logger logger) {
+        this.logger = logger;
+        this.lanes = new ThreadPoolExecutor[Math.max(1, threads)];
+        int capacity = Math.max(1, queueCapacity);
+        for (int i = 0; i < lanes.length; i++) {
+            String threadName = name + "-" + i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadName);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    /**
+     * 提交任务
+     *
+     * @param key 玩家UUID，用于选择通道
+     * @param task 任务
+     * @return 是否提交成功，队列已满或已关闭时返回false
+     */
+    public boolean submit(UUID key, Runnable task) {
+        try {
+            lane(key).execute(() -> run(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejectedTasks.incrementAndGet();
+            return false;
+        }
+    }
+
+    /**
+     * 提交任务，替换同一玩家尚未执行的任务
+     * 同一玩家的任务仍然按提交顺序执行，只是跳过被替换的旧任务；其他玩家的任务不受影响
+     *
+     * @param key 玩家UUID，用于选择通道和合并任务
+     * @param task 任务
+     * @return 是否提交成功，队列已满或已关闭时返回false，此时该玩家尚未执行的任务一并取消
+     */
+    public boolean submitLatest(UUID key, Runnable task) {
+        if (latest.put(key, task) != null) {
+            // 通道中已经有该玩家的取出任务，执行时会取到这个新任务
+            coalescedTasks.incrementAndGet();
+            return true;
+        }
+        try {
+            lane(key).execute(() -> {
+                Runnable current = latest.remove(key);
+                if (current != null) {
+                    run(current);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            latest.remove(key);
+            rejectedTasks.incrementAndGet();
+            return false;
+        }
+    }
+
+    private ThreadPoolExecutor lane(UUID key) {
+        return lanes[(key.hashCode() & Integer.MAX_VALUE) % lanes.length];
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            logger.warning("序列化玩家数据时出错: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 关闭线程池，等待已提交的任务完成
+     */
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            try {
+                if (!lane.awaitTermination(2, TimeUnit.SECONDS)) {
+                    lane.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                lane.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 获取所有通道中等待执行的任务数量
+     *
+     * @return 排队任务数量
+     */
+    public int getQueuedTasks() {
+        int queued = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            queued += lane.getQueue().size();
+        }
+        return queued;
+    }
+
+    public int getThreads() {
+        return lanes.length;
+    }
+
+    public long getRejectedTasks() {
+        return rejectedTasks.get();
+    }
+
+    /**
+     * 获取被同一玩家的新任务替换、没有执行的任务数量
+     *
+     * @return 合并的任务数量
+     */
+    public long getCoalescedTasks() {
+        return coalescedTasks.get();
+    }
+}
@@ -0,0 +1,247 @@
+package cn.i7mc.playerinfo.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * 按tick时间预算分片的玩家数据刷新调度器
+ * 每个刷新周期把所有在线玩家放入轮转队列，每tick只在预算时间内处理一部分玩家，
+ * 未处理完的玩家顺延到下一个tick，主线程的单tick开销不再随在线人数增长
+ */
+public class TimeSlicedRefreshScheduler implements Runnable {
+    private final Plugin plugin;
+    private final Consumer<Player> work;
+    private final Runnable onRotationStart;
+    private final Runnable onRotationComplete;
+
+    // 轮转周期（tick），可由自适应控制器调整
+    private volatile int intervalTicks;
+    // 每tick时间预算（纳秒）
+    private final long budgetNanos;
+    // 是否允许开始新一轮刷新，为null时总是允许
+    private volatile BooleanSupplier gate;
+
+    // 待处理的玩家队列，以及用于去重的集合
+    private final ArrayDeque<UUID> queue = new ArrayDeque<>();
+    private final Set<UUID> queued = new HashSet<>();
+
+    private BukkitTask task;
+    private long tick = 0;
+    private long nextRotationTick = 0;
+    private long rotationStartTick = -1;
+
+    // 统计数据（主线程写入，命令线程读取）
+    private volatile int lastRotationTicks = 0;
+    private volatile int lastRotationSize = 0;
+    private volatile long overrunRotations = 0;
+    private volatile long lastTickNanos = 0;
+    private volatile long maxTickNanos = 0;
+    private volatile long averagePlayerNanos = 0;
+
+    /**
+     * 构造函数
+     *
+     * @param plugin 插件实例
+     * @param intervalTicks 每轮刷新的间隔（tick）
+     * @param budgetMillis 每tick允许消耗的时间（毫秒）
+     * @param work 处理单个玩家的任务
+     * @param onRotationStart 每轮开始时的回调
+     * @param onRotationComplete 每轮所有玩家处理完毕时的回调
+     */
+    public TimeSlicedRefreshScheduler(Plugin plugin, int intervalTicks, double budgetMillis,
+                                      Consumer<Player> work, Runnable onRotationStart,
+                                      Runnable onRotationComplete) {
+        this.plugin = plugin;
+        this.intervalTicks = Math.max(1, intervalTicks);
+        this.budgetNanos = Math.max(50_000L, (long) (budgetMillis * 1_000_000L));
+        this.work = work;
+        this.onRotationStart = onRotationStart;
+        this.onRotationComplete = onRotationComplete;
+    }
+
+    /**
+     * 启动调度器
+     *
+     * @param initialDelay 首次刷新前的延迟（tick）
+     */
+    public void start(long initialDelay) {
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this, initialDelay, 1L);
+        }
+    }
+
+    /**
+     * 停止调度器并清空队列
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        queue.clear();
+        queued.clear();
+    }
+
+    /**
+     * 设置开始新一轮刷新的条件
+     * 条件不满足时到期的轮次会一直等待，条件满足后的下一个tick立即开始
+     *
+     * @param gate 判断条件，为null时总是允许
+     */
+    public void setGate(BooleanSupplier gate) {
+        this.gate = gate;
+    }
+
+    @Override
+    public void run() {
+        if (tick >= nextRotationTick) {
+            BooleanSupplier currentGate = gate;
+            if (currentGate == null || currentGate.getAsBoolean()) {
+                beginRotation();
+                nextRotationTick = tick + intervalTicks;
+            }
+        }
+        tick++;
+
+        if (queue.isEmpty()) {
+            lastTickNanos = 0;
+            return;
+        }
+
+        long start = System.nanoTime();
+        long elapsed = 0;
+        int processed = 0;
+
+        // 至少处理一个玩家，保证单个玩家超出预算时轮转仍能前进
+        while (!queue.isEmpty() && (processed == 0 || elapsed < budgetNanos)) {
+            UUID uuid = queue.pollFirst();
+            queued.remove(uuid);
+
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null && player.isOnline()) {
+                try {
+                    work.accept(player);
+                } catch (Exception e) {
+                    plugin.getLogger().warning("刷新玩家 " + player.getName() + " 的数据时出错: " + e.getMessage());
+                }
+                processed++;
+            }
+            elapsed = System.nanoTime() - start;
+        }
+
+        lastTickNanos = elapsed;
+        if (elapsed > maxTickNanos) {
+            maxTickNanos = elapsed;
+        }
+        if (processed > 0) {
+            long perPlayer = elapsed / processed;
+            averagePlayerNanos = averagePlayerNanos == 0 ? perPlayer : (averagePlayerNanos * 7 + perPlayer) / 8;
+        }
+
+        if (queue.isEmpty() && rotationStartTick >= 0) {
+            lastRotationTicks = (int) (tick - rotationStartTick);
+            rotationStartTick = -1;
+            if (onRotationComplete != null) {
+                onRotationComplete.run();
+            }
+        }
+    }
+
+    /**
+     * 开始新一轮刷新
+     * 上一轮未处理完的玩家保留在队首，新一轮只追加尚未排队的玩家，保证公平轮转
+     */
+    private void beginRotation() {
+        if (!queue.isEmpty()) {
+            overrunRotations++;
+        } else {
+            rotationStartTick = tick;
+        }
+
+        if (onRotationStart != null) {
+            onRotationStart.run();
+        }
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            UUID uuid = player.getUniqueId();
+            if (queued.add(uuid)) {
+                queue.addLast(uuid);
+            }
+        }
+        lastRotationSize = queue.size();
+    }
+
+    /**
+     * 获取当前尚未处理的玩家数量
+     *
+     * @return 积压的玩家数量
+     */
+    public int getBacklog() {
+        return queue.size();
+    }
+
+    /**
+     * 获取轮转落后的程度
+     * 以完成当前积压还需要的tick数估算
+     *
+     * @return 预计还需要的tick数
+     */
+    public long getEstimatedLagTicks() {
+        int backlog = queue.size();
+        if (backlog == 0 || averagePlayerNanos <= 0) {
+            return 0;
+        }
+        long playersPerTick = Math.max(1, budgetNanos / averagePlayerNanos);
+        return (backlog + playersPerTick - 1) / playersPerTick;
+    }
+
+    public int getIntervalTicks() {
+        return intervalTicks;
+    }
+
+    /**
+     * 调整轮转周期，从下一轮开始生效
+     *
+     * @param intervalTicks 新的轮转周期（tick）
+     */
+    public void setIntervalTicks(int intervalTicks) {
+        this.intervalTicks = Math.max(1, intervalTicks);
+    }
+
+    public double getBudgetMillis() {
+        return budgetNanos / 1_000_000.0;
+    }
+
+    public int getLastRotationTicks() {
+        return lastRotationTicks;
+    }
+
+    public int getLastRotationSize() {
+        return lastRotationSize;
+    }
+
+    public long getOverrunRotations() {
+        return overrunRotations;
+    }
+
+    public double getLastTickMillis() {
+        return lastTickNanos / 1_000_000.0;
+    }
+
+    public double getMaxTickMillis() {
+        return maxTickNanos / 1_000_000.0;
+    }
+
+    public double getAveragePlayerMillis() {
+        return averagePlayerNanos / 1_000_000.0;
+    }
+}
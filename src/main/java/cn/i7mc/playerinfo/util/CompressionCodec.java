@@ -0,0 +1,211 @@
+package cn.i7mc.playerinfo.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.logging.Logger;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * 可复用的Deflate压缩编解码器
+ * 每个线程复用自己的 Deflater/Inflater 和输出缓冲区，不再为每条消息创建新的压缩流；
+ * 可以使用随插件打包的预置字典，Spigot和BungeeCord读取的是同一份，
+ * zlib头中记录了字典的校验值，两端字典不一致时解压失败而不会得到错误的数据。
+ * 解压时自动识别旧版本发送的GZIP数据
+ */
+public final class CompressionCodec {
+
+    /**
+     * 预置字典在插件中的资源路径
+     */
+    public static final String DICTIONARY_RESOURCE = "/compression.dict";
+
+    // 输出缓冲区超过该大小时不再保留给下一次使用
+    private static final int MAX_RETAINED_BUFFER = 1 << 20;
+
+    private final int level;
+    // 压缩时使用的字典，不使用时为null
+    private final byte[] compressDictionary;
+    // 解压时可用的字典，不论本端是否用它压缩
+    private final byte[] knownDictionary;
+    private final int knownDictionaryId;
+
+    private final ThreadLocal<Deflater> deflaters;
+    private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+    private final ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    /**
+     * 构造函数
+     *
+     * @param level 压缩级别（1-9）
+     * @param dictionary 预置字典，为null时不使用
+     * @param useDictionary 压缩时是否使用字典
+     */
+    public CompressionCodec(int level, byte[] dictionary, boolean useDictionary) {
+        this.level = Math.max(Deflater.BEST_SPEED, Math.min(Deflater.BEST_COMPRESSION, level));
+        this.knownDictionary = dictionary;
+        this.compressDictionary = useDictionary ? dictionary : null;
+        if (dictionary != null) {
+            Adler32 adler = new Adler32();
+            adler.update(dictionary);
+            this.knownDictionaryId = (int) adler.getValue();
+        } else {
+            this.knownDictionaryId = 0;
+        }
+        int deflaterLevel = this.level;
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(deflaterLevel));
+    }
+
+    /**
+     * 创建编解码器，读取插件中的预置字典
+     * 字典读取失败时记录警告并在不使用字典的情况下继续
+     *
+     * @param level 压缩级别（1-9）
+     * @param useDictionary 压缩时是否使用字典
+     * @param logger 日志记录器
+     * @return 编解码器
+     */
+    public static CompressionCodec create(int level, boolean useDictionary, Logger logger) {
+        byte[] dictionary = null;
+        try (InputStream in = CompressionCodec.class.getResourceAsStream(DICTIONARY_RESOURCE)) {
+            if (in != null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, read);
+                }
+                dictionary = out.toByteArray();
+            } else {
+                logger.warning("未找到压缩字典 " + DICTIONARY_RESOURCE + "，将不使用字典压缩");
+            }
+        } catch (IOException e) {
+            logger.warning("读取压缩字典失败，将不使用字典压缩: " + e.getMessage());
+        }
+        return new CompressionCodec(level, dictionary, useDictionary);
+    }
+
+    /**
+     * 压缩数据
+     *
+     * @param data 数据所在的数组
+     * @param offset 起始位置
+     * @param length 数据长度
+     * @return 压缩后的数据
+     */
+    public byte[] compress(byte[] data, int offset, int length) {
+        Deflater deflater = deflaters.get();
+        deflater.reset();
+        if (compressDictionary != null) {
+            deflater.setDictionary(compressDictionary);
+        }
+        deflater.setInput(data, offset, length);
+        deflater.finish();
+
+        byte[] buffer = buffers.get();
+        int size = 0;
+        while (!deflater.finished()) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            size += deflater.deflate(buffer, size, buffer.length - size);
+        }
+        retain(buffer);
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * 解压数据，自动识别旧版本的GZIP格式
+     *
+     * @param data 压缩数据
+     * @param maxSize 解压后允许的最大大小（字节）
+     * @return 解压后的数据
+     * @throws IOException 数据损坏、字典不一致或超过大小限制时抛出
+     */
+    public byte[] decompress(byte[] data, int maxSize) throws IOException {
+        if (data.length >= 2 && (data[0] & 0xFF) == 0x1F && (data[1] & 0xFF) == 0x8B) {
+            return decompressGzip(data, maxSize);
+        }
+
+        Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput(data);
+
+        byte[] buffer = buffers.get();
+        int size = 0;
+        try {
+            while (!inflater.finished()) {
+                if (size == buffer.length) {
+                    if (buffer.length >= maxSize) {
+                        throw new IOException("解压后的数据超过限制 (" + maxSize + " 字节)");
+                    }
+                    buffer = Arrays.copyOf(buffer, Math.min(maxSize, buffer.length * 2));
+                }
+                int read = inflater.inflate(buffer, size, buffer.length - size);
+                if (read == 0) {
+                    if (inflater.needsDictionary()) {
+                        if (knownDictionary == null || inflater.getAdler() != knownDictionaryId) {
+                            throw new IOException("压缩数据使用的字典与本端不一致");
+                        }
+                        inflater.setDictionary(knownDictionary);
+                    } else if (inflater.needsInput()) {
+                        throw new IOException("压缩数据不完整");
+                    }
+                }
+                size += read;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("压缩数据格式错误: " + e.getMessage(), e);
+        }
+        retain(buffer);
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private byte[] decompressGzip(byte[] data, int maxSize) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            byte[] buffer = buffers.get();
+            int size = 0;
+            int read;
+            while (true) {
+                if (size == buffer.length) {
+                    if (buffer.length >= maxSize) {
+                        throw new IOException("解压后的数据超过限制 (" + maxSize + " 字节)");
+                    }
+                    buffer = Arrays.copyOf(buffer, Math.min(maxSize, buffer.length * 2));
+                }
+                read = in.read(buffer, size, buffer.length - size);
+                if (read < 0) {
+                    break;
+                }
+                size += read;
+            }
+            retain(buffer);
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private void retain(byte[] buffer) {
+        if (buffer.length <= MAX_RETAINED_BUFFER) {
+            buffers.set(buffer);
+        }
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * 压缩时是否使用预置字典
+     *
+     * @return 是否使用字典
+     */
+    public boolean usesDictionary() {
+        return compressDictionary != null;
+    }
+}
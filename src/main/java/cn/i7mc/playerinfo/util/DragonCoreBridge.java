@@ -0,0 +1,127 @@
+package cn.i7mc.playerinfo.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * DragonCore槽位接口桥接
+ * 在插件启用时（以及DragonCore启用/禁用时）解析一次 SlotAPI.getCacheAllSlotItem，
+ * 之后每次读取玩家槽位都直接调用缓存的MethodHandle，不再重复查找插件、类和方法
+ */
+public class DragonCoreBridge implements Listener {
+    private static final String PLUGIN_NAME = "DragonCore";
+    private static final String SLOT_API_CLASS = "eos.moe.dragoncore.api.SlotAPI";
+
+    private final Logger logger;
+    private final boolean debug;
+
+    // 解析得到的 (Player)Map 句柄，DragonCore不可用时为null
+    private volatile MethodHandle getCacheAllSlotItem;
+
+    /**
+     * 构造函数
+     *
+     * @param logger 日志记录器
+     * @param debug 是否输出调试信息
+     */
+    public DragonCoreBridge(Logger logger, boolean debug) {
+        this.logger = logger;
+        this.debug = debug;
+        resolve();
+    }
+
+    /**
+     * 解析DragonCore接口
+     */
+    public void resolve() {
+        Plugin dragonCore = Bukkit.getPluginManager().getPlugin(PLUGIN_NAME);
+        if (dragonCore == null || !dragonCore.isEnabled()) {
+            getCacheAllSlotItem = null;
+            return;
+        }
+
+        try {
+            Class<?> slotAPIClass = Class.forName(SLOT_API_CLASS, true, dragonCore.getClass().getClassLoader());
+            getCacheAllSlotItem = findSlotAccessor(slotAPIClass);
+            if (debug) {
+                logger.info("已连接DragonCore槽位接口");
+            }
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            getCacheAllSlotItem = null;
+            logger.warning("无法解析DragonCore槽位接口，DragonCore容器数据将不可用: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 查找 SlotAPI 中读取玩家所有槽位物品的静态方法
+     *
+     * @param slotAPIClass SlotAPI类
+     * @return 类型为 (Player)Map 的方法句柄
+     * @throws NoSuchMethodException 方法不存在时抛出
+     * @throws IllegalAccessException 方法不可访问时抛出
+     */
+    static MethodHandle findSlotAccessor(Class<?> slotAPIClass) throws NoSuchMethodException, IllegalAccessException {
+        return MethodHandles.publicLookup().findStatic(slotAPIClass, "getCacheAllSlotItem",
+            MethodType.methodType(Map.class, Player.class));
+    }
+
+    /**
+     * 检查DragonCore接口是否可用
+     *
+     * @return 是否可用
+     */
+    public boolean isAvailable() {
+        return getCacheAllSlotItem != null;
+    }
+
+    /**
+     * 获取玩家所有DragonCore槽位中的物品
+     * 返回的是DragonCore的缓存对象，需要在主线程中读取
+     *
+     * @param player 玩家
+     * @return 槽位名称 -> 物品，DragonCore不可用时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, ItemStack> getSlotItems(Player player) {
+        MethodHandle handle = getCacheAllSlotItem;
+        if (handle == null) {
+            return null;
+        }
+        try {
+            return (Map<String, ItemStack>) handle.invokeExact(player);
+        } catch (Throwable e) {
+            if (debug) {
+                e.printStackTrace();
+            }
+            return null;
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginEnable(PluginEnableEvent event) {
+        if (PLUGIN_NAME.equals(event.getPlugin().getName())) {
+            resolve();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent event) {
+        if (PLUGIN_NAME.equals(event.getPlugin().getName())) {
+            // 释放对DragonCore类的引用，避免其被重新加载时类加载器泄漏
+            getCacheAllSlotItem = null;
+        }
+    }
+}
@@ -2,16 +2,12 @@ package cn.i7mc.playerinfo.util;
 
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.Location;
-import cn.i7mc.playerinfo.model.PlayerData;
+import cn.i7mc.playerinfo.model.ItemArray;
+import cn.i7mc.playerinfo.model.ItemMetaInfo;
 import java.util.*;
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
 
 public class ItemStackSerializer {
     
-    private static final Gson gson = new Gson();
-    
     /**
      * 序列化单个物品栈为Map结构
      * 
@@ -22,135 +18,101 @@ public class ItemStackSerializer {
         return serializeItem(item);
     }
     
-    public static Map<String, Object> serialize(PlayerData playerData) {
-        Map<String, Object> result = new HashMap<>();
-        result.put("name", playerData.getName());
-        
-        // 添加UUID和皮肤URL到JSON结果
-        if (playerData.getUuid() != null) {
-            result.put("uuid", playerData.getUuid().toString());
-        }
-        
-        if (playerData.getSkinURL() != null) {
-            result.put("skinURL", playerData.getSkinURL());
-        }
-        
-        // 序列化装备栏（只处理0-3号槽位）
-        result.put("armor", serializeItems(playerData.getArmor(), true));
-        // 序列化物品栏（只处理0-35号槽位）
-        result.put("inventory", serializeItems(playerData.getInventory(), false));
-
-        // 添加Map格式的物品栏和装备数据
-        if (playerData.getInventoryMap() != null) {
-            result.put("inventoryMap", playerData.getInventoryMap());
+    /**
+     * 序列化以槽位名称为键的物品集合，跳过空物品
+     * 
+     * @param items 槽位名称 -> 物品
+     * @return 槽位名称 -> 序列化后的物品，items为null时返回null
+     */
+    public static Map<String, Map<String, Object>> serializeItemMap(Map<String, ItemStack> items) {
+        if (items == null) {
+            return null;
         }
-        
-        if (playerData.getEquipmentMap() != null) {
-            result.put("equipmentMap", playerData.getEquipmentMap());
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, ItemStack> entry : items.entrySet()) {
+            Map<String, Object> serialized = serializeItem(entry.getValue());
+            if (serialized != null) {
+                result.put(entry.getKey(), serialized);
+            }
         }
+        return result;
+    }
 
-        // Serialize main hand and off hand items
-        ItemStack mainHand = playerData.getMainHand();
-        ItemStack offHand = playerData.getOffHand();
-        
-        Map<String, Object> mainHandData = serializeItem(mainHand);
-        Map<String, Object> offHandData = serializeItem(offHand);
-        
-        result.put("mainHand", mainHandData);
-        result.put("offHand", offHandData);
-        
-        // 序列化新增的玩家状态数据
-        result.put("level", playerData.getLevel());
-        result.put("health", playerData.getHealth());
-        result.put("maxHealth", playerData.getMaxHealth());
-        
-        // 序列化占位符数据
-        if (playerData.getPlaceholders() != null) {
-            try {
-                Map<String, Object> placeholdersMap = gson.fromJson(playerData.getPlaceholders().toString(), Map.class);
-                if (placeholdersMap != null) {
-                    result.put("placeholders", placeholdersMap);
-                } else {
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-                
-                // 尝试创建占位符数据的简单副本
-                try {
-                    JsonObject placeholders = playerData.getPlaceholders();
-                    Map<String, Object> simpleMap = new HashMap<>();
-                    simpleMap.put("placeholdersAvailable", placeholders.has("placeholdersAvailable") ? 
-                                  placeholders.get("placeholdersAvailable").getAsBoolean() : false);
-                    simpleMap.put("error", "占位符数据序列化异常: " + e.getMessage());
-                    result.put("placeholders", simpleMap);
-                } catch (Exception ex) {
-                }
+    /**
+     * 将物品读取到紧凑物品列表，空物品和空气方块保持为空槽位
+     * 需要在主线程中调用
+     * 
+     * @param contents 物品数组，可以为null
+     * @param size 列表大小，超出的物品会被忽略
+     * @return 紧凑物品列表
+     */
+    public static ItemArray capture(ItemStack[] contents, int size) {
+        ItemArray items = new ItemArray(size, false);
+        if (contents != null) {
+            for (int i = 0; i < size && i < contents.length; i++) {
+                capture(contents[i], items, i);
             }
         }
-        // 序列化位置信息 - 避免直接序列化Location对象，仅提取需要的数据
-        Location location = playerData.getLocation();
-        if (location != null) {
-            try {
-                Map<String, Object> locationData = new HashMap<>();
-                locationData.put("x", location.getX());
-                locationData.put("y", location.getY());
-                locationData.put("z", location.getZ());
-                // 只存储世界名称，避免序列化整个World对象
-                locationData.put("world", location.getWorld() != null ? location.getWorld().getName() : "unknown");
-                locationData.put("yaw", location.getYaw());
-                locationData.put("pitch", location.getPitch());
-                
-                result.put("location", locationData);
-            } catch (Exception e) {
-                // 如果序列化Location对象出错，记录错误并继续而不是失败整个序列化过程
-                Map<String, Object> simpleLocation = new HashMap<>();
-                simpleLocation.put("error", "无法序列化位置信息: " + e.getMessage());
-                result.put("location", simpleLocation);
+        return items;
+    }
+    
+    /**
+     * 将以槽位名称为键的物品读取到紧凑物品列表，跳过空物品
+     * 需要在主线程中调用
+     * 
+     * @param contents 槽位名称 -> 物品
+     * @return 紧凑物品列表，contents为null时返回null
+     */
+    public static ItemArray capture(Map<String, ItemStack> contents) {
+        if (contents == null) {
+            return null;
+        }
+        int count = 0;
+        for (ItemStack item : contents.values()) {
+            if (!isEmpty(item)) {
+                count++;
             }
         }
         
-        // 添加DragonCore数据到JSON结果
-        if (playerData.getDragonCore() != null && !playerData.getDragonCore().isEmpty()) {
-            result.put("dragonCore", playerData.getDragonCore());
+        ItemArray items = new ItemArray(count, true);
+        int index = 0;
+        for (Map.Entry<String, ItemStack> entry : contents.entrySet()) {
+            if (index < count && capture(entry.getValue(), items, index)) {
+                items.setKey(index++, entry.getKey());
+            }
         }
-        return result;
+        return items;
     }
-
-    private static List<Map<String, Object>> serializeItems(ItemStack[] items, boolean isArmor) {
-        List<Map<String, Object>> result = new ArrayList<>();
-        if (items != null) {
-            int maxSlot = isArmor ? 4 : 36; // 装备栏最多4个槽位，物品栏最多36个槽位
-            
-            for (int i = 0; i < Math.min(items.length, maxSlot); i++) {
-                try {
-                    ItemStack item = items[i];
-                    // 跳过空物品和空气方块
-                    if (item == null || item.getType().name().equals("AIR")) {
-                        continue;
-                    }
-                    
-                    // 如果是物品栏且槽位大于等于36，跳过（装备栏物品）
-                    if (!isArmor && i >= 36) {
-                        continue;
-                    }
-                    
-                    Map<String, Object> serializedItem = serializeItem(item);
-                    if (serializedItem != null) {
-                        // 添加物品的槽位索引
-                        serializedItem.put("slot", i);
-                        result.add(serializedItem);
-                    }
-                } catch (Exception e) {
-                    // 如果序列化单个物品失败，添加一个错误标记项而不是中断整个数组的序列化
-                    Map<String, Object> errorItem = new HashMap<>();
-                    errorItem.put("error", "序列化物品失败");
-                    errorItem.put("type", items[i] != null ? items[i].getType().name() : "UNKNOWN");
-                    errorItem.put("slot", i);
-                    result.add(errorItem);
-                }
+    
+    /**
+     * 将单个物品写入紧凑物品列表的指定槽位
+     * 
+     * @param item 物品
+     * @param items 紧凑物品列表
+     * @param index 槽位索引
+     * @return 是否写入了物品
+     */
+    public static boolean capture(ItemStack item, ItemArray items, int index) {
+        if (isEmpty(item)) {
+            return false;
+        }
+        
+        ItemMetaInfo metaInfo = null;
+        try {
+            if (item.hasItemMeta()) {
+                ItemMeta meta = item.getItemMeta();
+                metaInfo = ItemMetaInfo.of(meta.hasDisplayName() ? meta.getDisplayName() : null,
+                    meta.hasLore() ? new ArrayList<>(meta.getLore()) : null);
             }
+        } catch (Exception e) {
+            // 元数据读取失败时只保留类型、数量和耐久度
         }
-        return result;
+        items.set(index, item.getType().name(), item.getAmount(), item.getDurability(), metaInfo);
+        return true;
+    }
+    
+    private static boolean isEmpty(ItemStack item) {
+        return item == null || item.getType().name().equals("AIR");
     }
 
     private static Map<String, Object> serializeItem(ItemStack item) {
@@ -0,0 +1,119 @@
+package cn.i7mc.playerinfo.util;
+
+import java.util.Arrays;
+
+/**
+ * 滚动耗时统计
+ * 保留最近固定数量的耗时样本，查询时对样本排序计算分位数；
+ * 记录操作只是写入环形数组，开销很小
+ */
+public class LatencyHistogram {
+
+    /**
+     * 某一时刻的统计结果（毫秒）
+     */
+    public static final class Summary {
+        private final long count;
+        private final int samples;
+        private final double p50;
+        private final double p99;
+        private final double max;
+
+        private Summary(long count, int samples, double p50, double p99, double max) {
+            this.count = count;
+            this.samples = samples;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        /**
+         * 获取累计记录次数
+         *
+         * @return 记录次数
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * 获取当前窗口中的样本数
+         *
+         * @return 样本数
+         */
+        public int getSamples() {
+            return samples;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        public double getMax() {
+            return max;
+        }
+    }
+
+    private final long[] samples;
+    private int next = 0;
+    private long count = 0;
+
+    /**
+     * 构造函数
+     *
+     * @param size 保留的样本数量
+     */
+    public LatencyHistogram(int size) {
+        this.samples = new long[Math.max(1, size)];
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时（纳秒）
+     * @return 累计记录次数
+     */
+    public synchronized long record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        return ++count;
+    }
+
+    /**
+     * 获取累计记录次数
+     *
+     * @return 记录次数
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * 计算当前窗口的统计结果
+     *
+     * @return 统计结果
+     */
+    public Summary summary() {
+        long[] sorted;
+        long total;
+        synchronized (this) {
+            total = count;
+            sorted = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+        }
+        if (sorted.length == 0) {
+            return new Summary(0, 0, 0, 0, 0);
+        }
+        Arrays.sort(sorted);
+        return new Summary(total, sorted.length,
+            percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[sorted.length - 1] / 1_000_000.0);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000.0;
+    }
+}
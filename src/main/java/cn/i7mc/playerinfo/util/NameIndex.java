@@ -0,0 +1,90 @@
+package cn.i7mc.playerinfo.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 玩家名称索引（不区分大小写）
+ * 维护 小写名称 -> UUID 和 UUID -> 名称 两个映射，按名称查找玩家为O(1)；
+ * Minecraft玩家名称只包含ASCII字符，已是小写的名称查找时不会分配新字符串
+ */
+public class NameIndex {
+    private final Map<String, UUID> uuidsByName = new ConcurrentHashMap<>();
+    private final Map<UUID, String> namesByUuid = new ConcurrentHashMap<>();
+
+    /**
+     * 记录或更新玩家名称
+     *
+     * @param uuid 玩家UUID
+     * @param name 玩家名称
+     */
+    public void put(UUID uuid, String name) {
+        if (uuid == null || name == null) {
+            return;
+        }
+        String previous = namesByUuid.put(uuid, name);
+        if (previous != null && !previous.equals(name)) {
+            uuidsByName.remove(key(previous), uuid);
+        }
+        uuidsByName.put(key(name), uuid);
+    }
+
+    /**
+     * 移除玩家
+     *
+     * @param uuid 玩家UUID
+     */
+    public void remove(UUID uuid) {
+        String name = namesByUuid.remove(uuid);
+        if (name != null) {
+            uuidsByName.remove(key(name), uuid);
+        }
+    }
+
+    /**
+     * 按名称查找玩家UUID
+     *
+     * @param name 玩家名称（不区分大小写）
+     * @return 玩家UUID，不存在时返回null
+     */
+    public UUID get(String name) {
+        return name == null ? null : uuidsByName.get(key(name));
+    }
+
+    /**
+     * 获取玩家名称
+     *
+     * @param uuid 玩家UUID
+     * @return 玩家名称，不存在时返回null
+     */
+    public String getName(UUID uuid) {
+        return namesByUuid.get(uuid);
+    }
+
+    /**
+     * 获取所有玩家名称
+     *
+     * @return 只读的名称集合
+     */
+    public Collection<String> names() {
+        return Collections.unmodifiableCollection(namesByUuid.values());
+    }
+
+    public int size() {
+        return namesByUuid.size();
+    }
+
+    public void clear() {
+        uuidsByName.clear();
+        namesByUuid.clear();
+    }
+
+    private static String key(String name) {
+        // 名称已是小写时 toLowerCase 直接返回原字符串
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,409 @@
+package cn.i7mc.playerinfo.util;
+
+import cn.i7mc.playerinfo.model.PlaceholderPlan;
+import cn.i7mc.playerinfo.scheduler.SerializationExecutor;
+import org.bukkit.OfflinePlayer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+/**
+ * 占位符解析器，按编译后的配置解析玩家的占位符值
+ * 负责缓存、异步解析、批量解析和耗时记录；实际的解析交给 {@link Resolver}，
+ * 正常运行时使用 PlaceholderAPI，可以在多个线程中同时调用
+ */
+public class PlaceholderEvaluator {
+    // 批量解析时连接占位符的分隔符，使用控制字符，不会出现在占位符和正常的解析结果中
+    private static final String BATCH_DELIMITER = "\u001F\u001E\u001F";
+
+    /**
+     * 解析包含占位符的文本
+     */
+    public interface Resolver {
+        /**
+         * 解析文本中的占位符
+         *
+         * @param player 玩家
+         * @param text 包含占位符的文本
+         * @return 解析后的文本
+         */
+        String resolve(OfflinePlayer player, String text);
+    }
+
+    /**
+     * 缓存的占位符值，创建后不再修改
+     */
+    private static final class CachedValue {
+        private final String value;
+        private final long expiresAt;
+
+        private CachedValue(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * 单个玩家的值缓存，按编译后的占位符顺序存放
+     */
+    public static final class ValueCache {
+        private final PlaceholderPlan plan;
+        // 异步解析的值在工作线程中写入，在主线程中读取
+        private final AtomicReferenceArray<CachedValue> values;
+        // 正在工作线程中解析的占位符，1表示已提交
+        private final AtomicIntegerArray pending;
+
+        public ValueCache(PlaceholderPlan plan) {
+            this.plan = plan;
+            this.values = new AtomicReferenceArray<>(plan.size());
+            this.pending = new AtomicIntegerArray(plan.size());
+        }
+
+        /**
+         * 获取缓存对应的占位符配置，配置重新加载后旧缓存不再使用
+         *
+         * @return 创建缓存时的占位符配置
+         */
+        public PlaceholderPlan getPlan() {
+            return plan;
+        }
+    }
+
+    private final Resolver resolver;
+    private final PlaceholderProfiler profiler;
+    private final Logger logger;
+    private final BooleanSupplier debug;
+    // 批量解析设置，批量解析连续出错后停用，直到重新加载配置
+    private final boolean batchEnabled;
+    private final int batchMaxFailures;
+    private volatile boolean batchDisabled = false;
+    private final AtomicInteger batchFailures = new AtomicInteger();
+    // 批量解析时轮流单独解析其中一个占位符，用于记录耗时
+    private final AtomicInteger sampleCursor = new AtomicInteger();
+    // 解析 async: true 占位符的工作线程，由调用方创建和关闭
+    private volatile SerializationExecutor asyncExecutor;
+
+    /**
+     * 构造函数
+     *
+     * @param resolver 占位符解析方式
+     * @param profiler 解析耗时分析器
+     * @param batchEnabled 是否启用批量解析
+     * @param batchMaxFailures 连续出错达到该次数后停用批量解析，0表示不停用
+     * @param logger 日志记录器
+     * @param debug 是否输出调试信息
+     */
+    public PlaceholderEvaluator(Resolver resolver, PlaceholderProfiler profiler, boolean batchEnabled,
+                                int batchMaxFailures, Logger logger, BooleanSupplier debug) {
+        this.resolver = resolver;
+        this.profiler = profiler;
+        this.batchEnabled = batchEnabled;
+        this.batchMaxFailures = batchMaxFailures;
+        this.logger = logger;
+        this.debug = debug;
+    }
+
+    /**
+     * 按编译后的顺序解析玩家的所有占位符
+     * 结果只保存在返回的数组中，不修改任何共享对象，可以在多个线程中同时调用
+     *
+     * @param player 玩家，为null时使用配置的原始文本
+     * @param plan 编译后的占位符配置
+     * @param cache 玩家的值缓存，为null时不使用缓存
+     * @return 按占位符索引存放的值，被停用的占位符为null
+     */
+    public String[] resolveValues(OfflinePlayer player, PlaceholderPlan plan, ValueCache cache) {
+        String[] values = new String[plan.size()];
+        long now = System.currentTimeMillis();
+        boolean batch = isBatchActive();
+
+        // 需要调用PlaceholderAPI且可以批量解析的占位符索引
+        int[] due = null;
+        int dueCount = 0;
+        for (PlaceholderPlan.Entry entry : plan.getEntries()) {
+            String value = entry.getPlaceholder();
+            if (entry.isDynamic()) {
+                if (profiler.getState(entry.getId()) == PlaceholderProfiler.State.DISABLED) {
+                    continue;
+                }
+                if (player != null) {
+                    String known = cache == null ? null : lookup(player, entry, cache, now);
+                    if (known != null) {
+                        value = known;
+                    } else if (batch && entry.isBatch()) {
+                        if (due == null) {
+                            due = new int[plan.size()];
+                        }
+                        due[dueCount++] = entry.getIndex();
+                    } else {
+                        value = evaluateAndStore(player, entry, cache, now);
+                    }
+                }
+            }
+            values[entry.getIndex()] = value;
+        }
+
+        if (dueCount > 1) {
+            dueCount = evaluateSamples(player, plan, due, dueCount, values, cache, now);
+        }
+        if (dueCount == 1) {
+            PlaceholderPlan.Entry entry = plan.getEntries().get(due[0]);
+            values[due[0]] = evaluateAndStore(player, entry, cache, now);
+        } else if (dueCount > 1 && !evaluateBatch(player, plan, due, dueCount, values, cache, now)) {
+            // 批量解析结果异常时逐个解析
+            for (int i = 0; i < dueCount; i++) {
+                PlaceholderPlan.Entry entry = plan.getEntries().get(due[i]);
+                values[due[i]] = evaluateAndStore(player, entry, cache, now);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 查找不需要在当前线程调用PlaceholderAPI就能得到的值
+     * 缓存时间内返回上次的结果；异步占位符提交到工作线程解析，本次返回上一次的结果
+     *
+     * @return 可以直接使用的值，需要在当前线程解析时返回null
+     */
+    private String lookup(OfflinePlayer player, PlaceholderPlan.Entry entry, ValueCache cache, long now) {
+        long ttl = effectiveTtl(entry);
+        CachedValue cached = cache.values.get(entry.getIndex());
+        if (ttl > 0 && cached != null && now < cached.expiresAt) {
+            entry.recordHit();
+            return cached.value;
+        }
+
+        SerializationExecutor asyncExecutor = this.asyncExecutor;
+        if (entry.isAsync() && asyncExecutor != null) {
+            resolveAsync(player, entry, cache, ttl, asyncExecutor);
+            return cached != null ? cached.value : entry.getPlaceholder();
+        }
+
+        entry.recordMiss();
+        return null;
+    }
+
+    /**
+     * 获取占位符实际使用的缓存时间，降频的占位符至少间隔一段时间才重新解析
+     */
+    private long effectiveTtl(PlaceholderPlan.Entry entry) {
+        long ttl = entry.getCacheTtlMillis();
+        if (profiler.getState(entry.getId()) == PlaceholderProfiler.State.DEMOTED) {
+            ttl = Math.max(ttl, profiler.getDemoteIntervalMillis());
+        }
+        return ttl;
+    }
+
+    /**
+     * 在当前线程解析单个占位符并写入缓存
+     *
+     * @return 解析结果，失败时返回配置的原始文本
+     */
+    private String evaluateAndStore(OfflinePlayer player, PlaceholderPlan.Entry entry, ValueCache cache, long now) {
+        String value = evaluate(player, entry);
+        if (value == null) {
+            // 解析失败时不缓存，下次重新尝试
+            return entry.getPlaceholder();
+        }
+        store(entry, value, cache, now);
+        return value;
+    }
+
+    private void store(PlaceholderPlan.Entry entry, String value, ValueCache cache, long now) {
+        long ttl = effectiveTtl(entry);
+        if (cache != null && ttl > 0) {
+            cache.values.set(entry.getIndex(), new CachedValue(value, now + ttl));
+        }
+    }
+
+    /**
+     * 从待批量解析的占位符中挑出需要记录耗时的，在当前线程单独解析
+     * 样本数不足的占位符都单独解析，其余的每次轮流单独解析一个，保证每个占位符都有真实的耗时样本
+     *
+     * @return 剩余需要批量解析的数量，剩余的索引移动到due的开头
+     */
+    private int evaluateSamples(OfflinePlayer player, PlaceholderPlan plan, int[] due, int dueCount,
+                                String[] values, ValueCache cache, long now) {
+        List<PlaceholderPlan.Entry> entries = plan.getEntries();
+        int remaining = 0;
+        for (int i = 0; i < dueCount; i++) {
+            PlaceholderPlan.Entry entry = entries.get(due[i]);
+            if (profiler.hasEnoughSamples(entry.getId())) {
+                due[remaining++] = due[i];
+            } else {
+                values[due[i]] = evaluateAndStore(player, entry, cache, now);
+            }
+        }
+        if (remaining > 1) {
+            int sampled = Math.floorMod(sampleCursor.getAndIncrement(), remaining);
+            values[due[sampled]] = evaluateAndStore(player, entries.get(due[sampled]), cache, now);
+            due[sampled] = due[--remaining];
+        }
+        return remaining;
+    }
+
+    /**
+     * 将多个占位符用分隔符连接后一次调用PlaceholderAPI解析，再按分隔符拆分结果
+     * 批量解析的耗时无法区分到单个占位符，不计入耗时统计，耗时样本由 {@link #evaluateSamples} 记录
+     *
+     * @return 是否解析成功，结果数量与占位符数量不一致时返回false
+     */
+    private boolean evaluateBatch(OfflinePlayer player, PlaceholderPlan plan, int[] due, int dueCount,
+                                  String[] values, ValueCache cache, long now) {
+        List<PlaceholderPlan.Entry> entries = plan.getEntries();
+        StringBuilder template = new StringBuilder();
+        for (int i = 0; i < dueCount; i++) {
+            if (i > 0) {
+                template.append(BATCH_DELIMITER);
+            }
+            template.append(entries.get(due[i]).getPlaceholder());
+        }
+
+        String result;
+        try {
+            result = resolver.resolve(player, template.toString());
+        } catch (Exception e) {
+            result = null;
+        }
+
+        String[] parts = result == null ? null : splitBatch(result, dueCount);
+        if (parts == null) {
+            onBatchFailure();
+            return false;
+        }
+
+        for (int i = 0; i < dueCount; i++) {
+            PlaceholderPlan.Entry entry = entries.get(due[i]);
+            values[due[i]] = parts[i];
+            store(entry, parts[i], cache, now);
+        }
+        // 只统计连续出错的次数，偶尔一次结果异常不会导致停用
+        if (batchFailures.get() != 0) {
+            batchFailures.set(0);
+        }
+        return true;
+    }
+
+    /**
+     * 按分隔符拆分批量解析的结果
+     *
+     * @return 拆分结果，数量不等于expected时返回null
+     */
+    private static String[] splitBatch(String result, int expected) {
+        String[] parts = new String[expected];
+        int from = 0;
+        for (int i = 0; i < expected - 1; i++) {
+            int index = result.indexOf(BATCH_DELIMITER, from);
+            if (index < 0) {
+                return null;
+            }
+            parts[i] = result.substring(from, index);
+            from = index + BATCH_DELIMITER.length();
+        }
+        if (result.indexOf(BATCH_DELIMITER, from) >= 0) {
+            return null;
+        }
+        parts[expected - 1] = result.substring(from);
+        return parts;
+    }
+
+    /**
+     * 记录一次批量解析失败，连续失败达到上限后停用批量解析
+     */
+    private void onBatchFailure() {
+        int failures = batchFailures.incrementAndGet();
+        if (debug.getAsBoolean()) {
+            logger.info("[占位符调试] 批量解析结果与占位符数量不一致，已改为逐个解析");
+        }
+        if (batchMaxFailures > 0 && failures >= batchMaxFailures && !batchDisabled) {
+            batchDisabled = true;
+            logger.warning("占位符批量解析连续 " + failures + " 次出错，已停用批量解析；"
+                + "请为输出异常的占位符设置 batch: false 后使用 /playerinfo reload placeholders 恢复");
+        }
+    }
+
+    /**
+     * 在工作线程中解析占位符，同一玩家的同一占位符同时只有一个解析任务
+     */
+    private void resolveAsync(OfflinePlayer player, PlaceholderPlan.Entry entry, ValueCache cache, long ttl,
+                              SerializationExecutor asyncExecutor) {
+        int index = entry.getIndex();
+        if (!cache.pending.compareAndSet(index, 0, 1)) {
+            return;
+        }
+
+        entry.recordMiss();
+        boolean submitted = asyncExecutor.submit(player.getUniqueId(), () -> {
+            try {
+                String value = evaluate(player, entry);
+                if (value != null) {
+                    // 没有配置缓存时间的异步占位符每次捕获都会重新提交，结果只保留到下一次解析完成
+                    cache.values.set(index, new CachedValue(value, System.currentTimeMillis() + ttl));
+                }
+            } finally {
+                cache.pending.set(index, 0);
+            }
+        });
+        if (!submitted) {
+            cache.pending.set(index, 0);
+        }
+    }
+
+    /**
+     * 调用PlaceholderAPI解析占位符并记录耗时
+     *
+     * @return 解析结果，失败时返回null
+     */
+    private String evaluate(OfflinePlayer player, PlaceholderPlan.Entry entry) {
+        long start = System.nanoTime();
+        try {
+            return resolver.resolve(player, entry.getPlaceholder());
+        } catch (Exception e) {
+            return null;
+        } finally {
+            profiler.record(entry.getId(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 恢复批量解析并清除出错次数，重新加载占位符配置时调用
+     */
+    public void resetBatch() {
+        batchDisabled = false;
+        batchFailures.set(0);
+    }
+
+    /**
+     * 设置解析异步占位符的工作线程
+     *
+     * @param asyncExecutor 工作线程，为null时异步占位符在当前线程解析
+     */
+    public void setAsyncExecutor(SerializationExecutor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * 检查批量解析是否正在使用
+     *
+     * @return 已启用且没有因为出错被停用时返回true
+     */
+    public boolean isBatchActive() {
+        return batchEnabled && !batchDisabled;
+    }
+
+    public boolean isBatchEnabled() {
+        return batchEnabled;
+    }
+
+    public int getBatchFailures() {
+        return batchFailures.get();
+    }
+
+    public PlaceholderProfiler getProfiler() {
+        return profiler;
+    }
+}
@@ -1,10 +1,12 @@
 package cn.i7mc.playerinfo.util;
 
 import cn.i7mc.playerinfo.PlayerInfo;
-import cn.i7mc.playerinfo.model.PlaceholderData;
+import cn.i7mc.playerinfo.model.PlaceholderPlan;
+import cn.i7mc.playerinfo.scheduler.SerializationExecutor;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
 import me.clip.placeholderapi.PlaceholderAPI;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.configuration.ConfigurationSection;
@@ -26,11 +28,20 @@ import java.util.logging.Level;
  * 占位符管理器类，负责与PlaceholderAPI交互并解析自定义占位符
  */
 public class PlaceholderManager {
+    private static final JsonPrimitive ENABLED_JSON = new JsonPrimitive(true);
+
     private final PlayerInfo plugin;
-    private final Map<String, PlaceholderData> placeholders = new ConcurrentHashMap<>();
     private boolean placeholderAPIAvailable = false;
     private File configFile;
     private FileConfiguration config;
+    // 占位符解析器，包含耗时分析和批量解析状态，重新加载时重建
+    private volatile PlaceholderEvaluator evaluator;
+    // 解析 async: true 占位符的工作线程，有异步占位符时才创建
+    private SerializationExecutor asyncExecutor;
+    // 编译后的占位符配置，重新加载时整体替换
+    private volatile PlaceholderPlan plan = PlaceholderPlan.EMPTY;
+    // 每个玩家的占位符值缓存（只用于配置了 cache-ttl 的占位符）
+    private final Map<UUID, PlaceholderEvaluator.ValueCache> valueCaches = new ConcurrentHashMap<>();
 
     /**
      * 构造函数
@@ -39,9 +50,30 @@ public class PlaceholderManager {
         this.plugin = plugin;
         this.checkPlaceholderAPI();
         this.setupConfig();
+        this.loadEvaluationSettings();
         this.loadConfig();
     }
 
+    /**
+     * 根据config.yml读取占位符解析相关设置，并创建解析器和解析耗时分析器
+     */
+    private void loadEvaluationSettings() {
+        FileConfiguration pluginConfig = plugin.getConfig();
+        PlaceholderProfiler profiler = new PlaceholderProfiler(plugin.getLogger(),
+            pluginConfig.getInt("placeholder-profiler.sample-size", 256),
+            pluginConfig.getBoolean("placeholder-profiler.auto-quarantine.enabled", false),
+            pluginConfig.getDouble("placeholder-profiler.auto-quarantine.threshold-ms", 5.0),
+            PlaceholderProfiler.parseAction(pluginConfig.getString("placeholder-profiler.auto-quarantine.action", "demote")),
+            pluginConfig.getInt("placeholder-profiler.auto-quarantine.demote-interval", 30),
+            pluginConfig.getInt("placeholder-profiler.auto-quarantine.min-samples", 20));
+        PlaceholderEvaluator evaluator = new PlaceholderEvaluator(PlaceholderAPI::setPlaceholders, profiler,
+            pluginConfig.getBoolean("placeholder-batch.enabled", true),
+            pluginConfig.getInt("placeholder-batch.max-failures", 3),
+            plugin.getLogger(), plugin::isDebug);
+        evaluator.setAsyncExecutor(asyncExecutor);
+        this.evaluator = evaluator;
+    }
+
     /**
      * 检查PlaceholderAPI是否可用
      */
@@ -156,6 +188,7 @@ public class PlaceholderManager {
         lines.add("    placeholder: \"%vault_eco_balance%\"");
         lines.add("    name: \"金币\"");
         lines.add("    priority: 10");
+        lines.add("    cache-ttl: 5");
         lines.add("");
         lines.add("  # 点券信息（默认）");
         lines.add("  points:");
@@ -164,6 +197,7 @@ public class PlaceholderManager {
         lines.add("    placeholder: \"%playerpoints_points%\"");
         lines.add("    name: \"点券\"");
         lines.add("    priority: 20");
+        lines.add("    cache-ttl: 5");
         
         try {
             Files.write(path, lines, StandardCharsets.UTF_8);
@@ -222,7 +256,9 @@ public class PlaceholderManager {
      * 加载配置
      */
     public void loadConfig() {
-        this.placeholders.clear();
+        this.plan = PlaceholderPlan.EMPTY;
+        this.evaluator.resetBatch();
+        this.valueCaches.clear();
         
         if (!placeholderAPIAvailable) {
             return;
@@ -251,12 +287,15 @@ public class PlaceholderManager {
             try {
             } catch (Exception e) {
             }
+            this.plan = PlaceholderPlan.compile(this.config.getBoolean("enabled", true),
+                Collections.<PlaceholderPlan.Definition>emptyList());
             return;
         }
         
         
         int count = 0;
         int enabledCount = 0;
+        List<PlaceholderPlan.Definition> definitions = new ArrayList<>();
         for (String id : placeholdersSection.getKeys(false)) {
             count++;
             
@@ -275,16 +314,31 @@ public class PlaceholderManager {
             String placeholder = section.getString("placeholder", "");
             // 不再读取name字段，直接使用ID
             int priority = section.getInt("priority", 999);
+            // 解析结果的缓存时间（秒），0表示每次都重新解析
+            long cacheTtlMillis = (long) (section.getDouble("cache-ttl", 0) * 1000);
+            // 线程安全的扩展可以在工作线程中解析
+            boolean async = section.getBoolean("async", false);
+            // 批量解析时输出异常的扩展可以单独解析
+            boolean batch = section.getBoolean("batch", true);
             
-            // 创建并添加占位符数据对象（设置name为ID，因为前端会处理映射）
-            PlaceholderData data = new PlaceholderData(id, enabled, icon, placeholder, id, priority);
-            this.placeholders.put(id, data);
+            // 是否需要PlaceholderAPI解析只取决于配置文本，加载时判断一次
+            boolean dynamic = placeholder.contains("%") && PlaceholderAPI.containsPlaceholders(placeholder);
+            definitions.add(new PlaceholderPlan.Definition(id, icon, placeholder, priority, dynamic, cacheTtlMillis, async, batch));
+        }
+        
+        this.plan = PlaceholderPlan.compile(this.config.getBoolean("enabled", true), definitions);
+        if (this.plan.hasAsync() && this.asyncExecutor == null) {
+            this.asyncExecutor = new SerializationExecutor("PlayerInfo-Placeholder",
+                plugin.getConfig().getInt("placeholder-async.threads", 2),
+                plugin.getConfig().getInt("placeholder-async.queue-size", 256),
+                plugin.getLogger());
+            this.evaluator.setAsyncExecutor(this.asyncExecutor);
         }
         
         // 打印所有加载的占位符
         StringBuilder sb = new StringBuilder("[占位符调试] 已加载的占位符: ");
-        for (String key : this.placeholders.keySet()) {
-            sb.append(key).append(", ");
+        for (PlaceholderPlan.Entry entry : this.plan.getEntries()) {
+            sb.append(entry.getId()).append(", ");
         }
         plugin.getLogger().info(sb.toString());
     }
@@ -311,6 +365,8 @@ public class PlaceholderManager {
         } catch (Exception e) {
         }
 
+        // 重新加载后清除耗时统计和隔离状态
+        loadEvaluationSettings();
         loadConfig();
     }
     
@@ -323,28 +379,12 @@ public class PlaceholderManager {
             return new JsonObject();
         }
         
-        JsonArray placeholderArray = new JsonArray();
-        
-        // 按优先级排序占位符
-        List<PlaceholderData> sortedPlaceholders = new ArrayList<>(placeholders.values());
-        Collections.sort(sortedPlaceholders);
-        
-        // 处理每个占位符
-        for (PlaceholderData data : sortedPlaceholders) {
-            if (!data.isEnabled()) continue;
-            
-            // 使用PlaceholderAPI解析占位符
-            String rawPlaceholder = data.getPlaceholder();
-            String parsed = PlaceholderAPI.setPlaceholders(player, rawPlaceholder);
-            
-            // 更新值并添加到结果中
-            data.setValue(parsed);
-            placeholderArray.add(data.toJsonObject());
-        }
+        PlaceholderPlan plan = this.plan;
+        String[] values = evaluator.resolveValues(player, plan, getValueCache(player.getUniqueId(), plan));
         
         // 创建结果对象
         JsonObject result = new JsonObject();
-        result.add("placeholders", placeholderArray);
+        result.add("placeholders", toJsonArray(plan, values));
         
         return result;
     }
@@ -368,32 +408,42 @@ public class PlaceholderManager {
             return new JsonObject();
         }
         
-        JsonArray placeholderArray = new JsonArray();
-        
-        // 按优先级排序占位符
-        List<PlaceholderData> sortedPlaceholders = new ArrayList<>(placeholders.values());
-        Collections.sort(sortedPlaceholders);
-        
-        // 处理每个占位符
-        for (PlaceholderData data : sortedPlaceholders) {
-            if (!data.isEnabled()) continue;
-            
-            // 使用PlaceholderAPI解析占位符
-            String rawPlaceholder = data.getPlaceholder();
-            String parsed = PlaceholderAPI.setPlaceholders(player, rawPlaceholder);
-            
-            // 更新值并添加到结果中
-            data.setValue(parsed);
-            placeholderArray.add(data.toJsonObject());
-        }
+        // 离线玩家不使用值缓存，每次都重新解析
+        PlaceholderPlan plan = this.plan;
+        String[] values = evaluator.resolveValues(player, plan, null);
         
         // 创建结果对象
         JsonObject result = new JsonObject();
-        result.add("placeholders", placeholderArray);
+        result.add("placeholders", toJsonArray(plan, values));
         
         return result;
     }
     
+    /**
+     * 将解析结果转换为占位符JSON数组，不变的字段直接复用编译结果
+     */
+    private JsonArray toJsonArray(PlaceholderPlan plan, String[] values) {
+        JsonArray placeholders = new JsonArray();
+        for (PlaceholderPlan.Entry entry : plan.getEntries()) {
+            String value = values[entry.getIndex()];
+            if (value == null) {
+                continue;
+            }
+            
+            // 创建占位符JSON对象 - 使用ID作为name
+            JsonObject placeholderObj = new JsonObject();
+            placeholderObj.add("id", entry.getIdJson());
+            placeholderObj.add("enabled", ENABLED_JSON);
+            placeholderObj.add("icon", entry.getIconJson());
+            placeholderObj.add("placeholder", entry.getPlaceholderJson());
+            placeholderObj.add("priority", entry.getPriorityJson());
+            placeholderObj.addProperty("value", value);
+            
+            placeholders.add(placeholderObj);
+        }
+        return placeholders;
+    }
+    
     /**
      * 检查是否启用了PlaceholderAPI
      */
@@ -401,80 +451,141 @@ public class PlaceholderManager {
         return placeholderAPIAvailable;
     }
 
+    /**
+     * 获取玩家的值缓存，配置重新加载后旧缓存自动失效
+     */
+    private PlaceholderEvaluator.ValueCache getValueCache(UUID uuid, PlaceholderPlan plan) {
+        PlaceholderEvaluator.ValueCache cache = valueCaches.get(uuid);
+        if (cache == null || cache.getPlan() != plan) {
+            cache = valueCaches.compute(uuid, (key, old) -> old != null && old.getPlan() == plan
+                ? old : new PlaceholderEvaluator.ValueCache(plan));
+        }
+        return cache;
+    }
+    
+    /**
+     * 清除玩家的占位符值缓存，玩家退出时调用
+     * 
+     * @param uuid 玩家UUID
+     */
+    public void removePlayer(UUID uuid) {
+        valueCaches.remove(uuid);
+    }
+
+    /**
+     * 关闭异步解析线程
+     */
+    public void shutdown() {
+        if (asyncExecutor != null) {
+            evaluator.setAsyncExecutor(null);
+            asyncExecutor.shutdown();
+            asyncExecutor = null;
+        }
+    }
+    
+    /**
+     * 获取异步解析线程池
+     * 
+     * @return 线程池，没有异步占位符时返回null
+     */
+    public SerializationExecutor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+    
+    /**
+     * 检查批量解析是否正在使用
+     * 
+     * @return 已启用且没有因为出错被停用时返回true
+     */
+    public boolean isBatchActive() {
+        return evaluator.isBatchActive();
+    }
+    
+    /**
+     * 获取解析耗时分析器
+     * 
+     * @return 解析耗时分析器
+     */
+    public PlaceholderProfiler getProfiler() {
+        return evaluator.getProfiler();
+    }
+    
+    /**
+     * 获取每个占位符的解析耗时和缓存统计
+     * 
+     * @return 统计数据的JSON对象
+     */
+    public JsonObject getStatsJson() {
+        PlaceholderEvaluator evaluator = this.evaluator;
+        PlaceholderProfiler profiler = evaluator.getProfiler();
+        JsonArray stats = new JsonArray();
+        for (PlaceholderPlan.Entry entry : plan.getEntries()) {
+            JsonObject stat = new JsonObject();
+            stat.addProperty("id", entry.getId());
+            stat.addProperty("state", profiler.getState(entry.getId()).name().toLowerCase(Locale.ROOT));
+            
+            LatencyHistogram.Summary summary = profiler.getSummary(entry.getId());
+            stat.addProperty("evaluations", summary == null ? 0 : summary.getCount());
+            stat.addProperty("samples", summary == null ? 0 : summary.getSamples());
+            stat.addProperty("p50Ms", summary == null ? 0 : summary.getP50());
+            stat.addProperty("p99Ms", summary == null ? 0 : summary.getP99());
+            stat.addProperty("maxMs", summary == null ? 0 : summary.getMax());
+            
+            stat.addProperty("cacheTtlMs", entry.getCacheTtlMillis());
+            stat.addProperty("cacheHits", entry.getCacheHits());
+            stat.addProperty("cacheMisses", entry.getCacheMisses());
+            stats.add(stat);
+        }
+        
+        JsonObject quarantine = new JsonObject();
+        quarantine.addProperty("enabled", profiler.isQuarantineEnabled());
+        quarantine.addProperty("thresholdMs", profiler.getThresholdMillis());
+        quarantine.addProperty("action", profiler.getAction().name().toLowerCase(Locale.ROOT));
+        
+        JsonObject batch = new JsonObject();
+        batch.addProperty("enabled", evaluator.isBatchEnabled());
+        batch.addProperty("active", evaluator.isBatchActive());
+        batch.addProperty("failures", evaluator.getBatchFailures());
+        
+        JsonObject result = new JsonObject();
+        result.add("placeholders", stats);
+        result.add("quarantine", quarantine);
+        result.add("batch", batch);
+        return result;
+    }
+
+    /**
+     * 获取编译后的占位符配置
+     * 
+     * @return 当前的占位符配置
+     */
+    public PlaceholderPlan getPlan() {
+        return plan;
+    }
+
     /**
      * 获取占位符数据的JSON
+     * 按加载时编译的配置依次解析，每个玩家只需要填入解析后的值
      * @param player 玩家对象
      * @return 占位符数据的JSON对象
      */
     public JsonObject getPlaceholdersJson(Player player) {
         JsonObject data = new JsonObject();
-        JsonArray placeholders = new JsonArray();
-        
+        PlaceholderPlan plan = this.plan;
         
-        if (!this.isPlaceholderAPIAvailable() || !this.config.getBoolean("enabled", true)) {
+        if (!this.isPlaceholderAPIAvailable() || !plan.isEnabled()) {
             data.addProperty("placeholdersAvailable", false);
-            data.add("placeholders", placeholders);
+            data.add("placeholders", new JsonArray());
             return data;
         }
         
-        // 添加一个名称映射，用于前端处理可能的乱码
-        JsonObject nameMapping = new JsonObject();
-        
-        // 处理配置中的每个占位符
-        ConfigurationSection placeholdersSection = this.config.getConfigurationSection("placeholders");
-        if (placeholdersSection != null) {
-            
-            // 按优先级排序
-            List<String> keys = new ArrayList<>(placeholdersSection.getKeys(false));
-            keys.sort((a, b) -> {
-                int priorityA = placeholdersSection.getInt(a + ".priority", 999);
-                int priorityB = placeholdersSection.getInt(b + ".priority", 999);
-                return Integer.compare(priorityA, priorityB);
-            });
-            
-            // 处理每个占位符
-            for (String id : keys) {
-                ConfigurationSection section = placeholdersSection.getConfigurationSection(id);
-                if (section == null) {
-                    continue;
-                }
-                
-                boolean enabled = section.getBoolean("enabled", false);
-                if (!enabled) {
-                    continue;
-                }
-                
-                String icon = section.getString("icon", "barrier");
-                String placeholder = section.getString("placeholder", "");
-                int priority = section.getInt("priority", 999);
-                
-                // 替换占位符
-                String value = placeholder;
-                if (placeholder.contains("%") && player != null && PlaceholderAPI.containsPlaceholders(placeholder)) {
-                    try {
-                        value = PlaceholderAPI.setPlaceholders(player, placeholder);
-                    } catch (Exception e) {
-                    }
-                } else {
-                }
-                
-                // 创建占位符JSON对象 - 使用ID作为name
-                JsonObject placeholderObj = new JsonObject();
-                placeholderObj.addProperty("id", id);
-                placeholderObj.addProperty("enabled", enabled);
-                placeholderObj.addProperty("icon", icon);
-                placeholderObj.addProperty("placeholder", placeholder);
-                placeholderObj.addProperty("priority", priority);
-                placeholderObj.addProperty("value", value);
-                
-                placeholders.add(placeholderObj);
-            }
-        } else {
-        }
+        PlaceholderEvaluator.ValueCache cache = player == null ? null : getValueCache(player.getUniqueId(), plan);
+        String[] values = evaluator.resolveValues(player, plan, cache);
         
         data.addProperty("placeholdersAvailable", true);
-        data.add("placeholders", placeholders);
-        data.add("nameMapping", nameMapping);
+        data.add("placeholders", toJsonArray(plan, values));
+        // 名称映射，用于前端处理可能的乱码
+        data.add("nameMapping", new JsonObject());
         return data;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,171 @@
+package cn.i7mc.playerinfo.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * 占位符解析耗时分析
+ * 按占位符ID记录每次调用PlaceholderAPI的耗时；启用自动隔离后，
+ * p99耗时持续超过阈值的占位符会被降低解析频率或停止解析，直到耗时回落或重新加载配置
+ */
+public class PlaceholderProfiler {
+
+    /**
+     * 超过阈值时的处理方式
+     */
+    public enum Action {
+        DEMOTE,
+        DISABLE
+    }
+
+    /**
+     * 占位符的隔离状态
+     */
+    public enum State {
+        NORMAL("正常"),
+        DEMOTED("已降频"),
+        DISABLED("已停用");
+
+        private final String displayName;
+
+        State(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    // 每记录多少个样本检查一次是否需要隔离
+    private static final int CHECK_INTERVAL = 32;
+
+    private final Logger logger;
+    private final int sampleSize;
+    private final boolean quarantineEnabled;
+    private final double thresholdMillis;
+    private final Action action;
+    private final long demoteIntervalMillis;
+    private final int minSamples;
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param logger 日志记录器
+     * @param sampleSize 每个占位符保留的样本数量
+     * @param quarantineEnabled 是否启用自动隔离
+     * @param thresholdMillis p99耗时阈值（毫秒）
+     * @param action 超过阈值时的处理方式
+     * @param demoteIntervalSeconds 降频后的最短解析间隔（秒）
+     * @param minSamples 判断前至少需要的样本数
+     */
+    public PlaceholderProfiler(Logger logger, int sampleSize, boolean quarantineEnabled, double thresholdMillis,
+                               Action action, int demoteIntervalSeconds, int minSamples) {
+        this.logger = logger;
+        this.sampleSize = Math.max(1, sampleSize);
+        this.quarantineEnabled = quarantineEnabled;
+        this.thresholdMillis = thresholdMillis;
+        this.action = action;
+        this.demoteIntervalMillis = Math.max(1, demoteIntervalSeconds) * 1000L;
+        this.minSamples = Math.max(1, Math.min(minSamples, this.sampleSize));
+    }
+
+    /**
+     * 解析处理方式配置
+     *
+     * @param name 配置值（demote 或 disable）
+     * @return 处理方式，无法识别时为降频
+     */
+    public static Action parseAction(String name) {
+        return "disable".equalsIgnoreCase(name) ? Action.DISABLE : Action.DEMOTE;
+    }
+
+    /**
+     * 记录一次解析耗时
+     *
+     * @param id 占位符ID
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(String id, long nanos) {
+        LatencyHistogram histogram = histograms.computeIfAbsent(id, key -> new LatencyHistogram(sampleSize));
+        long count = histogram.record(nanos);
+        if (quarantineEnabled && count % CHECK_INTERVAL == 0) {
+            evaluate(id, histogram.summary());
+        }
+    }
+
+    private void evaluate(String id, LatencyHistogram.Summary summary) {
+        if (summary.getSamples() < minSamples) {
+            return;
+        }
+        State state = getState(id);
+        if (state == State.NORMAL && summary.getP99() > thresholdMillis) {
+            State quarantined = action == Action.DISABLE ? State.DISABLED : State.DEMOTED;
+            states.put(id, quarantined);
+            logger.warning(String.format("占位符 %s 解析耗时过高 (p99 %.2fms)，已%s，使用 /playerinfo reload placeholders 恢复",
+                id, summary.getP99(), quarantined.getDisplayName()));
+        } else if (state == State.DEMOTED && summary.getP99() < thresholdMillis / 2) {
+            states.remove(id);
+            logger.info(String.format("占位符 %s 解析耗时已回落 (p99 %.2fms)，恢复正常解析频率", id, summary.getP99()));
+        }
+    }
+
+    /**
+     * 获取占位符的隔离状态
+     *
+     * @param id 占位符ID
+     * @return 隔离状态
+     */
+    public State getState(String id) {
+        State state = states.get(id);
+        return state == null ? State.NORMAL : state;
+    }
+
+    /**
+     * 获取占位符的耗时统计
+     *
+     * @param id 占位符ID
+     * @return 统计结果，没有记录过时返回null
+     */
+    public LatencyHistogram.Summary getSummary(String id) {
+        LatencyHistogram histogram = histograms.get(id);
+        return histogram == null ? null : histogram.summary();
+    }
+
+    /**
+     * 检查占位符是否已经记录了足够判断的样本
+     * 只读取记录次数，不需要排序样本，可以在每次解析时调用
+     *
+     * @param id 占位符ID
+     * @return 记录次数达到最少样本数时返回true
+     */
+    public boolean hasEnoughSamples(String id) {
+        LatencyHistogram histogram = histograms.get(id);
+        return histogram != null && histogram.getCount() >= minSamples;
+    }
+
+    /**
+     * 获取降频后的最短解析间隔
+     *
+     * @return 间隔（毫秒）
+     */
+    public long getDemoteIntervalMillis() {
+        return demoteIntervalMillis;
+    }
+
+    public boolean isQuarantineEnabled() {
+        return quarantineEnabled;
+    }
+
+    public double getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+}
@@ -0,0 +1,147 @@
+package cn.i7mc.playerinfo.util;
+
+import cn.i7mc.playerinfo.model.ItemArray;
+import cn.i7mc.playerinfo.model.ItemMetaInfo;
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 玩家数据快照序列化工具
+ * 只依赖快照模型和Gson，不引用任何Bukkit类，Spigot端和BungeeCord端共用同一份输出格式
+ */
+public final class SnapshotSerializer {
+
+    private static final Gson gson = new Gson();
+
+    private SnapshotSerializer() {
+    }
+
+    /**
+     * 将玩家数据快照序列化为Web接口和BungeeCord使用的Map结构
+     * 快照不持有Bukkit对象，可以在工作线程或BungeeCord端调用
+     * 
+     * @param snapshot 玩家数据快照
+     * @return 序列化后的Map
+     */
+    public static Map<String, Object> serialize(PlayerSnapshot snapshot) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("name", snapshot.getName());
+        result.put("uuid", snapshot.getUuid().toString());
+        result.put("skinURL", "https://sessionserver.mojang.com/session/minecraft/profile/" + 
+                   snapshot.getUuid().toString().replace("-", "") + "?unsigned=false");
+        
+        result.put("armor", serializeItems(snapshot.getArmor(), true));
+        result.put("inventory", serializeItems(snapshot.getInventory(), false));
+        result.put("mainHand", serializeItem(snapshot.getHands(), PlayerSnapshot.MAIN_HAND));
+        result.put("offHand", serializeItem(snapshot.getHands(), PlayerSnapshot.OFF_HAND));
+        
+        PlayerSnapshot.Vitals vitals = snapshot.getVitals();
+        if (vitals != null) {
+            result.put("level", vitals.level);
+            result.put("health", vitals.health);
+            result.put("maxHealth", vitals.maxHealth);
+        }
+        
+        if (snapshot.getPlaceholders() != null) {
+            try {
+                Map<String, Object> placeholdersMap = gson.fromJson(snapshot.getPlaceholders(), Map.class);
+                if (placeholdersMap != null) {
+                    result.put("placeholders", placeholdersMap);
+                }
+            } catch (Exception e) {
+                Map<String, Object> simpleMap = new HashMap<>();
+                simpleMap.put("placeholdersAvailable", false);
+                simpleMap.put("error", "占位符数据序列化异常: " + e.getMessage());
+                result.put("placeholders", simpleMap);
+            }
+        }
+        
+        PlayerSnapshot.Position position = snapshot.getPosition();
+        if (position != null) {
+            Map<String, Object> locationData = new HashMap<>();
+            locationData.put("x", position.x);
+            locationData.put("y", position.y);
+            locationData.put("z", position.z);
+            locationData.put("world", position.world != null ? position.world : "unknown");
+            locationData.put("yaw", position.yaw);
+            locationData.put("pitch", position.pitch);
+            result.put("location", locationData);
+        }
+        
+        Map<String, Map<String, Object>> dragonCore = serializeItemMap(snapshot.getDragonCore());
+        if (dragonCore != null && !dragonCore.isEmpty()) {
+            result.put("dragonCore", dragonCore);
+        }
+        return result;
+    }
+    
+    /**
+     * 序列化按名称区分槽位的紧凑物品列表，跳过空槽位
+     * 
+     * @param items 紧凑物品列表
+     * @return 槽位名称 -> 序列化后的物品，items为null时返回null
+     */
+    public static Map<String, Map<String, Object>> serializeItemMap(ItemArray items) {
+        if (items == null) {
+            return null;
+        }
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            Map<String, Object> serialized = serializeItem(items, i);
+            if (serialized != null) {
+                result.put(items.getKey(i), serialized);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 序列化紧凑物品列表中的单个槽位，结构与 {@link ItemStackSerializer#serializeItemStack} 相同
+     * 
+     * @param items 紧凑物品列表
+     * @param index 槽位索引
+     * @return 序列化后的Map，槽位为空时返回null
+     */
+    public static Map<String, Object> serializeItem(ItemArray items, int index) {
+        if (items == null || index >= items.size() || items.isEmpty(index)) {
+            return null;
+        }
+        
+        Map<String, Object> itemMap = new HashMap<>();
+        itemMap.put("type", items.getType(index));
+        itemMap.put("amount", items.getAmount(index));
+        itemMap.put("durability", items.getDurability(index));
+        
+        ItemMetaInfo meta = items.getMeta(index);
+        if (meta != null) {
+            if (meta.getDisplayName() != null) {
+                itemMap.put("name", meta.getDisplayName());
+            }
+            if (meta.getLore() != null) {
+                itemMap.put("lore", meta.getLore());
+            }
+        }
+        return itemMap;
+    }
+    
+    private static List<Map<String, Object>> serializeItems(ItemArray items, boolean isArmor) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        if (items != null) {
+            int maxSlot = isArmor ? 4 : 36;
+            for (int i = 0; i < Math.min(items.size(), maxSlot); i++) {
+                Map<String, Object> serializedItem = serializeItem(items, i);
+                if (serializedItem != null) {
+                    serializedItem.put("slot", i);
+                    result.add(serializedItem);
+                }
+            }
+        }
+        return result;
+    }
+}
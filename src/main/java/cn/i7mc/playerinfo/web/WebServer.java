@@ -16,6 +16,7 @@ import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpContext;
 import cn.i7mc.playerinfo.controller.PlayerController;
 import cn.i7mc.playerinfo.PlayerInfo;
+import cn.i7mc.playerinfo.util.PlaceholderManager;
 import java.nio.charset.StandardCharsets;
 import org.bukkit.ChatColor;
 import org.json.simple.JSONObject;
@@ -27,9 +28,13 @@ import cn.i7mc.playerinfo.web.WebAuthFilter;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.Gson;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class WebServer {
     private final HttpServer server;
+    private ExecutorService executor;
     private final int port;
     private PlayerController playerController;
     private final PlayerInfo plugin;
@@ -60,6 +65,7 @@ public class WebServer {
         server.createContext("/api/player", playerController);
         server.createContext("/api/servers", new ServersHandler(playerController, plugin));
         server.createContext("/api/cache-skin", new SkinCacheHandler(plugin));
+        server.createContext("/api/placeholders/stats", new PlaceholderStatsHandler(plugin));
         
         // 添加认证相关的API端点
         if (plugin.getAuthController() != null) {
@@ -96,8 +102,15 @@ public class WebServer {
             server.createContext("/", new StaticFileHandler(plugin));
         }
         
-        // 使用默认的执行器
-        server.setExecutor(null);
+        // 使用固定大小的线程池处理请求，等待主线程读取数据时不会阻塞其他请求
+        int threads = Math.max(1, plugin.getConfig().getInt("web-server.threads", 4));
+        AtomicInteger threadId = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "PlayerInfo-Web-" + threadId.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
     }
     
     /**
@@ -158,6 +171,9 @@ public class WebServer {
 
     public void stop() {
         server.stop(0);
+        if (executor != null) {
+            executor.shutdownNow();
+        }
     }
 
     private static class StaticFileHandler implements HttpHandler {
@@ -487,6 +503,44 @@ public class WebServer {
         }
     }
     
+    /**
+     * 占位符解析耗时统计处理器
+     */
+    private class PlaceholderStatsHandler implements HttpHandler {
+        private final PlayerInfo plugin;
+        
+        public PlaceholderStatsHandler(PlayerInfo plugin) {
+            this.plugin = plugin;
+        }
+        
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendResponse(exchange, 405, "Method not allowed");
+                return;
+            }
+            
+            PlaceholderManager placeholderManager = plugin.getPlaceholderManager();
+            JsonObject response = placeholderManager != null
+                ? placeholderManager.getStatsJson()
+                : new JsonObject();
+            response.addProperty("placeholderAPIAvailable",
+                placeholderManager != null && placeholderManager.isPlaceholderAPIAvailable());
+            
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+            exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+            sendResponse(exchange, 200, new Gson().toJson(response));
+        }
+        
+        private void sendResponse(HttpExchange exchange, int statusCode, String response) throws IOException {
+            byte[] responseBytes = response.getBytes("UTF-8");
+            exchange.sendResponseHeaders(statusCode, responseBytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(responseBytes);
+            }
+        }
+    }
+    
     private static byte[] readAllBytes(InputStream is) throws IOException {
         ByteArrayOutputStream buffer = new ByteArrayOutputStream();
         int nRead;
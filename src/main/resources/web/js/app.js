@@ -62,6 +62,12 @@ document.addEventListener('DOMContentLoaded', () => {
     let lastPlayerListUpdate = 0;
     const SERVER_LIST_UPDATE_INTERVAL = 10000; // 减少为10秒，原来是30秒
     const PLAYER_LIST_UPDATE_INTERVAL = 5000; // 减少为5秒，原来是10秒
+    const WATCH_INTERVAL = 10000; // 玩家详情打开期间每10秒续订一次高频更新
+    const DETAIL_REFRESH_INTERVAL = 2000; // 玩家详情打开期间每2秒重新获取数据，与子服发送被订阅玩家数据的频率相当
+    let watchTimer = null;
+    let detailRefreshTimer = null;
+    let detailRequestPending = false; // 上一次获取玩家详情的请求是否还未完成
+    let watchedPlayer = null; // 正在查看详情的玩家，切换玩家后丢弃旧请求的响应
 
     // 用户交互状态标志
     let isUserInteracting = false;   // 用户是否正在与界面交互
@@ -883,12 +889,54 @@ document.addEventListener('DOMContentLoaded', () => {
         });
     }
 
+    // 玩家详情保持打开时定期重新获取数据并刷新显示；
+    // 同时定期通知服务器续订，BungeeCord据此让子服以更高的频率发送该玩家的数据
+    function startWatchingPlayer(playerName, serverName) {
+        stopWatchingPlayer();
+        watchedPlayer = `${serverName || ''}/${playerName}`;
+
+        detailRefreshTimer = setInterval(() => {
+            if (!isViewingPlayerDetails) {
+                stopWatchingPlayer();
+                return;
+            }
+            fetchPlayerDetails(playerName, serverName, true);
+        }, DETAIL_REFRESH_INTERVAL);
+
+        if (!serverName) {
+            return;
+        }
+
+        const watchUrl = `/api/watch?server=${encodeURIComponent(serverName)}&player=${encodeURIComponent(playerName)}`;
+        watchTimer = setInterval(() => {
+            if (!isViewingPlayerDetails) {
+                stopWatchingPlayer();
+                return;
+            }
+            fetch(watchUrl, { method: 'GET', cache: 'no-cache', credentials: 'same-origin' })
+                .catch(error => console.warn('续订玩家详情更新失败:', error));
+        }, WATCH_INTERVAL);
+    }
+
+    function stopWatchingPlayer() {
+        if (watchTimer) {
+            clearInterval(watchTimer);
+            watchTimer = null;
+        }
+        if (detailRefreshTimer) {
+            clearInterval(detailRefreshTimer);
+            detailRefreshTimer = null;
+        }
+        watchedPlayer = null;
+    }
+
     // 载入玩家详情
     function loadPlayerInfo(playerName, serverName = null) {
         console.log(`加载玩家详情: ${playerName}, 服务器: ${serverName || '默认服务器'}`);
 
         // 设置正在查看玩家详情状态
         isViewingPlayerDetails = true;
+        startWatchingPlayer(playerName, serverName);
 
         // 显示玩家信息区域
         document.querySelector('.player-info').classList.add('active');
@@ -908,7 +956,19 @@ document.addEventListener('DOMContentLoaded', () => {
             playerNameHeader.textContent = playerName;
         }
 
+        fetchPlayerDetails(playerName, serverName, false);
+    }
 
+    // 获取玩家详情并更新显示
+    // refreshing为true时是详情打开期间的定时刷新：不显示加载提示，出错时保留当前内容，
+    // 上一次请求未完成或已经切换到其他玩家时跳过
+    function fetchPlayerDetails(playerName, serverName, refreshing) {
+        const playerKey = `${serverName || ''}/${playerName}`;
+        if (refreshing && detailRequestPending) {
+            return;
+        }
+        detailRequestPending = true;
+        const isCurrent = () => isViewingPlayerDetails && watchedPlayer === playerKey;
 
         // 构建API URL - 修复格式为/api/player/[玩家名]?server=[服务器名]
         let apiUrl = `/api/player/${encodeURIComponent(playerName)}`;
@@ -916,7 +976,9 @@ document.addEventListener('DOMContentLoaded', () => {
             apiUrl += `?server=${encodeURIComponent(serverName)}`;
         }
 
-        console.log(`请求玩家详情API: ${apiUrl}`);
+        if (!refreshing) {
+            console.log(`请求玩家详情API: ${apiUrl}`);
+        }
 
         // 请求配置
         const fetchOptions = {
@@ -931,6 +993,9 @@ document.addEventListener('DOMContentLoaded', () => {
 
         // 设置请求超时
         const timeout = setTimeout(() => {
+            if (refreshing) {
+                return;
+            }
             console.error('请求玩家详情超时');
             // 显示错误信息在状态栏
             const playerNameStatus = document.getElementById('playerNameStatus');
@@ -949,7 +1014,9 @@ document.addEventListener('DOMContentLoaded', () => {
         ])
         .then(response => {
             clearTimeout(timeout);
-            console.log(`玩家详情API响应状态: ${response.status}`);
+            if (!refreshing) {
+                console.log(`玩家详情API响应状态: ${response.status}`);
+            }
 
             if (!response.ok) {
                 throw new Error('HTTP错误，状态: ' + response.status);
@@ -972,6 +1039,15 @@ document.addEventListener('DOMContentLoaded', () => {
             }
         })
         .then(data => {
+            detailRequestPending = false;
+            if (!isCurrent()) {
+                // 详情已关闭或已切换到其他玩家
+                return;
+            }
+            if (refreshing && (!data || data.error)) {
+                // 玩家可能刚刚离线，保留当前显示的内容
+                return;
+            }
             console.log('获取到玩家详情数据:', data);
 
 
@@ -1189,6 +1265,11 @@ document.addEventListener('DOMContentLoaded', () => {
         })
         .catch(error => {
             clearTimeout(timeout);
+            detailRequestPending = false;
+            if (refreshing || !isCurrent()) {
+                console.warn('刷新玩家详情失败:', error);
+                return;
+            }
             console.error('获取玩家详情时发生错误:', error);
 
             // 显示错误信息在状态栏
@@ -1205,9 +1286,12 @@ document.addEventListener('DOMContentLoaded', () => {
     function createDebugPanel(data) {
         console.log('创建调试面板，显示后端数据');
 
-        // 移除旧的调试面板（如果存在）
+        // 移除旧的调试面板（如果存在），保留面板的展开状态
         let debugPanel = document.getElementById('debug-panel');
+        let expanded = false;
         if (debugPanel) {
+            const oldContent = debugPanel.querySelector('.debug-panel-content');
+            expanded = oldContent !== null && oldContent.style.display !== 'none';
             debugPanel.remove();
         }
 
@@ -1228,7 +1312,7 @@ document.addEventListener('DOMContentLoaded', () => {
         // 创建内容容器
         const panelContent = document.createElement('div');
         panelContent.className = 'debug-panel-content';
-        panelContent.style.display = 'none'; // 默认隐藏
+        panelContent.style.display = expanded ? 'block' : 'none'; // 默认隐藏
 
         // 将数据格式化为JSON字符串
         const jsonString = JSON.stringify(data, null, 2);
@@ -1338,8 +1422,9 @@ document.addEventListener('DOMContentLoaded', () => {
 
         debugPanel.appendChild(panelContent);
 
-        // 添加面板样式
-        const style = document.createElement('style');
+        // 添加面板样式，只添加一次
+        const style = document.getElementById('debug-panel-style') || document.createElement('style');
+        style.id = 'debug-panel-style';
         style.textContent = `
             .debug-panel {
                 margin-top: 20px;
@@ -1455,7 +1540,9 @@ document.addEventListener('DOMContentLoaded', () => {
                 margin-bottom: 3px;
             }
         `;
-        document.head.appendChild(style);
+        if (!style.parentNode) {
+            document.head.appendChild(style);
+        }
 
         // 将面板添加到物品栏下方
         const inventorySection = document.querySelector('.inventory-section');
@@ -0,0 +1,84 @@
+package cn.i7mc.playerinfo;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * 性能测试的简单计时工具
+ * 先预热再计时，结果写入 {@link #sink} 防止被JIT优化掉；只用于比较同一台机器上的相对开销
+ */
+public final class Benchmarks {
+
+    /**
+     * 接收测试结果，防止计算被优化掉
+     */
+    public static volatile Object sink;
+
+    /**
+     * 可计时的操作
+     */
+    public interface Operation {
+        Object run() throws Throwable;
+    }
+
+    private Benchmarks() {
+    }
+
+    /**
+     * 预热后计时
+     *
+     * @param name 显示名称
+     * @param iterations 计时的执行次数
+     * @param operation 操作
+     * @return 平均每次耗时（纳秒）
+     * @throws Throwable 操作出错时抛出
+     */
+    public static double measure(String name, int iterations, Operation operation) throws Throwable {
+        int warmup = Math.max(1, iterations / 2);
+        for (int i = 0; i < warmup; i++) {
+            sink = operation.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = operation.run();
+        }
+        double nanos = (System.nanoTime() - start) / (double) iterations;
+        System.out.println(String.format(Locale.ROOT, "%-44s %12.1f ns/op", name, nanos));
+        return nanos;
+    }
+
+    /**
+     * 估算对象占用的堆内存
+     * 在GC前后比较已用堆大小，结果受JVM影响，只用于同一次运行中的相对比较
+     *
+     * @param name 显示名称
+     * @param count 对象数量，用于计算平均值
+     * @param factory 创建对象，返回值在计量期间保持引用
+     * @return 平均每个对象占用的字节数
+     */
+    public static long retainedBytes(String name, int count, Supplier<Object> factory) {
+        long before = usedHeap();
+        Object retained = factory.get();
+        long after = usedHeap();
+        sink = retained;
+        long perObject = Math.max(0, after - before) / Math.max(1, count);
+        System.out.println(String.format(Locale.ROOT, "%-44s %12d bytes/op", name, perObject));
+        return perObject;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // 多次GC取最小值，减少未回收对象的干扰
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,139 @@
+package cn.i7mc.playerinfo.bungee.messaging;
+
+import cn.i7mc.playerinfo.messaging.MessageFragmenter;
+import cn.i7mc.playerinfo.protocol.WireProtocol;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FragmentAssemblerTest {
+
+    private static final UUID CARRIER = new UUID(1, 1);
+
+    private final MessageFragmenter fragmenter = new MessageFragmenter();
+    private final FragmentAssembler assembler = new FragmentAssembler(10_000, 1048576, 4 * 1048576);
+
+    private static byte[] message(int size, long seed) {
+        byte[] message = new byte[size];
+        new Random(seed).nextBytes(message);
+        return message;
+    }
+
+    /**
+     * 按 MessageListener 的方式解析分片并交给重组器
+     */
+    private byte[] accept(UUID carrier, byte[] fragment) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(fragment));
+        assertEquals(WireProtocol.FRAGMENT, in.readUTF());
+        int transferId = in.readInt();
+        int index = in.readUnsignedShort();
+        int count = in.readUnsignedShort();
+        int totalLength = in.readInt();
+        byte[] chunk = new byte[in.readInt()];
+        in.readFully(chunk);
+        assertEquals(0, in.available());
+        return assembler.accept(carrier, transferId, index, count, totalLength, chunk);
+    }
+
+    @Test
+    void smallMessageIsNotSplit() throws IOException {
+        byte[] message = message(WireProtocol.MAX_MESSAGE_SIZE, 1);
+        List<byte[]> parts = fragmenter.split(message);
+        assertEquals(1, parts.size());
+        assertSame(message, parts.get(0));
+    }
+
+    @Test
+    void largeMessageRoundTrip() throws IOException {
+        byte[] message = message(100_000, 2);
+        List<byte[]> parts = fragmenter.split(message);
+        assertEquals(4, parts.size());
+
+        for (int i = 0; i < parts.size(); i++) {
+            assertTrue(parts.get(i).length <= WireProtocol.MAX_MESSAGE_SIZE, "分片大小: " + parts.get(i).length);
+            byte[] result = accept(CARRIER, parts.get(i));
+            if (i < parts.size() - 1) {
+                assertNull(result);
+            } else {
+                assertArrayEquals(message, result);
+            }
+        }
+    }
+
+    @Test
+    void carriersAreReassembledIndependently() throws IOException {
+        UUID other = new UUID(2, 2);
+        byte[] first = message(70_000, 3);
+        byte[] second = message(50_000, 4);
+        List<byte[]> firstParts = fragmenter.split(first);
+        List<byte[]> secondParts = fragmenter.split(second);
+
+        byte[] firstResult = null;
+        byte[] secondResult = null;
+        for (int i = 0; i < Math.max(firstParts.size(), secondParts.size()); i++) {
+            if (i < firstParts.size()) {
+                firstResult = accept(CARRIER, firstParts.get(i));
+            }
+            if (i < secondParts.size()) {
+                secondResult = accept(other, secondParts.get(i));
+            }
+        }
+        assertArrayEquals(first, firstResult);
+        assertArrayEquals(second, secondResult);
+    }
+
+    @Test
+    void missingFragmentIsRejectedAndNextTransferWorks() throws IOException {
+        List<byte[]> parts = fragmenter.split(message(100_000, 5));
+        accept(CARRIER, parts.get(0));
+        assertThrows(IOException.class, () -> accept(CARRIER, parts.get(2)));
+
+        // 丢弃后之前的分片不再占用缓冲区，下一条消息可以正常重组
+        byte[] next = message(40_000, 6);
+        byte[] result = null;
+        for (byte[] part : fragmenter.split(next)) {
+            result = accept(CARRIER, part);
+        }
+        assertArrayEquals(next, result);
+    }
+
+    @Test
+    void newTransferReplacesUnfinishedOne() throws IOException {
+        List<byte[]> abandoned = fragmenter.split(message(100_000, 7));
+        accept(CARRIER, abandoned.get(0));
+        accept(CARRIER, abandoned.get(1));
+
+        byte[] next = message(40_000, 8);
+        byte[] result = null;
+        for (byte[] part : fragmenter.split(next)) {
+            result = accept(CARRIER, part);
+        }
+        assertArrayEquals(next, result);
+        assertFalse(assembler.remove(CARRIER));
+    }
+
+    @Test
+    void limitsAreEnforced() throws IOException {
+        FragmentAssembler small = new FragmentAssembler(10_000, 50_000, 60_000);
+        assertThrows(IOException.class, () -> small.accept(CARRIER, 1, 0, 3, 80_000, new byte[32000]));
+
+        small.accept(CARRIER, 2, 0, 2, 40_000, new byte[32000]);
+        // 两条未完成的消息超过缓冲区上限
+        assertThrows(IOException.class, () -> small.accept(new UUID(3, 3), 3, 0, 2, 40_000, new byte[32000]));
+        assertTrue(small.remove(CARRIER));
+        assertNull(small.accept(new UUID(3, 3), 4, 0, 2, 40_000, new byte[32000]));
+    }
+}
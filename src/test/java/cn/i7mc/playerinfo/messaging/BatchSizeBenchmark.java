@@ -0,0 +1,96 @@
+package cn.i7mc.playerinfo.messaging;
+
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+import cn.i7mc.playerinfo.model.TestSnapshots;
+import cn.i7mc.playerinfo.protocol.SnapshotCodec;
+import cn.i7mc.playerinfo.protocol.StringTable;
+import cn.i7mc.playerinfo.protocol.WireProtocol;
+import cn.i7mc.playerinfo.protocol.WireWriter;
+import cn.i7mc.playerinfo.util.CompressionCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * 比较逐个玩家发送和合并发送一轮完整刷新时的消息数量和每名玩家的字节数，玩家数量分别为100、300、1000
+ * 两种方式都发送关键帧且字符串已登记；逐个发送的消息未超过压缩阈值，与 MessageSender 一样不压缩，
+ * 合并发送按默认的 max-size（65536字节）分批，每批压缩一次，超过插件消息限制时按帧拆分
+ *
+ * 运行: gradle benchmark -Pbenchmark=cn.i7mc.playerinfo.messaging.BatchSizeBenchmark
+ */
+public final class BatchSizeBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        CompressionCodec codec = CompressionCodec.create(6, true, Logger.getAnonymousLogger());
+        for (int players : new int[] {100, 300, 1000}) {
+            List<PlayerSnapshot> snapshots = TestSnapshots.population(players, 42);
+
+            StringTable singleStrings = new StringTable(2048);
+            StringTable batchStrings = new StringTable(2048);
+            // 先发送一轮，让字符串表登记常用字符串
+            single(snapshots, singleStrings);
+            batch(snapshots, batchStrings, codec);
+
+            long singleBytes = single(snapshots, singleStrings);
+            List<byte[]> batched = batch(snapshots, batchStrings, codec);
+            long batchBytes = 0;
+            for (byte[] message : batched) {
+                batchBytes += message.length;
+            }
+
+            System.out.println(String.format(Locale.ROOT,
+                "%d 名玩家: 逐个发送 %d 条消息，%d 字节/人；合并发送 %d 条消息，%d 字节/人",
+                players, players, singleBytes / players, batched.size(), batchBytes / players));
+        }
+    }
+
+    /**
+     * 与 MessageSender 的合并发送相同，所有玩家的帧写入同一批次
+     *
+     * @return 插件消息列表
+     */
+    private static List<byte[]> batch(List<PlayerSnapshot> snapshots, StringTable strings, CompressionCodec codec)
+            throws IOException {
+        FrameBatch batch = new FrameBatch(65536 + 1024, 1048576, codec);
+        List<byte[]> messages = new ArrayList<>();
+        long sequence = 0;
+        for (PlayerSnapshot snapshot : snapshots) {
+            SnapshotCodec.encodeKeyframe(snapshot, ++sequence, strings, batch.getWriter());
+            batch.endFrame();
+            if (batch.size() >= 65536) {
+                batch.drainTo(1, messages, Logger.getAnonymousLogger(), false);
+            }
+        }
+        batch.drainTo(1, messages, Logger.getAnonymousLogger(), false);
+        return messages;
+    }
+
+    /**
+     * 每名玩家单独编码为一条 PlayerDataV2 消息
+     *
+     * @return 所有消息的总字节数
+     */
+    private static long single(List<PlayerSnapshot> snapshots, StringTable strings) throws IOException {
+        long total = 0;
+        long sequence = 0;
+        WireWriter body = new WireWriter(1024);
+        for (PlayerSnapshot snapshot : snapshots) {
+            body.reset();
+            SnapshotCodec.encodeKeyframe(snapshot, ++sequence, strings, body);
+            ByteArrayOutputStream stream = new ByteArrayOutputStream(body.size() + 32);
+            DataOutputStream out = new DataOutputStream(stream);
+            out.writeUTF(WireProtocol.PLAYER_DATA_V2);
+            out.writeInt(1);
+            out.writeBoolean(false);
+            out.writeInt(body.size());
+            out.write(body.getBuffer(), 0, body.size());
+            total += stream.size();
+        }
+        return total;
+    }
+}
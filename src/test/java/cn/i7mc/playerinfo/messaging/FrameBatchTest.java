@@ -0,0 +1,126 @@
+package cn.i7mc.playerinfo.messaging;
+
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+import cn.i7mc.playerinfo.model.TestSnapshots;
+import cn.i7mc.playerinfo.protocol.SnapshotCodec;
+import cn.i7mc.playerinfo.protocol.SnapshotFrame;
+import cn.i7mc.playerinfo.protocol.StringTable;
+import cn.i7mc.playerinfo.protocol.WireProtocol;
+import cn.i7mc.playerinfo.protocol.WireReader;
+import cn.i7mc.playerinfo.util.CompressionCodec;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameBatchTest {
+
+    private static final Logger LOGGER = Logger.getAnonymousLogger();
+
+    static final CompressionCodec CODEC = CompressionCodec.create(6, true, LOGGER);
+
+    /**
+     * 编码一批关键帧，按帧的顺序返回插件消息
+     */
+    static List<byte[]> encode(List<PlayerSnapshot> snapshots, StringTable strings, int session) throws IOException {
+        FrameBatch batch = new FrameBatch(1024, 1048576, CODEC);
+        long sequence = 0;
+        for (PlayerSnapshot snapshot : snapshots) {
+            SnapshotCodec.encodeKeyframe(snapshot, ++sequence, strings, batch.getWriter());
+            batch.endFrame();
+        }
+        List<byte[]> messages = new ArrayList<>();
+        assertTrue(batch.drainTo(session, messages, LOGGER, false));
+        assertEquals(0, batch.count());
+        return messages;
+    }
+
+    /**
+     * 按 MessageListener 的方式解析合并消息
+     */
+    static List<PlayerSnapshot> decode(List<byte[]> messages, StringTable strings, int session) throws IOException {
+        List<PlayerSnapshot> snapshots = new ArrayList<>();
+        for (byte[] message : messages) {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(message));
+            assertEquals(WireProtocol.PLAYER_BATCH, in.readUTF());
+            assertEquals(session, in.readInt());
+            boolean compressed = in.readBoolean();
+            byte[] payload = new byte[in.readInt()];
+            in.readFully(payload);
+            assertEquals(0, in.available());
+            if (compressed) {
+                payload = CODEC.decompress(payload, WireProtocol.MAX_DECOMPRESSED_SIZE);
+            }
+
+            WireReader reader = new WireReader(payload);
+            int count = reader.readVarInt();
+            for (int i = 0; i < count; i++) {
+                SnapshotFrame frame = SnapshotCodec.decodeFrame(reader, strings);
+                snapshots.add(frame.getSnapshot());
+            }
+            assertEquals(0, reader.remaining());
+        }
+        return snapshots;
+    }
+
+    @Test
+    void smallBatchIsOneUncompressedMessage() throws IOException {
+        List<PlayerSnapshot> snapshots = TestSnapshots.population(20, 1);
+        List<byte[]> messages = encode(snapshots, new StringTable(2048), 5);
+
+        assertEquals(1, messages.size());
+        List<PlayerSnapshot> received = decode(messages, new StringTable(2048), 5);
+        assertEquals(snapshots.size(), received.size());
+        for (int i = 0; i < snapshots.size(); i++) {
+            TestSnapshots.assertSameSnapshot(snapshots.get(i), received.get(i));
+        }
+    }
+
+    @Test
+    void largeBatchIsCompressedAndSplitInOrder() throws IOException {
+        List<PlayerSnapshot> snapshots = TestSnapshots.population(1000, 2);
+        List<byte[]> messages = encode(snapshots, new StringTable(2048), 9);
+
+        assertTrue(messages.size() > 1, "消息数量: " + messages.size());
+        for (byte[] message : messages) {
+            // 拆分后每条消息都不需要分片
+            assertTrue(message.length <= WireProtocol.MAX_MESSAGE_SIZE, "消息大小: " + message.length);
+        }
+        List<PlayerSnapshot> received = decode(messages, new StringTable(2048), 9);
+        assertEquals(snapshots.size(), received.size());
+        for (int i = 0; i < snapshots.size(); i++) {
+            TestSnapshots.assertSameSnapshot(snapshots.get(i), received.get(i));
+        }
+    }
+
+    @Test
+    void emptyBatchProducesNoMessages() throws IOException {
+        FrameBatch batch = new FrameBatch(64, 1048576, CODEC);
+        List<byte[]> messages = new ArrayList<>();
+        assertTrue(batch.drainTo(1, messages, LOGGER, false));
+        assertTrue(messages.isEmpty());
+    }
+
+    @Test
+    void oversizedFrameIsRejected() throws IOException {
+        // 无法压缩的单个帧超过允许的最大大小
+        FrameBatch batch = new FrameBatch(64, WireProtocol.MAX_PAYLOAD_SIZE, CODEC);
+        byte[] noise = new byte[WireProtocol.MAX_PAYLOAD_SIZE + 1000];
+        new Random(3).nextBytes(noise);
+        batch.getWriter().writeBytes(noise, 0, noise.length);
+        batch.endFrame();
+
+        List<byte[]> messages = new ArrayList<>();
+        assertFalse(batch.drainTo(1, messages, LOGGER, false));
+        assertEquals(0, batch.size());
+    }
+}
@@ -0,0 +1,116 @@
+package cn.i7mc.playerinfo.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxTest {
+
+    /**
+     * 模拟主线程调度器：任务先积累，到下一tick时以打乱的顺序执行，与同一tick内不保证顺序的调度器相同
+     */
+    static final class ShuffledTicks {
+        private final List<Runnable> tasks = new ArrayList<>();
+        private final Random random = new Random(7);
+        int submitted = 0;
+
+        synchronized void execute(Runnable task) {
+            tasks.add(task);
+            submitted++;
+        }
+
+        void tick() {
+            List<Runnable> batch;
+            synchronized (this) {
+                batch = new ArrayList<>(tasks);
+                tasks.clear();
+            }
+            Collections.shuffle(batch, random);
+            for (Runnable task : batch) {
+                task.run();
+            }
+        }
+    }
+
+    @Test
+    void deliversInPostOrderWithOneScheduledTask() {
+        ShuffledTicks ticks = new ShuffledTicks();
+        Outbox outbox = new Outbox(ticks::execute, Logger.getAnonymousLogger());
+        List<Integer> sent = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int frame = i;
+            outbox.post(() -> sent.add(frame));
+        }
+        assertEquals(1, ticks.submitted);
+
+        ticks.tick();
+        assertEquals(100, sent.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) sent.get(i));
+        }
+        assertEquals(0, outbox.size());
+    }
+
+    @Test
+    void concurrentProducersKeepTheirOwnOrder() throws InterruptedException {
+        ShuffledTicks ticks = new ShuffledTicks();
+        Outbox outbox = new Outbox(ticks::execute, Logger.getAnonymousLogger());
+        int producers = 4;
+        int frames = 2000;
+        List<int[]> sent = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            new Thread(() -> {
+                for (int i = 0; i < frames; i++) {
+                    int frame = i;
+                    // 发送任务只在排空时执行，排空只在模拟的主线程上进行
+                    outbox.post(() -> sent.add(new int[] {producer, frame}));
+                }
+                done.countDown();
+            }).start();
+        }
+        while (done.getCount() > 0) {
+            ticks.tick();
+        }
+        done.await();
+        ticks.tick();
+
+        assertEquals(producers * frames, sent.size());
+        int[] last = new int[producers];
+        Arrays.fill(last, -1);
+        for (int[] entry : sent) {
+            // 每个编码线程的帧都按编码顺序发出
+            assertEquals(last[entry[0]] + 1, entry[1]);
+            last[entry[0]] = entry[1];
+        }
+    }
+
+    @Test
+    void failingDeliveryDoesNotBlockTheRest() {
+        ShuffledTicks ticks = new ShuffledTicks();
+        Outbox outbox = new Outbox(ticks::execute, Logger.getAnonymousLogger());
+        List<String> sent = new ArrayList<>();
+        outbox.post(() -> {
+            throw new IllegalStateException("玩家已离线");
+        });
+        outbox.post(() -> sent.add("next"));
+        ticks.tick();
+        assertEquals(Collections.singletonList("next"), sent);
+
+        // 排空后再放入的任务会提交新的排空任务
+        outbox.post(() -> sent.add("later"));
+        assertEquals(2, ticks.submitted);
+        ticks.tick();
+        assertTrue(sent.contains("later"));
+    }
+}
@@ -0,0 +1,40 @@
+package cn.i7mc.playerinfo.model;
+
+import cn.i7mc.playerinfo.Benchmarks;
+import cn.i7mc.playerinfo.util.SnapshotSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 比较500名玩家的数据在内存中的大小：原来每个存储项都保留一份按Web接口格式序列化的Map，
+ * 现在只保留 {@link PlayerSnapshot}。玩家数据由 {@link TestSnapshots} 按固定种子生成
+ *
+ * 运行: gradle benchmark -Pbenchmark=cn.i7mc.playerinfo.model.SnapshotMemoryBenchmark
+ */
+public final class SnapshotMemoryBenchmark {
+
+    private static final int PLAYERS = 500;
+
+    public static void main(String[] args) {
+        // 先生成一次，让类加载和字符串驻留不计入结果
+        Benchmarks.sink = createSnapshots();
+
+        long before = Benchmarks.retainedBytes("快照 + Web格式Map（原存储项）", PLAYERS, () -> {
+            List<PlayerSnapshot> snapshots = createSnapshots();
+            List<Object> entries = new ArrayList<>();
+            for (PlayerSnapshot snapshot : snapshots) {
+                entries.add(new Object[] {snapshot, SnapshotSerializer.serialize(snapshot)});
+            }
+            return entries;
+        });
+        long after = Benchmarks.retainedBytes("只保留快照", PLAYERS, SnapshotMemoryBenchmark::createSnapshots);
+
+        System.out.println(String.format("每名玩家减少 %d 字节（%.0f%%）",
+            before - after, before == 0 ? 0.0 : 100.0 * (before - after) / before));
+    }
+
+    private static List<PlayerSnapshot> createSnapshots() {
+        return TestSnapshots.population(PLAYERS, 42);
+    }
+}
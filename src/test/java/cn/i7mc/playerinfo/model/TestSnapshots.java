@@ -0,0 +1,227 @@
+package cn.i7mc.playerinfo.model;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 测试和性能测试使用的玩家数据快照
+ * 使用固定种子生成，背包大约半满，部分物品带显示名称和描述，占位符与 PlaceholderManager 生成的结构相同
+ */
+public final class TestSnapshots {
+
+    private static final String[] TYPES = {
+        "DIAMOND_SWORD", "IRON_PICKAXE", "COBBLESTONE", "DIRT", "OAK_LOG", "TORCH",
+        "BREAD", "ENDER_PEARL", "ARROW", "BOW", "GOLDEN_APPLE", "REDSTONE"
+    };
+
+    private static final String[] ARMOR = {
+        "DIAMOND_BOOTS", "DIAMOND_LEGGINGS", "DIAMOND_CHESTPLATE", "DIAMOND_HELMET"
+    };
+
+    private static final String[] PLACEHOLDERS = {"money", "rank", "kills", "playtime", "guild"};
+
+    private TestSnapshots() {
+    }
+
+    /**
+     * 生成一组玩家的快照
+     *
+     * @param count 玩家数量
+     * @param seed 随机种子
+     * @return 快照列表
+     */
+    public static List<PlayerSnapshot> population(int count, long seed) {
+        Random random = new Random(seed);
+        List<PlayerSnapshot> snapshots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            snapshots.add(create(random, i));
+        }
+        return snapshots;
+    }
+
+    /**
+     * 生成一名玩家的快照，每隔几名玩家带有DragonCore容器
+     *
+     * @param random 随机数
+     * @param index 玩家序号，用于名称
+     * @return 快照
+     */
+    public static PlayerSnapshot create(Random random, int index) {
+        ItemArray inventory = new ItemArray(36, false);
+        for (int slot = 0; slot < 36; slot++) {
+            if (random.nextBoolean()) {
+                String type = TYPES[random.nextInt(TYPES.length)];
+                inventory.set(slot, type, 1 + random.nextInt(64), (short) 0, randomMeta(random, type));
+            }
+        }
+        ItemArray armor = new ItemArray(4, false);
+        for (int slot = 0; slot < 4; slot++) {
+            armor.set(slot, ARMOR[slot], 1, (short) random.nextInt(300), randomMeta(random, ARMOR[slot]));
+        }
+        ItemArray hands = new ItemArray(2, false);
+        hands.set(PlayerSnapshot.MAIN_HAND, "DIAMOND_SWORD", 1, (short) 0, randomMeta(random, "DIAMOND_SWORD"));
+
+        ItemArray dragonCore = null;
+        if (index % 4 == 0) {
+            dragonCore = new ItemArray(3, true);
+            dragonCore.setKey(0, "饰品1");
+            dragonCore.set(0, "GOLD_NUGGET", 1, (short) 0, ItemMetaInfo.of("§e幸运符", null));
+            dragonCore.setKey(1, "饰品2");
+            dragonCore.setKey(2, "翅膀");
+            dragonCore.set(2, "ELYTRA", 1, (short) random.nextInt(400), null);
+        }
+
+        PlayerSnapshot.Vitals vitals = new PlayerSnapshot.Vitals("§aPlayer" + index, index % 50 == 0,
+            1 + random.nextInt(20), 20.0, random.nextInt(21), random.nextFloat() * 4, 5.0f, "SURVIVAL",
+            random.nextInt(100), random.nextFloat());
+        PlayerSnapshot.Position position = new PlayerSnapshot.Position(random.nextInt(5) == 0 ? "world_nether" : "world",
+            random.nextDouble() * 2000 - 1000, 64 + random.nextInt(20), random.nextDouble() * 2000 - 1000,
+            random.nextFloat() * 360, random.nextFloat() * 180 - 90);
+        return new PlayerSnapshot(new UUID(random.nextLong(), random.nextLong()), "Player" + index, 1, 0,
+            vitals, position, inventory, armor, hands, placeholders(random), dragonCore);
+    }
+
+    /**
+     * 生成一名玩家在下一轮刷新时的快照：移动了位置，少数背包槽位和部分占位符的值发生变化
+     *
+     * @param base 上一轮的快照
+     * @param random 随机数
+     * @return 新的快照
+     */
+    public static PlayerSnapshot next(PlayerSnapshot base, Random random) {
+        PlayerSnapshot.Position from = base.getPosition();
+        PlayerSnapshot.Position position = new PlayerSnapshot.Position(from.world,
+            from.x + random.nextDouble() * 4 - 2, from.y, from.z + random.nextDouble() * 4 - 2,
+            random.nextFloat() * 360, from.pitch);
+
+        ItemArray inventory = base.getInventory().copy();
+        for (int i = 0; i < 2; i++) {
+            int slot = random.nextInt(inventory.size());
+            if (inventory.isEmpty(slot)) {
+                inventory.set(slot, TYPES[random.nextInt(TYPES.length)], 1 + random.nextInt(64), (short) 0, null);
+            } else if (random.nextBoolean()) {
+                inventory.clear(slot);
+            } else {
+                inventory.set(slot, inventory.getType(slot), 1 + random.nextInt(64),
+                    inventory.getDurability(slot), inventory.getMeta(slot));
+            }
+        }
+
+        JsonObject placeholders = base.getPlaceholders();
+        if (random.nextBoolean()) {
+            placeholders = placeholders(random);
+        }
+        return new PlayerSnapshot(base.getUuid(), base.getName(), base.getVersion() + 1, 0,
+            base.getVitals(), position, inventory, base.getArmor(), base.getHands(), placeholders,
+            base.getDragonCore());
+    }
+
+    private static ItemMetaInfo randomMeta(Random random, String type) {
+        if (random.nextInt(4) != 0) {
+            return null;
+        }
+        return ItemMetaInfo.of("§6传说的" + type, Arrays.asList("§7耐久 +" + random.nextInt(3), "§7绑定"));
+    }
+
+    private static JsonObject placeholders(Random random) {
+        JsonArray array = new JsonArray();
+        for (int i = 0; i < PLACEHOLDERS.length; i++) {
+            JsonObject placeholder = new JsonObject();
+            placeholder.addProperty("id", PLACEHOLDERS[i]);
+            placeholder.addProperty("enabled", true);
+            placeholder.addProperty("icon", "paper");
+            placeholder.addProperty("placeholder", "%player_" + PLACEHOLDERS[i] + "%");
+            placeholder.addProperty("priority", i);
+            placeholder.addProperty("value", String.valueOf(random.nextInt(100000)));
+            array.add(placeholder);
+        }
+        JsonObject data = new JsonObject();
+        data.addProperty("placeholdersAvailable", true);
+        data.add("placeholders", array);
+        data.add("nameMapping", new JsonObject());
+        return data;
+    }
+
+    /**
+     * 断言两个快照的内容相同
+     *
+     * @param expected 期望的快照
+     * @param actual 实际的快照
+     */
+    public static void assertSameSnapshot(PlayerSnapshot expected, PlayerSnapshot actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getUuid(), actual.getUuid());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getChangedGroups(), actual.getChangedGroups());
+
+        PlayerSnapshot.Vitals v1 = expected.getVitals();
+        PlayerSnapshot.Vitals v2 = actual.getVitals();
+        if (v1 == null) {
+            assertNull(v2);
+        } else {
+            assertNotNull(v2);
+            assertEquals(v1.displayName, v2.displayName);
+            assertEquals(v1.op, v2.op);
+            assertEquals(v1.health, v2.health, 0.0);
+            assertEquals(v1.maxHealth, v2.maxHealth, 0.0);
+            assertEquals(v1.foodLevel, v2.foodLevel);
+            assertEquals(v1.exhaustion, v2.exhaustion, 0.0f);
+            assertEquals(v1.saturation, v2.saturation, 0.0f);
+            assertEquals(v1.gameMode, v2.gameMode);
+            assertEquals(v1.level, v2.level);
+            assertEquals(v1.exp, v2.exp, 0.0f);
+        }
+
+        PlayerSnapshot.Position p1 = expected.getPosition();
+        PlayerSnapshot.Position p2 = actual.getPosition();
+        if (p1 == null) {
+            assertNull(p2);
+        } else {
+            assertNotNull(p2);
+            assertEquals(p1.world, p2.world);
+            assertEquals(p1.x, p2.x, 0.0);
+            assertEquals(p1.y, p2.y, 0.0);
+            assertEquals(p1.z, p2.z, 0.0);
+            assertEquals(p1.yaw, p2.yaw, 0.0f);
+            assertEquals(p1.pitch, p2.pitch, 0.0f);
+        }
+
+        assertSameItems(expected.getInventory(), actual.getInventory());
+        assertSameItems(expected.getArmor(), actual.getArmor());
+        assertSameItems(expected.getHands(), actual.getHands());
+        assertSameItems(expected.getDragonCore(), actual.getDragonCore());
+        assertEquals(expected.getPlaceholders(), actual.getPlaceholders());
+    }
+
+    private static void assertSameItems(ItemArray expected, ItemArray actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertNotNull(actual);
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.isKeyed(), actual.isKeyed());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.isEmpty(i), actual.isEmpty(i), "槽位 " + i);
+            if (!expected.isEmpty(i)) {
+                // 只发送非空槽位，空槽位的名称不保留
+                assertEquals(expected.getKey(i), actual.getKey(i), "槽位 " + i);
+                assertEquals(expected.getType(i), actual.getType(i), "槽位 " + i);
+                assertEquals(expected.getAmount(i), actual.getAmount(i), "槽位 " + i);
+                assertEquals(expected.getDurability(i), actual.getDurability(i), "槽位 " + i);
+                assertEquals(expected.getMeta(i), actual.getMeta(i), "槽位 " + i);
+            }
+        }
+    }
+}
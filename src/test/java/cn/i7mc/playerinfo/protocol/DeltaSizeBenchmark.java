@@ -0,0 +1,70 @@
+package cn.i7mc.playerinfo.protocol;
+
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+import cn.i7mc.playerinfo.model.TestSnapshots;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * 比较每轮刷新都发送关键帧和只发送增量帧时每名玩家的数据大小
+ * 100名玩家刷新20轮，每轮每名玩家移动位置、少数背包槽位变化、约一半的占位符值变化，
+ * 另外统计数据完全没有变化时的增量帧大小；字符串表在第一轮之后已登记，不计压缩
+ *
+ * 运行: gradle benchmark -Pbenchmark=cn.i7mc.playerinfo.protocol.DeltaSizeBenchmark
+ */
+public final class DeltaSizeBenchmark {
+
+    private static final int PLAYERS = 100;
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) {
+        List<PlayerSnapshot> snapshots = TestSnapshots.population(PLAYERS, 42);
+        Random random = new Random(42);
+        StringTable keyframeStrings = new StringTable(2048);
+        StringTable deltaStrings = new StringTable(2048);
+        WireWriter out = new WireWriter(1024);
+
+        // 第一轮两种方式都发送关键帧，只用于登记字符串
+        for (PlayerSnapshot snapshot : snapshots) {
+            SnapshotCodec.encodeKeyframe(snapshot, 1, keyframeStrings, out);
+            SnapshotCodec.encodeKeyframe(snapshot, 1, deltaStrings, out);
+        }
+
+        long keyframes = 0;
+        long deltas = 0;
+        long unchanged = 0;
+        for (int round = 2; round <= ROUNDS; round++) {
+            for (int i = 0; i < PLAYERS; i++) {
+                PlayerSnapshot base = snapshots.get(i);
+                PlayerSnapshot next = TestSnapshots.next(base, random);
+
+                out.reset();
+                SnapshotCodec.encodeKeyframe(next, round, keyframeStrings, out);
+                keyframes += out.size();
+
+                out.reset();
+                SnapshotCodec.encodeDelta(base, round - 1, next, round, deltaStrings, out);
+                deltas += out.size();
+
+                out.reset();
+                SnapshotCodec.encodeDelta(next, round, next, round + 1, deltaStrings, out);
+                unchanged += out.size();
+
+                snapshots.set(i, next);
+            }
+        }
+
+        long frames = (long) PLAYERS * (ROUNDS - 1);
+        System.out.println(String.format(Locale.ROOT, "%d 名玩家 x %d 轮，每帧平均大小:", PLAYERS, ROUNDS - 1));
+        print("每轮关键帧", keyframes / frames);
+        print("增量帧", deltas / frames);
+        print("增量帧（数据没有变化）", unchanged / frames);
+        System.out.println(String.format(Locale.ROOT, "增量帧为关键帧的 %.0f%%", 100.0 * deltas / keyframes));
+    }
+
+    private static void print(String name, long bytes) {
+        System.out.println(String.format(Locale.ROOT, "%-44s %12d bytes", name, bytes));
+    }
+}
@@ -0,0 +1,76 @@
+package cn.i7mc.playerinfo.protocol;
+
+import cn.i7mc.playerinfo.Benchmarks;
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+import cn.i7mc.playerinfo.model.TestSnapshots;
+import cn.i7mc.playerinfo.util.CompressionUtil;
+import cn.i7mc.playerinfo.util.SnapshotSerializer;
+import com.google.gson.Gson;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * 比较JSON协议和二进制协议（第2版）每名玩家的数据大小和编码耗时
+ * JSON与 PlayerController 发送的内容相同，实际只在超过压缩阈值时使用GZIP，这里同时列出压缩后的大小作参考；
+ * 二进制协议分别统计连接第一次发送（字符串表为空）和之后的关键帧
+ *
+ * 运行: gradle benchmark -Pbenchmark=cn.i7mc.playerinfo.protocol.ProtocolSizeBenchmark
+ */
+public final class ProtocolSizeBenchmark {
+
+    private static final int PLAYERS = 100;
+    private static final int ITERATIONS = 20_000;
+
+    public static void main(String[] args) throws Throwable {
+        Gson gson = new Gson();
+        Logger logger = Logger.getAnonymousLogger();
+        List<PlayerSnapshot> snapshots = TestSnapshots.population(PLAYERS, 42);
+
+        long json = 0;
+        long jsonGzip = 0;
+        for (PlayerSnapshot snapshot : snapshots) {
+            byte[] raw = gson.toJson(SnapshotSerializer.serialize(snapshot)).getBytes(StandardCharsets.UTF_8);
+            json += raw.length;
+            jsonGzip += CompressionUtil.compress(raw, logger, false).length;
+        }
+
+        StringTable strings = new StringTable(2048);
+        long cold = 0;
+        long warm = 0;
+        long sequence = 0;
+        for (PlayerSnapshot snapshot : snapshots) {
+            WireWriter out = new WireWriter();
+            SnapshotCodec.encodeKeyframe(snapshot, ++sequence, strings, out);
+            cold += out.size();
+        }
+        for (PlayerSnapshot snapshot : snapshots) {
+            WireWriter out = new WireWriter();
+            SnapshotCodec.encodeKeyframe(snapshot, ++sequence, strings, out);
+            warm += out.size();
+        }
+
+        System.out.println(String.format(Locale.ROOT, "%d 名玩家，每名玩家的平均大小:", PLAYERS));
+        print("JSON", json);
+        print("JSON (GZIP)", jsonGzip);
+        print("二进制关键帧，字符串表为空", cold);
+        print("二进制关键帧，字符串已登记", warm);
+        System.out.println();
+
+        PlayerSnapshot snapshot = snapshots.get(0);
+        Benchmarks.measure("JSON 序列化", ITERATIONS,
+            () -> gson.toJson(SnapshotSerializer.serialize(snapshot)).getBytes(StandardCharsets.UTF_8));
+        WireWriter out = new WireWriter(1024);
+        Benchmarks.measure("二进制关键帧编码", ITERATIONS, () -> {
+            out.reset();
+            SnapshotCodec.encodeKeyframe(snapshot, 1, strings, out);
+            return out.size();
+        });
+    }
+
+    private static void print(String name, long total) {
+        System.out.println(String.format(Locale.ROOT, "%-44s %12d bytes", name, total / PLAYERS));
+    }
+}
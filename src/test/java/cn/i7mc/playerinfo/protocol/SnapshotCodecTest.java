@@ -0,0 +1,144 @@
+package cn.i7mc.playerinfo.protocol;
+
+import cn.i7mc.playerinfo.model.ItemArray;
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+import cn.i7mc.playerinfo.model.TestSnapshots;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotCodecTest {
+
+    /**
+     * 模拟一条连接：发送端和接收端各有一份字符串表，帧按发送顺序解码
+     */
+    static final class Link {
+        final StringTable sender;
+        final StringTable receiver;
+
+        Link(int capacity) {
+            this.sender = new StringTable(capacity);
+            this.receiver = new StringTable(capacity);
+        }
+
+        SnapshotFrame keyframe(PlayerSnapshot snapshot, long sequence) throws IOException {
+            WireWriter out = new WireWriter();
+            SnapshotCodec.encodeKeyframe(snapshot, sequence, sender, out);
+            return decode(out);
+        }
+
+        SnapshotFrame delta(PlayerSnapshot base, long baseSequence, PlayerSnapshot snapshot, long sequence)
+            throws IOException {
+            WireWriter out = new WireWriter();
+            SnapshotCodec.encodeDelta(base, baseSequence, snapshot, sequence, sender, out);
+            return decode(out);
+        }
+
+        SnapshotFrame decode(WireWriter out) throws IOException {
+            WireReader in = new WireReader(out.toByteArray());
+            SnapshotFrame frame = SnapshotCodec.decodeFrame(in, receiver);
+            assertEquals(0, in.remaining());
+            return frame;
+        }
+    }
+
+    @Test
+    void keyframeRoundTrip() throws IOException {
+        Link link = new Link(2048);
+        long sequence = 0;
+        for (PlayerSnapshot snapshot : TestSnapshots.population(50, 1)) {
+            SnapshotFrame frame = link.keyframe(snapshot, ++sequence);
+            assertTrue(frame.isKeyframe());
+            assertEquals(sequence, frame.getSequence());
+            assertEquals(snapshot.getUuid(), frame.getUuid());
+            TestSnapshots.assertSameSnapshot(snapshot, frame.getSnapshot());
+        }
+        assertEquals(link.sender.size(), link.receiver.size());
+    }
+
+    @Test
+    void repeatedKeyframeReusesStrings() throws IOException {
+        PlayerSnapshot snapshot = TestSnapshots.population(1, 2).get(0);
+        StringTable strings = new StringTable(2048);
+        WireWriter first = new WireWriter();
+        SnapshotCodec.encodeKeyframe(snapshot, 1, strings, first);
+        WireWriter second = new WireWriter();
+        SnapshotCodec.encodeKeyframe(snapshot, 2, strings, second);
+
+        // 第二帧的物品类型、描述、世界名称和占位符配置都只写入编号
+        assertTrue(second.size() < first.size() / 2, first.size() + " -> " + second.size());
+    }
+
+    @Test
+    void fullStringTableStillRoundTrips() throws IOException {
+        // 表满后新字符串按原文发送，两端仍保持一致
+        Link link = new Link(8);
+        long sequence = 0;
+        for (PlayerSnapshot snapshot : TestSnapshots.population(20, 3)) {
+            TestSnapshots.assertSameSnapshot(snapshot, link.keyframe(snapshot, ++sequence).getSnapshot());
+        }
+        assertEquals(8, link.receiver.size());
+    }
+
+    @Test
+    void deltaChainRoundTrip() throws IOException {
+        Link link = new Link(2048);
+        Random random = new Random(4);
+        for (PlayerSnapshot first : TestSnapshots.population(20, 5)) {
+            // 接收端只保存应用增量后的快照，与发送端逐帧比较
+            PlayerSnapshot received = link.keyframe(first, 1).getSnapshot();
+            PlayerSnapshot sent = first;
+            for (long sequence = 2; sequence <= 10; sequence++) {
+                PlayerSnapshot next = TestSnapshots.next(sent, random);
+                SnapshotFrame frame = link.delta(sent, sequence - 1, next, sequence);
+                assertFalse(frame.isKeyframe());
+                assertEquals(sequence - 1, frame.getBaseSequence());
+                received = frame.getDelta().apply(received);
+                TestSnapshots.assertSameSnapshot(next, received);
+                sent = next;
+            }
+        }
+    }
+
+    @Test
+    void deltaHandlesRemovedAndResizedFields() throws IOException {
+        Link link = new Link(2048);
+        PlayerSnapshot base = TestSnapshots.population(1, 6).get(0);
+        // 离开DragonCore、占位符不可用、背包大小变化（切换到不同大小的容器）
+        ItemArray inventory = new ItemArray(27, false);
+        inventory.set(3, "STONE", 64, (short) 0, null);
+        PlayerSnapshot changed = new PlayerSnapshot(base.getUuid(), base.getName(), 2, 0,
+            null, base.getPosition(), inventory, ItemArray.EMPTY, base.getHands(), null, null);
+
+        PlayerSnapshot received = link.keyframe(base, 1).getSnapshot();
+        received = link.delta(base, 1, changed, 2).getDelta().apply(received);
+        TestSnapshots.assertSameSnapshot(changed, received);
+    }
+
+    @Test
+    void unchangedDeltaIsSmall() throws IOException {
+        PlayerSnapshot snapshot = TestSnapshots.population(1, 7).get(0);
+        StringTable strings = new StringTable(2048);
+        WireWriter keyframe = new WireWriter();
+        SnapshotCodec.encodeKeyframe(snapshot, 1, strings, keyframe);
+        WireWriter delta = new WireWriter();
+        SnapshotCodec.encodeDelta(snapshot, 1, snapshot, 2, strings, delta);
+
+        // 帧类型、UUID、序号、名称编号、版本和变化标记
+        assertTrue(delta.size() <= 24, "增量帧大小: " + delta.size());
+    }
+
+    @Test
+    void unknownFrameTypeIsRejected() {
+        WireWriter out = new WireWriter();
+        out.writeByte(7);
+        assertThrows(IOException.class,
+            () -> SnapshotCodec.decodeFrame(new WireReader(out.toByteArray()), new StringTable(16)));
+    }
+}
@@ -0,0 +1,69 @@
+package cn.i7mc.playerinfo.protocol;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StringTableTest {
+
+    @Test
+    void repeatedStringsAreSentAsIds() throws IOException {
+        StringTable sender = new StringTable(16);
+        WireWriter out = new WireWriter();
+        sender.write(out, "DIAMOND_SWORD");
+        int literal = out.size();
+        sender.write(out, "DIAMOND_SWORD");
+        // 已登记的字符串只写入1字节的编号
+        assertEquals(literal + 1, out.size());
+        sender.write(out, null);
+        sender.write(out, "§6传说之剑");
+
+        StringTable receiver = new StringTable(16);
+        WireReader in = new WireReader(out.toByteArray());
+        assertEquals("DIAMOND_SWORD", receiver.read(in));
+        assertEquals("DIAMOND_SWORD", receiver.read(in));
+        assertNull(receiver.read(in));
+        assertEquals("§6传说之剑", receiver.read(in));
+        assertEquals(0, in.remaining());
+        assertEquals(2, receiver.size());
+    }
+
+    @Test
+    void stringsBeyondCapacityAreSentAsLiterals() throws IOException {
+        StringTable sender = new StringTable(2);
+        StringTable receiver = new StringTable(2);
+        WireWriter out = new WireWriter();
+        String[] values = {"a", "b", "c", "a", "c", "b"};
+        for (String value : values) {
+            sender.write(out, value);
+        }
+        WireReader in = new WireReader(out.toByteArray());
+        for (String value : values) {
+            assertEquals(value, receiver.read(in));
+        }
+        assertEquals(2, sender.size());
+        assertEquals(2, receiver.size());
+    }
+
+    @Test
+    void unknownIdIsRejected() {
+        WireWriter out = new WireWriter();
+        out.writeVarInt(10);
+        assertThrows(IOException.class, () -> new StringTable(16).read(new WireReader(out.toByteArray())));
+    }
+
+    @Test
+    void clearStartsOver() throws IOException {
+        StringTable sender = new StringTable(16);
+        sender.write(new WireWriter(), "world");
+        sender.clear();
+
+        WireWriter out = new WireWriter();
+        sender.write(out, "world");
+        assertEquals("world", new StringTable(16).read(new WireReader(out.toByteArray())));
+    }
+}
@@ -0,0 +1,75 @@
+package cn.i7mc.playerinfo.protocol;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WireWriterTest {
+
+    @Test
+    void primitivesRoundTrip() throws IOException {
+        int[] ints = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        long[] longs = {0, 1, 300, Long.MAX_VALUE, -1, Long.MIN_VALUE};
+
+        WireWriter out = new WireWriter(4);
+        out.writeByte(0xAB);
+        out.writeBoolean(true);
+        out.writeBoolean(false);
+        for (int value : ints) {
+            out.writeVarInt(value);
+            out.writeSignedVarInt(value);
+            out.writeInt(value);
+        }
+        for (long value : longs) {
+            out.writeVarLong(value);
+            out.writeLong(value);
+        }
+        out.writeFloat(-12.5f);
+        out.writeDouble(Math.PI);
+        out.writeString("§a玩家 Steve");
+        out.writeString("");
+        out.writeBytes(new byte[] {9, 8, 7, 6}, 1, 2);
+
+        WireReader in = new WireReader(out.toByteArray());
+        assertEquals(0xAB, in.readByte());
+        assertTrue(in.readBoolean());
+        assertFalse(in.readBoolean());
+        for (int value : ints) {
+            assertEquals(value, in.readVarInt());
+            assertEquals(value, in.readSignedVarInt());
+            assertEquals(value, in.readInt());
+        }
+        for (long value : longs) {
+            assertEquals(value, in.readVarLong());
+            assertEquals(value, in.readLong());
+        }
+        assertEquals(-12.5f, in.readFloat(), 0.0f);
+        assertEquals(Math.PI, in.readDouble(), 0.0);
+        assertEquals("§a玩家 Steve", in.readString());
+        assertEquals("", in.readString());
+        assertArrayEquals(new byte[] {8, 7}, in.readBytes(2));
+        assertEquals(0, in.remaining());
+    }
+
+    @Test
+    void smallValuesUseOneByte() {
+        WireWriter out = new WireWriter();
+        out.writeVarInt(127);
+        out.writeSignedVarInt(-64);
+        out.writeVarLong(5);
+        assertEquals(3, out.size());
+    }
+
+    @Test
+    void truncatedInputIsRejected() {
+        WireWriter out = new WireWriter();
+        out.writeLong(42);
+        assertThrows(IOException.class, () -> new WireReader(out.toByteArray(), 0, 4).readLong());
+    }
+}
@@ -0,0 +1,87 @@
+package cn.i7mc.playerinfo.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SerializationExecutorTest {
+
+    @Test
+    void latestTaskReplacesPendingTaskOfSamePlayerOnly() throws Exception {
+        SerializationExecutor executor = new SerializationExecutor("Test", 1, 2, Logger.getAnonymousLogger());
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        UUID a = new UUID(0, 1);
+        UUID b = new UUID(0, 2);
+        UUID c = new UUID(0, 3);
+
+        // 占住唯一的通道线程，之后的任务都在队列中等待
+        executor.submit(a, () -> {
+            blocked.countDown();
+            await(release);
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        assertTrue(executor.submitLatest(a, () -> ran.add("a1")));
+        assertTrue(executor.submitLatest(b, () -> ran.add("b1")));
+        // 队列已满，同一玩家的新任务仍然可以替换旧任务，不挤掉其他玩家的任务
+        assertTrue(executor.submitLatest(a, () -> ran.add("a2")));
+        assertTrue(executor.submitLatest(b, () -> ran.add("b2")));
+        assertTrue(executor.submitLatest(a, () -> ran.add("a3")));
+        assertFalse(executor.submitLatest(c, () -> ran.add("c1")));
+
+        release.countDown();
+        executor.shutdown();
+
+        List<String> expected = new ArrayList<>();
+        Collections.addAll(expected, "a3", "b2");
+        assertEquals(expected, ran);
+        assertEquals(3, executor.getCoalescedTasks());
+        assertEquals(1, executor.getRejectedTasks());
+    }
+
+    @Test
+    void taskSubmittedWhileRunningIsExecutedAfterwards() throws Exception {
+        SerializationExecutor executor = new SerializationExecutor("Test", 1, 4, Logger.getAnonymousLogger());
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        UUID a = new UUID(0, 1);
+
+        executor.submitLatest(a, () -> {
+            running.countDown();
+            await(release);
+            ran.add("a1");
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        // 正在执行的任务已经取出，新任务不会被合并掉
+        executor.submitLatest(a, () -> ran.add("a2"));
+
+        release.countDown();
+        executor.shutdown();
+
+        List<String> expected = new ArrayList<>();
+        Collections.addAll(expected, "a1", "a2");
+        assertEquals(expected, ran);
+        assertEquals(0, executor.getCoalescedTasks());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
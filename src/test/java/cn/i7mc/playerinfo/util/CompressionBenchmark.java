@@ -0,0 +1,81 @@
+package cn.i7mc.playerinfo.util;
+
+import cn.i7mc.playerinfo.Benchmarks;
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+import cn.i7mc.playerinfo.model.TestSnapshots;
+import cn.i7mc.playerinfo.protocol.SnapshotCodec;
+import cn.i7mc.playerinfo.protocol.StringTable;
+import cn.i7mc.playerinfo.protocol.WireProtocol;
+import cn.i7mc.playerinfo.protocol.WireWriter;
+import com.google.gson.Gson;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * 比较原来的GZIP（级别9，{@link CompressionUtil}）和 {@link CompressionCodec}（级别6/1，带预置字典）的压缩率和耗时
+ * 数据分别为一名玩家的JSON消息、字符串表为空时的一个关键帧、以及100名玩家的关键帧合并成的一个批次；
+ * 压缩率为压缩后大小除以原始大小
+ *
+ * 运行: gradle benchmark -Pbenchmark=cn.i7mc.playerinfo.util.CompressionBenchmark
+ */
+public final class CompressionBenchmark {
+
+    private static final int ITERATIONS = 2_000;
+
+    public static void main(String[] args) throws Throwable {
+        Logger logger = Logger.getAnonymousLogger();
+        List<PlayerSnapshot> snapshots = TestSnapshots.population(100, 42);
+        CompressionCodec level6 = CompressionCodec.create(6, true, logger);
+        CompressionCodec level1 = CompressionCodec.create(1, true, logger);
+
+        byte[] json = new Gson().toJson(SnapshotSerializer.serialize(snapshots.get(0)))
+            .getBytes(StandardCharsets.UTF_8);
+        byte[] keyframe = keyframes(snapshots.subList(0, 1));
+        byte[] batch = keyframes(snapshots);
+
+        for (Object[] payload : new Object[][] {
+                {"JSON消息", json}, {"冷启动关键帧", keyframe}, {"100名玩家的批次", batch}}) {
+            String name = (String) payload[0];
+            byte[] data = (byte[]) payload[1];
+            System.out.println(String.format(Locale.ROOT, "%s，%d 字节", name, data.length));
+
+            byte[] gzip = CompressionUtil.compress(data, logger, false);
+            ratio("  GZIP-9", gzip, data);
+            Benchmarks.measure("  GZIP-9 压缩", ITERATIONS, () -> CompressionUtil.compress(data, logger, false));
+            Benchmarks.measure("  GZIP-9 解压", ITERATIONS, () -> CompressionUtil.decompress(gzip, logger, false));
+
+            for (CompressionCodec codec : new CompressionCodec[] {level6, level1}) {
+                String label = "  deflate-" + codec.getLevel() + (codec.usesDictionary() ? "+字典" : "");
+                byte[] deflated = codec.compress(data, 0, data.length);
+                ratio(label, deflated, data);
+                Benchmarks.measure(label + " 压缩", ITERATIONS, () -> codec.compress(data, 0, data.length));
+                Benchmarks.measure(label + " 解压", ITERATIONS,
+                    () -> codec.decompress(deflated, WireProtocol.MAX_DECOMPRESSED_SIZE));
+            }
+        }
+    }
+
+    /**
+     * 使用同一个字符串表依次编码关键帧，第一次出现的字符串以字面量写入
+     *
+     * @return 编码后的数据
+     */
+    private static byte[] keyframes(List<PlayerSnapshot> snapshots) {
+        StringTable strings = new StringTable(2048);
+        WireWriter out = new WireWriter(1024);
+        long sequence = 0;
+        for (PlayerSnapshot snapshot : snapshots) {
+            SnapshotCodec.encodeKeyframe(snapshot, ++sequence, strings, out);
+        }
+        return Arrays.copyOf(out.getBuffer(), out.size());
+    }
+
+    private static void ratio(String name, byte[] compressed, byte[] data) {
+        System.out.println(String.format(Locale.ROOT, "%-44s %11.1f%% (%d 字节)",
+            name + " 压缩率", 100.0 * compressed.length / data.length, compressed.length));
+    }
+}
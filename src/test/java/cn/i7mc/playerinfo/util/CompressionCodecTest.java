@@ -0,0 +1,146 @@
+package cn.i7mc.playerinfo.util;
+
+import cn.i7mc.playerinfo.model.PlayerSnapshot;
+import cn.i7mc.playerinfo.model.TestSnapshots;
+import cn.i7mc.playerinfo.protocol.SnapshotCodec;
+import cn.i7mc.playerinfo.protocol.StringTable;
+import cn.i7mc.playerinfo.protocol.WireProtocol;
+import cn.i7mc.playerinfo.protocol.WireWriter;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompressionCodecTest {
+
+    private static final int MAX_SIZE = WireProtocol.MAX_DECOMPRESSED_SIZE;
+
+    /**
+     * 读取随插件打包的预置字典，与 {@link CompressionCodec#create} 读取的是同一份
+     */
+    private static byte[] dictionary() {
+        try (InputStream in = CompressionCodec.class.getResourceAsStream(CompressionCodec.DICTIONARY_RESOURCE)) {
+            assertNotNull(in, "未找到 " + CompressionCodec.DICTIONARY_RESOURCE);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 一名玩家的关键帧，字符串表为空，与连接第一次发送的内容相同
+     */
+    static byte[] keyframe(PlayerSnapshot snapshot) {
+        WireWriter out = new WireWriter(1024);
+        SnapshotCodec.encodeKeyframe(snapshot, 1, new StringTable(2048), out);
+        return Arrays.copyOf(out.getBuffer(), out.size());
+    }
+
+    static byte[] json(PlayerSnapshot snapshot) {
+        return new Gson().toJson(SnapshotSerializer.serialize(snapshot)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void roundTripWithDictionary() throws IOException {
+        CompressionCodec codec = new CompressionCodec(6, dictionary(), true);
+        for (PlayerSnapshot snapshot : TestSnapshots.population(20, 1)) {
+            byte[] data = keyframe(snapshot);
+            assertArrayEquals(data, codec.decompress(codec.compress(data, 0, data.length), MAX_SIZE));
+        }
+    }
+
+    @Test
+    void roundTripWithoutDictionary() throws IOException {
+        CompressionCodec codec = new CompressionCodec(1, null, false);
+        for (PlayerSnapshot snapshot : TestSnapshots.population(20, 2)) {
+            byte[] data = json(snapshot);
+            assertArrayEquals(data, codec.decompress(codec.compress(data, 0, data.length), MAX_SIZE));
+        }
+    }
+
+    @Test
+    void compressesOnlyTheGivenRange() throws IOException {
+        CompressionCodec codec = new CompressionCodec(6, dictionary(), true);
+        byte[] large = json(TestSnapshots.population(1, 3).get(0));
+        byte[] padded = new byte[large.length + 10];
+        System.arraycopy(large, 0, padded, 5, large.length);
+
+        // 先压缩较大的数据，再压缩较小的数据，复用的缓冲区不能带出上一次的内容
+        byte[] first = codec.decompress(codec.compress(padded, 5, large.length), MAX_SIZE);
+        byte[] second = codec.decompress(codec.compress(padded, 5, 10), MAX_SIZE);
+
+        assertArrayEquals(large, first);
+        assertArrayEquals(Arrays.copyOf(large, 10), second);
+    }
+
+    @Test
+    void receiverDecodesWhetherOrNotSenderUsedDictionary() throws IOException {
+        byte[] dictionary = dictionary();
+        CompressionCodec withDictionary = new CompressionCodec(6, dictionary, true);
+        CompressionCodec withoutDictionary = new CompressionCodec(6, dictionary, false);
+        byte[] data = keyframe(TestSnapshots.population(1, 4).get(0));
+
+        // 接收端不论自己是否用字典压缩，都能解压两种数据
+        assertArrayEquals(data, withoutDictionary.decompress(withDictionary.compress(data, 0, data.length), MAX_SIZE));
+        assertArrayEquals(data, withDictionary.decompress(withoutDictionary.compress(data, 0, data.length), MAX_SIZE));
+    }
+
+    @Test
+    void mismatchedDictionaryIsRejected() {
+        byte[] dictionary = dictionary();
+        byte[] other = dictionary.clone();
+        other[other.length - 1] ^= 1;
+        CompressionCodec sender = new CompressionCodec(6, dictionary, true);
+        byte[] data = keyframe(TestSnapshots.population(1, 5).get(0));
+        byte[] compressed = sender.compress(data, 0, data.length);
+
+        assertThrows(IOException.class, () -> new CompressionCodec(6, other, true).decompress(compressed, MAX_SIZE));
+        assertThrows(IOException.class, () -> new CompressionCodec(6, null, false).decompress(compressed, MAX_SIZE));
+    }
+
+    @Test
+    void decompressesLegacyGzip() throws IOException {
+        CompressionCodec codec = new CompressionCodec(6, dictionary(), true);
+        for (PlayerSnapshot snapshot : TestSnapshots.population(5, 6)) {
+            byte[] data = json(snapshot);
+            byte[] gzip = CompressionUtil.compress(data, Logger.getAnonymousLogger(), false);
+            assertArrayEquals(data, codec.decompress(gzip, MAX_SIZE));
+        }
+    }
+
+    @Test
+    void outputLargerThanLimitIsRejected() {
+        CompressionCodec codec = new CompressionCodec(6, dictionary(), true);
+        byte[] data = new byte[100_000];
+        byte[] deflated = codec.compress(data, 0, data.length);
+        byte[] gzip = CompressionUtil.compress(data, Logger.getAnonymousLogger(), false);
+
+        assertThrows(IOException.class, () -> codec.decompress(deflated, 50_000));
+        assertThrows(IOException.class, () -> codec.decompress(gzip, 50_000));
+    }
+
+    @Test
+    void truncatedDataIsRejected() {
+        CompressionCodec codec = new CompressionCodec(6, dictionary(), true);
+        byte[] data = json(TestSnapshots.population(1, 7).get(0));
+        byte[] compressed = codec.compress(data, 0, data.length);
+
+        assertThrows(IOException.class,
+            () -> codec.decompress(Arrays.copyOf(compressed, compressed.length / 2), MAX_SIZE));
+    }
+}
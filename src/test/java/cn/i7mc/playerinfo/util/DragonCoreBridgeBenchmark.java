@@ -0,0 +1,41 @@
+package cn.i7mc.playerinfo.util;
+
+import cn.i7mc.playerinfo.Benchmarks;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * 比较读取DragonCore槽位的单次开销：原来每个玩家都要查找类和方法再反射调用，
+ * 现在只调用缓存的MethodHandle。使用签名相同的 {@link FakeSlotAPI} 代替DragonCore，
+ * 原实现中 Bukkit.getPluginManager().getPlugin 的查找需要运行中的服务器，没有计入
+ *
+ * 运行: gradle benchmark -Pbenchmark=cn.i7mc.playerinfo.util.DragonCoreBridgeBenchmark
+ */
+public final class DragonCoreBridgeBenchmark {
+
+    private static final int ITERATIONS = 2_000_000;
+
+    public static void main(String[] args) throws Throwable {
+        String className = FakeSlotAPI.class.getName();
+        ClassLoader loader = DragonCoreBridgeBenchmark.class.getClassLoader();
+        Player player = null;
+
+        double reflective = Benchmarks.measure("每次 forName + getMethod + invoke", ITERATIONS, () -> {
+            Class<?> slotAPIClass = Class.forName(className, true, loader);
+            Method method = slotAPIClass.getMethod("getCacheAllSlotItem", Player.class);
+            return method.invoke(null, player);
+        });
+
+        Method cachedMethod = FakeSlotAPI.class.getMethod("getCacheAllSlotItem", Player.class);
+        Benchmarks.measure("缓存的Method.invoke", ITERATIONS, () -> cachedMethod.invoke(null, player));
+
+        MethodHandle handle = DragonCoreBridge.findSlotAccessor(FakeSlotAPI.class);
+        double direct = Benchmarks.measure("缓存的MethodHandle.invokeExact", ITERATIONS,
+            () -> (Map<?, ?>) handle.invokeExact(player));
+
+        System.out.println(String.format("每个玩家的开销降低为原来的 1/%.0f", reflective / direct));
+    }
+}
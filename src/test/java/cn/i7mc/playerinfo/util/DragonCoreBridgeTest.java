@@ -0,0 +1,25 @@
+package cn.i7mc.playerinfo.util;
+
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DragonCoreBridgeTest {
+
+    @Test
+    void slotAccessorCallsStaticMethod() throws Throwable {
+        MethodHandle handle = DragonCoreBridge.findSlotAccessor(FakeSlotAPI.class);
+        Map<?, ?> slots = (Map<?, ?>) handle.invokeExact((Player) null);
+        assertSame(FakeSlotAPI.SLOTS, slots);
+    }
+
+    @Test
+    void missingSlotMethodIsReported() {
+        assertThrows(NoSuchMethodException.class, () -> DragonCoreBridge.findSlotAccessor(String.class));
+    }
+}
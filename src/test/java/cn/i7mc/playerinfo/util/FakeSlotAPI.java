@@ -0,0 +1,22 @@
+package cn.i7mc.playerinfo.util;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 与 DragonCore 的 SlotAPI 签名相同的替身
+ */
+public final class FakeSlotAPI {
+
+    static final Map<String, ItemStack> SLOTS = Collections.singletonMap("ring", null);
+
+    private FakeSlotAPI() {
+    }
+
+    public static Map<String, ItemStack> getCacheAllSlotItem(Player player) {
+        return SLOTS;
+    }
+}
@@ -0,0 +1,101 @@
+package cn.i7mc.playerinfo.util;
+
+import cn.i7mc.playerinfo.Benchmarks;
+import cn.i7mc.playerinfo.model.PlaceholderPlan;
+import org.bukkit.OfflinePlayer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 比较逐个解析和批量解析一名玩家全部占位符的耗时，占位符数量分别为5、20、50
+ * 用按字符扫描 %标识符% 再查表替换的解析方式代替 PlaceholderAPI，不包含扩展本身的耗时；
+ * 另外分别测试每次调用额外等待0和1微秒，模拟 PlaceholderAPI 每次调用的固定开销（颜色代码转换、查找扩展等）。
+ * 批量解析每次仍会单独解析一个占位符用于记录耗时
+ *
+ * 运行: gradle benchmark -Pbenchmark=cn.i7mc.playerinfo.util.PlaceholderEvaluatorBenchmark
+ */
+public final class PlaceholderEvaluatorBenchmark {
+
+    private static final int ITERATIONS = 50_000;
+
+    public static void main(String[] args) throws Throwable {
+        Map<String, String> expansions = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            expansions.put("stat_" + i, String.valueOf(i * 37));
+        }
+        OfflinePlayer player = PlaceholderEvaluatorTest.player(new UUID(1, 1));
+
+        for (long overhead : new long[] {0, 1000}) {
+            System.out.println(String.format("每次调用额外开销 %d ns", overhead));
+            PlaceholderEvaluator.Resolver resolver = (target, text) -> {
+                spin(overhead);
+                return replace(text, expansions);
+            };
+            run(resolver, player);
+        }
+    }
+
+    private static void run(PlaceholderEvaluator.Resolver resolver, OfflinePlayer player) throws Throwable {
+        for (int size : new int[] {5, 20, 50}) {
+            PlaceholderPlan plan = plan(size);
+            PlaceholderEvaluator single = PlaceholderEvaluatorTest.evaluator(resolver, false);
+            PlaceholderEvaluator batched = PlaceholderEvaluatorTest.evaluator(resolver, true);
+
+            double before = Benchmarks.measure(size + " 个占位符，逐个解析", ITERATIONS,
+                () -> single.resolveValues(player, plan, null));
+            double after = Benchmarks.measure(size + " 个占位符，批量解析", ITERATIONS,
+                () -> batched.resolveValues(player, plan, null));
+            System.out.println(String.format("%d 个占位符: 批量解析耗时为逐个解析的 %.0f%%%n",
+                size, 100.0 * after / before));
+        }
+    }
+
+    private static void spin(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            // 忙等待，模拟固定开销
+        }
+    }
+
+    private static PlaceholderPlan plan(int size) {
+        List<PlaceholderPlan.Definition> definitions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            definitions.add(new PlaceholderPlan.Definition("stat_" + i, "barrier", "§7数值: %stat_" + i + "%",
+                i, true, 0, false, true));
+        }
+        return PlaceholderPlan.compile(true, definitions);
+    }
+
+    /**
+     * 与 PlaceholderAPI 的字符替换方式相同：逐字符扫描，遇到 %...% 时查找对应的值
+     */
+    private static String replace(String text, Map<String, String> expansions) {
+        StringBuilder result = new StringBuilder(text.length());
+        StringBuilder identifier = new StringBuilder();
+        boolean inside = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != '%') {
+                (inside ? identifier : result).append(c);
+            } else if (!inside) {
+                inside = true;
+            } else {
+                String value = expansions.get(identifier.toString());
+                result.append(value != null ? value : "%" + identifier + "%");
+                identifier.setLength(0);
+                inside = false;
+            }
+        }
+        if (inside) {
+            result.append('%').append(identifier);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,220 @@
+package cn.i7mc.playerinfo.util;
+
+import cn.i7mc.playerinfo.model.PlaceholderPlan;
+import org.bukkit.OfflinePlayer;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlaceholderEvaluatorTest {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("%(\\w+)%");
+
+    // 把 %name% 替换为 "玩家UUID|name"，结果能看出是为哪个玩家解析的
+    private static final PlaceholderEvaluator.Resolver RESOLVER = (player, text) -> {
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        StringBuffer result = new StringBuffer();
+        while (matcher.find()) {
+            matcher.appendReplacement(result, player.getUniqueId() + "|" + matcher.group(1));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    };
+
+    static PlaceholderEvaluator evaluator(PlaceholderEvaluator.Resolver resolver, boolean batch) {
+        PlaceholderProfiler profiler = new PlaceholderProfiler(Logger.getAnonymousLogger(), 64, false, 5.0,
+            PlaceholderProfiler.Action.DEMOTE, 30, 20);
+        return new PlaceholderEvaluator(resolver, profiler, batch, 3, Logger.getAnonymousLogger(), () -> false);
+    }
+
+    static OfflinePlayer player(UUID uuid) {
+        return (OfflinePlayer) Proxy.newProxyInstance(OfflinePlayer.class.getClassLoader(),
+            new Class<?>[] {OfflinePlayer.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getUniqueId":
+                        return uuid;
+                    case "hashCode":
+                        return uuid.hashCode();
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return uuid.toString();
+                    default:
+                        return method.getReturnType() == boolean.class ? false : null;
+                }
+            });
+    }
+
+    @Test
+    void resolvesBatchedAndIndividualEntries() {
+        List<PlaceholderPlan.Definition> definitions = Arrays.asList(
+            new PlaceholderPlan.Definition("a", "barrier", "%a%", 1, true, 0, false, true),
+            new PlaceholderPlan.Definition("b", "barrier", "%b%", 2, true, 0, false, true),
+            new PlaceholderPlan.Definition("solo", "barrier", "%solo%", 3, true, 0, false, false),
+            new PlaceholderPlan.Definition("text", "barrier", "纯文本", 4, false, 0, false, true));
+        PlaceholderPlan plan = PlaceholderPlan.compile(true, definitions);
+        UUID uuid = new UUID(1, 2);
+
+        String[] values = evaluator(RESOLVER, true).resolveValues(player(uuid), plan, null);
+
+        assertArrayEquals(new String[] {uuid + "|a", uuid + "|b", uuid + "|solo", "纯文本"}, values);
+    }
+
+    @Test
+    void cachedValuesAreReusedWithinTtl() {
+        PlaceholderPlan plan = PlaceholderPlan.compile(true, Arrays.asList(
+            new PlaceholderPlan.Definition("cached", "barrier", "%cached%", 1, true, 60_000, false, true)));
+        int[] calls = new int[1];
+        PlaceholderEvaluator evaluator = evaluator((player, text) -> {
+            calls[0]++;
+            return RESOLVER.resolve(player, text);
+        }, true);
+        PlaceholderEvaluator.ValueCache cache = new PlaceholderEvaluator.ValueCache(plan);
+        OfflinePlayer player = player(new UUID(3, 4));
+
+        String first = evaluator.resolveValues(player, plan, cache)[0];
+        String second = evaluator.resolveValues(player, plan, cache)[0];
+
+        assertEquals(first, second);
+        assertEquals(1, calls[0]);
+    }
+
+    @Test
+    void batchedEntriesAreTimedIndividually() {
+        List<PlaceholderPlan.Definition> definitions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            definitions.add(new PlaceholderPlan.Definition("p" + i, "barrier", "%p" + i + "%", i, true,
+                0, false, true));
+        }
+        PlaceholderPlan plan = PlaceholderPlan.compile(true, definitions);
+        int[] calls = new int[1];
+        PlaceholderEvaluator evaluator = evaluator((player, text) -> {
+            calls[0]++;
+            return RESOLVER.resolve(player, text);
+        }, true);
+        OfflinePlayer player = player(new UUID(5, 6));
+
+        // 样本数不足时逐个解析
+        for (int i = 0; i < 20; i++) {
+            evaluator.resolveValues(player, plan, null);
+        }
+        assertEquals(5 * 20, calls[0]);
+
+        // 样本足够后每次单独解析一个，其余批量解析
+        calls[0] = 0;
+        for (int i = 0; i < 5; i++) {
+            evaluator.resolveValues(player, plan, null);
+        }
+        assertEquals(5 * 2, calls[0]);
+        for (PlaceholderPlan.Entry entry : plan.getEntries()) {
+            assertEquals(21L, evaluator.getProfiler().getSummary(entry.getId()).getCount());
+        }
+    }
+
+    @Test
+    void successfulBatchResetsFailureCount() {
+        PlaceholderPlan plan = PlaceholderPlan.compile(true, Arrays.asList(
+            new PlaceholderPlan.Definition("a", "barrier", "%a%", 1, true, 0, false, true),
+            new PlaceholderPlan.Definition("b", "barrier", "%b%", 2, true, 0, false, true),
+            new PlaceholderPlan.Definition("c", "barrier", "%c%", 3, true, 0, false, true)));
+        boolean[] broken = new boolean[1];
+        PlaceholderEvaluator evaluator = evaluator((player, text) -> {
+            // 模拟扩展偶尔吞掉分隔符
+            String result = RESOLVER.resolve(player, text);
+            return broken[0] ? result.replace("\u001F", "") : result;
+        }, true);
+        OfflinePlayer player = player(new UUID(7, 8));
+        // 先积累足够的样本，之后的解析才会批量进行
+        for (int i = 0; i < 20; i++) {
+            evaluator.resolveValues(player, plan, null);
+        }
+
+        // 每两次出错之间都有一次成功，不会达到连续出错的上限
+        for (int i = 0; i < 5; i++) {
+            broken[0] = true;
+            evaluator.resolveValues(player, plan, null);
+            assertEquals(1, evaluator.getBatchFailures());
+            broken[0] = false;
+            evaluator.resolveValues(player, plan, null);
+            assertEquals(0, evaluator.getBatchFailures());
+        }
+        assertTrue(evaluator.isBatchActive());
+
+        broken[0] = true;
+        for (int i = 0; i < 3; i++) {
+            evaluator.resolveValues(player, plan, null);
+        }
+        assertFalse(evaluator.isBatchActive());
+    }
+
+    @Test
+    void concurrentThreadsGetTheirOwnValues() throws Exception {
+        List<PlaceholderPlan.Definition> definitions = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            // 一部分批量解析，一部分单独解析，一部分带缓存时间
+            definitions.add(new PlaceholderPlan.Definition("p" + i, "barrier", "%p" + i + "%", i, true,
+                i % 3 == 0 ? 50 : 0, false, i % 4 != 1));
+        }
+        definitions.add(new PlaceholderPlan.Definition("text", "barrier", "纯文本", 99, false, 0, false, true));
+        PlaceholderPlan plan = PlaceholderPlan.compile(true, definitions);
+        PlaceholderEvaluator evaluator = evaluator(RESOLVER, true);
+
+        int threads = 8;
+        int playersPerThread = 4;
+        // 两个线程共用同一组玩家和缓存，模拟主线程捕获和网页请求同时解析同一玩家
+        OfflinePlayer[] players = new OfflinePlayer[threads / 2 * playersPerThread];
+        PlaceholderEvaluator.ValueCache[] caches = new PlaceholderEvaluator.ValueCache[players.length];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = player(UUID.randomUUID());
+            caches[i] = new PlaceholderEvaluator.ValueCache(plan);
+        }
+
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int group = t % (threads / 2);
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int round = 0; round < 2000; round++) {
+                        int index = group * playersPerThread + round % playersPerThread;
+                        OfflinePlayer player = players[index];
+                        String[] values = evaluator.resolveValues(player, plan, caches[index]);
+                        for (PlaceholderPlan.Entry entry : plan.getEntries()) {
+                            String expected = entry.isDynamic()
+                                ? player.getUniqueId() + "|" + entry.getId()
+                                : entry.getPlaceholder();
+                            assertEquals(expected, values[entry.getIndex()]);
+                        }
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        assertTrue(errors.isEmpty(), () -> "解析出错: " + errors.peek());
+        assertTrue(evaluator.isBatchActive());
+        assertEquals(0, evaluator.getBatchFailures());
+    }
+}